@@ -56,9 +56,34 @@ import cc.kave.commons.model.naming.types.ITypeName;
 import cc.kave.commons.model.naming.types.organization.IAssemblyName;
 import cc.kave.commons.model.naming.types.organization.IAssemblyVersion;
 import cc.kave.commons.model.naming.types.organization.INamespaceName;
+import cc.kave.commons.utils.NameInterner;
 
 public class Names {
 
+	private static final NameInterner<FieldName> fieldNames = new NameInterner<>(FieldName::new);
+	private static final NameInterner<PropertyName> propertyNames = new NameInterner<>(PropertyName::new);
+	private static final NameInterner<MethodName> methodNames = new NameInterner<>(MethodName::new);
+	private static final NameInterner<ParameterName> parameterNames = new NameInterner<>(ParameterName::new);
+	private static final NameInterner<AliasName> aliasNames = new NameInterner<>(AliasName::new);
+	private static final NameInterner<AssemblyName> assemblyNames = new NameInterner<>(AssemblyName::new);
+	private static final NameInterner<EventName> eventNames = new NameInterner<>(EventName::new);
+	private static final NameInterner<LambdaName> lambdaNames = new NameInterner<>(LambdaName::new);
+	private static final NameInterner<LocalVariableName> localVariableNames = new NameInterner<>(
+			LocalVariableName::new);
+	private static final NameInterner<GeneralName> generalNames = new NameInterner<>(GeneralName::new);
+	private static final NameInterner<NamespaceName> namespaceNames = new NameInterner<>(NamespaceName::new);
+	private static final NameInterner<ReSharperLiveTemplateName> reSharperLiveTemplateNames = new NameInterner<>(
+			ReSharperLiveTemplateName::new);
+	private static final NameInterner<AssemblyVersion> assemblyVersions = new NameInterner<>(AssemblyVersion::new);
+	private static final NameInterner<CommandName> commandNames = new NameInterner<>(CommandName::new);
+	private static final NameInterner<CommandBarControlName> commandBarControlNames = new NameInterner<>(
+			CommandBarControlName::new);
+	private static final NameInterner<DocumentName> documentNames = new NameInterner<>(DocumentName::new);
+	private static final NameInterner<ProjectItemName> projectItemNames = new NameInterner<>(ProjectItemName::new);
+	private static final NameInterner<ProjectName> projectNames = new NameInterner<>(ProjectName::new);
+	private static final NameInterner<SolutionName> solutionNames = new NameInterner<>(SolutionName::new);
+	private static final NameInterner<WindowName> windowNames = new NameInterner<>(WindowName::new);
+
 	public static IParameterName getUnknownParameter() {
 		return new ParameterName();
 	}
@@ -96,19 +121,19 @@ public class Names {
 	}
 
 	public static IFieldName newField(String id) {
-		return new FieldName(id);
+		return fieldNames.get(id);
 	}
 
 	public static IPropertyName newProperty(String id) {
-		return new PropertyName(id);
+		return propertyNames.get(id);
 	}
 
 	public static IMethodName newMethod(String id) {
-		return new MethodName(id);
+		return methodNames.get(id);
 	}
 
 	public static IParameterName newParameter(String id) {
-		return new ParameterName(id);
+		return parameterNames.get(id);
 	}
 
 	public static INamespaceName getUnknownNamespace() {
@@ -116,39 +141,39 @@ public class Names {
 	}
 
 	public static IAliasName newAlias(String id) {
-		return new AliasName(id);
+		return aliasNames.get(id);
 	}
 
 	public static IAssemblyName newAssembly(String id) {
-		return new AssemblyName(id);
+		return assemblyNames.get(id);
 	}
 
 	public static IEventName newEvent(String id) {
-		return new EventName(id);
+		return eventNames.get(id);
 	}
 
 	public static ILambdaName newLambda(String id) {
-		return new LambdaName(id);
+		return lambdaNames.get(id);
 	}
 
 	public static ILocalVariableName newLocalVariable(String id) {
-		return new LocalVariableName(id);
+		return localVariableNames.get(id);
 	}
 
 	public static IName newGeneral(String id) {
-		return new GeneralName(id);
+		return generalNames.get(id);
 	}
 
 	public static INamespaceName newNamespace(String id) {
-		return new NamespaceName(id);
+		return namespaceNames.get(id);
 	}
 
 	public static IReSharperLiveTemplateName newLiveTemplateName(String id) {
-		return new ReSharperLiveTemplateName(id);
+		return reSharperLiveTemplateNames.get(id);
 	}
 
 	public static IAssemblyVersion newAssemblyVersion(String id) {
-		return new AssemblyVersion(id);
+		return assemblyVersions.get(id);
 	}
 
 	public static ILocalVariableName getUnknownLocalVariable() {
@@ -156,35 +181,35 @@ public class Names {
 	}
 
 	public static IName newCommand(String id) {
-		return new CommandName(id);
+		return commandNames.get(id);
 	}
 
 	public static IName newCommandBarControl(String id) {
-		return new CommandBarControlName(id);
+		return commandBarControlNames.get(id);
 	}
 
 	public static IName newDocument(String id) {
-		return new DocumentName(id);
+		return documentNames.get(id);
 	}
 
 	public static IName newProjectItem(String id) {
-		return new ProjectItemName(id);
+		return projectItemNames.get(id);
 	}
 
 	public static IName newProject(String id) {
-		return new ProjectName(id);
+		return projectNames.get(id);
 	}
 
 	public static IName newSolution(String id) {
-		return new SolutionName(id);
+		return solutionNames.get(id);
 	}
 
 	public static IName newWindow(String id) {
-		return new WindowName(id);
+		return windowNames.get(id);
 	}
 
 	public static IName newReSharperLiveTemplate(String id) {
-		return new ReSharperLiveTemplateName(id);
+		return reSharperLiveTemplateNames.get(id);
 	}
 
 	public static IName getUnknownGeneral() {
@@ -22,7 +22,7 @@ public abstract class BaseName implements IName {
 
 	protected static final String UNKNOWN_NAME_IDENTIFIER = "???";
 
-	protected String identifier;
+	protected final String identifier;
 
 	protected BaseName(String id) {
 		validate(id != null, "identifier must not be null");
@@ -23,8 +23,8 @@ import java.util.List;
 
 import com.google.common.collect.Lists;
 
+import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IParameterName;
-import cc.kave.commons.model.naming.impl.v0.codeelements.ParameterName;
 import cc.kave.commons.model.naming.impl.v0.types.TypeParameterName;
 import cc.kave.commons.model.naming.types.ITypeParameterName;
 import cc.kave.commons.utils.StringUtils;
@@ -89,7 +89,7 @@ public class NameUtils {
 			int endOfParam = current;
 
 			String paramSubstring = identifierWithParameters.substring(startOfParam, endOfParam);
-			parameters.add(new ParameterName(paramSubstring.trim()));
+			parameters.add(Names.newParameter(paramSubstring.trim()));
 
 			// ignore comma
 			current++;
@@ -40,7 +40,7 @@ public class LambdaName extends BaseName implements ILambdaName {
 		super(identifier);
 	}
 
-	private List<IParameterName> _parameters;
+	private volatile List<IParameterName> _parameters;
 
 	public List<IParameterName> getParameters() {
 		if (_parameters == null) {
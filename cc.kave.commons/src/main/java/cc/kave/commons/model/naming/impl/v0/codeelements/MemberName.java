@@ -46,7 +46,7 @@ public abstract class MemberName extends BaseName implements IMemberName {
 		return endIdx != -1 ? nameWithBraces.substring(0, endIdx) : nameWithBraces;
 	}
 
-	private String _fullName;
+	private volatile String _fullName;
 
 	@Override
 	public String getFullName() {
@@ -77,7 +77,7 @@ public abstract class MemberName extends BaseName implements IMemberName {
 		return id.substring(start, end).trim();
 	}
 
-	private ITypeName valueType;
+	private volatile ITypeName valueType;
 
 	@Override
 	public ITypeName getValueType() {
@@ -92,7 +92,7 @@ public abstract class MemberName extends BaseName implements IMemberName {
 		return valueType = TypeUtils.createTypeName(declTypeIdentifier);
 	}
 
-	private ITypeName declaringType;
+	private volatile ITypeName declaringType;
 
 	@Override
 	public ITypeName getDeclaringType() {
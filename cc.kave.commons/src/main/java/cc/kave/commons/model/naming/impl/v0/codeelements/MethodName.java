@@ -43,7 +43,7 @@ public class MethodName extends MemberName implements IMethodName {
 		return UnknownMethodIdentifier.equals(identifier);
 	}
 
-	private String _name;
+	private volatile String _name;
 
 	@Override
 	public String getName() {
@@ -63,7 +63,7 @@ public class MethodName extends MemberName implements IMethodName {
 		return _name;
 	}
 
-	private List<ITypeParameterName> _typeParameters;
+	private volatile List<ITypeParameterName> _typeParameters;
 
 	@Override
 	public List<ITypeParameterName> getTypeParameters() {
@@ -85,7 +85,7 @@ public class MethodName extends MemberName implements IMethodName {
 		return getTypeParameters().size() > 0;
 	}
 
-	private List<IParameterName> _parameters;
+	private volatile List<IParameterName> _parameters;
 
 	@Override
 	public List<IParameterName> getParameters() {
@@ -42,10 +42,16 @@ public class ParameterName extends BaseName implements IParameterName {
 		}
 	}
 
+	private volatile ITypeName _valueType;
+
 	public ITypeName getValueType() {
-		int startOfValueTypeIdentifier = identifier.indexOf('[') + 1;
-		int endOfValueTypeIdentifier = identifier.lastIndexOf(']');
-		return TypeUtils.createTypeName(identifier.substring(startOfValueTypeIdentifier, endOfValueTypeIdentifier));
+		if (_valueType == null) {
+			int startOfValueTypeIdentifier = identifier.indexOf('[') + 1;
+			int endOfValueTypeIdentifier = identifier.lastIndexOf(']');
+			_valueType = TypeUtils
+					.createTypeName(identifier.substring(startOfValueTypeIdentifier, endOfValueTypeIdentifier));
+		}
+		return _valueType;
 	}
 
 	public String getName() {
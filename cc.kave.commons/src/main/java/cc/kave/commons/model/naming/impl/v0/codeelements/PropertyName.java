@@ -62,7 +62,7 @@ public class PropertyName extends MemberName implements IPropertyName {
 		return getParameters().size() > 0;
 	}
 
-	private List<IParameterName> _parameters;
+	private volatile List<IParameterName> _parameters;
 
 	public List<IParameterName> getParameters() {
 		if (_parameters == null) {
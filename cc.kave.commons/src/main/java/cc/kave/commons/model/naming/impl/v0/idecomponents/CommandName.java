@@ -30,22 +30,24 @@ public class CommandName extends BaseName implements ICommandName {
 		super(identifier);
 	}
 
-	private String[] _parts;
+	private volatile String[] _parts;
 
 	private String[] getParts() {
 		if (_parts == null) {
-			_parts = new String[3];
+			String[] newParts = new String[3];
 
 			String[] parts = identifier.split(":");
 			if (parts.length >= 3) {
-				_parts[0] = parts[0];
-				_parts[1] = parts[1];
-				_parts[2] = String.join(":", Arrays.copyOfRange(parts, 2, parts.length));
+				newParts[0] = parts[0];
+				newParts[1] = parts[1];
+				newParts[2] = String.join(":", Arrays.copyOfRange(parts, 2, parts.length));
 			} else {
-				_parts[0] = UNKNOWN_NAME_IDENTIFIER;
-				_parts[1] = "-1";
-				_parts[2] = identifier;
+				newParts[0] = UNKNOWN_NAME_IDENTIFIER;
+				newParts[1] = "-1";
+				newParts[2] = identifier;
 			}
+			// the name is shared between threads, so the array is only published when it is complete
+			_parts = newParts;
 		}
 		return _parts;
 	}
@@ -36,7 +36,7 @@ public class DocumentName extends BaseName implements IDocumentName {
 		}
 	}
 
-	private String[] _parts;
+	private volatile String[] _parts;
 
 	private String[] getParts() {
 		if (_parts == null) {
@@ -32,7 +32,7 @@ public class ProjectItemName extends BaseName implements IProjectItemName {
 		}
 	}
 
-	private String[] _parts;
+	private volatile String[] _parts;
 
 	private String[] getParts() {
 		if (_parts == null) {
@@ -32,7 +32,7 @@ public class ProjectName extends BaseName implements IProjectName {
 		}
 	}
 
-	private String[] _parts;
+	private volatile String[] _parts;
 
 	private String[] getParts() {
 		if (_parts == null) {
@@ -40,8 +40,17 @@ public class ArrayTypeName extends BaseTypeName implements IArrayTypeName {
 		assertFalse(TypeUtils.isUnknownTypeIdentifier(identifier));
 	}
 
+	private volatile ITypeName _arrayBaseType;
+
 	@Override
 	public ITypeName getArrayBaseType() {
+		if (_arrayBaseType == null) {
+			_arrayBaseType = getArrayBaseTypeImpl();
+		}
+		return _arrayBaseType;
+	}
+
+	private ITypeName getArrayBaseTypeImpl() {
 		// can not be TypeParameter)
 
 		String id = getIdentifier();
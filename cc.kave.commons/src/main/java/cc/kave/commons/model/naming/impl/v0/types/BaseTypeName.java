@@ -119,7 +119,7 @@ public abstract class BaseTypeName extends BaseName implements ITypeName {
 		return getTypeParameters().size() > 0;
 	}
 
-	private List<ITypeParameterName> _typeParameters;
+	private volatile List<ITypeParameterName> _typeParameters;
 
 	@Override
 	public List<ITypeParameterName> getTypeParameters() {
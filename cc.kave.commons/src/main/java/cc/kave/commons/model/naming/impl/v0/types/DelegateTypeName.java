@@ -56,7 +56,7 @@ public class DelegateTypeName extends BaseTypeName implements IDelegateTypeName
 		return getDelegateType().getFullName();
 	}
 
-	private IMethodName delegateMethod;
+	private volatile IMethodName delegateMethod;
 
 	private IMethodName getDelegateMethod() {
 		if (delegateMethod == null) {
@@ -25,9 +25,8 @@ import java.util.regex.Pattern;
 
 import com.google.common.collect.Lists;
 
-import cc.kave.commons.model.naming.impl.v0.types.organization.AssemblyName;
+import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.impl.v0.types.organization.AssemblyVersion;
-import cc.kave.commons.model.naming.impl.v0.types.organization.NamespaceName;
 import cc.kave.commons.model.naming.types.IArrayTypeName;
 import cc.kave.commons.model.naming.types.IDelegateTypeName;
 import cc.kave.commons.model.naming.types.IPredefinedTypeName;
@@ -42,7 +41,7 @@ public class PredefinedTypeName extends BaseTypeName implements IPredefinedTypeN
 
 	private static final Map<String, String> IdToFullName = new HashMap<String, String>();
 
-	{
+	static {
 		IdToFullName.put("p:sbyte", "System.SByte");
 		IdToFullName.put("p:byte", "System.Byte");
 		IdToFullName.put("p:short", "System.Int16");
@@ -90,12 +89,12 @@ public class PredefinedTypeName extends BaseTypeName implements IPredefinedTypeN
 
 	@Override
 	public IAssemblyName getAssembly() {
-		return new AssemblyName(f("mscorlib, %s", new AssemblyVersion().getIdentifier()));
+		return Names.newAssembly(f("mscorlib, %s", new AssemblyVersion().getIdentifier()));
 	}
 
 	@Override
 	public INamespaceName getNamespace() {
-		return new NamespaceName("System");
+		return Names.newNamespace("System");
 	}
 
 	@Override
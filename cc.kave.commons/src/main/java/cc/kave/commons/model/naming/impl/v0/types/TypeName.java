@@ -23,6 +23,7 @@ import static cc.kave.commons.utils.StringUtils.f;
 
 import java.util.regex.Pattern;
 
+import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.impl.v0.types.organization.AssemblyName;
 import cc.kave.commons.model.naming.impl.v0.types.organization.NamespaceName;
 import cc.kave.commons.model.naming.types.ITypeName;
@@ -64,8 +65,17 @@ public class TypeName extends BaseTypeName {
 		}
 	}
 
+	private volatile IAssemblyName _assembly;
+
 	@Override
 	public IAssemblyName getAssembly() {
+		if (_assembly == null) {
+			_assembly = getAssemblyImpl();
+		}
+		return _assembly;
+	}
+
+	private IAssemblyName getAssemblyImpl() {
 		if (isUnknown()) {
 			return new AssemblyName();
 		}
@@ -75,7 +85,7 @@ public class TypeName extends BaseTypeName {
 		int endOfTypeName = GetLengthOfTypeName();
 		// TODO NameUpdate: did trim ',' too, and no +1
 		String assemblyIdentifier = identifier.substring(endOfTypeName + 1).trim();
-		return new AssemblyName(assemblyIdentifier);
+		return Names.newAssembly(assemblyIdentifier);
 	}
 
 	private int GetLengthOfTypeName() {
@@ -92,8 +102,17 @@ public class TypeName extends BaseTypeName {
 		return id.charAt(x) == ',' ? x : FindNext(id, x, ',');
 	}
 
+	private volatile INamespaceName _namespace;
+
 	@Override
 	public INamespaceName getNamespace() {
+		if (_namespace == null) {
+			_namespace = getNamespaceImpl();
+		}
+		return _namespace;
+	}
+
+	private INamespaceName getNamespaceImpl() {
 		if (isUnknown()) {
 			return new NamespaceName();
 		}
@@ -104,11 +123,11 @@ public class TypeName extends BaseTypeName {
 		String id = RemoveTypeParameterListButKeepTicks(getFullName());
 
 		int endIndexOfNamespaceIdentifier = id.lastIndexOf('.');
-		return endIndexOfNamespaceIdentifier < 0 ? new NamespaceName("")
-				: new NamespaceName(id.substring(0, endIndexOfNamespaceIdentifier));
+		return endIndexOfNamespaceIdentifier < 0 ? Names.newNamespace("")
+				: Names.newNamespace(id.substring(0, endIndexOfNamespaceIdentifier));
 	}
 
-	private String _fullName;
+	private volatile String _fullName;
 
 	@Override
 	public String getFullName() {
@@ -133,8 +152,17 @@ public class TypeName extends BaseTypeName {
 		return fullName;
 	}
 
+	private volatile String _name;
+
 	@Override
 	public String getName() {
+		if (_name == null) {
+			_name = getNameImpl();
+		}
+		return _name;
+	}
+
+	private String getNameImpl() {
 		String rawFullName = RemoveTypeParameterListButKeepTicks(getFullName());
 		int endOfOutTypeName = rawFullName.lastIndexOf('+');
 		if (endOfOutTypeName > -1) {
@@ -148,8 +176,17 @@ public class TypeName extends BaseTypeName {
 		return rawFullName.substring(startIndexOfSimpleName + 1);
 	}
 
+	private volatile ITypeName _declaringType;
+
 	@Override
 	public ITypeName getDeclaringType() {
+		if (_declaringType == null) {
+			_declaringType = getDeclaringTypeImpl();
+		}
+		return _declaringType;
+	}
+
+	private ITypeName getDeclaringTypeImpl() {
 		int plus = FindPlus(identifier);
 		if (plus == -1) {
 			return null;
@@ -169,7 +206,16 @@ public class TypeName extends BaseTypeName {
 		return FindPlus(identifier) != -1;
 	}
 
+	private volatile Integer _plus;
+
 	private int FindPlus(String id) {
+		if (_plus == null) {
+			_plus = FindPlusImpl(id);
+		}
+		return _plus;
+	}
+
+	private int FindPlusImpl(String id) {
 		int comma = id.length() - getAssembly().getIdentifier().length();
 		// unknown type
 		if (comma < 0) {
@@ -16,13 +16,27 @@
 package cc.kave.commons.model.naming.impl.v0.types;
 
 import cc.kave.commons.model.naming.types.ITypeName;
+import cc.kave.commons.utils.NameInterner;
 import cc.kave.commons.utils.StringUtils;
 
 public class TypeUtils {
 
 	private static final ITypeName UnknownTypeInstance = new TypeName();
 
+	private static final NameInterner<ITypeName> typeNames = new NameInterner<>(TypeUtils::createTypeNameImpl);
+
+	/**
+	 * returns the canonical instance for the given identifier, the concrete type
+	 * depends on the structure of the identifier
+	 */
 	public static ITypeName createTypeName(String identifier) {
+		if (isUnknownTypeIdentifier(identifier)) {
+			return UnknownTypeInstance;
+		}
+		return typeNames.get(identifier);
+	}
+
+	private static ITypeName createTypeNameImpl(String identifier) {
 		if (isUnknownTypeIdentifier(identifier)) {
 			return UnknownTypeInstance;
 		}
@@ -22,8 +22,9 @@ import cc.recommenders.exceptions.ValidationException;
 
 public class AssemblyName extends BaseName implements IAssemblyName {
 
-	private IAssemblyVersion version;
-	private boolean isLocalProject;
+	private final IAssemblyVersion version;
+	private final boolean isLocalProject;
+	private final String name;
 
 	public AssemblyName() {
 		this(UNKNOWN_NAME_IDENTIFIER);
@@ -32,20 +33,16 @@ public class AssemblyName extends BaseName implements IAssemblyName {
 	public AssemblyName(String identifier) {
 		super(identifier);
 
-		version = new AssemblyVersion();
+		isLocalProject = !isUnknown() && !identifier.contains(",");
 
-		if (!isUnknown() && !identifier.contains(",")) {
-			isLocalProject = true;
-		}
-
-		String name = getName();
+		String[] fragments = GetFragments();
+		name = fragments[0];
 		for (String c : new String[] { "(", ")", "[", "]", "{", "}", ",", ";", ":", " " }) {
 			if (name.contains(c)) {
 				throw new ValidationException(String.format("identifier must not contain the char '%s'", c));
 			}
 		}
 
-		String[] fragments = GetFragments();
 		version = fragments.length <= 1 ? new AssemblyVersion() : new AssemblyVersion(fragments[1]);
 	}
 
@@ -56,7 +53,7 @@ public class AssemblyName extends BaseName implements IAssemblyName {
 
 	@Override
 	public String getName() {
-		return GetFragments()[0];
+		return name;
 	}
 
 	@Override
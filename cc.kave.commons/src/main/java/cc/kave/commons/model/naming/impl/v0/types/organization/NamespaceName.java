@@ -15,6 +15,7 @@
  */
 package cc.kave.commons.model.naming.impl.v0.types.organization;
 
+import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.impl.v0.BaseName;
 import cc.kave.commons.model.naming.types.organization.INamespaceName;
 
@@ -42,8 +43,8 @@ public class NamespaceName extends BaseName implements INamespaceName {
 			return new NamespaceName();
 		}
 		int lastSeperatorIndex = identifier.lastIndexOf('.');
-		return lastSeperatorIndex == -1 ? new NamespaceName("")
-				: new NamespaceName(identifier.substring(0, lastSeperatorIndex));
+		return lastSeperatorIndex == -1 ? Names.newNamespace("")
+				: Names.newNamespace(identifier.substring(0, lastSeperatorIndex));
 	}
 
 	@Override
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.commons.model.ssts.impl;
+
+import static cc.recommenders.assertions.Asserts.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Base class of all SST nodes that allows to freeze a subtree. Freezing makes every node of the subtree immutable, so
+ * calling a setter or modifying one of the child lists fails afterwards, and memoizes the structural hash code. Hashing
+ * a frozen node does not descend into its children anymore and two frozen nodes with different hash codes are known to
+ * be different without comparing their structure.
+ */
+public abstract class AbstractSSTNode {
+
+	private transient boolean isFrozen;
+	private transient int frozenHashCode;
+
+	/**
+	 * freezes this node and all of its children, freezing an already frozen node has no effect
+	 */
+	public final void freeze() {
+		if (isFrozen) {
+			return;
+		}
+		freezeChildren();
+		frozenHashCode = computeHashCode();
+		isFrozen = true;
+	}
+
+	public final boolean isFrozen() {
+		return isFrozen;
+	}
+
+	/**
+	 * freezes all child nodes and replaces child collections by unmodifiable copies
+	 */
+	protected void freezeChildren() {
+	}
+
+	protected final void assertNotFrozen() {
+		assertFalse(isFrozen, "frozen nodes cannot be modified");
+	}
+
+	protected abstract int computeHashCode();
+
+	protected abstract boolean equalsStructurally(Object obj);
+
+	@Override
+	public final int hashCode() {
+		return isFrozen ? frozenHashCode : computeHashCode();
+	}
+
+	@Override
+	public final boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (isFrozen && obj instanceof AbstractSSTNode) {
+			AbstractSSTNode other = (AbstractSSTNode) obj;
+			if (other.isFrozen && other.frozenHashCode != frozenHashCode) {
+				return false;
+			}
+		}
+		return equalsStructurally(obj);
+	}
+
+	protected static void freeze(Object node) {
+		if (node instanceof AbstractSSTNode) {
+			((AbstractSSTNode) node).freeze();
+		}
+	}
+
+	protected static <T> List<T> freeze(List<T> nodes) {
+		if (nodes == null) {
+			return null;
+		}
+		for (T node : nodes) {
+			freeze(node);
+		}
+		return Collections.unmodifiableList(new ArrayList<>(nodes));
+	}
+
+	protected static <T> Set<T> freeze(Set<T> nodes) {
+		if (nodes == null) {
+			return null;
+		}
+		for (T node : nodes) {
+			freeze(node);
+		}
+		return Collections.unmodifiableSet(new LinkedHashSet<>(nodes));
+	}
+}
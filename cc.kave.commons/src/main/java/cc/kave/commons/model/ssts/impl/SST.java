@@ -35,17 +35,17 @@ import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.StringUtils;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class SST implements ISST {
+public class SST extends AbstractSSTNode implements ISST {
 
 	private ITypeName enclosingType;
 	private String partialClassIdentifier;
 
 	// keep linked sets to have order guarantees for tests
-	private final LinkedHashSet<IFieldDeclaration> fields;
-	private final LinkedHashSet<IPropertyDeclaration> properties;
-	private final LinkedHashSet<IMethodDeclaration> methods;
-	private final LinkedHashSet<IEventDeclaration> events;
-	private final LinkedHashSet<IDelegateDeclaration> delegates;
+	private Set<IFieldDeclaration> fields;
+	private Set<IPropertyDeclaration> properties;
+	private Set<IMethodDeclaration> methods;
+	private Set<IEventDeclaration> events;
+	private Set<IDelegateDeclaration> delegates;
 
 	public SST() {
 		this.enclosingType = Names.getUnknownType();
@@ -67,6 +67,7 @@ public class SST implements ISST {
 	}
 
 	public void setPartialClassIdentifier(String identifier) {
+		assertNotFrozen();
 		this.partialClassIdentifier = identifier;
 	}
 
@@ -106,30 +107,36 @@ public class SST implements ISST {
 	}
 
 	public void setEnclosingType(ITypeName enclosingType) {
+		assertNotFrozen();
 		this.enclosingType = enclosingType;
 	}
 
 	public void setFields(Set<IFieldDeclaration> fields) {
+		assertNotFrozen();
 		this.fields.clear();
 		this.fields.addAll(fields);
 	}
 
 	public void setProperties(Set<IPropertyDeclaration> properties) {
+		assertNotFrozen();
 		this.properties.clear();
 		this.properties.addAll(properties);
 	}
 
 	public void setMethods(Set<IMethodDeclaration> methods) {
+		assertNotFrozen();
 		this.methods.clear();
 		this.methods.addAll(methods);
 	}
 
 	public void setEvents(Set<IEventDeclaration> events) {
+		assertNotFrozen();
 		this.events.clear();
 		this.events.addAll(events);
 	}
 
 	public void setDelegates(Set<IDelegateDeclaration> delegates) {
+		assertNotFrozen();
 		this.delegates.clear();
 		this.delegates.addAll(delegates);
 	}
@@ -145,7 +152,16 @@ public class SST implements ISST {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		fields = freeze(fields);
+		properties = freeze(properties);
+		methods = freeze(methods);
+		events = freeze(events);
+		delegates = freeze(delegates);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((delegates == null) ? 0 : delegates.hashCode());
@@ -160,7 +176,7 @@ public class SST implements ISST {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
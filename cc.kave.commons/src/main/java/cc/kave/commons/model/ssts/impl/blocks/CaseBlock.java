@@ -21,10 +21,11 @@ import java.util.List;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.ICaseBlock;
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class CaseBlock implements ICaseBlock {
+public class CaseBlock extends AbstractSSTNode implements ICaseBlock {
 
 	private ISimpleExpression label;
 	private List<IStatement> body;
@@ -45,15 +46,17 @@ public class CaseBlock implements ICaseBlock {
 	}
 
 	public void setLabel(ISimpleExpression label) {
+		assertNotFrozen();
 		this.label = label;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -75,7 +78,13 @@ public class CaseBlock implements ICaseBlock {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(label);
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
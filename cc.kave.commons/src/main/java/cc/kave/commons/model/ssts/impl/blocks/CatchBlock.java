@@ -23,9 +23,10 @@ import cc.kave.commons.model.naming.codeelements.IParameterName;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.CatchBlockKind;
 import cc.kave.commons.model.ssts.blocks.ICatchBlock;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class CatchBlock implements ICatchBlock {
+public class CatchBlock extends AbstractSSTNode implements ICatchBlock {
 	private CatchBlockKind kind;
 	private IParameterName parameter;
 	private List<IStatement> body;
@@ -42,6 +43,7 @@ public class CatchBlock implements ICatchBlock {
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
@@ -51,6 +53,7 @@ public class CatchBlock implements ICatchBlock {
 	}
 
 	public void setParameter(IParameterName parameter) {
+		assertNotFrozen();
 		this.parameter = parameter;
 	}
 
@@ -59,11 +62,17 @@ public class CatchBlock implements ICatchBlock {
 	}
 
 	public void setKind(CatchBlockKind kind) {
+		assertNotFrozen();
 		this.kind = kind;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
@@ -73,7 +82,7 @@ public class CatchBlock implements ICatchBlock {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -22,6 +22,7 @@ import com.google.common.collect.Lists;
 
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.IForEachLoop;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.impl.statements.VariableDeclaration;
 import cc.kave.commons.model.ssts.references.IVariableReference;
@@ -30,7 +31,7 @@ import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ForEachLoop implements IForEachLoop {
+public class ForEachLoop extends AbstractSSTNode implements IForEachLoop {
 
 	private IVariableDeclaration declaration;
 	private IVariableReference loopedReference;
@@ -65,19 +66,29 @@ public class ForEachLoop implements IForEachLoop {
 	}
 
 	public void setDeclaration(IVariableDeclaration declaration) {
+		assertNotFrozen();
 		this.declaration = declaration;
 	}
 
 	public void setLoopedReference(IVariableReference loopedReference) {
+		assertNotFrozen();
 		this.loopedReference = loopedReference;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(declaration);
+		freeze(loopedReference);
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
@@ -87,7 +98,7 @@ public class ForEachLoop implements IForEachLoop {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
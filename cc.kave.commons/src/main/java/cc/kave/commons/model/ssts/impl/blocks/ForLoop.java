@@ -21,12 +21,13 @@ import java.util.List;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.IForLoop;
 import cc.kave.commons.model.ssts.expressions.ILoopHeaderExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ForLoop implements IForLoop {
+public class ForLoop extends AbstractSSTNode implements IForLoop {
 
 	private List<IStatement> init;
 	private ILoopHeaderExpression condition;
@@ -70,22 +71,35 @@ public class ForLoop implements IForLoop {
 	}
 
 	public void setInit(List<IStatement> init) {
+		assertNotFrozen();
 		this.init = init;
 	}
 
 	public void setStep(List<IStatement> step) {
+		assertNotFrozen();
 		this.step = step;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	public void setCondition(ILoopHeaderExpression condition) {
+		assertNotFrozen();
 		this.condition = condition;
 	}
 
-	public int hashCode() {
+	@Override
+	protected void freezeChildren() {
+		init = freeze(init);
+		freeze(condition);
+		step = freeze(step);
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		int hashCode = 34 + this.init.hashCode();
 		hashCode = (hashCode * 397) ^ this.step.hashCode();
 		hashCode = (hashCode * 397) ^ this.body.hashCode();
@@ -94,7 +108,7 @@ public class ForLoop implements IForLoop {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -24,12 +24,13 @@ import com.google.gson.annotations.SerializedName;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.IIfElseBlock;
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class IfElseBlock implements IIfElseBlock {
+public class IfElseBlock extends AbstractSSTNode implements IIfElseBlock {
 
 	private ISimpleExpression condition;
 	private List<IStatement> then;
@@ -66,19 +67,29 @@ public class IfElseBlock implements IIfElseBlock {
 	}
 
 	public void setElse(List<IStatement> _else) {
+		assertNotFrozen();
 		this._else = _else;
 	}
 
 	public void setThen(List<IStatement> then) {
+		assertNotFrozen();
 		this.then = then;
 	}
 
 	public void setCondition(ISimpleExpression condition) {
+		assertNotFrozen();
 		this.condition = condition;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(condition);
+		then = freeze(then);
+		_else = freeze(_else);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((_else == null) ? 0 : _else.hashCode());
@@ -88,7 +99,7 @@ public class IfElseBlock implements IIfElseBlock {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -22,13 +22,14 @@ import com.google.common.collect.Lists;
 
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.ILockBlock;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class LockBlock implements ILockBlock {
+public class LockBlock extends AbstractSSTNode implements ILockBlock {
 
 	private IVariableReference reference;
 	private List<IStatement> body;
@@ -56,15 +57,23 @@ public class LockBlock implements ILockBlock {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
@@ -73,7 +82,7 @@ public class LockBlock implements ILockBlock {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -23,13 +23,14 @@ import com.google.common.collect.Lists;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.ICaseBlock;
 import cc.kave.commons.model.ssts.blocks.ISwitchBlock;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class SwitchBlock implements ISwitchBlock {
+public class SwitchBlock extends AbstractSSTNode implements ISwitchBlock {
 
 	private IVariableReference reference;
 	private List<ICaseBlock> sections;
@@ -64,19 +65,29 @@ public class SwitchBlock implements ISwitchBlock {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setSections(List<ICaseBlock> sections) {
+		assertNotFrozen();
 		this.sections = sections;
 	}
 
 	public void setDefaultSection(List<IStatement> defaultSection) {
+		assertNotFrozen();
 		this.defaultSection = defaultSection;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+		sections = freeze(sections);
+		defaultSection = freeze(defaultSection);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((defaultSection == null) ? 0 : defaultSection.hashCode());
@@ -86,7 +97,7 @@ public class SwitchBlock implements ISwitchBlock {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -23,11 +23,12 @@ import com.google.gson.annotations.SerializedName;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.ICatchBlock;
 import cc.kave.commons.model.ssts.blocks.ITryBlock;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class TryBlock implements ITryBlock {
+public class TryBlock extends AbstractSSTNode implements ITryBlock {
 
 	private List<IStatement> body;
 	private List<ICatchBlock> catchBlocks;
@@ -63,19 +64,29 @@ public class TryBlock implements ITryBlock {
 	}
 
 	public void setFinally(List<IStatement> _finally) {
+		assertNotFrozen();
 		this._finally = _finally;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	public void setCatchBlocks(List<ICatchBlock> catchBlocks) {
+		assertNotFrozen();
 		this.catchBlocks = catchBlocks;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		body = freeze(body);
+		catchBlocks = freeze(catchBlocks);
+		_finally = freeze(_finally);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((_finally == null) ? 0 : _finally.hashCode());
@@ -85,7 +96,7 @@ public class TryBlock implements ITryBlock {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
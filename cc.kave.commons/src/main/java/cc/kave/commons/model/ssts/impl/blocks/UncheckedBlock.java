@@ -20,11 +20,12 @@ import java.util.List;
 
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.IUncheckedBlock;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class UncheckedBlock implements IUncheckedBlock {
+public class UncheckedBlock extends AbstractSSTNode implements IUncheckedBlock {
 
 	private List<IStatement> body;
 
@@ -44,11 +45,17 @@ public class UncheckedBlock implements IUncheckedBlock {
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
@@ -56,7 +63,7 @@ public class UncheckedBlock implements IUncheckedBlock {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
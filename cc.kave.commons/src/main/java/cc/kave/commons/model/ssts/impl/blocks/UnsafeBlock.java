@@ -18,22 +18,25 @@ package cc.kave.commons.model.ssts.impl.blocks;
 import com.google.common.collect.Lists;
 
 import cc.kave.commons.model.ssts.blocks.IUnsafeBlock;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class UnsafeBlock implements IUnsafeBlock {
+public class UnsafeBlock extends AbstractSSTNode implements IUnsafeBlock {
 
 	@Override
 	public Iterable<ISSTNode> getChildren() {
 		return Lists.newArrayList();
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof UnsafeBlock ? true : false;
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 38;
 	}
 
@@ -23,12 +23,13 @@ import com.google.common.collect.Lists;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.blocks.IWhileLoop;
 import cc.kave.commons.model.ssts.expressions.ILoopHeaderExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class WhileLoop implements IWhileLoop {
+public class WhileLoop extends AbstractSSTNode implements IWhileLoop {
 
 	private ILoopHeaderExpression condition;
 	private List<IStatement> body;
@@ -56,15 +57,23 @@ public class WhileLoop implements IWhileLoop {
 	}
 
 	public void setCondition(ILoopHeaderExpression condition) {
+		assertNotFrozen();
 		this.condition = condition;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(condition);
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
@@ -73,7 +82,7 @@ public class WhileLoop implements IWhileLoop {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
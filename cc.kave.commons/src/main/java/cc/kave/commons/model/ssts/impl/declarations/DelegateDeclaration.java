@@ -20,11 +20,12 @@ import com.google.common.collect.Lists;
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.types.IDelegateTypeName;
 import cc.kave.commons.model.ssts.declarations.IDelegateDeclaration;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class DelegateDeclaration implements IDelegateDeclaration {
+public class DelegateDeclaration extends AbstractSSTNode implements IDelegateDeclaration {
 
 	private IDelegateTypeName name;
 
@@ -43,6 +44,7 @@ public class DelegateDeclaration implements IDelegateDeclaration {
 	}
 
 	public void setName(IDelegateTypeName name) {
+		assertNotFrozen();
 		this.name = name;
 	}
 
@@ -50,11 +52,13 @@ public class DelegateDeclaration implements IDelegateDeclaration {
 		return this.name.equals(other.getName());
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof DelegateDeclaration ? this.equals((DelegateDeclaration) obj) : false;
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 23 + this.name.hashCode();
 	}
 
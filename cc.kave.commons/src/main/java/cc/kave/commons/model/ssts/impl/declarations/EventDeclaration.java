@@ -20,11 +20,12 @@ import com.google.common.collect.Lists;
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IEventName;
 import cc.kave.commons.model.ssts.declarations.IEventDeclaration;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class EventDeclaration implements IEventDeclaration {
+public class EventDeclaration extends AbstractSSTNode implements IEventDeclaration {
 
 	private IEventName name;
 
@@ -43,6 +44,7 @@ public class EventDeclaration implements IEventDeclaration {
 	}
 
 	public void setName(IEventName name) {
+		assertNotFrozen();
 		this.name = name;
 	}
 
@@ -50,11 +52,13 @@ public class EventDeclaration implements IEventDeclaration {
 		return this.name.equals(other.getName());
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof EventDeclaration ? this.equals((EventDeclaration) obj) : false;
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 22 + this.name.hashCode();
 	}
 
@@ -20,11 +20,12 @@ import com.google.common.collect.Lists;
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IFieldName;
 import cc.kave.commons.model.ssts.declarations.IFieldDeclaration;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class FieldDeclaration implements IFieldDeclaration {
+public class FieldDeclaration extends AbstractSSTNode implements IFieldDeclaration {
 
 	private IFieldName name;
 
@@ -43,6 +44,7 @@ public class FieldDeclaration implements IFieldDeclaration {
 	}
 
 	public void setName(IFieldName name) {
+		assertNotFrozen();
 		this.name = name;
 	}
 
@@ -50,11 +52,13 @@ public class FieldDeclaration implements IFieldDeclaration {
 		return this.name.equals(other.getName());
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof FieldDeclaration ? this.equals((FieldDeclaration) obj) : false;
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 21 + this.name.hashCode();
 	}
 
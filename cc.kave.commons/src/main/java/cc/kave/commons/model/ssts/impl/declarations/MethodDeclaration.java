@@ -24,11 +24,12 @@ import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IMethodName;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.declarations.IMethodDeclaration;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class MethodDeclaration implements IMethodDeclaration {
+public class MethodDeclaration extends AbstractSSTNode implements IMethodDeclaration {
 
 	private IMethodName name;
 	private boolean isEntryPoint;
@@ -60,19 +61,27 @@ public class MethodDeclaration implements IMethodDeclaration {
 	}
 
 	public void setName(IMethodName name) {
+		assertNotFrozen();
 		this.name = name;
 	}
 
 	public void setEntryPoint(boolean isEntryPoint) {
+		assertNotFrozen();
 		this.isEntryPoint = isEntryPoint;
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		int hashCode = this.body.hashCode();
 		hashCode = (hashCode * 397) ^ this.name.hashCode();
 		hashCode = (hashCode * 397) ^ (this.isEntryPoint ? 1231 : 1237);
@@ -80,7 +89,7 @@ public class MethodDeclaration implements IMethodDeclaration {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -24,11 +24,12 @@ import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IPropertyName;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.declarations.IPropertyDeclaration;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class PropertyDeclaration implements IPropertyDeclaration {
+public class PropertyDeclaration extends AbstractSSTNode implements IPropertyDeclaration {
 
 	private IPropertyName name;
 	private List<IStatement> get;
@@ -61,19 +62,28 @@ public class PropertyDeclaration implements IPropertyDeclaration {
 	}
 
 	public void setName(IPropertyName name) {
+		assertNotFrozen();
 		this.name = name;
 	}
 
 	public void setGet(List<IStatement> get) {
+		assertNotFrozen();
 		this.get = get;
 	}
 
 	public void setSet(List<IStatement> set) {
+		assertNotFrozen();
 		this.set = set;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		get = freeze(get);
+		set = freeze(set);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		int hashCode = this.get.hashCode();
 		hashCode = (hashCode * 397) ^ this.set.hashCode();
 		hashCode = (hashCode * 397) ^ this.name.hashCode();
@@ -81,7 +91,7 @@ public class PropertyDeclaration implements IPropertyDeclaration {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -20,12 +20,13 @@ import java.util.ArrayList;
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
 import cc.kave.commons.model.ssts.expressions.assignable.BinaryOperator;
 import cc.kave.commons.model.ssts.expressions.assignable.IBinaryExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class BinaryExpression implements IBinaryExpression {
+public class BinaryExpression extends AbstractSSTNode implements IBinaryExpression {
 
 	private ISimpleExpression leftOperand;
 	private BinaryOperator operator;
@@ -53,14 +54,17 @@ public class BinaryExpression implements IBinaryExpression {
 	}
 
 	public void setOperator(BinaryOperator operator) {
+		assertNotFrozen();
 		this.operator = operator;
 	}
 
 	public void setLeftOperand(ISimpleExpression leftOperand) {
+		assertNotFrozen();
 		this.leftOperand = leftOperand;
 	}
 
 	public void setRightOperand(ISimpleExpression rightOperand) {
+		assertNotFrozen();
 		this.rightOperand = rightOperand;
 	}
 
@@ -75,7 +79,13 @@ public class BinaryExpression implements IBinaryExpression {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(leftOperand);
+		freeze(rightOperand);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((leftOperand == null) ? 0 : leftOperand.hashCode());
@@ -85,7 +95,7 @@ public class BinaryExpression implements IBinaryExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
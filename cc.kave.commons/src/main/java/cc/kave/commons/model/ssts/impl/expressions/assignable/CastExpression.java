@@ -21,13 +21,14 @@ import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.types.ITypeName;
 import cc.kave.commons.model.ssts.expressions.assignable.CastOperator;
 import cc.kave.commons.model.ssts.expressions.assignable.ICastExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class CastExpression implements ICastExpression {
+public class CastExpression extends AbstractSSTNode implements ICastExpression {
 
 	private ITypeName targetType;
 	private CastOperator operator;
@@ -50,10 +51,12 @@ public class CastExpression implements ICastExpression {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setTargetType(ITypeName targetType) {
+		assertNotFrozen();
 		this.targetType = targetType;
 	}
 
@@ -63,6 +66,7 @@ public class CastExpression implements ICastExpression {
 	}
 
 	public void setOperator(CastOperator operator) {
+		assertNotFrozen();
 		this.operator = operator;
 	}
 
@@ -77,7 +81,12 @@ public class CastExpression implements ICastExpression {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((operator == null) ? 0 : operator.hashCode());
@@ -87,7 +96,7 @@ public class CastExpression implements ICastExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
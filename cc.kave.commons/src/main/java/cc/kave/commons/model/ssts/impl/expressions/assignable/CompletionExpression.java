@@ -19,12 +19,13 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.naming.types.ITypeName;
 import cc.kave.commons.model.ssts.expressions.assignable.ICompletionExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class CompletionExpression implements ICompletionExpression {
+public class CompletionExpression extends AbstractSSTNode implements ICompletionExpression {
 
 	private ITypeName typeReference;
 	private IVariableReference variableReference;
@@ -55,19 +56,27 @@ public class CompletionExpression implements ICompletionExpression {
 	}
 
 	public void setTypeReference(ITypeName typeReference) {
+		assertNotFrozen();
 		this.typeReference = typeReference;
 	}
 
 	public void setObjectReference(IVariableReference objectReference) {
+		assertNotFrozen();
 		this.variableReference = objectReference;
 	}
 
 	public void setToken(String token) {
+		assertNotFrozen();
 		this.token = token;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(variableReference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		int hcTypeRef = this.typeReference != null ? this.typeReference.hashCode() : 0;
 		int hcObjRef = this.variableReference != null ? this.variableReference.hashCode() : 0;
 		int hcToken = this.token.hashCode();
@@ -75,7 +84,7 @@ public class CompletionExpression implements ICompletionExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
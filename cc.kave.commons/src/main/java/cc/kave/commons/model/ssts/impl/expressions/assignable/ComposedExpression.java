@@ -19,12 +19,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import cc.kave.commons.model.ssts.expressions.assignable.IComposedExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ComposedExpression implements IComposedExpression {
+public class ComposedExpression extends AbstractSSTNode implements IComposedExpression {
 
 	private List<IVariableReference> references;
 
@@ -43,16 +44,22 @@ public class ComposedExpression implements IComposedExpression {
 	}
 
 	public void setReferences(List<IVariableReference> references) {
+		assertNotFrozen();
 		this.references = references;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		references = freeze(references);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		return (5 + this.references.hashCode());
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -19,12 +19,13 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
 import cc.kave.commons.model.ssts.expressions.assignable.IIfElseExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class IfElseExpression implements IIfElseExpression {
+public class IfElseExpression extends AbstractSSTNode implements IIfElseExpression {
 
 	private ISimpleExpression condition;
 	private ISimpleExpression thenExpression;
@@ -57,19 +58,29 @@ public class IfElseExpression implements IIfElseExpression {
 	}
 
 	public void setCondition(ISimpleExpression condition) {
+		assertNotFrozen();
 		this.condition = condition;
 	}
 
 	public void setThenExpression(ISimpleExpression thenExpression) {
+		assertNotFrozen();
 		this.thenExpression = thenExpression;
 	}
 
 	public void setElseExpression(ISimpleExpression elseExpression) {
+		assertNotFrozen();
 		this.elseExpression = elseExpression;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(condition);
+		freeze(thenExpression);
+		freeze(elseExpression);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		int hashCode = 10 + this.condition.hashCode();
 		hashCode = (hashCode * 397) ^ this.thenExpression.hashCode();
 		hashCode = (hashCode * 397) ^ this.elseExpression.hashCode();
@@ -77,7 +88,7 @@ public class IfElseExpression implements IIfElseExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -20,13 +20,14 @@ import java.util.List;
 
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
 import cc.kave.commons.model.ssts.expressions.assignable.IIndexAccessExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class IndexAccessExpression implements IIndexAccessExpression {
+public class IndexAccessExpression extends AbstractSSTNode implements IIndexAccessExpression {
 
 	private IVariableReference reference;
 	private List<ISimpleExpression> indices;
@@ -47,10 +48,12 @@ public class IndexAccessExpression implements IIndexAccessExpression {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setIndices(List<ISimpleExpression> indices) {
+		assertNotFrozen();
 		this.indices = indices;
 	}
 
@@ -65,7 +68,13 @@ public class IndexAccessExpression implements IIndexAccessExpression {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+		indices = freeze(indices);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((indices == null) ? 0 : indices.hashCode());
@@ -74,7 +83,7 @@ public class IndexAccessExpression implements IIndexAccessExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
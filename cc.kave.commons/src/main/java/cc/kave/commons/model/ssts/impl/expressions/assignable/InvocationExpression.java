@@ -22,13 +22,14 @@ import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IMethodName;
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
 import cc.kave.commons.model.ssts.expressions.assignable.IInvocationExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class InvocationExpression implements IInvocationExpression {
+public class InvocationExpression extends AbstractSSTNode implements IInvocationExpression {
 
 	private IVariableReference reference;
 	private IMethodName methodName;
@@ -61,19 +62,28 @@ public class InvocationExpression implements IInvocationExpression {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setMethodName(IMethodName methodName) {
+		assertNotFrozen();
 		this.methodName = methodName;
 	}
 
 	public void setParameters(List<ISimpleExpression> parameters) {
+		assertNotFrozen();
 		this.parameters = parameters;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+		parameters = freeze(parameters);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((methodName == null) ? 0 : methodName.hashCode());
@@ -83,7 +93,7 @@ public class InvocationExpression implements IInvocationExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -22,11 +22,12 @@ import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.ILambdaName;
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.expressions.assignable.ILambdaExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class LambdaExpression implements ILambdaExpression {
+public class LambdaExpression extends AbstractSSTNode implements ILambdaExpression {
 	private ILambdaName name;
 	private List<IStatement> body;
 
@@ -46,15 +47,22 @@ public class LambdaExpression implements ILambdaExpression {
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	public void setName(ILambdaName name) {
+		assertNotFrozen();
 		this.name = name;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((body == null) ? 0 : body.hashCode());
@@ -63,7 +71,7 @@ public class LambdaExpression implements ILambdaExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -20,13 +20,14 @@ import java.util.ArrayList;
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.types.ITypeName;
 import cc.kave.commons.model.ssts.expressions.assignable.ITypeCheckExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class TypeCheckExpression implements ITypeCheckExpression {
+public class TypeCheckExpression extends AbstractSSTNode implements ITypeCheckExpression {
 
 	private IVariableReference reference;
 	private ITypeName type;
@@ -47,10 +48,12 @@ public class TypeCheckExpression implements ITypeCheckExpression {
 	}
 
 	public void setType(ITypeName type) {
+		assertNotFrozen();
 		this.type = type;
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
@@ -64,7 +67,12 @@ public class TypeCheckExpression implements ITypeCheckExpression {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((reference == null) ? 0 : reference.hashCode());
@@ -73,7 +81,7 @@ public class TypeCheckExpression implements ITypeCheckExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
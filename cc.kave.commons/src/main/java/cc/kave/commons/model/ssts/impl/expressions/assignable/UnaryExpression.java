@@ -20,12 +20,13 @@ import java.util.ArrayList;
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
 import cc.kave.commons.model.ssts.expressions.assignable.IUnaryExpression;
 import cc.kave.commons.model.ssts.expressions.assignable.UnaryOperator;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class UnaryExpression implements IUnaryExpression {
+public class UnaryExpression extends AbstractSSTNode implements IUnaryExpression {
 
 	private UnaryOperator operator;
 	private ISimpleExpression operand;
@@ -46,10 +47,12 @@ public class UnaryExpression implements IUnaryExpression {
 	}
 
 	public void setOperator(UnaryOperator operator) {
+		assertNotFrozen();
 		this.operator = operator;
 	}
 
 	public void setOperand(ISimpleExpression operand) {
+		assertNotFrozen();
 		this.operand = operand;
 	}
 
@@ -64,7 +67,12 @@ public class UnaryExpression implements IUnaryExpression {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(operand);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((operand == null) ? 0 : operand.hashCode());
@@ -73,7 +81,7 @@ public class UnaryExpression implements IUnaryExpression {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
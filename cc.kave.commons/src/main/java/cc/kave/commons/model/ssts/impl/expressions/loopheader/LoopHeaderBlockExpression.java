@@ -20,11 +20,12 @@ import java.util.List;
 
 import cc.kave.commons.model.ssts.IStatement;
 import cc.kave.commons.model.ssts.expressions.loopheader.ILoopHeaderBlockExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class LoopHeaderBlockExpression implements ILoopHeaderBlockExpression {
+public class LoopHeaderBlockExpression extends AbstractSSTNode implements ILoopHeaderBlockExpression {
 
 	private List<IStatement> body;
 
@@ -43,16 +44,22 @@ public class LoopHeaderBlockExpression implements ILoopHeaderBlockExpression {
 	}
 
 	public void setBody(List<IStatement> body) {
+		assertNotFrozen();
 		this.body = body;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		body = freeze(body);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		return (4874 + this.body.hashCode());
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
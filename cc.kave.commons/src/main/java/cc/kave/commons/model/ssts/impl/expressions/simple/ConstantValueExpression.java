@@ -18,11 +18,12 @@ package cc.kave.commons.model.ssts.impl.expressions.simple;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.simple.IConstantValueExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ConstantValueExpression implements IConstantValueExpression {
+public class ConstantValueExpression extends AbstractSSTNode implements IConstantValueExpression {
 
 	private String value;
 
@@ -37,16 +38,17 @@ public class ConstantValueExpression implements IConstantValueExpression {
 	}
 
 	public void setValue(String value) {
+		assertNotFrozen();
 		this.value = value;
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return 102 + (this.value != null ? this.value.hashCode() : 0);
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -18,22 +18,25 @@ package cc.kave.commons.model.ssts.impl.expressions.simple;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.simple.INullExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class NullExpression implements INullExpression {
+public class NullExpression extends AbstractSSTNode implements INullExpression {
 
 	@Override
 	public Iterable<ISSTNode> getChildren() {
 		return new ArrayList<ISSTNode>();
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 239876;
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof NullExpression ? true : false;
 	}
 
@@ -19,12 +19,13 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.IReference;
 import cc.kave.commons.model.ssts.expressions.simple.IReferenceExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.UnknownReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ReferenceExpression implements IReferenceExpression {
+public class ReferenceExpression extends AbstractSSTNode implements IReferenceExpression {
 
 	private IReference reference;
 
@@ -43,16 +44,22 @@ public class ReferenceExpression implements IReferenceExpression {
 	}
 
 	public void setReference(IReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		return (29 + this.reference.hashCode());
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -18,22 +18,25 @@ package cc.kave.commons.model.ssts.impl.expressions.simple;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.simple.IUnknownExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class UnknownExpression implements IUnknownExpression {
+public class UnknownExpression extends AbstractSSTNode implements IUnknownExpression {
 
 	@Override
 	public Iterable<ISSTNode> getChildren() {
 		return new ArrayList<ISSTNode>();
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 378;
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof UnknownExpression ? true : false;
 	}
 
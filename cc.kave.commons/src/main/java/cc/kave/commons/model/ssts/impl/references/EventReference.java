@@ -19,13 +19,14 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IEventName;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IEventReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class EventReference implements IEventReference {
+public class EventReference extends AbstractSSTNode implements IEventReference {
 
 	private IVariableReference reference;
 	private IEventName eventName;
@@ -51,15 +52,22 @@ public class EventReference implements IEventReference {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setEventName(IEventName eventName) {
+		assertNotFrozen();
 		this.eventName = eventName;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((eventName == null) ? 0 : eventName.hashCode());
@@ -68,7 +76,7 @@ public class EventReference implements IEventReference {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
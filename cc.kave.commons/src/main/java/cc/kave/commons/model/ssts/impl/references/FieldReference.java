@@ -19,13 +19,14 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IFieldName;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IFieldReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class FieldReference implements IFieldReference {
+public class FieldReference extends AbstractSSTNode implements IFieldReference {
 
 	private IVariableReference reference;
 	private IFieldName fieldName;
@@ -51,15 +52,22 @@ public class FieldReference implements IFieldReference {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setFieldName(IFieldName fieldName) {
+		assertNotFrozen();
 		this.fieldName = fieldName;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((fieldName == null) ? 0 : fieldName.hashCode());
@@ -68,7 +76,7 @@ public class FieldReference implements IFieldReference {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
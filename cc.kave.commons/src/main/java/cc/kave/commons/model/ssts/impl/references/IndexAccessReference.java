@@ -18,13 +18,14 @@ package cc.kave.commons.model.ssts.impl.references;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.assignable.IIndexAccessExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.assignable.IndexAccessExpression;
 import cc.kave.commons.model.ssts.references.IIndexAccessReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class IndexAccessReference implements IIndexAccessReference {
+public class IndexAccessReference extends AbstractSSTNode implements IIndexAccessReference {
 
 	private IIndexAccessExpression expression;
 
@@ -38,6 +39,7 @@ public class IndexAccessReference implements IIndexAccessReference {
 	}
 
 	public void setExpression(IIndexAccessExpression expression) {
+		assertNotFrozen();
 		this.expression = expression;
 	}
 
@@ -52,7 +54,12 @@ public class IndexAccessReference implements IIndexAccessReference {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(expression);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -60,7 +67,7 @@ public class IndexAccessReference implements IIndexAccessReference {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
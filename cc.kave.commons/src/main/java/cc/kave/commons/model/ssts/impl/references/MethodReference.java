@@ -19,13 +19,14 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IMethodName;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IMethodReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class MethodReference implements IMethodReference {
+public class MethodReference extends AbstractSSTNode implements IMethodReference {
 
 	private IVariableReference reference;
 	private IMethodName methodName;
@@ -51,7 +52,12 @@ public class MethodReference implements IMethodReference {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((methodName == null) ? 0 : methodName.hashCode());
@@ -60,7 +66,7 @@ public class MethodReference implements IMethodReference {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -82,10 +88,12 @@ public class MethodReference implements IMethodReference {
 	}
 
 	public void setMethodName(IMethodName name) {
+		assertNotFrozen();
 		this.methodName = name;
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
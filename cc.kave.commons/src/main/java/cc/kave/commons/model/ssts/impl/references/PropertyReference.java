@@ -19,13 +19,14 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IPropertyName;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IPropertyReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class PropertyReference implements IPropertyReference {
+public class PropertyReference extends AbstractSSTNode implements IPropertyReference {
 
 	private IVariableReference reference;
 	private IPropertyName propertyName;
@@ -51,15 +52,22 @@ public class PropertyReference implements IPropertyReference {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setPropertyName(IPropertyName propertyName) {
+		assertNotFrozen();
 		this.propertyName = propertyName;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((propertyName == null) ? 0 : propertyName.hashCode());
@@ -68,7 +76,7 @@ public class PropertyReference implements IPropertyReference {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
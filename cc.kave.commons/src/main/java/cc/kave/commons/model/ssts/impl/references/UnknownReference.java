@@ -17,23 +17,26 @@ package cc.kave.commons.model.ssts.impl.references;
 
 import java.util.ArrayList;
 
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IUnknownReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class UnknownReference implements IUnknownReference {
+public class UnknownReference extends AbstractSSTNode implements IUnknownReference {
 
 	@Override
 	public Iterable<ISSTNode> getChildren() {
 		return new ArrayList<ISSTNode>();
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof UnknownReference ? true : false;
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return -612359;
 	}
 
@@ -17,11 +17,12 @@ package cc.kave.commons.model.ssts.impl.references;
 
 import java.util.ArrayList;
 
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 
-public class VariableReference implements IVariableReference {
+public class VariableReference extends AbstractSSTNode implements IVariableReference {
 
 	private transient final String defaultIdentifier = "";
 
@@ -42,6 +43,7 @@ public class VariableReference implements IVariableReference {
 	}
 
 	public void setIdentifier(String identifier) {
+		assertNotFrozen();
 		this.identifier = identifier;
 	}
 
@@ -51,7 +53,7 @@ public class VariableReference implements IVariableReference {
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((identifier == null) ? 0 : identifier.hashCode());
@@ -59,7 +61,7 @@ public class VariableReference implements IVariableReference {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -18,6 +18,7 @@ package cc.kave.commons.model.ssts.impl.statements;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.IAssignableExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.impl.references.UnknownReference;
 import cc.kave.commons.model.ssts.references.IAssignableReference;
@@ -26,7 +27,7 @@ import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class Assignment implements IAssignment {
+public class Assignment extends AbstractSSTNode implements IAssignment {
 
 	private IAssignableReference reference;
 	private IAssignableExpression expression;
@@ -52,15 +53,23 @@ public class Assignment implements IAssignment {
 	}
 
 	public void setReference(IAssignableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setExpression(IAssignableExpression expression) {
+		assertNotFrozen();
 		this.expression = expression;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+		freeze(expression);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -69,7 +78,7 @@ public class Assignment implements IAssignment {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -17,23 +17,26 @@ package cc.kave.commons.model.ssts.impl.statements;
 
 import java.util.ArrayList;
 
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.statements.IBreakStatement;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class BreakStatement implements IBreakStatement {
+public class BreakStatement extends AbstractSSTNode implements IBreakStatement {
 
 	@Override
 	public Iterable<ISSTNode> getChildren() {
 		return new ArrayList<ISSTNode>();
 	}
 
-	public boolean equals(Object obj) {
+	@Override
+	protected boolean equalsStructurally(Object obj) {
 		return obj instanceof BreakStatement ? true : false;
 	}
 
-	public int hashCode() {
+	@Override
+	protected int computeHashCode() {
 		return 12;
 	}
 
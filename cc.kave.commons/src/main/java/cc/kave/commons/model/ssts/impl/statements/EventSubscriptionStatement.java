@@ -18,6 +18,7 @@ package cc.kave.commons.model.ssts.impl.statements;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.IAssignableExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.impl.references.UnknownReference;
 import cc.kave.commons.model.ssts.references.IAssignableReference;
@@ -27,7 +28,7 @@ import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class EventSubscriptionStatement implements IEventSubscriptionStatement {
+public class EventSubscriptionStatement extends AbstractSSTNode implements IEventSubscriptionStatement {
 	private IAssignableReference reference;
 	private EventSubscriptionOperation operation;
 	private IAssignableExpression expression;
@@ -48,11 +49,18 @@ public class EventSubscriptionStatement implements IEventSubscriptionStatement {
 	}
 
 	public void setReference(IAssignableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+		freeze(expression);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -62,7 +70,7 @@ public class EventSubscriptionStatement implements IEventSubscriptionStatement {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -90,6 +98,7 @@ public class EventSubscriptionStatement implements IEventSubscriptionStatement {
 	}
 
 	public void setOperation(EventSubscriptionOperation operation) {
+		assertNotFrozen();
 		this.operation = operation;
 	}
 
@@ -98,6 +107,7 @@ public class EventSubscriptionStatement implements IEventSubscriptionStatement {
 	}
 
 	public void setExpression(IAssignableExpression expression) {
+		assertNotFrozen();
 		this.expression = expression;
 	}
 
@@ -18,13 +18,14 @@ package cc.kave.commons.model.ssts.impl.statements;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.IAssignableExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.statements.IExpressionStatement;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ExpressionStatement implements IExpressionStatement {
+public class ExpressionStatement extends AbstractSSTNode implements IExpressionStatement {
 
 	private IAssignableExpression expression;
 
@@ -43,16 +44,22 @@ public class ExpressionStatement implements IExpressionStatement {
 	}
 
 	public void setExpression(IAssignableExpression expression) {
+		assertNotFrozen();
 		this.expression = expression;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(expression);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		return 12946783 + this.expression.hashCode();
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -17,12 +17,13 @@ package cc.kave.commons.model.ssts.impl.statements;
 
 import java.util.ArrayList;
 
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.statements.IGotoStatement;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class GotoStatement implements IGotoStatement {
+public class GotoStatement extends AbstractSSTNode implements IGotoStatement {
 
 	private String label;
 
@@ -41,16 +42,17 @@ public class GotoStatement implements IGotoStatement {
 	}
 
 	public void setLabel(String label) {
+		assertNotFrozen();
 		this.label = label;
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return 14 + this.label.hashCode();
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
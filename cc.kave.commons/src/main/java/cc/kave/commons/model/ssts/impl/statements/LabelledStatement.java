@@ -18,12 +18,13 @@ package cc.kave.commons.model.ssts.impl.statements;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.IStatement;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.statements.ILabelledStatement;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class LabelledStatement implements ILabelledStatement {
+public class LabelledStatement extends AbstractSSTNode implements ILabelledStatement {
 
 	private String label;
 	private IStatement statement;
@@ -49,20 +50,27 @@ public class LabelledStatement implements ILabelledStatement {
 	}
 
 	public void setLabel(String label) {
+		assertNotFrozen();
 		this.label = label;
 	}
 
 	public void setStatement(IStatement statement) {
+		assertNotFrozen();
 		this.statement = statement;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(statement);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		return 15 + (this.label.hashCode() * 397) ^ this.statement.hashCode();
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -18,13 +18,14 @@ package cc.kave.commons.model.ssts.impl.statements;
 import java.util.ArrayList;
 
 import cc.kave.commons.model.ssts.expressions.ISimpleExpression;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.expressions.simple.UnknownExpression;
 import cc.kave.commons.model.ssts.statements.IReturnStatement;
 import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ReturnStatement implements IReturnStatement {
+public class ReturnStatement extends AbstractSSTNode implements IReturnStatement {
 
 	private ISimpleExpression expression;
 	private boolean isVoid;
@@ -45,6 +46,7 @@ public class ReturnStatement implements IReturnStatement {
 	}
 
 	public void setIsVoid(boolean isVoid) {
+		assertNotFrozen();
 		this.isVoid = isVoid;
 	}
 
@@ -54,11 +56,17 @@ public class ReturnStatement implements IReturnStatement {
 	}
 
 	public void setExpression(ISimpleExpression expression) {
+		assertNotFrozen();
 		this.expression = expression;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(expression);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -67,7 +75,7 @@ public class ReturnStatement implements IReturnStatement {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
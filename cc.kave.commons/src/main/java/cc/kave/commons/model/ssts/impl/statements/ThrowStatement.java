@@ -17,6 +17,7 @@ package cc.kave.commons.model.ssts.impl.statements;
 
 import java.util.ArrayList;
 
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.statements.IThrowStatement;
@@ -24,7 +25,7 @@ import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class ThrowStatement implements IThrowStatement {
+public class ThrowStatement extends AbstractSSTNode implements IThrowStatement {
 
 	private IVariableReference reference;
 
@@ -43,6 +44,7 @@ public class ThrowStatement implements IThrowStatement {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
@@ -52,7 +54,12 @@ public class ThrowStatement implements IThrowStatement {
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((reference == null) ? 0 : reference.hashCode());
@@ -60,7 +67,7 @@ public class ThrowStatement implements IThrowStatement {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.types.ITypeName;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.model.ssts.impl.references.VariableReference;
 import cc.kave.commons.model.ssts.references.IVariableReference;
 import cc.kave.commons.model.ssts.statements.IVariableDeclaration;
@@ -26,7 +27,7 @@ import cc.kave.commons.model.ssts.visitor.ISSTNode;
 import cc.kave.commons.model.ssts.visitor.ISSTNodeVisitor;
 import cc.kave.commons.utils.ToStringUtils;
 
-public class VariableDeclaration implements IVariableDeclaration {
+public class VariableDeclaration extends AbstractSSTNode implements IVariableDeclaration {
 
 	private IVariableReference reference;
 	private ITypeName type;
@@ -57,15 +58,22 @@ public class VariableDeclaration implements IVariableDeclaration {
 	}
 
 	public void setReference(IVariableReference reference) {
+		assertNotFrozen();
 		this.reference = reference;
 	}
 
 	public void setType(ITypeName type) {
+		assertNotFrozen();
 		this.type = type;
 	}
 
 	@Override
-	public int hashCode() {
+	protected void freezeChildren() {
+		freeze(reference);
+	}
+
+	@Override
+	protected int computeHashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((reference == null) ? 0 : reference.hashCode());
@@ -74,7 +82,7 @@ public class VariableDeclaration implements IVariableDeclaration {
 	}
 
 	@Override
-	public boolean equals(Object obj) {
+	protected boolean equalsStructurally(Object obj) {
 		if (this == obj)
 			return true;
 		if (obj == null)
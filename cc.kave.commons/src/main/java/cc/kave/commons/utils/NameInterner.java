@@ -0,0 +1,81 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.commons.utils;
+
+import static cc.recommenders.assertions.Asserts.assertNotNull;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Thread-safe cache that maps identifiers to one canonical name instance, so
+ * that parsing results memoized in a name are shared by all its users. Values
+ * are only weakly referenced, names that are not used anymore can be garbage
+ * collected. Looking up an existing name does not lock. If two threads create
+ * the same name at the same time, only one instance is published and returned
+ * to both.
+ */
+public class NameInterner<T> {
+
+	private final ConcurrentMap<String, T> names;
+	private final Function<String, T> factory;
+
+	/**
+	 * @param factory
+	 *            creates the names that are requested through
+	 *            {@link #get(String)}
+	 */
+	public NameInterner(Function<String, T> factory) {
+		assertNotNull(factory);
+		this.factory = factory;
+		names = new MapMaker().weakValues().makeMap();
+	}
+
+	/**
+	 * @param concurrencyLevel
+	 *            the number of threads that are expected to create names
+	 *            concurrently
+	 */
+	public NameInterner(Function<String, T> factory, int concurrencyLevel) {
+		assertNotNull(factory);
+		this.factory = factory;
+		names = new MapMaker().concurrencyLevel(concurrencyLevel).weakValues().makeMap();
+	}
+
+	/**
+	 * @return the interned name for the id, the factory is only called if the
+	 *         name is not yet interned
+	 */
+	public T get(String id) {
+		if (id == null) {
+			// let the factory decide how to handle invalid ids
+			return factory.apply(id);
+		}
+		T name = names.get(id);
+		if (name != null) {
+			return name;
+		}
+		T newName = factory.apply(id);
+		T existing = names.putIfAbsent(id, newName);
+		return existing != null ? existing : newName;
+	}
+
+	public int size() {
+		return names.size();
+	}
+}
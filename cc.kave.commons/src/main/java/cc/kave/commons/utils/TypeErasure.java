@@ -20,53 +20,82 @@ import static cc.kave.commons.utils.StringUtils.FindCorrespondingOpenBracket;
 import static cc.kave.commons.utils.StringUtils.FindNext;
 
 import java.util.List;
-import java.util.Map;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IMethodName;
 import cc.kave.commons.model.naming.codeelements.IParameterName;
 import cc.kave.commons.model.naming.types.ITypeName;
 import cc.recommenders.assertions.Asserts;
+import cc.recommenders.io.Logger;
 
+/**
+ * Removes the bindings of generic parameters from identifiers, e.g.,
+ * "T`1[[G -> T2,P]],P" becomes "T`1[[G]],P". Erasures are memoized in a
+ * bounded cache, because the same identifiers are typically erased over and
+ * over again.
+ */
 public class TypeErasure {
+
+	private static final int CACHE_SIZE = 50000;
+
+	private static final LoadingCache<String, String> cache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE)
+			.concurrencyLevel(16).recordStats().build(CacheLoader.from(TypeErasure::erase));
+
 	public static ITypeName of(ITypeName type) {
-		return Names.newType(of(type.getIdentifier()));
+		String id = type.getIdentifier();
+		String erased = of(id);
+		return erased == id ? type : Names.newType(erased);
 	}
 
 	public static IMethodName of(IMethodName method) {
-		return Names.newMethod(of(method.getIdentifier()));
+		String id = method.getIdentifier();
+		String erased = of(id);
+		return erased == id ? method : Names.newMethod(erased);
 	}
 
+	/**
+	 * @return the erased identifier, which is the same instance if the
+	 *         identifier does not contain any bound generic
+	 */
 	public static String of(String id) {
-		int startIdx = id.indexOf('`');
-		if (startIdx == -1) {
+		if (id.indexOf('`') == -1) {
 			return id;
 		}
+		try {
+			return cache.getUnchecked(id);
+		} catch (UncheckedExecutionException e) {
+			throw Throwables.propagate(e.getCause());
+		}
+	}
 
-		Map<String, String> replacements = Maps.newLinkedHashMap();
+	/**
+	 * @return hit and miss counts of the memoized erasures (identifiers
+	 *         without generics are not counted)
+	 */
+	public static CacheStats getCacheStats() {
+		return cache.stats();
+	}
+
+	public static void clearCache() {
+		cache.invalidateAll();
+	}
+
+	private static String erase(String id) {
+		StringBuilder sb = null;
+		int copied = 0;
 		int tick = FindNext(id, 0, '`');
 
 		while (tick != -1) {
 			int open = FindNext(id, tick, '[');
-			int length = open - tick - 1;
-			String numStr = length > 0 ? id.substring(tick + 1, open).trim() : "0";
-
-			if (length < 1) {
-				// TODO fix name creation, this should not happen!
-				System.out.printf("\nEE: cannot remove generic (no tick number): %s", id);
-			}
-
-			int numGenerics = 0;
-			try {
-				numGenerics = Integer.parseInt(numStr);
-			} catch (NumberFormatException e) {
-				// TODO fix name creation, this should not happen!
-				System.out.printf("\nEE: cannot remove generic (invalid tick number between %d and %d): %s", tick, open,
-						id);
-			}
+			int numGenerics = parseNumGenerics(id, tick, open);
 
 			while (IsArray(id, open)) {
 				open = FindNext(id, open + 1, '[');
@@ -77,22 +106,60 @@ public class TypeErasure {
 				int close = FindCorrespondingCloseBracket(id, open);
 
 				int arrowStart = FindNext(id, open, '-');
-				if (arrowStart != -1 && arrowStart < close) {
-					String param = id.substring(open, arrowStart).trim();
-					String complete = id.substring(open, close);
-					replacements.put(complete, param);
+				// bindings nested in an already removed binding are skipped
+				if (arrowStart != -1 && arrowStart < close && open >= copied) {
+					int end = arrowStart;
+					while (end > open && id.charAt(end - 1) <= ' ') {
+						end--;
+					}
+					if (sb == null) {
+						sb = new StringBuilder(id.length());
+					}
+					sb.append(id, copied, end);
+					copied = close;
 				}
-				
+
 				open = close + 1;
 			}
 			tick = FindNext(id, tick + 1, '`');
 		}
-		String res = id;
-		for (String k : replacements.keySet()) {
-			String with = replacements.get(k);
-			res = res.replace(k, with);
+
+		if (sb == null) {
+			return id;
+		}
+		return sb.append(id, copied, id.length()).toString();
+	}
+
+	/**
+	 * invalid tick numbers are reported and treated as zero generics, so the
+	 * identifier is kept as it is
+	 */
+	private static int parseNumGenerics(String id, int tick, int open) {
+		int start = tick + 1;
+		int end = open;
+		while (start < end && id.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && id.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		if (start == end) {
+			Logger.err("cannot remove generic (no tick number): %s", id);
+			return 0;
+		}
+
+		int num = 0;
+		for (int i = start; i < end; i++) {
+			char c = id.charAt(i);
+			// numbers that do not fit into an int are as invalid as other characters
+			if (c < '0' || c > '9' || num > (Integer.MAX_VALUE - (c - '0')) / 10) {
+				Logger.err("cannot remove generic (invalid tick number between %d and %d): %s", tick, open, id);
+				return 0;
+			}
+			num = 10 * num + (c - '0');
 		}
-		return res;
+		return num;
 	}
 
 	private static boolean IsArray(String id, int open) {
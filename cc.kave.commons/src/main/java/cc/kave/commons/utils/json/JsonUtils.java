@@ -18,6 +18,7 @@ package cc.kave.commons.utils.json;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.time.Duration;
@@ -34,6 +35,8 @@ import com.google.common.collect.Sets;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonWriter;
 
 import cc.kave.commons.model.events.ActivityEvent;
 import cc.kave.commons.model.events.CommandEvent;
@@ -363,6 +366,24 @@ public abstract class JsonUtils {
 		return TypeUtil.toSerializedNames(json);
 	}
 
+	/**
+	 * streams the serialization of obj into out, the result is identical to
+	 * {@link #toJson(Object)}. The writer is flushed, but not closed.
+	 */
+	public static void toJson(Object obj, Writer out) {
+		try {
+			JsonWriter jw = new SerializedNamesJsonWriter(out);
+			if (obj == null) {
+				gson.toJson(JsonNull.INSTANCE, jw);
+			} else {
+				gson.toJson(obj, obj.getClass(), jw);
+			}
+			jw.flush();
+		} catch (IOException e) {
+			throw Throws.throwUnhandledException(e);
+		}
+	}
+
 	public static <T> String toJsonFormatted(Object obj) {
 		String json = gsonPretty.toJson(obj).replace("  ", "    ");
 		return TypeUtil.toSerializedNames(json);
@@ -17,19 +17,21 @@
 package cc.kave.commons.utils.json;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
-import com.google.gson.internal.Streams;
+import com.google.gson.internal.bind.TypeAdapters;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 
 /**
@@ -221,23 +223,60 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory {
 
 		final Map<String, TypeAdapter<?>> labelToDelegate = new LinkedHashMap<String, TypeAdapter<?>>();
 		final Map<Class<?>, TypeAdapter<?>> subtypeToDelegate = new LinkedHashMap<Class<?>, TypeAdapter<?>>();
+		// (kave adaptation) labels of subtypes that can be streamed
+		final Set<String> replayableLabels = new HashSet<String>();
 		for (Map.Entry<String, Class<?>> entry : labelToSubtype.entrySet()) {
 			TypeAdapter<?> delegate = gson.getDelegateAdapter(this, TypeToken.get(entry.getValue()));
 			labelToDelegate.put(entry.getKey(), delegate);
 			subtypeToDelegate.put(entry.getValue(), delegate);
+			if (TypeLabelReader.canReplay(entry.getValue())) {
+				replayableLabels.add(entry.getKey());
+			}
 		}
 
 		return new TypeAdapter<R>() {
 			@Override
 			public R read(JsonReader in) throws IOException {
-				JsonElement jsonElement = Streams.parse(in);
+				if (in.peek() == JsonToken.NULL) {
+					in.nextNull();
+					return null;
+				}
+				// (kave adaptation) stream the value into the concrete adapter
+				// if the type field comes first, which is the case for all
+				// values that have been written by this adapter, and if the
+				// subtype does not contain maps
+				in.beginObject();
+				JsonObject jsonObject = new JsonObject();
+				if (in.hasNext()) {
+					String firstName = in.nextName();
+					if (typeFieldName.equals(firstName) && in.peek() == JsonToken.STRING) {
+						String label = in.nextString();
+						if (replayableLabels.contains(label)) {
+							return getDelegate(label).read(TypeLabelReader.replay(in, typeFieldName, label));
+						}
+						jsonObject.addProperty(firstName, label);
+					} else {
+						jsonObject.add(firstName, TypeAdapters.JSON_ELEMENT.read(in));
+					}
+					while (in.hasNext()) {
+						jsonObject.add(in.nextName(), TypeAdapters.JSON_ELEMENT.read(in));
+					}
+				}
+				in.endObject();
+				return fromJsonTree(jsonObject);
+			}
+
+			private R fromJsonTree(JsonObject jsonObject) {
 				// (kave adaptation) was: ".remove(typeFiledName)"
-				JsonElement labelJsonElement = jsonElement.getAsJsonObject().get(typeFieldName);
+				JsonElement labelJsonElement = jsonObject.get(typeFieldName);
 				if (labelJsonElement == null) {
 					throw new JsonParseException("cannot deserialize " + baseType
 							+ " because it does not define a field named " + typeFieldName);
 				}
-				String label = labelJsonElement.getAsString();
+				return getDelegate(labelJsonElement.getAsString()).fromJsonTree(jsonObject);
+			}
+
+			private TypeAdapter<R> getDelegate(String label) {
 				@SuppressWarnings("unchecked") // registration requires that
 				// subtype extends T
 				TypeAdapter<R> delegate = (TypeAdapter<R>) labelToDelegate.get(label);
@@ -245,13 +284,13 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory {
 					throw new JsonParseException("cannot deserialize " + baseType + " subtype named " + label
 							+ "; did you forget to register a subtype?");
 				}
-				return delegate.fromJsonTree(jsonElement);
+				return delegate;
 			}
 
 			@Override
 			public void write(JsonWriter out, R value) throws IOException {
 				if (value == null) {
-					Streams.write(null, out);
+					out.nullValue();
 					return;
 				}
 				Class<?> srcType = value.getClass();
@@ -263,7 +302,6 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory {
 					throw new JsonParseException(
 							"cannot serialize " + srcType.getName() + "; did you forget to register a subtype?");
 				}
-				JsonObject jsonObject = delegate.toJsonTree(value).getAsJsonObject();
 				// (kave adaptation) disabled check
 				// if (jsonObject.has(typeFieldName)) {
 				// throw new JsonParseException("cannot serialize " +
@@ -271,12 +309,9 @@ public final class RuntimeTypeAdapterFactory<T> implements TypeAdapterFactory {
 				// + " because it already defines a field named " +
 				// typeFieldName);
 				// }
-				JsonObject clone = new JsonObject();
-				clone.add(typeFieldName, new JsonPrimitive(label));
-				for (Map.Entry<String, JsonElement> e : jsonObject.entrySet()) {
-					clone.add(e.getKey(), e.getValue());
-				}
-				Streams.write(clone, out);
+				// (kave adaptation) stream the value instead of copying its
+				// tree into a new object that starts with the type field
+				delegate.write(TypeLabelWriter.begin(out, typeFieldName, label), value);
 			}
 		};
 	}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.commons.utils.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * {@link JsonWriter} that applies the type name rewriting of
+ * {@link TypeUtil#toSerializedNames(String)} to every string token that is
+ * written, so that the output can be streamed instead of being post-processed
+ * as one big string.
+ */
+class SerializedNamesJsonWriter extends JsonWriter {
+
+	private static final String TYPE_FIELD_NAME = "$type";
+
+	private boolean isTypeLabelNext;
+
+	public SerializedNamesJsonWriter(Writer out) {
+		super(out);
+	}
+
+	@Override
+	public JsonWriter beginArray() throws IOException {
+		isTypeLabelNext = false;
+		return super.beginArray();
+	}
+
+	@Override
+	public JsonWriter beginObject() throws IOException {
+		isTypeLabelNext = false;
+		return super.beginObject();
+	}
+
+	@Override
+	public JsonWriter name(String name) throws IOException {
+		isTypeLabelNext = TYPE_FIELD_NAME.equals(name);
+		return super.name(TypeUtil.toSerializedName(name, false));
+	}
+
+	@Override
+	public JsonWriter value(String value) throws IOException {
+		boolean isTypeLabel = isTypeLabelNext;
+		isTypeLabelNext = false;
+		if (value == null) {
+			return super.value(value);
+		}
+		return super.value(TypeUtil.toSerializedName(value, isTypeLabel));
+	}
+}
@@ -0,0 +1,295 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.commons.utils.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * {@link JsonReader} that replays the beginning of an object, i.e., the
+ * opening brace and the type field, after {@link RuntimeTypeAdapterFactory}
+ * has consumed them from the underlying reader to find the runtime type. All
+ * other tokens are passed through, so one instance can be reused for all
+ * polymorphic values that are nested in the replayed object.
+ * <p>
+ * Reading a map in object form is not supported by the wrapper, as GSON
+ * accesses the internals of the reader for that. Use {@link #canReplay(Class)}
+ * to find types that have to be read from a buffered tree instead.
+ */
+class TypeLabelReader extends JsonReader {
+
+	private static final Reader UNREADABLE_READER = new Reader() {
+		@Override
+		public int read(char[] buffer, int offset, int count) throws IOException {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void close() throws IOException {
+			throw new AssertionError();
+		}
+	};
+
+	private static final int REPLAY_NONE = 0;
+	private static final int REPLAY_BEGIN_OBJECT = 1;
+	private static final int REPLAY_NAME = 2;
+	private static final int REPLAY_LABEL = 3;
+
+	private final JsonReader in;
+
+	private int replay = REPLAY_NONE;
+	private String typeFieldName;
+	private String label;
+
+	private TypeLabelReader(JsonReader in) {
+		super(UNREADABLE_READER);
+		this.in = in;
+		setLenient(in.isLenient());
+	}
+
+	/**
+	 * @return a reader that returns an object start and the given type field
+	 *         before continuing with the remaining tokens of the given reader
+	 */
+	public static JsonReader replay(JsonReader in, String typeFieldName, String label) {
+		TypeLabelReader reader;
+		if (in instanceof TypeLabelReader && ((TypeLabelReader) in).replay == REPLAY_NONE) {
+			reader = (TypeLabelReader) in;
+		} else {
+			reader = new TypeLabelReader(in);
+		}
+		reader.replay = REPLAY_BEGIN_OBJECT;
+		reader.typeFieldName = typeFieldName;
+		reader.label = label;
+		return reader;
+	}
+
+	/**
+	 * @return false, if a map might have to be read while reading the type,
+	 *         i.e., if the type reaches a field of a map type through its
+	 *         concrete fields (polymorphic fields are checked by their own
+	 *         {@link RuntimeTypeAdapterFactory})
+	 */
+	public static boolean canReplay(Class<?> type) {
+		return !reachesMap(type, new HashSet<Type>());
+	}
+
+	private static boolean reachesMap(Type type, Set<Type> visited) {
+		if (!visited.add(type)) {
+			return false;
+		}
+		if (type instanceof ParameterizedType) {
+			ParameterizedType pt = (ParameterizedType) type;
+			if (reachesMap(pt.getRawType(), visited)) {
+				return true;
+			}
+			for (Type arg : pt.getActualTypeArguments()) {
+				if (reachesMap(arg, visited)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (type instanceof GenericArrayType) {
+			return reachesMap(((GenericArrayType) type).getGenericComponentType(), visited);
+		}
+		if (type instanceof WildcardType) {
+			for (Type bound : ((WildcardType) type).getUpperBounds()) {
+				if (reachesMap(bound, visited)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (!(type instanceof Class)) {
+			return false;
+		}
+		Class<?> c = (Class<?>) type;
+		if (c.isArray()) {
+			return reachesMap(c.getComponentType(), visited);
+		}
+		if (Map.class.isAssignableFrom(c)) {
+			return true;
+		}
+		if (c.isPrimitive() || c.isInterface() || Modifier.isAbstract(c.getModifiers())
+				|| c.getName().startsWith("java.")) {
+			return false;
+		}
+		for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+			for (Field f : k.getDeclaredFields()) {
+				int mod = f.getModifiers();
+				if (!Modifier.isStatic(mod) && !Modifier.isTransient(mod) && reachesMap(f.getGenericType(), visited)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void beginArray() throws IOException {
+		expectNoReplay(JsonToken.BEGIN_ARRAY);
+		in.beginArray();
+	}
+
+	@Override
+	public void endArray() throws IOException {
+		expectNoReplay(JsonToken.END_ARRAY);
+		in.endArray();
+	}
+
+	@Override
+	public void beginObject() throws IOException {
+		if (replay == REPLAY_BEGIN_OBJECT) {
+			replay = REPLAY_NAME;
+			return;
+		}
+		expectNoReplay(JsonToken.BEGIN_OBJECT);
+		in.beginObject();
+	}
+
+	@Override
+	public void endObject() throws IOException {
+		expectNoReplay(JsonToken.END_OBJECT);
+		in.endObject();
+	}
+
+	@Override
+	public boolean hasNext() throws IOException {
+		return replay != REPLAY_NONE || in.hasNext();
+	}
+
+	@Override
+	public JsonToken peek() throws IOException {
+		switch (replay) {
+		case REPLAY_BEGIN_OBJECT:
+			return JsonToken.BEGIN_OBJECT;
+		case REPLAY_NAME:
+			return JsonToken.NAME;
+		case REPLAY_LABEL:
+			return JsonToken.STRING;
+		default:
+			return in.peek();
+		}
+	}
+
+	@Override
+	public String nextName() throws IOException {
+		if (replay == REPLAY_NAME) {
+			replay = REPLAY_LABEL;
+			return typeFieldName;
+		}
+		expectNoReplay(JsonToken.NAME);
+		return in.nextName();
+	}
+
+	@Override
+	public String nextString() throws IOException {
+		if (replay == REPLAY_LABEL) {
+			replay = REPLAY_NONE;
+			return label;
+		}
+		expectNoReplay(JsonToken.STRING);
+		return in.nextString();
+	}
+
+	@Override
+	public boolean nextBoolean() throws IOException {
+		expectNoReplay(JsonToken.BOOLEAN);
+		return in.nextBoolean();
+	}
+
+	@Override
+	public void nextNull() throws IOException {
+		expectNoReplay(JsonToken.NULL);
+		in.nextNull();
+	}
+
+	@Override
+	public double nextDouble() throws IOException {
+		expectNoReplay(JsonToken.NUMBER);
+		return in.nextDouble();
+	}
+
+	@Override
+	public long nextLong() throws IOException {
+		expectNoReplay(JsonToken.NUMBER);
+		return in.nextLong();
+	}
+
+	@Override
+	public int nextInt() throws IOException {
+		expectNoReplay(JsonToken.NUMBER);
+		return in.nextInt();
+	}
+
+	@Override
+	public void skipValue() throws IOException {
+		switch (replay) {
+		case REPLAY_BEGIN_OBJECT:
+			// skip the remainder of the object that has been started already
+			replay = REPLAY_NONE;
+			while (in.hasNext()) {
+				in.nextName();
+				in.skipValue();
+			}
+			in.endObject();
+			break;
+		case REPLAY_NAME:
+			replay = REPLAY_LABEL;
+			break;
+		case REPLAY_LABEL:
+			replay = REPLAY_NONE;
+			break;
+		default:
+			in.skipValue();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		replay = REPLAY_NONE;
+		in.close();
+	}
+
+	@Override
+	public String getPath() {
+		return in.getPath();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " at " + in.toString();
+	}
+
+	private void expectNoReplay(JsonToken token) throws IOException {
+		if (replay != REPLAY_NONE) {
+			throw new IllegalStateException("Expected " + token + " but was " + peek() + " at path " + getPath());
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.commons.utils.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * {@link JsonWriter} that lets {@link RuntimeTypeAdapterFactory} stream a
+ * polymorphic value with the type field in front of the fields that the
+ * concrete adapter writes. The factory opens the object and writes the type
+ * field itself, the writer then drops the opening brace and any type field of
+ * the concrete adapter, so that the output is identical to copying the
+ * serialized value into a new object that starts with the type field. All
+ * other tokens are passed through, so one instance can be reused for all
+ * polymorphic values that are nested in the value.
+ */
+class TypeLabelWriter extends JsonWriter {
+
+	private static final Writer UNWRITABLE_WRITER = new Writer() {
+		@Override
+		public void write(char[] buffer, int offset, int counter) {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void flush() throws IOException {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void close() throws IOException {
+			throw new AssertionError();
+		}
+	};
+
+	private final JsonWriter out;
+
+	private int depth = 0;
+
+	// nesting depths of the polymorphic objects that are currently open
+	private int[] typedDepths = new int[8];
+	private String[] typeFieldNames = new String[8];
+	private int numTyped = 0;
+
+	private boolean isObjectStarted = true;
+	private boolean isLabelNext = false;
+
+	private TypeLabelWriter(JsonWriter out) {
+		super(UNWRITABLE_WRITER);
+		this.out = out;
+		setLenient(out.isLenient());
+		setHtmlSafe(out.isHtmlSafe());
+		setSerializeNulls(out.getSerializeNulls());
+	}
+
+	/**
+	 * Opens an object and writes the type field.
+	 * 
+	 * @return the writer that has to be passed to the concrete adapter
+	 */
+	public static JsonWriter begin(JsonWriter out, String typeFieldName, String label) throws IOException {
+		TypeLabelWriter writer = out instanceof TypeLabelWriter ? (TypeLabelWriter) out : new TypeLabelWriter(out);
+		if (!writer.isObjectStarted) {
+			// the concrete adapter of a polymorphic value is polymorphic itself
+			// and continues the object that is already open
+			return writer;
+		}
+		writer.out.beginObject();
+		writer.out.name(typeFieldName);
+		writer.out.value(label);
+
+		if (writer.numTyped == writer.typedDepths.length) {
+			writer.typedDepths = Arrays.copyOf(writer.typedDepths, 2 * writer.numTyped);
+			writer.typeFieldNames = Arrays.copyOf(writer.typeFieldNames, 2 * writer.numTyped);
+		}
+		writer.typedDepths[writer.numTyped] = writer.depth;
+		writer.typeFieldNames[writer.numTyped] = typeFieldName;
+		writer.numTyped++;
+		writer.isObjectStarted = false;
+		return writer;
+	}
+
+	@Override
+	public JsonWriter beginArray() throws IOException {
+		depth++;
+		out.beginArray();
+		return this;
+	}
+
+	@Override
+	public JsonWriter endArray() throws IOException {
+		depth--;
+		out.endArray();
+		return this;
+	}
+
+	@Override
+	public JsonWriter beginObject() throws IOException {
+		depth++;
+		if (!isObjectStarted) {
+			isObjectStarted = true;
+			return this;
+		}
+		out.beginObject();
+		return this;
+	}
+
+	@Override
+	public JsonWriter endObject() throws IOException {
+		depth--;
+		if (numTyped > 0 && typedDepths[numTyped - 1] == depth) {
+			numTyped--;
+		}
+		out.endObject();
+		return this;
+	}
+
+	@Override
+	public JsonWriter name(String name) throws IOException {
+		if (numTyped > 0 && typedDepths[numTyped - 1] == depth - 1 && typeFieldNames[numTyped - 1].equals(name)) {
+			isLabelNext = true;
+			return this;
+		}
+		out.name(name);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(String value) throws IOException {
+		if (isLabelNext) {
+			isLabelNext = false;
+			return this;
+		}
+		out.value(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter nullValue() throws IOException {
+		if (isLabelNext) {
+			isLabelNext = false;
+			return this;
+		}
+		out.nullValue();
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(boolean value) throws IOException {
+		if (isLabelNext) {
+			isLabelNext = false;
+			return this;
+		}
+		out.value(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(double value) throws IOException {
+		if (isLabelNext) {
+			isLabelNext = false;
+			return this;
+		}
+		out.value(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(long value) throws IOException {
+		if (isLabelNext) {
+			isLabelNext = false;
+			return this;
+		}
+		out.value(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Number value) throws IOException {
+		if (isLabelNext) {
+			isLabelNext = false;
+			return this;
+		}
+		out.value(value);
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -32,6 +32,8 @@ public class TypeUtil {
 			.compile("((\"\\$type\": ?)\"cc\\.kave\\.commons\\.model\\.ssts\\.impl\\.([.a-zA-Z0-9_]+)\")");
 	private static Pattern namePattern = Pattern
 			.compile("(KaVE\\.Commons\\.Model\\.SSTs\\.Impl\\.([.a-zA-Z0-9_]+), KaVE.Commons)");
+	private static Pattern typeLabelPattern = Pattern
+			.compile("cc\\.kave\\.commons\\.model\\.ssts\\.impl\\.([.a-zA-Z0-9_]+)");
 
 	public static String toSerializedNames(String json) {
 		// TODO: ugly hack to handle type conversion that is both slow and hard
@@ -61,6 +63,46 @@ public class TypeUtil {
 		// replacePattern(json,
 		// "cc\\.kave\\.commons\\.model\\.ssts\\.impl\\.([.a-zA-Z0-9_]+)",
 		// "[SST:", "]", false);
+		return toSerializedModelNames(sstReplaced);
+	}
+
+	/**
+	 * Applies the same rewriting as {@link #toSerializedNames(String)}, but to a
+	 * single (unescaped) string token of a json document. This allows to rewrite
+	 * names while streaming, without materializing the full json string first.
+	 * 
+	 * @param isTypeLabel
+	 *            true, if the token is the value of a "$type" property
+	 */
+	public static String toSerializedName(String token, boolean isTypeLabel) {
+		if (token.indexOf("cc.kave.commons.model.") == -1
+				&& token.indexOf("KaVE.Commons.Model.SSTs.Impl.") == -1) {
+			return token;
+		}
+
+		if (isTypeLabel) {
+			Matcher typeMatcher = typeLabelPattern.matcher(token);
+			if (typeMatcher.matches()) {
+				token = "[SST:" + toUpperCaseNamespace(typeMatcher.group(1)) + "]";
+			}
+		}
+
+		boolean repeat = true;
+		while (repeat) {
+			repeat = false;
+			Matcher nameMatcher = namePattern.matcher(token);
+			if (nameMatcher.find()) {
+				String srch = nameMatcher.group(1);
+				String repl = "[SST:" + nameMatcher.group(2) + "]";
+				token = token.replace(srch, repl);
+				repeat = true;
+			}
+		}
+
+		return toSerializedModelNames(token);
+	}
+
+	private static String toSerializedModelNames(String sstReplaced) {
 		String vsReplaced = replacePattern(sstReplaced,
 				"cc\\.kave\\.commons\\.model\\.events\\.visualstudio\\.([.a-zA-Z0-9_]+)",
 				"KaVE.Commons.Model.Events.VisualStudio.", ", KaVE.Commons", false);
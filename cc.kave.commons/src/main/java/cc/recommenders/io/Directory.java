@@ -12,8 +12,12 @@ package cc.recommenders.io;
 
 import static com.google.common.base.Predicates.alwaysTrue;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -80,6 +84,21 @@ public class Directory {
 		FileUtils.writeStringToFile(file, content);
 	}
 
+	public void appendContent(String content, String relativePath) throws IOException {
+		File file = new File(rootDir, relativePath);
+		FileUtils.writeStringToFile(file, content, true);
+	}
+
+	public InputStream getInputStream(String relativePath) throws IOException {
+		File file = new File(rootDir, relativePath);
+		return new BufferedInputStream(FileUtils.openInputStream(file));
+	}
+
+	public OutputStream getOutputStream(String relativePath) throws IOException {
+		File file = new File(rootDir, relativePath);
+		return new BufferedOutputStream(FileUtils.openOutputStream(file));
+	}
+
 	public boolean exists(String relativePath) {
 		File file = new File(rootDir, relativePath);
 		return file.exists();
@@ -184,6 +203,10 @@ public class Directory {
 		return files;
 	}
 
+	public File getFile() {
+		return new File(rootDir);
+	}
+
 	public URL getUrl() throws MalformedURLException {
 		return new File(rootDir).toURI().toURL();
 	}
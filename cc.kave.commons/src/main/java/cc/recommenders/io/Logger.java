@@ -20,7 +20,7 @@ import com.google.common.collect.Lists;
 
 public class Logger {
 
-	private static PrintStream out = System.out;
+	private static PrintStream lastOut = System.out;
 	private static boolean isCapturing = false;
 	private static boolean isPrinting = false;
 	private static boolean isDebugging = false;
@@ -30,33 +30,35 @@ public class Logger {
 	// TODO add info(String msg) method
 
 	public static void log(String rawmsg, Object... args) {
-		out = System.out;
-		reallyLog("\n" + getTimeStamp() + "    " + rawmsg, args);
+		reallyLog(System.out, "\n" + getTimeStamp() + "    " + rawmsg, args);
 	}
 
 	public static void err(String rawmsg, Object... args) {
-		out = System.err;
-		reallyLog("\n" + getTimeStamp() + " EE " + rawmsg, args);
+		reallyLog(System.err, "\n" + getTimeStamp() + " EE " + rawmsg, args);
 	}
 
 	public static void debug(String rawmsg, Object... args) {
-		out = System.out;
 		if (isDebugging) {
-			reallyLog("\n" + getTimeStamp() + " ~~ " + rawmsg, args);
+			reallyLog(System.out, "\n" + getTimeStamp() + " ~~ " + rawmsg, args);
 		}
 	}
 
 	public static void append(String rawmsg, Object... args) {
-		reallyLog(rawmsg, args);
+		reallyLog(null, rawmsg, args);
 	}
 
-	private static void reallyLog(String rawmsg, Object[] args) {
+	// synchronized, because messages can be logged from several threads. appended messages (out == null) are printed to
+	// the stream of the last message
+	private static synchronized void reallyLog(PrintStream out, String rawmsg, Object[] args) {
+		if (out != null) {
+			lastOut = out;
+		}
 		String msg = String.format(rawmsg, args);
 		if (isCapturing) {
 			log.add(msg);
 		}
 		if (isPrinting) {
-			out.print(msg);
+			lastOut.print(msg);
 		}
 	}
 
@@ -75,11 +77,11 @@ public class Logger {
 		return isCapturing;
 	}
 
-	public static List<String> getCapturedLog() {
+	public static synchronized List<String> getCapturedLog() {
 		return Lists.newLinkedList(log);
 	}
 
-	public static void reset() {
+	public static synchronized void reset() {
 		log = Lists.newLinkedList();
 		isCapturing = false;
 		isPrinting = false;
@@ -102,7 +104,7 @@ public class Logger {
 		return isDebugging;
 	}
 
-	public static void clearLog() {
+	public static synchronized void clearLog() {
 		log = Lists.newLinkedList();
 	}
 }
\ No newline at end of file
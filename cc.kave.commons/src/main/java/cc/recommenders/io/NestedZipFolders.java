@@ -15,22 +15,38 @@
  */
 package cc.recommenders.io;
 
-import java.io.IOException;
+import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import cc.kave.commons.utils.json.JsonUtils;
-
+import cc.recommenders.io.ZipFolderIndex.FolderInfo;
+import cc.recommenders.io.ZipFolderIndex.ZipInfo;
+
+/**
+ * Read access to a tree of zip folders. All keys and zips are looked up in the
+ * {@link ZipFolderIndex} of the root directory, which is opened on first
+ * access. The index is only read, it is never stored from here. Finding the
+ * keys validates the whole index, reading a known key only validates its
+ * folder.
+ */
 public class NestedZipFolders<T> {
 
 	private final Directory root;
 	private Class<T> classOfMetaData;
 
+	private ZipFolderIndex index;
+	private Map<T, String> folders;
+
 	public NestedZipFolders(Directory root, Class<T> classOfMetaData) {
 		this.root = root;
 		this.classOfMetaData = classOfMetaData;
@@ -40,76 +56,99 @@ public class NestedZipFolders<T> {
 		return root.getUrl();
 	}
 
-	public Set<T> findKeys() {
-		Set<T> keys = Sets.newHashSet();
-		Set<String> markerFiles = root.findFiles(relFileName -> relFileName.endsWith(".zipfolder"));
-		for (String markerFile : markerFiles) {
-			keys.add(readMetaData(markerFile));
+	private synchronized Map<T, String> refreshFolders() {
+		if (index == null) {
+			index = ZipFolderIndex.open(root.getFile());
+		} else if (index.refresh()) {
+			folders = null;
 		}
-		return keys;
-	}
-
-	private T readMetaData(String file) {
-		try {
-			return root.read(file, classOfMetaData);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
+		if (folders == null) {
+			folders = Maps.newHashMap();
+			for (Entry<String, FolderInfo> e : index.getFolders().entrySet()) {
+				T key = JsonUtils.fromJson(e.getValue().getMetaData(), classOfMetaData);
+				folders.put(key, e.getKey());
+			}
 		}
+		return folders;
 	}
 
-	public boolean hasZips(T key) {
-		if (isUnknown(key)) {
-			return false;
+	/**
+	 * @return relative path and content of the folder of the key or null if
+	 *         the key does not exist
+	 */
+	private synchronized Entry<String, FolderInfo> getFolder(T key) {
+		String folder = folders == null ? null : folders.get(key);
+		FolderInfo info = folder == null ? null : index.refresh(folder);
+		if (info == null) {
+			// unknown or removed key, the folders might have been changed
+			if (folder != null) {
+				folders = null;
+			}
+			folder = refreshFolders().get(key);
+			info = folder == null ? null : index.getFolderInfo(folder);
 		}
-
-		Directory zipFolder = getZipFolder(key);
-		Set<String> zips = findZipsIn(zipFolder);
-		return !zips.isEmpty();
+		return info == null ? null : Maps.immutableEntry(folder, info);
 	}
 
-	private boolean isUnknown(T key) {
-		String markerName = getMarkerName(key);
-		return !root.exists(markerName);
+	public Set<T> findKeys() {
+		return Sets.newHashSet(refreshFolders().keySet());
 	}
 
-	private Set<String> findZipsIn(Directory zipFolder) {
-		return zipFolder.list(f -> f.endsWith(".zip"));
+	public boolean hasZips(T key) {
+		Entry<String, FolderInfo> folder = getFolder(key);
+		return folder != null && !folder.getValue().getZips().isEmpty();
 	}
 
-	private Directory getZipFolder(T key) {
-		String file = getMarkerName(key);
-		Directory typeDir = root.getParentDirectory(file);
-		return typeDir;
-	}
+	public <V> List<V> readAllZips(T key, Class<V> classOfV) {
+		Entry<String, FolderInfo> folder = getFolder(key);
+		if (folder == null) {
+			return Lists.newLinkedList();
+		}
 
-	private String getMarkerName(T key) {
-		String file = JsonUtils.toJson(key);
-		file = file.replaceAll("\\\"", "\""); // quotes inside json
-		file = file.replaceAll("\"", ""); // surrounding quotes
-		file = file.replaceAll("\\.", "/"); // surrounding quotes
-		file = file.replaceAll("[^a-zA-Z0-9\\[\\](){}\\\\/,-_+$]", "_");
-		file = file + "/.zipfolder";
-		return file;
+		List<V> values = Lists.newArrayListWithCapacity(folder.getValue().getNumEntries());
+		for (File zip : getZips(folder)) {
+			readZip(zip, classOfV, values);
+		}
+		return values;
 	}
 
-	public <V> List<V> readAllZips(T key, Class<V> classOfV) {
-		if (isUnknown(key)) {
+	/**
+	 * reads all zips of the key in parallel, the result preserves the order of
+	 * {@link #readAllZips(Object, Class)}
+	 */
+	public <V> List<V> readAllZipsInParallel(T key, Class<V> classOfV) {
+		Entry<String, FolderInfo> folder = getFolder(key);
+		if (folder == null) {
 			return Lists.newLinkedList();
 		}
 
-		List<V> values = Lists.newLinkedList();
-		Directory zipFolder = getZipFolder(key);
-		Set<String> zips = findZipsIn(zipFolder);
-		for (String zip : zips) {
-			try {
-				IReadingArchive ra = zipFolder.getReadingArchive(zip);
-				while (ra.hasNext()) {
-					values.add(ra.getNext(classOfV));
-				}
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			}
+		List<List<V>> parts = getZips(folder).parallelStream().map(zip -> {
+			List<V> part = Lists.newArrayList();
+			readZip(zip, classOfV, part);
+			return part;
+		}).collect(Collectors.toList());
+
+		List<V> values = Lists.newArrayListWithCapacity(folder.getValue().getNumEntries());
+		for (List<V> part : parts) {
+			values.addAll(part);
 		}
 		return values;
 	}
-}
\ No newline at end of file
+
+	private List<File> getZips(Entry<String, FolderInfo> folder) {
+		File dir = index.getFolder(folder.getKey());
+		List<File> zips = Lists.newArrayList();
+		for (ZipInfo zip : folder.getValue().getZips()) {
+			zips.add(new File(dir, zip.getName()));
+		}
+		return zips;
+	}
+
+	private static <V> void readZip(File zip, Class<V> classOfV, List<V> values) {
+		try (IReadingArchive ra = new ReadingArchive(zip)) {
+			while (ra.hasNext()) {
+				values.add(ra.getNext(classOfV));
+			}
+		}
+	}
+}
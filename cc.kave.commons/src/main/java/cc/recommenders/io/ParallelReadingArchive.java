@@ -0,0 +1,245 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package cc.recommenders.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+
+import com.google.common.collect.Lists;
+
+import cc.kave.commons.utils.json.JsonUtils;
+import cc.recommenders.assertions.Asserts;
+
+/**
+ * Random-access alternative to {@link ReadingArchive} that decodes entries in
+ * parallel. Entries can be accessed by index, streamed through a {@link Stream},
+ * or consumed with {@link #forEach(Type, Consumer, boolean)}. Streaming and
+ * consuming decode the entries in the pool of the archive and never keep more
+ * than a fixed window of decoded entries in memory.
+ */
+public class ParallelReadingArchive implements IReadingArchive {
+
+	private final ZipFile zipFile;
+	private final List<ZipEntry> entries;
+	private final ForkJoinPool pool;
+	private final int windowSize;
+
+	private int next = 0;
+
+	public ParallelReadingArchive(File file) {
+		this(file, ForkJoinPool.commonPool(), 2 * ForkJoinPool.commonPool().getParallelism());
+	}
+
+	public ParallelReadingArchive(File file, ForkJoinPool pool, int windowSize) {
+		Asserts.assertTrue(file.exists());
+		Asserts.assertTrue(file.isFile());
+		Asserts.assertNotNull(pool);
+		Asserts.assertTrue(windowSize > 0);
+		this.pool = pool;
+		this.windowSize = windowSize;
+		try {
+			zipFile = new ZipFile(file);
+			entries = Lists.newArrayList(Collections.list(zipFile.entries()));
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public int getNumberOfEntries() {
+		return entries.size();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return next < entries.size();
+	}
+
+	@Override
+	public String getNextPlain() {
+		return getPlain(next++);
+	}
+
+	@Override
+	public <T> T getNext(Type classOfT) {
+		return get(next++, classOfT);
+	}
+
+	public String getPlain(int idx) {
+		try (InputStream in = zipFile.getInputStream(entries.get(idx))) {
+			StringWriter writer = new StringWriter();
+			IOUtils.copy(in, writer, Charset.defaultCharset().toString());
+			return writer.toString();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public <T> T get(int idx, Type classOfT) {
+		try (InputStream in = zipFile.getInputStream(entries.get(idx))) {
+			return JsonUtils.fromJson(in, classOfT);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * decodes all remaining entries in parallel, the result preserves the order
+	 * of the archive
+	 */
+	@Override
+	public <T> List<T> getAll(Class<T> c) {
+		List<T> out = Lists.newArrayListWithCapacity(entries.size() - next);
+		this.<T> forEach(c, out::add, true);
+		return out;
+	}
+
+	/**
+	 * Creates a stream over all entries of the archive (independent of the
+	 * position of {@link #getNext(Type)}). The entries are decoded in the pool
+	 * of this archive, at most "windowSize" entries ahead of the stream. The
+	 * stream itself is sequential, so the downstream operations run in the
+	 * thread of the terminal operation.
+	 * 
+	 * @param isOrdered
+	 *            if true, entries are streamed in archive order, otherwise in
+	 *            the order in which their decoding finishes
+	 */
+	public <T> Stream<T> stream(Type classOfT, boolean isOrdered) {
+		return StreamSupport.stream(new WindowSpliterator<T>(classOfT, 0, isOrdered), false);
+	}
+
+	/**
+	 * Decodes all remaining entries in the pool of this archive and passes them
+	 * to the consumer, which is always called from the current thread. At most
+	 * "windowSize" entries are decoded ahead of the consumer.
+	 * 
+	 * @param isOrdered
+	 *            if true, entries are consumed in archive order, otherwise in
+	 *            the order in which their decoding finishes
+	 */
+	public <T> void forEach(Type classOfT, Consumer<T> consumer, boolean isOrdered) {
+		WindowSpliterator<T> remaining = new WindowSpliterator<T>(classOfT, next, isOrdered);
+		next = entries.size();
+		remaining.forEachRemaining(consumer);
+	}
+
+	private static <T> T await(Future<T> f) {
+		try {
+			return f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			zipFile.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Submits the decoding of the entries to the pool and hands them out one by
+	 * one, while at most "windowSize" entries are in flight.
+	 */
+	private class WindowSpliterator<T> implements Spliterator<T> {
+
+		private final Type classOfT;
+		private final boolean isOrdered;
+		private final Deque<Future<T>> inFlight = new ArrayDeque<>(windowSize);
+		private final CompletionService<T> completed = new ExecutorCompletionService<>(pool);
+		private int origin;
+
+		public WindowSpliterator(Type classOfT, int origin, boolean isOrdered) {
+			this.classOfT = classOfT;
+			this.origin = origin;
+			this.isOrdered = isOrdered;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			while (origin < entries.size() && inFlight.size() < windowSize) {
+				int idx = origin++;
+				Callable<T> decoding = () -> get(idx, classOfT);
+				inFlight.add(isOrdered ? pool.submit(decoding) : completed.submit(decoding));
+			}
+			if (inFlight.isEmpty()) {
+				return false;
+			}
+			action.accept(await(isOrdered ? inFlight.removeFirst() : takeCompleted()));
+			return true;
+		}
+
+		private Future<T> takeCompleted() {
+			try {
+				Future<T> done = completed.take();
+				inFlight.remove(done);
+				return done;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			// decoding is already parallel, the consumer is fed sequentially
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return entries.size() - origin + inFlight.size();
+		}
+
+		@Override
+		public int characteristics() {
+			return (isOrdered ? ORDERED : 0) | SIZED | IMMUTABLE;
+		}
+	}
+}
@@ -81,7 +81,7 @@ public class ReadingArchive implements IReadingArchive {
 
 	@Override
 	public <T> List<T> getAll(Class<T> c) {
-		List<T> out = Lists.newLinkedList();
+		List<T> out = Lists.newArrayListWithCapacity(zipFile.size());
 		while (hasNext()) {
 			out.add(getNext(c));
 		}
@@ -10,31 +10,58 @@
  ******************************************************************************/
 package cc.recommenders.io;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Map;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import cc.kave.commons.utils.json.JsonUtils;
 import cc.recommenders.assertions.Asserts;
 
+/**
+ * Streams all entries directly into a zip file, so an archive never has to be
+ * kept in memory. Entries are written to a temporary ".part" file next to the
+ * target that is moved to its final location on {@link #close()}, an archive
+ * that is still being written is therefore never visible as a ".zip" file.
+ * An optional listener is notified with the file and its number of entries
+ * once the archive has been moved.
+ */
 public class WritingArchive implements IWritingArchive {
 
+	private static final String PART_FILE_EXTENSION = ".part";
+
 	private final File file;
-	private final Map<String, String> content;
+	private final File partFile;
+	private final Set<String> fileNames;
+	private final ObjIntConsumer<File> onClose;
+
+	private ZipOutputStream zos;
+	private Writer writer;
 
 	public WritingArchive(File file) {
+		this(file, (f, numEntries) -> {
+		});
+	}
+
+	public WritingArchive(File file, ObjIntConsumer<File> onClose) {
 		Asserts.assertFalse(file.exists());
 		File parent = file.getParentFile();
 		Asserts.assertTrue(parent.exists());
 		Asserts.assertTrue(parent.isDirectory());
 
-		content = Maps.newLinkedHashMap();
+		fileNames = Sets.newHashSet();
 		this.file = file;
+		partFile = new File(parent, file.getName() + PART_FILE_EXTENSION);
+		this.onClose = onClose;
 	}
 
 	@Override
@@ -46,42 +73,65 @@ public class WritingArchive implements IWritingArchive {
 
 	@Override
 	public <T> void add(T obj) {
-		int count = content.size();
+		int count = fileNames.size();
 		String filename = count + ".json";
 		add(obj, filename);
 	}
 
 	@Override
 	public <T> void add(T obj, String fileName) {
-		addPlain(JsonUtils.toJson(obj), fileName);
+		try {
+			openEntry(fileName);
+			JsonUtils.toJson(obj, writer);
+			closeEntry();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	@Override
 	public <T> void addPlain(String str) {
-		int count = content.size();
+		int count = fileNames.size();
 		String filename = count + ".txt";
 		addPlain(str, filename);
 	}
 
 	@Override
 	public <T> void addPlain(String str, String fileName) {
-		// TODO crash on fileName exists
-		content.put(fileName, str);
+		try {
+			openEntry(fileName);
+			writer.write(str);
+			closeEntry();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void openEntry(String fileName) throws IOException {
+		Asserts.assertTrue(fileNames.add(fileName), "archive already contains an entry named '" + fileName + "'");
+		if (zos == null) {
+			zos = new ZipOutputStream(new FileOutputStream(partFile));
+			writer = new BufferedWriter(new OutputStreamWriter(zos, Charset.defaultCharset()));
+		}
+		zos.putNextEntry(new ZipEntry(fileName));
+	}
+
+	private void closeEntry() throws IOException {
+		writer.flush();
+		zos.closeEntry();
 	}
 
 	@Override
 	public void close() {
 		try {
-			if (!content.isEmpty()) {
-				ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
-				for (String fileName : content.keySet()) {
-					out.putNextEntry(new ZipEntry(fileName));
-					String json = content.get(fileName);
-					out.write(json.getBytes());
-					out.closeEntry();
-				}
-				out.close();
-				content.clear();
+			if (zos != null) {
+				writer.close();
+				zos = null;
+				writer = null;
+				int numEntries = fileNames.size();
+				fileNames.clear();
+				Asserts.assertTrue(partFile.renameTo(file), "cannot move finished archive to " + file);
+				onClose.accept(file, numEntries);
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -35,6 +35,7 @@ public class ZipFolder {
 
 	private final String _root;
 	private final String _metaData;
+	private final ZipFolderIndex _index;
 
 	private int _fileCounter;
 
@@ -43,16 +44,30 @@ public class ZipFolder {
 	}
 
 	public ZipFolder(@Nonnull String root, @Nonnull String metaData) {
+		this(root, metaData, null);
+	}
+
+	/**
+	 * @param index
+	 *            optional index in which all archives are registered that are
+	 *            created in this folder
+	 */
+	public ZipFolder(@Nonnull String root, @Nonnull String metaData, ZipFolderIndex index) {
 		File f = new File(root);
 		Asserts.assertTrue(f.exists() && f.isDirectory());
 		_root = root;
 		_metaData = metaData;
+		_index = index;
 	}
 
 	public WritingArchive createNewArchive() {
 		createMarker();
 		File fileName = createNextUnusedFileName();
-		return new WritingArchive(fileName);
+		if (_index == null) {
+			return new WritingArchive(fileName);
+		}
+		File folder = new File(_root);
+		return new WritingArchive(fileName, (zip, numEntries) -> _index.register(folder, _metaData, zip, numEntries));
 	}
 
 	private void createMarker() {
@@ -0,0 +1,406 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package cc.recommenders.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.reflect.TypeToken;
+
+import cc.kave.commons.utils.json.JsonUtils;
+import cc.recommenders.assertions.Asserts;
+
+/**
+ * Persistent index of all zip folders below a root directory. For every folder
+ * that contains a ".zipfolder" marker, the index stores the meta data of the
+ * marker and the zips of the folder, together with their sizes and number of
+ * entries, so the keys of a nested zip folder structure can be found without
+ * crawling the whole tree.
+ * 
+ * The index is stored in the root directory. It is validated by comparing the
+ * modification date of every indexed folder and of all other directories of
+ * the tree. Changed zip folders are listed again. A changed directory is only
+ * listed to check for new subdirectories or a new marker, the whole tree is
+ * crawled again if one is found, so folders that are not created through
+ * {@link ZipFolderLRUCache} are detected as well. The file is removed as long
+ * as there are unsaved changes, so an interrupted write never leaves an
+ * outdated index behind.
+ */
+public class ZipFolderIndex {
+
+	public static final String FILE_NAME = ".zipfolderindex";
+
+	private static final Type INDEX_TYPE = new TypeToken<IndexData>() {
+	}.getType();
+
+	private static final Comparator<String> ZIP_ORDER = Comparator.comparing(String::length)
+			.thenComparing(Comparator.naturalOrder());
+
+	private final File root;
+	private final File indexFile;
+	private final Map<String, FolderInfo> folders = Maps.newLinkedHashMap();
+	private final Map<String, Long> directories = Maps.newLinkedHashMap();
+
+	private boolean isDirty;
+
+	private ZipFolderIndex(File root) {
+		this.root = root;
+		this.indexFile = new File(root, FILE_NAME);
+	}
+
+	/**
+	 * opens the index of the root directory, the index is created by crawling
+	 * the directory tree if it does not exist yet. Opening never writes the
+	 * index, it is only stored on {@link #save()}.
+	 */
+	public static ZipFolderIndex open(File root) {
+		Asserts.assertTrue(root.isDirectory());
+		ZipFolderIndex index = new ZipFolderIndex(root);
+		IndexData data = index.indexFile.exists() ? JsonUtils.fromJson(index.indexFile, INDEX_TYPE) : null;
+		// indices of older versions do not contain the directories
+		if (data != null && data.folders != null && data.directories != null) {
+			index.folders.putAll(data.folders);
+			index.directories.putAll(data.directories);
+			index.refresh();
+		} else {
+			index.crawl();
+		}
+		return index;
+	}
+
+	/**
+	 * lists the whole directory tree, the zips of unchanged folders are not
+	 * counted again
+	 */
+	private void crawl() {
+		Map<String, FolderInfo> previous = Maps.newHashMap(folders);
+		folders.clear();
+		directories.clear();
+		try {
+			Files.walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					File folder = dir.toFile();
+					String relativePath = relativePath(folder);
+					if (new File(folder, ZipFolder.MARKER_FILE_NAME).exists()) {
+						folders.put(relativePath, scan(folder, previous.get(relativePath)));
+					} else {
+						directories.put(relativePath, lastModified(folder));
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		isDirty = true;
+	}
+
+	/**
+	 * validates the index against the file system and crawls the tree again if
+	 * new folders might exist
+	 * 
+	 * @return true if folders have been added or removed or if the content of a
+	 *         folder has changed
+	 */
+	public synchronized boolean refresh() {
+		boolean hasChanged = false;
+		boolean hasNewFolders = false;
+		for (String relativePath : Lists.newArrayList(folders.keySet())) {
+			File folder = new File(root, relativePath);
+			boolean isModified = lastModified(folder) != folders.get(relativePath).lastModified;
+			hasChanged |= refreshFolder(relativePath);
+			hasNewFolders |= isModified && folder.isDirectory() && hasUnknownSubdirectories(folder);
+		}
+		Iterator<Entry<String, Long>> it = directories.entrySet().iterator();
+		while (it.hasNext()) {
+			Entry<String, Long> e = it.next();
+			File dir = new File(root, e.getKey());
+			long lastModified = lastModified(dir);
+			if (lastModified == e.getValue()) {
+				continue;
+			}
+			isDirty = true;
+			if (!dir.isDirectory()) {
+				it.remove();
+			} else if (new File(dir, ZipFolder.MARKER_FILE_NAME).exists() || hasUnknownSubdirectories(dir)) {
+				hasNewFolders = true;
+			} else {
+				e.setValue(lastModified);
+			}
+		}
+		if (hasNewFolders) {
+			crawl();
+			return true;
+		}
+		return hasChanged;
+	}
+
+	/**
+	 * validates a single indexed folder, which is much cheaper than a full
+	 * {@link #refresh()}, but does not detect new folders
+	 * 
+	 * @return the current content of the folder or null if it is not indexed
+	 */
+	public synchronized FolderInfo refresh(String relativePath) {
+		refreshFolder(relativePath);
+		return folders.get(relativePath);
+	}
+
+	private boolean refreshFolder(String relativePath) {
+		FolderInfo old = folders.get(relativePath);
+		if (old == null) {
+			return false;
+		}
+		File folder = new File(root, relativePath);
+		if (lastModified(folder) == old.lastModified) {
+			return false;
+		}
+		if (!new File(folder, ZipFolder.MARKER_FILE_NAME).exists()) {
+			folders.remove(relativePath);
+			isDirty = true;
+			return true;
+		}
+		FolderInfo current = scan(folder, old);
+		folders.put(relativePath, current);
+		isDirty = true;
+		return !current.hasSameContent(old);
+	}
+
+	private boolean hasUnknownSubdirectories(File dir) {
+		File[] subdirs = dir.listFiles(File::isDirectory);
+		if (subdirs != null) {
+			for (File subdir : subdirs) {
+				String relativePath = relativePath(subdir);
+				if (!folders.containsKey(relativePath) && !directories.containsKey(relativePath)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static FolderInfo scan(File folder, FolderInfo previous) {
+		FolderInfo info = new FolderInfo();
+		info.lastModified = lastModified(folder);
+		try {
+			info.metaData = FileUtils.readFileToString(new File(folder, ZipFolder.MARKER_FILE_NAME));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		List<String> zipNames = Lists.newArrayList(folder.list((dir, name) -> name.endsWith(".zip")));
+		zipNames.sort(ZIP_ORDER);
+		for (String zipName : zipNames) {
+			File zip = new File(folder, zipName);
+			ZipInfo old = previous == null ? null : previous.find(zipName);
+			if (old != null && old.size == zip.length()) {
+				info.zips.add(old);
+			} else {
+				info.zips.add(new ZipInfo(zipName, zip.length(), countEntries(zip)));
+			}
+		}
+		return info;
+	}
+
+	/**
+	 * java.io.File only provides a precision of seconds in Java 8
+	 */
+	private static long lastModified(File folder) {
+		try {
+			return Files.getLastModifiedTime(folder.toPath()).to(TimeUnit.MICROSECONDS);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static int countEntries(File zip) {
+		try (ZipFile zf = new ZipFile(zip)) {
+			return zf.size();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private String relativePath(File folder) {
+		return root.toPath().relativize(folder.toPath()).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * registers a zip that has been written to the folder, an existing entry
+	 * with the same name is replaced
+	 */
+	public synchronized void register(File folder, String metaData, File zip, int numEntries) {
+		indexFile.delete();
+		isDirty = true;
+		String relativePath = relativePath(folder);
+		if (!folders.containsKey(relativePath)) {
+			registerParents(folder);
+		}
+		FolderInfo info = folders.computeIfAbsent(relativePath, f -> new FolderInfo());
+		info.metaData = metaData;
+		info.zips.remove(info.find(zip.getName()));
+		info.zips.add(new ZipInfo(zip.getName(), zip.length(), numEntries));
+		info.lastModified = lastModified(folder);
+	}
+
+	/**
+	 * Directories that are already known keep their modification date, so a
+	 * refresh still detects other folders that have been created in them.
+	 */
+	private void registerParents(File folder) {
+		File parent = folder.getParentFile();
+		while (parent != null && parent.toPath().startsWith(root.toPath())) {
+			String relativePath = relativePath(parent);
+			if (!directories.containsKey(relativePath) && !folders.containsKey(relativePath)) {
+				directories.put(relativePath, lastModified(parent));
+			}
+			parent = parent.getParentFile();
+		}
+	}
+
+	/**
+	 * @return all indexed folders (relative to the root, separated by "/") and
+	 *         their content
+	 */
+	public synchronized Map<String, FolderInfo> getFolders() {
+		return Collections.unmodifiableMap(Maps.newLinkedHashMap(folders));
+	}
+
+	public synchronized FolderInfo getFolderInfo(String relativePath) {
+		return folders.get(relativePath);
+	}
+
+	public File getFolder(String relativePath) {
+		return new File(root, relativePath);
+	}
+
+	/**
+	 * writes the index to the root directory, if it has been changed since it
+	 * was opened or saved
+	 */
+	public synchronized void save() throws IOException {
+		if (!isDirty) {
+			return;
+		}
+		File tmpFile = new File(root, FILE_NAME + ".tmp");
+		IndexData data = new IndexData();
+		data.folders = folders;
+		data.directories = directories;
+		JsonUtils.toJson(data, tmpFile);
+		Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		isDirty = false;
+	}
+
+	private static class IndexData {
+		private Map<String, FolderInfo> folders;
+		private Map<String, Long> directories;
+	}
+
+	public static class FolderInfo {
+
+		private String metaData;
+		private long lastModified;
+		private final List<ZipInfo> zips = Lists.newArrayList();
+
+		public String getMetaData() {
+			return metaData;
+		}
+
+		public List<ZipInfo> getZips() {
+			return Collections.unmodifiableList(zips);
+		}
+
+		public int getNumEntries() {
+			int num = 0;
+			for (ZipInfo zip : zips) {
+				num += zip.numEntries;
+			}
+			return num;
+		}
+
+		private ZipInfo find(String name) {
+			for (ZipInfo zip : zips) {
+				if (zip.name.equals(name)) {
+					return zip;
+				}
+			}
+			return null;
+		}
+
+		private boolean hasSameContent(FolderInfo other) {
+			return Objects.equals(metaData, other.metaData) && zips.equals(other.zips);
+		}
+	}
+
+	public static class ZipInfo {
+
+		private final String name;
+		private final long size;
+		private final int numEntries;
+
+		public ZipInfo(String name, long size, int numEntries) {
+			this.name = name;
+			this.size = size;
+			this.numEntries = numEntries;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public int getNumEntries() {
+			return numEntries;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ZipInfo)) {
+				return false;
+			}
+			ZipInfo other = (ZipInfo) obj;
+			return name.equals(other.name) && size == other.size && numEntries == other.numEntries;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(name, size, numEntries);
+		}
+	}
+}
@@ -16,6 +16,7 @@
 package cc.recommenders.io;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +30,7 @@ public class ZipFolderLRUCache<T> implements AutoCloseable {
 
 	private final File _root;
 	private final int _capacity;
+	private final ZipFolderIndex _index;
 
 	private final List<T> _accessOrderList = Lists.newLinkedList();
 	private final Map<T, WritingArchive> _openArchives = Maps.newLinkedHashMap();
@@ -41,6 +43,7 @@ public class ZipFolderLRUCache<T> implements AutoCloseable {
 
 		_root = root;
 		_capacity = capacity;
+		_index = ZipFolderIndex.open(root);
 	}
 
 	public IWritingArchive getArchive(T key) {
@@ -83,7 +86,7 @@ public class ZipFolderLRUCache<T> implements AutoCloseable {
 		if (!new File(folderName).exists()) {
 			new File(folderName).mkdirs();
 		}
-		ZipFolder folderUtil = new ZipFolder(folderName, JsonUtils.toJson(key));
+		ZipFolder folderUtil = new ZipFolder(folderName, JsonUtils.toJson(key), _index);
 
 		_folders.put(key, folderUtil);
 
@@ -121,5 +124,10 @@ public class ZipFolderLRUCache<T> implements AutoCloseable {
 		_accessOrderList.clear();
 		_openArchives.clear();
 		_folders.clear();
+		try {
+			_index.save();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 	}
 }
\ No newline at end of file
@@ -12,16 +12,14 @@ package cc.recommenders.names;
 
 import static cc.recommenders.assertions.Checks.ensureIsNotNull;
 
-import java.util.Map;
-
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.collect.MapMaker;
+import cc.kave.commons.utils.NameInterner;
 
 public class CoReFieldName implements ICoReFieldName {
     private static final long serialVersionUID = 5067244907255465328L;
 
-    private static Map<String /* vmTypeName */, CoReFieldName> index = new MapMaker().weakValues().makeMap();
+    private static final NameInterner<CoReFieldName> index = new NameInterner<>(CoReFieldName::new, 64);
 
     /**
      * Format: DeclaringType'.'fieldName;FieldType, i.e., &lt;VmTypeName&gt;.&lt;String&gt;;&lt;VmTypeName&gt;
@@ -31,12 +29,7 @@ public class CoReFieldName implements ICoReFieldName {
      */
     public static CoReFieldName get(final String fieldName) {
         // typeName = removeGenerics(typeName);
-        CoReFieldName res = index.get(fieldName);
-        if (res == null) {
-            res = new CoReFieldName(fieldName);
-            index.put(fieldName, res);
-        }
-        return res;
+        return index.get(fieldName);
     }
 
     private String identifier;
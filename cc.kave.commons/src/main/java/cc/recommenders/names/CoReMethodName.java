@@ -25,16 +25,15 @@ import static cc.recommenders.names.CoReTypeName.SHORT;
 import static cc.recommenders.names.CoReTypeName.VOID;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.collect.MapMaker;
+import cc.kave.commons.utils.NameInterner;
 
 public class CoReMethodName implements ICoReMethodName {
     private static final long serialVersionUID = 688964238062226061L;
 
-    private static Map<String /* name */, CoReMethodName> index = new MapMaker().weakValues().makeMap();
+    private static final NameInterner<CoReMethodName> index = new NameInterner<>(CoReMethodName::create, 64);
 
     public static CoReMethodName get(final String vmFullQualifiedTypeName, final String vmMethodSignature) {
         return get(vmFullQualifiedTypeName + "." + vmMethodSignature);
@@ -57,16 +56,15 @@ public class CoReMethodName implements ICoReMethodName {
         return get(vmBaseTypeName.getIdentifier(), vmMethodName.getSignature());
     }
 
-    public static synchronized CoReMethodName get(final String vmFullQualifiedMethodName) {
-        CoReMethodName res = index.get(vmFullQualifiedMethodName);
-        if (res == null) {
-            if (vmFullQualifiedMethodName.startsWith("< ")) {
-                throwIllegalArgumentException("invalid input: " + vmFullQualifiedMethodName);
-            }
-            res = new CoReMethodName(vmFullQualifiedMethodName);
-            index.put(vmFullQualifiedMethodName, res);
+    public static CoReMethodName get(final String vmFullQualifiedMethodName) {
+        return index.get(vmFullQualifiedMethodName);
+    }
+
+    private static CoReMethodName create(final String name) {
+        if (name.startsWith("< ")) {
+            throwIllegalArgumentException("invalid input: " + name);
         }
-        return res;
+        return new CoReMethodName(name);
     }
 
     public static final ICoReMethodName NULL = CoReMethodName.get("L_null.null()V");
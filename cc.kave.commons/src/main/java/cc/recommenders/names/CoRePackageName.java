@@ -10,24 +10,19 @@
  */
 package cc.recommenders.names;
 
-import java.util.Map;
 import java.util.Set;
 
-import com.google.common.collect.MapMaker;
 import com.google.common.collect.Sets;
 
+import cc.kave.commons.utils.NameInterner;
+
 public class CoRePackageName implements ICoRePackageName {
 
-    private static Map<String/* name 2 */, CoRePackageName> index = new MapMaker().weakValues().makeMap();
+    private static final NameInterner<CoRePackageName> index = new NameInterner<>(CoRePackageName::new, 64);
     public static ICoRePackageName DEFAULT_PACKAGE = get("");
 
     public static CoRePackageName get(final String vmPackageName) {
-        CoRePackageName res = index.get(vmPackageName);
-        if (res == null) {
-            res = new CoRePackageName(vmPackageName);
-            index.put(vmPackageName, res);
-        }
-        return res;
+        return index.get(vmPackageName);
     }
 
     /**
@@ -16,14 +16,12 @@ import static cc.recommenders.assertions.Checks.ensureIsTrue;
 import static cc.recommenders.assertions.Throws.throwIllegalArgumentException;
 import static cc.recommenders.assertions.Throws.throwUnreachable;
 
-import java.util.Map;
-
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.collect.MapMaker;
+import cc.kave.commons.utils.NameInterner;
 
 public class CoReTypeName implements ICoReTypeName {
-	private static Map<String /* vmTypeName */, CoReTypeName> index = new MapMaker().weakValues().makeMap();
+	private static final NameInterner<CoReTypeName> index = new NameInterner<>(CoReTypeName::new, 64);
 
 	public static final CoReTypeName OBJECT = CoReTypeName.get("Ljava/lang/Object");
 
@@ -59,13 +57,7 @@ public class CoReTypeName implements ICoReTypeName {
 	public static final CoReTypeName VOID = get("V");
 
 	public static CoReTypeName get(String typeName) {
-		typeName = removeGenerics(typeName);
-		CoReTypeName res = index.get(typeName);
-		if (res == null) {
-			res = new CoReTypeName(typeName);
-			index.put(typeName, res);
-		}
-		return res;
+		return index.get(removeGenerics(typeName));
 	}
 
 	private static String removeGenerics(final String typeName) {
@@ -12,17 +12,15 @@ package cc.recommenders.names;
 
 import static cc.recommenders.assertions.Checks.ensureIsNotNull;
 
-import java.util.Map;
-
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.collect.MapMaker;
+import cc.kave.commons.utils.NameInterner;
 
 public class CoReVariableName implements ICoReVariableName {
 
     private static final long serialVersionUID = 5067244907255465328L;
 
-    private static Map<String /* vmTypeName */, CoReVariableName> index = new MapMaker().weakValues().makeMap();
+    private static final NameInterner<CoReVariableName> index = new NameInterner<>(CoReVariableName::new, 64);
 
     /**
      * Format: DeclaringType'.'fieldName;FieldType, i.e., &lt;VmTypeName&gt;.&lt;String&gt;;&lt;VmTypeName&gt;
@@ -31,13 +29,7 @@ public class CoReVariableName implements ICoReVariableName {
      * @return
      */
     public static CoReVariableName get(final String variableName) {
-
-        CoReVariableName res = index.get(variableName);
-        if (res == null) {
-            res = new CoReVariableName(variableName);
-            index.put(variableName, res);
-        }
-        return res;
+        return index.get(variableName);
     }
 
     private String identifier;
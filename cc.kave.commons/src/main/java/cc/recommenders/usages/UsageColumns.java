@@ -0,0 +1,453 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.usages;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import cc.recommenders.assertions.Asserts;
+import cc.recommenders.names.CoReFieldName;
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.CoReTypeName;
+import cc.recommenders.names.ICoReFieldName;
+import cc.recommenders.names.ICoReMethodName;
+import cc.recommenders.names.ICoReName;
+import cc.recommenders.names.ICoReTypeName;
+
+/**
+ * Column-oriented storage of project-assigned usages. All names (types, methods, fields, and projects) are stored once
+ * in a shared name table and every usage is a row of integer columns that reference this table. {@link Usage}
+ * instances are only created when a row is accessed, so even types with a huge number of usages stay compact in
+ * memory and scans that select usages by project do not create the usages of the other projects.
+ */
+public class UsageColumns implements Iterable<Usage> {
+
+	public static final String FILE_EXTENSION = ".usages";
+
+	private static final int MAGIC = 0x55534743;
+	private static final int VERSION = 1;
+	private static final int NONE = -1;
+	private static final byte NO_DEFINITION = -2;
+
+	private static final DefinitionSiteKind[] DEFINITION_KINDS = DefinitionSiteKind.values();
+	private static final CallSiteKind[] CALL_SITE_KINDS = CallSiteKind.values();
+
+	private final String[] names;
+
+	private final int[] projects;
+	private final int[] types;
+	private final int[] classContexts;
+	private final int[] methodContexts;
+
+	private final byte[] definitionKinds;
+	private final int[] definitionMethods;
+	private final int[] definitionFields;
+	private final int[] definitionArgIndices;
+
+	private final int[] siteStarts;
+	private final byte[] siteKinds;
+	private final int[] siteMethods;
+	private final int[] siteArgIndices;
+
+	// names are decoded lazily, concurrent decoding of the same name is harmless
+	private final ICoReTypeName[] typeNames;
+	private final ICoReMethodName[] methodNames;
+	private final ICoReFieldName[] fieldNames;
+
+	private UsageColumns(String[] names, int[] projects, int[] types, int[] classContexts, int[] methodContexts,
+			byte[] definitionKinds, int[] definitionMethods, int[] definitionFields, int[] definitionArgIndices,
+			int[] siteStarts, byte[] siteKinds, int[] siteMethods, int[] siteArgIndices) {
+		this.names = names;
+		this.projects = projects;
+		this.types = types;
+		this.classContexts = classContexts;
+		this.methodContexts = methodContexts;
+		this.definitionKinds = definitionKinds;
+		this.definitionMethods = definitionMethods;
+		this.definitionFields = definitionFields;
+		this.definitionArgIndices = definitionArgIndices;
+		this.siteStarts = siteStarts;
+		this.siteKinds = siteKinds;
+		this.siteMethods = siteMethods;
+		this.siteArgIndices = siteArgIndices;
+		typeNames = new ICoReTypeName[names.length];
+		methodNames = new ICoReMethodName[names.length];
+		fieldNames = new ICoReFieldName[names.length];
+	}
+
+	public int size() {
+		return projects.length;
+	}
+
+	public String getProjectName(int row) {
+		return names[projects[row]];
+	}
+
+	public Set<String> getProjectNames() {
+		Set<String> projectNames = Sets.newLinkedHashSet();
+		for (int project : projects) {
+			projectNames.add(names[project]);
+		}
+		return projectNames;
+	}
+
+	public ICoReTypeName getType(int row) {
+		return typeName(types[row]);
+	}
+
+	public Usage getUsage(int row) {
+		Query q = new Query();
+		q.setType(typeName(types[row]));
+		q.setClassContext(typeName(classContexts[row]));
+		q.setMethodContext(methodName(methodContexts[row]));
+
+		if (definitionKinds[row] != NO_DEFINITION) {
+			DefinitionSite def = new DefinitionSite();
+			def.setKind(definitionKinds[row] == NONE ? null : DEFINITION_KINDS[definitionKinds[row]]);
+			def.setMethod(methodName(definitionMethods[row]));
+			def.setField(fieldName(definitionFields[row]));
+			def.setArgIndex(definitionArgIndices[row]);
+			q.setDefinition(def);
+		}
+
+		for (int i = siteStarts[row]; i < siteStarts[row + 1]; i++) {
+			CallSite site = new CallSite();
+			site.setKind(siteKinds[i] == NONE ? null : CALL_SITE_KINDS[siteKinds[i]]);
+			site.setMethod(methodName(siteMethods[i]));
+			site.setArgIndex(siteArgIndices[i]);
+			q.addCallSite(site);
+		}
+		return q;
+	}
+
+	@Override
+	public Iterator<Usage> iterator() {
+		return new Iterator<Usage>() {
+			private int row = 0;
+
+			@Override
+			public boolean hasNext() {
+				return row < size();
+			}
+
+			@Override
+			public Usage next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getUsage(row++);
+			}
+		};
+	}
+
+	/**
+	 * Selects all usages of the projects that match the filter. The filter is evaluated once per project, the usages
+	 * of the resulting list are created on access.
+	 */
+	public List<Usage> select(Predicate<String> projectFilter) {
+		byte[] decisions = new byte[names.length];
+		int[] rows = new int[size()];
+		int numRows = 0;
+		for (int row = 0; row < size(); row++) {
+			int project = projects[row];
+			if (decisions[project] == 0) {
+				decisions[project] = (byte) (projectFilter.apply(names[project]) ? 1 : 2);
+			}
+			if (decisions[project] == 1) {
+				rows[numRows++] = row;
+			}
+		}
+		return new SelectedUsages(Arrays.copyOf(rows, numRows));
+	}
+
+	private ICoReTypeName typeName(int id) {
+		if (id == NONE) {
+			return null;
+		}
+		ICoReTypeName name = typeNames[id];
+		if (name == null) {
+			name = CoReTypeName.get(names[id]);
+			typeNames[id] = name;
+		}
+		return name;
+	}
+
+	private ICoReMethodName methodName(int id) {
+		if (id == NONE) {
+			return null;
+		}
+		ICoReMethodName name = methodNames[id];
+		if (name == null) {
+			name = CoReMethodName.get(names[id]);
+			methodNames[id] = name;
+		}
+		return name;
+	}
+
+	private ICoReFieldName fieldName(int id) {
+		if (id == NONE) {
+			return null;
+		}
+		ICoReFieldName name = fieldNames[id];
+		if (name == null) {
+			name = CoReFieldName.get(names[id]);
+			fieldNames[id] = name;
+		}
+		return name;
+	}
+
+	private class SelectedUsages extends AbstractList<Usage> implements RandomAccess {
+
+		private final int[] rows;
+
+		public SelectedUsages(int[] rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public Usage get(int index) {
+			return getUsage(rows[index]);
+		}
+
+		@Override
+		public int size() {
+			return rows.length;
+		}
+	}
+
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+
+		dos.writeInt(names.length);
+		for (String name : names) {
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			dos.writeInt(bytes.length);
+			dos.write(bytes);
+		}
+
+		dos.writeInt(size());
+		writeColumn(dos, projects);
+		writeColumn(dos, types);
+		writeColumn(dos, classContexts);
+		writeColumn(dos, methodContexts);
+		dos.write(definitionKinds);
+		writeColumn(dos, definitionMethods);
+		writeColumn(dos, definitionFields);
+		writeColumn(dos, definitionArgIndices);
+		writeColumn(dos, siteStarts);
+
+		dos.writeInt(siteKinds.length);
+		dos.write(siteKinds);
+		writeColumn(dos, siteMethods);
+		writeColumn(dos, siteArgIndices);
+		dos.flush();
+	}
+
+	private static void writeColumn(DataOutputStream dos, int[] column) throws IOException {
+		for (int value : column) {
+			dos.writeInt(value);
+		}
+	}
+
+	public static UsageColumns read(InputStream in) throws IOException {
+		DataInputStream dis = new DataInputStream(in);
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("input is not in the usage column format");
+		}
+		int version = dis.readInt();
+		if (version != VERSION) {
+			throw new IOException("unsupported version of the usage column format: " + version);
+		}
+
+		String[] names = new String[dis.readInt()];
+		for (int i = 0; i < names.length; i++) {
+			byte[] bytes = new byte[dis.readInt()];
+			dis.readFully(bytes);
+			names[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		int size = dis.readInt();
+		int[] projects = readColumn(dis, size);
+		int[] types = readColumn(dis, size);
+		int[] classContexts = readColumn(dis, size);
+		int[] methodContexts = readColumn(dis, size);
+		byte[] definitionKinds = new byte[size];
+		dis.readFully(definitionKinds);
+		int[] definitionMethods = readColumn(dis, size);
+		int[] definitionFields = readColumn(dis, size);
+		int[] definitionArgIndices = readColumn(dis, size);
+		int[] siteStarts = readColumn(dis, size + 1);
+
+		int numSites = dis.readInt();
+		byte[] siteKinds = new byte[numSites];
+		dis.readFully(siteKinds);
+		int[] siteMethods = readColumn(dis, numSites);
+		int[] siteArgIndices = readColumn(dis, numSites);
+
+		return new UsageColumns(names, projects, types, classContexts, methodContexts, definitionKinds,
+				definitionMethods, definitionFields, definitionArgIndices, siteStarts, siteKinds, siteMethods,
+				siteArgIndices);
+	}
+
+	private static int[] readColumn(DataInputStream dis, int length) throws IOException {
+		int[] column = new int[length];
+		for (int i = 0; i < length; i++) {
+			column[i] = dis.readInt();
+		}
+		return column;
+	}
+
+	/**
+	 * Collects usages row by row, the usages themselves are not retained.
+	 */
+	public static class Builder {
+
+		private final Map<String, Integer> nameIds = Maps.newHashMap();
+		private String[] names = new String[16];
+
+		private int size = 0;
+		private int[] projects = new int[16];
+		private int[] types = new int[16];
+		private int[] classContexts = new int[16];
+		private int[] methodContexts = new int[16];
+		private byte[] definitionKinds = new byte[16];
+		private int[] definitionMethods = new int[16];
+		private int[] definitionFields = new int[16];
+		private int[] definitionArgIndices = new int[16];
+		private int[] siteStarts = new int[17];
+
+		private int numSites = 0;
+		private byte[] siteKinds = new byte[16];
+		private int[] siteMethods = new int[16];
+		private int[] siteArgIndices = new int[16];
+
+		public Builder add(Usage usage, String projectName) {
+			Asserts.assertFalse(usage instanceof NoUsage, "NoUsage cannot be stored in columns");
+			Asserts.assertNotNull(projectName);
+			ensureRowCapacity();
+
+			projects[size] = id(projectName);
+			types[size] = id(usage.getType());
+			classContexts[size] = id(usage.getClassContext());
+			methodContexts[size] = id(usage.getMethodContext());
+
+			DefinitionSite def = usage.getDefinitionSite();
+			if (def == null) {
+				definitionKinds[size] = NO_DEFINITION;
+				definitionMethods[size] = NONE;
+				definitionFields[size] = NONE;
+				definitionArgIndices[size] = NONE;
+			} else {
+				definitionKinds[size] = def.getKind() == null ? NONE : (byte) def.getKind().ordinal();
+				definitionMethods[size] = id(def.getMethod());
+				definitionFields[size] = id(def.getField());
+				definitionArgIndices[size] = def.getArgIndex();
+			}
+
+			Set<CallSite> sites = usage.getAllCallsites();
+			if (sites != null) {
+				for (CallSite site : sites) {
+					ensureSiteCapacity();
+					siteKinds[numSites] = site.getKind() == null ? NONE : (byte) site.getKind().ordinal();
+					siteMethods[numSites] = id(site.getMethod());
+					siteArgIndices[numSites] = site.getArgIndex();
+					numSites++;
+				}
+			}
+
+			size++;
+			siteStarts[size] = numSites;
+			return this;
+		}
+
+		public Builder add(ProjectFoldedUsage usage) {
+			return add(usage.getRawUsage(), usage.getProjectName());
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public UsageColumns build() {
+			return new UsageColumns(Arrays.copyOf(names, nameIds.size()), Arrays.copyOf(projects, size),
+					Arrays.copyOf(types, size), Arrays.copyOf(classContexts, size),
+					Arrays.copyOf(methodContexts, size), Arrays.copyOf(definitionKinds, size),
+					Arrays.copyOf(definitionMethods, size), Arrays.copyOf(definitionFields, size),
+					Arrays.copyOf(definitionArgIndices, size), Arrays.copyOf(siteStarts, size + 1),
+					Arrays.copyOf(siteKinds, numSites), Arrays.copyOf(siteMethods, numSites),
+					Arrays.copyOf(siteArgIndices, numSites));
+		}
+
+		private int id(ICoReName name) {
+			return name == null ? NONE : id(name.toString());
+		}
+
+		private int id(String name) {
+			Integer id = nameIds.get(name);
+			if (id == null) {
+				id = nameIds.size();
+				if (id == names.length) {
+					names = Arrays.copyOf(names, 2 * id);
+				}
+				names[id] = name;
+				nameIds.put(name, id);
+			}
+			return id;
+		}
+
+		private void ensureRowCapacity() {
+			if (size == projects.length) {
+				int capacity = 2 * size;
+				projects = Arrays.copyOf(projects, capacity);
+				types = Arrays.copyOf(types, capacity);
+				classContexts = Arrays.copyOf(classContexts, capacity);
+				methodContexts = Arrays.copyOf(methodContexts, capacity);
+				definitionKinds = Arrays.copyOf(definitionKinds, capacity);
+				definitionMethods = Arrays.copyOf(definitionMethods, capacity);
+				definitionFields = Arrays.copyOf(definitionFields, capacity);
+				definitionArgIndices = Arrays.copyOf(definitionArgIndices, capacity);
+				siteStarts = Arrays.copyOf(siteStarts, capacity + 1);
+			}
+		}
+
+		private void ensureSiteCapacity() {
+			if (numSites == siteKinds.length) {
+				int capacity = 2 * numSites;
+				siteKinds = Arrays.copyOf(siteKinds, capacity);
+				siteMethods = Arrays.copyOf(siteMethods, capacity);
+				siteArgIndices = Arrays.copyOf(siteArgIndices, capacity);
+			}
+		}
+	}
+}
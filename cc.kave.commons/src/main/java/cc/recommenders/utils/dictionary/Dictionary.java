@@ -31,11 +31,12 @@ public class Dictionary<T> implements Serializable {
 
 	public int add(T entry) {
 		ensureCache();
-		if (contains(entry)) {
-			return getId(entry);
+		Integer id = entryCache.get(entry);
+		if (id != null) {
+			return id;
 		} else {
 			entries.add(entry);
-			Integer id = entries.size() - 1;
+			id = entries.size() - 1;
 			entryCache.put(entry, id);
 			return id;
 		}
@@ -17,10 +17,13 @@ package cc.kave.commons.model.naming;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import cc.kave.commons.model.naming.codeelements.IMethodName;
 import cc.kave.commons.model.naming.impl.v0.GeneralName;
 import cc.kave.commons.model.naming.impl.v0.codeelements.AliasName;
 import cc.kave.commons.model.naming.impl.v0.codeelements.EventName;
@@ -46,6 +49,8 @@ import cc.kave.commons.model.naming.impl.v0.types.TypeParameterName;
 import cc.kave.commons.model.naming.impl.v0.types.organization.AssemblyName;
 import cc.kave.commons.model.naming.impl.v0.types.organization.AssemblyVersion;
 import cc.kave.commons.model.naming.impl.v0.types.organization.NamespaceName;
+import cc.kave.commons.model.naming.types.ITypeName;
+import cc.kave.commons.utils.json.JsonUtils;
 
 public class NamesTest {
 
@@ -149,6 +154,44 @@ public class NamesTest {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void EqualIdentifiersAreInterned() {
+		assertSame(Names.newType("T, P"), Names.newType("T, P"));
+		assertSame(Names.newType("T[], P"), Names.newType("T[], P"));
+		assertSame(Names.newMethod("[?] [?].M()"), Names.newMethod("[?] [?].M()"));
+		assertSame(Names.newField("[?] [?]._f"), Names.newField("[?] [?]._f"));
+		assertSame(Names.newAssembly("P, 1.2.3.4"), Names.newAssembly("P, 1.2.3.4"));
+		assertSame(Names.newNamespace("N"), Names.newNamespace("N"));
+	}
+
+	@Test
+	public void InterningDoesNotMixKinds() {
+		IName a = Names.newGeneral("x");
+		IName b = Names.newCommand("x");
+		assertNotSame(a, b);
+		assertEquals(GeneralName.class, a.getClass());
+		assertEquals(CommandName.class, b.getClass());
+	}
+
+	@Test
+	public void InternedNamesShareParsedComponents() {
+		IMethodName m1 = Names.newMethod("[T1, P] [N.T2, P].M([T3, P] p)");
+		IMethodName m2 = Names.newMethod("[T1, P] [N.T2, P].M([T3, P] p)");
+		assertSame(m1.getDeclaringType(), m2.getDeclaringType());
+		assertSame(m1.getParameters(), m2.getParameters());
+		assertSame(Names.newType("N.T2, P"), m1.getDeclaringType());
+		assertSame(Names.newAssembly("P"), m1.getDeclaringType().getAssembly());
+		assertSame(Names.newNamespace("N"), m1.getDeclaringType().getNamespace());
+		assertSame(Names.newParameter("[T3, P] p"), m1.getParameters().get(0));
+	}
+
+	@Test
+	public void DeserializedNamesAreInterned() {
+		IName expected = Names.newType("T, P");
+		IName actual = JsonUtils.fromJson("\"0T:T, P\"", ITypeName.class);
+		assertSame(expected, actual);
+	}
+
 	private static void AssertUnknown(IName actual, IName expected) {
 		assertTrue(actual.isUnknown());
 		assertEquals(expected, actual);
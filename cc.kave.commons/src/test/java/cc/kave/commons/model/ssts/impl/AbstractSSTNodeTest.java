@@ -0,0 +1,168 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.commons.model.ssts.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import cc.kave.commons.model.naming.Names;
+import cc.kave.commons.model.ssts.IStatement;
+import cc.kave.commons.model.ssts.impl.blocks.ForLoop;
+import cc.kave.commons.model.ssts.impl.declarations.FieldDeclaration;
+import cc.kave.commons.model.ssts.impl.declarations.MethodDeclaration;
+import cc.kave.commons.model.ssts.impl.expressions.simple.ConstantValueExpression;
+import cc.kave.commons.model.ssts.impl.statements.BreakStatement;
+import cc.kave.commons.model.ssts.impl.statements.ContinueStatement;
+import cc.kave.commons.model.ssts.impl.statements.GotoStatement;
+import cc.recommenders.exceptions.AssertionException;
+
+public class AbstractSSTNodeTest {
+
+	@Test
+	public void nodesAreNotFrozenByDefault() {
+		ForLoop sut = createLoop("a");
+		assertFalse(sut.isFrozen());
+	}
+
+	@Test
+	public void freezingIsRecursive() {
+		ForLoop sut = createLoop("a");
+		sut.freeze();
+
+		assertTrue(sut.isFrozen());
+		assertTrue(((ConstantValueExpression) sut.getCondition()).isFrozen());
+		assertTrue(((GotoStatement) sut.getInit().get(0)).isFrozen());
+		assertTrue(((BreakStatement) sut.getStep().get(0)).isFrozen());
+		assertTrue(((ContinueStatement) sut.getBody().get(0)).isFrozen());
+	}
+
+	@Test
+	public void freezingIsIdempotent() {
+		ForLoop sut = createLoop("a");
+		sut.freeze();
+		int hashCode = sut.hashCode();
+		sut.freeze();
+
+		assertTrue(sut.isFrozen());
+		assertEquals(hashCode, sut.hashCode());
+	}
+
+	@Test
+	public void frozenNodesKeepStructuralEqualityAndHashCode() {
+		ForLoop a = createLoop("a");
+		ForLoop b = createLoop("a");
+		a.freeze();
+
+		assertEquals(a, b);
+		assertEquals(b, a);
+		assertEquals(a.hashCode(), b.hashCode());
+
+		b.freeze();
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
+
+	@Test
+	public void differentFrozenNodesAreNotEqual() {
+		ForLoop a = createLoop("a");
+		ForLoop b = createLoop("b");
+		a.freeze();
+		b.freeze();
+
+		assertNotEquals(a, b);
+		assertNotEquals(b, a);
+	}
+
+	@Test(expected = AssertionException.class)
+	public void settersFailAfterFreezing() {
+		ForLoop sut = createLoop("a");
+		sut.freeze();
+		sut.setBody(Lists.newArrayList());
+	}
+
+	@Test(expected = AssertionException.class)
+	public void settersOfChildrenFailAfterFreezing() {
+		ForLoop sut = createLoop("a");
+		sut.freeze();
+		((GotoStatement) sut.getInit().get(0)).setLabel("b");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void childListsAreUnmodifiableAfterFreezing() {
+		ForLoop sut = createLoop("a");
+		sut.freeze();
+		sut.getBody().add(new BreakStatement());
+	}
+
+	@Test
+	public void freezingDetachesChildListsFromTheirOrigin() {
+		List<IStatement> body = Lists.newArrayList(new BreakStatement());
+		MethodDeclaration sut = new MethodDeclaration();
+		sut.setBody(body);
+		sut.freeze();
+		int hashCode = sut.hashCode();
+
+		body.add(new ContinueStatement());
+
+		assertEquals(Lists.newArrayList(new BreakStatement()), sut.getBody());
+		assertEquals(hashCode, sut.hashCode());
+	}
+
+	@Test
+	public void sstsCanBeFrozen() {
+		SST sut = new SST();
+		sut.setEnclosingType(Names.newType("T, P"));
+		sut.getFields().add(new FieldDeclaration());
+		sut.getMethods().add(new MethodDeclaration());
+
+		SST expected = new SST();
+		expected.setEnclosingType(Names.newType("T, P"));
+		expected.getFields().add(new FieldDeclaration());
+		expected.getMethods().add(new MethodDeclaration());
+
+		sut.freeze();
+
+		assertTrue(((MethodDeclaration) sut.getMethods().iterator().next()).isFrozen());
+		assertEquals(expected, sut);
+		assertEquals(expected.hashCode(), sut.hashCode());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void sstSetsAreUnmodifiableAfterFreezing() {
+		SST sut = new SST();
+		sut.freeze();
+		sut.getMethods().add(new MethodDeclaration());
+	}
+
+	private static ForLoop createLoop(String label) {
+		GotoStatement init = new GotoStatement();
+		init.setLabel(label);
+		ForLoop loop = new ForLoop();
+		loop.getInit().add(init);
+		loop.setCondition(new ConstantValueExpression());
+		loop.getStep().add(new BreakStatement());
+		loop.getBody().add(new ContinueStatement());
+		return loop;
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package cc.kave.commons.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import cc.kave.commons.model.naming.impl.v0.GeneralName;
+import cc.recommenders.exceptions.AssertionException;
+import cc.recommenders.exceptions.ValidationException;
+import cc.recommenders.names.CoReFieldName;
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.CoReTypeName;
+
+public class NameInternerTest {
+
+	private final NameInterner<GeneralName> sut = new NameInterner<>(GeneralName::new);
+
+	@Test
+	public void createsNames() {
+		assertEquals(new GeneralName("a"), sut.get("a"));
+	}
+
+	@Test
+	public void returnsSameInstanceForEqualIds() {
+		GeneralName a = sut.get("a");
+		assertSame(a, sut.get(new String("a")));
+		assertEquals(1, sut.size());
+	}
+
+	@Test(expected = ValidationException.class)
+	public void nullIsHandledByFactory() {
+		sut.get(null);
+	}
+
+	@Test
+	public void concurrentAccessYieldsOneInstance() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<GeneralName>> tasks = Lists.newArrayList();
+			for (int i = 0; i < 64; i++) {
+				tasks.add(() -> sut.get(new String("x")));
+			}
+			GeneralName first = sut.get("x");
+			for (Future<GeneralName> f : pool.invokeAll(tasks)) {
+				assertSame(first, f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = AssertionException.class)
+	public void factoryIsRequired() {
+		new NameInterner<Object>(null, 64);
+	}
+
+	@Test
+	public void factoryIsOnlyCalledForNewNames() {
+		AtomicInteger numCreated = new AtomicInteger();
+		NameInterner<Object> sut = new NameInterner<>(id -> new Object[] { id, numCreated.incrementAndGet() }, 64);
+
+		Object a = sut.get("a");
+		Object b = sut.get("b");
+
+		assertSame(a, sut.get("a"));
+		assertSame(b, sut.get("b"));
+		assertEquals(2, numCreated.get());
+		assertEquals(2, sut.size());
+	}
+
+	@Test
+	public void coReNamesAreInterned() {
+		assertSame(CoReTypeName.get("LT"), CoReTypeName.get("LT<LA;>"));
+		assertSame(CoReMethodName.get("LT.m()V"), CoReMethodName.get("LT", "m()V"));
+		assertSame(CoReFieldName.get("LT.f;LA"), CoReFieldName.get("LT.f;LA"));
+	}
+}
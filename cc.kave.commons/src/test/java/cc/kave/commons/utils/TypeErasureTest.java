@@ -16,14 +16,21 @@
 package cc.kave.commons.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
 
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.google.common.cache.CacheStats;
+
 import cc.kave.commons.model.naming.Names;
 import cc.kave.commons.model.naming.codeelements.IMethodName;
 import cc.kave.commons.model.naming.types.ITypeName;
+import cc.recommenders.io.Logger;
 import cc.recommenders.testutils.ParameterData;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -118,6 +125,64 @@ public class TypeErasureTest {
 		assertEquals(exp, act);
 	}
 
+	@Test
+	public void namesWithoutBindingsAreNotRecreated() {
+		ITypeName type = Names.newType("T`1[[G]],P");
+		IMethodName method = Names.newMethod("[T,P] [T,P].M()");
+		assertSame(type, TypeErasure.of(type));
+		assertSame(method, TypeErasure.of(method));
+	}
+
+	@Test
+	public void erasuresAreMemoized() {
+		String inp = "T`1[[G -> T2,P]],P";
+		TypeErasure.clearCache();
+		CacheStats before = TypeErasure.getCacheStats();
+
+		String first = TypeErasure.of(inp);
+		String second = TypeErasure.of(inp);
+
+		CacheStats stats = TypeErasure.getCacheStats().minus(before);
+		assertEquals("T`1[[G]],P", first);
+		assertSame(first, second);
+		assertEquals(1, stats.missCount());
+		assertEquals(1, stats.hitCount());
+	}
+
+	@Test
+	public void identifiersWithoutGenericsAreNotCached() {
+		CacheStats before = TypeErasure.getCacheStats();
+		TypeErasure.of("T,P");
+		assertEquals(0, TypeErasure.getCacheStats().minus(before).requestCount());
+	}
+
+	@Test
+	public void overflowingTickNumbersAreInvalid() {
+		String inp = "T`4294967297[[G -> T2,P]],P";
+		assertEquals(inp, TypeErasure.of(inp));
+	}
+
+	@Test
+	public void invalidTickNumbersAreLogged() {
+		String inp = "T`x[[G -> T2,P]],P";
+		TypeErasure.clearCache();
+		Logger.reset();
+		Logger.setCapturing(true);
+		try {
+			assertEquals(inp, TypeErasure.of(inp));
+			List<String> log = Logger.getCapturedLog();
+			assertEquals(1, log.size());
+			assertTrue(log.get(0).contains("EE cannot remove generic (invalid tick number between 1 and 3): " + inp));
+		} finally {
+			Logger.reset();
+		}
+	}
+
+	@Test(expected = StringIndexOutOfBoundsException.class)
+	public void invalidIdentifiersFailAsBefore() {
+		TypeErasure.of("T`1[");
+	}
+
 	public static Object[][] createTypesWithGenericArrays() {
 		ParameterData pd = new ParameterData();
 
@@ -17,6 +17,8 @@ package cc.kave.commons.utils.json;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.StringWriter;
+
 import org.junit.Test;
 
 import cc.kave.commons.model.events.completionevents.Context;
@@ -690,4 +692,12 @@ public class JsonUtilsContextTest {
 		String jsonOut = JsonUtils.toJsonFormatted(sut);
 		assertEquals(generatedJson, jsonOut);
 	}
+
+	@Test
+	public void streamingOutputIsIdentical() {
+		Context sut = JsonUtils.fromJson(generatedJson, Context.class);
+		StringWriter sw = new StringWriter();
+		JsonUtils.toJson(sut, sw);
+		assertEquals(JsonUtils.toJson(sut), sw.toString());
+	}
 }
\ No newline at end of file
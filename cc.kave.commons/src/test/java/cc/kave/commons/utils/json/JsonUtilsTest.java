@@ -20,6 +20,7 @@ import static org.junit.Assert.assertEquals;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -75,6 +76,20 @@ public class JsonUtilsTest {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void toJson_writer() {
+		StringWriter sw = new StringWriter();
+		JsonUtils.toJson(TestType.create(4), sw);
+		assertEquals("{\"A\":4}", sw.toString());
+	}
+
+	@Test
+	public void toJson_writerNull() {
+		StringWriter sw = new StringWriter();
+		JsonUtils.toJson(null, sw);
+		assertEquals(JsonUtils.toJson(null), sw.toString());
+	}
+
 	@Test
 	// @Ignore("currently fails with stack overflow")
 	public void integrationTestWithUsage() {
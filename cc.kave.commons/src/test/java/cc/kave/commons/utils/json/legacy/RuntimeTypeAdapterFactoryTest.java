@@ -16,6 +16,11 @@
 
 package cc.kave.commons.utils.json.legacy;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Ignore;
 
 import com.google.gson.Gson;
@@ -158,6 +163,78 @@ public final class RuntimeTypeAdapterFactoryTest extends TestCase {
     }
   }
 
+  public void testTypeFieldAfterOtherFields() {
+    TypeAdapterFactory billingAdapter = RuntimeTypeAdapterFactory.of(BillingInstrument.class)
+        .registerSubtype(CreditCard.class);
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(billingAdapter)
+        .create();
+    BillingInstrument deserialized = gson.fromJson(
+        "{cvv:234,type:'cc.kave.commons.utils.json.legacy.RuntimeTypeAdapterFactoryTest$CreditCard',ownerName:'Jesse'}", BillingInstrument.class);
+    assertEquals("Jesse", deserialized.ownerName);
+    assertEquals(234, ((CreditCard) deserialized).cvv);
+  }
+
+  public void testNestedValues() {
+    TypeAdapterFactory billingAdapter = RuntimeTypeAdapterFactory.of(BillingInstrument.class)
+        .registerSubtype(CreditCard.class).registerSubtype(BankTransfer.class).registerSubtype(Purchase.class);
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(billingAdapter)
+        .create();
+
+    Purchase original = new Purchase("Jesse", new CreditCard("Jesse", 234),
+        Arrays.<BillingInstrument> asList(new BankTransfer("Jesse", 12), null));
+    String json = gson.toJson(original, BillingInstrument.class);
+    assertEquals("{\"type\":\"cc.kave.commons.utils.json.legacy.RuntimeTypeAdapterFactoryTest$Purchase\","
+        + "\"payment\":{\"type\":\"cc.kave.commons.utils.json.legacy.RuntimeTypeAdapterFactoryTest$CreditCard\",\"cvv\":234,\"ownerName\":\"Jesse\"},"
+        + "\"alternatives\":[{\"type\":\"cc.kave.commons.utils.json.legacy.RuntimeTypeAdapterFactoryTest$BankTransfer\",\"bankAccount\":12,\"ownerName\":\"Jesse\"},null],"
+        + "\"ownerName\":\"Jesse\"}", json);
+    assertEquals(json, gson.toJsonTree(original, BillingInstrument.class).toString());
+
+    Purchase deserialized = (Purchase) gson.fromJson(json, BillingInstrument.class);
+    assertEquals(234, ((CreditCard) deserialized.payment).cvv);
+    assertEquals(12, ((BankTransfer) deserialized.alternatives.get(0)).bankAccount);
+    assertNull(deserialized.alternatives.get(1));
+    assertEquals(json, gson.toJson(deserialized, BillingInstrument.class));
+  }
+
+  public void testStackedFactoriesForSameType() {
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(CreditCard.class).registerSubtype(CreditCard.class))
+        .registerTypeAdapterFactory(RuntimeTypeAdapterFactory.of(CreditCard.class).registerSubtype(CreditCard.class))
+        .create();
+
+    String json = gson.toJson(new CreditCard("Jesse", 234), CreditCard.class);
+    assertEquals("{\"type\":\"cc.kave.commons.utils.json.legacy.RuntimeTypeAdapterFactoryTest$CreditCard\",\"cvv\":234,\"ownerName\":\"Jesse\"}", json);
+    assertEquals(234, gson.fromJson(json, CreditCard.class).cvv);
+  }
+
+  public void testMapFieldsAfterTypeField() {
+    TypeAdapterFactory billingAdapter = RuntimeTypeAdapterFactory.of(BillingInstrument.class)
+        .registerSubtype(CreditCard.class).registerSubtype(Purchase.class).registerSubtype(Voucher.class);
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(billingAdapter)
+        .create();
+
+    Map<String, Integer> amounts = new LinkedHashMap<String, Integer>();
+    amounts.put("a", 1);
+    amounts.put("b", 2);
+    Voucher voucher = new Voucher("Jesse", amounts);
+    String json = gson.toJson(voucher, BillingInstrument.class);
+    assertTrue(json.startsWith("{\"type\":"));
+
+    Voucher deserialized = (Voucher) gson.fromJson(json, BillingInstrument.class);
+    assertEquals(amounts, deserialized.amounts);
+    assertEquals("Jesse", ((BillingInstrument) deserialized).ownerName);
+
+    Purchase purchase = new Purchase("Jesse", voucher, Arrays.<BillingInstrument> asList(voucher));
+    json = gson.toJson(purchase, BillingInstrument.class);
+    Purchase deserializedPurchase = (Purchase) gson.fromJson(json, BillingInstrument.class);
+    assertEquals(amounts, ((Voucher) deserializedPurchase.payment).amounts);
+    assertEquals(amounts, ((Voucher) deserializedPurchase.alternatives.get(0)).amounts);
+    assertEquals(json, gson.toJson(deserializedPurchase, BillingInstrument.class));
+  }
+
   @Ignore("disaled in kave adapted version of the RuntimeTypeAdapter")
   public void t_estSerializeCollidingTypeFieldName() {
     TypeAdapterFactory billingAdapter = RuntimeTypeAdapterFactory.of(BillingInstrument.class, "cvv")
@@ -187,6 +264,24 @@ public final class RuntimeTypeAdapterFactoryTest extends TestCase {
     }
   }
 
+  static class Purchase extends BillingInstrument {
+    BillingInstrument payment;
+    List<BillingInstrument> alternatives;
+    Purchase(String ownerName, BillingInstrument payment, List<BillingInstrument> alternatives) {
+      super(ownerName);
+      this.payment = payment;
+      this.alternatives = alternatives;
+    }
+  }
+
+  static class Voucher extends BillingInstrument {
+    Map<String, Integer> amounts;
+    Voucher(String ownerName, Map<String, Integer> amounts) {
+      super(ownerName);
+      this.amounts = amounts;
+    }
+  }
+
   static class BankTransfer extends BillingInstrument {
     int bankAccount;
     BankTransfer(String ownerName, int bankAccount) {
@@ -18,6 +18,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Paths;
@@ -234,6 +236,30 @@ public class DirectoryTest {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void contentCanBeAppended() throws IOException {
+		setup();
+		String fileName = "appended.txt";
+		uut.appendContent("a\n", fileName);
+		uut.appendContent("b\n", fileName);
+		assertEquals("a\nb\n", uut.readContent(fileName));
+	}
+
+	@Test
+	public void streamRoundtrip() throws IOException {
+		setup();
+		String fileName = "sub/stream.bin";
+		try (OutputStream out = uut.getOutputStream(fileName)) {
+			out.write(new byte[] { 1, 2, 3 });
+		}
+		try (InputStream in = uut.getInputStream(fileName)) {
+			assertEquals(1, in.read());
+			assertEquals(2, in.read());
+			assertEquals(3, in.read());
+			assertEquals(-1, in.read());
+		}
+	}
+
 	@Test
 	public void writeReadArchiveRoundtrip() throws IOException {
 		setup();
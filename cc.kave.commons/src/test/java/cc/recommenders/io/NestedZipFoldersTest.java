@@ -23,6 +23,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Set;
 
@@ -144,6 +147,109 @@ public class NestedZipFoldersTest {
 		assertEquals(expecteds, actuals);
 	}
 
+	@Test
+	public void readAllInParallel_unknown() throws IOException {
+		List<String> actuals = sut.readAllZipsInParallel("a", String.class);
+		List<String> expecteds = Lists.newLinkedList();
+		assertEquals(expecteds, actuals);
+	}
+
+	@Test
+	public void readAllInParallel_happyPath() throws IOException {
+		Directory dirA = rootDir.createDirectory("a");
+		dirA.write("a", ".zipfolder");
+
+		List<String> expecteds = Lists.newArrayList();
+		for (int i = 0; i < 12; i++) {
+			try (WritingArchive wa = dirA.getWritingArchive(i + ".zip")) {
+				for (int j = 0; j < 3; j++) {
+					wa.add(i + "-" + j);
+					expecteds.add(i + "-" + j);
+				}
+			}
+		}
+
+		List<String> actuals = sut.readAllZipsInParallel("a", String.class);
+		assertEquals(expecteds, actuals);
+	}
+
+	@Test
+	public void readsFoldersThatAreWrittenByTheCache() throws IOException {
+		try (ZipFolderLRUCache<String> cache = new ZipFolderLRUCache<String>(tempFolder.getRoot(), 1)) {
+			cache.getArchive("La.A").add("a1");
+			cache.getArchive("La.B").add("b1");
+			cache.getArchive("La.A").add("a2");
+		}
+
+		assertEquals(Sets.newHashSet("La.A", "La.B"), sut.findKeys());
+		assertTrue(sut.hasZips("La.A"));
+		assertEquals(Lists.newArrayList("a1", "a2"), sut.readAllZips("La.A", String.class));
+		assertEquals(Lists.newArrayList("b1"), sut.readAllZips("La.B", String.class));
+	}
+
+	@Test
+	public void indexIsNotStoredByReading() throws IOException {
+		rootDir.createDirectory("a").write("a", ".zipfolder");
+
+		sut.findKeys();
+		sut.readAllZips("a", String.class);
+
+		assertFalse(rootDir.exists(ZipFolderIndex.FILE_NAME));
+	}
+
+	@Test
+	public void foldersThatAreCreatedLaterAreFound() throws IOException {
+		rootDir.createDirectory("a").write("a", ".zipfolder");
+		assertEquals(Sets.newHashSet("a"), sut.findKeys());
+
+		Directory dirB = rootDir.createDirectory("x").createDirectory("b");
+		dirB.write("b", ".zipfolder");
+		try (WritingArchive wa = dirB.getWritingArchive("0.zip")) {
+			wa.add("b1");
+		}
+		touch(tempFolder.getRoot());
+
+		assertEquals(Sets.newHashSet("a", "b"), sut.findKeys());
+		assertEquals(Lists.newArrayList("b1"), sut.readAllZips("b", String.class));
+	}
+
+	@Test
+	public void unknownKeysAreLookedUpAgain() throws IOException {
+		assertFalse(sut.hasZips("a"));
+
+		Directory dirA = rootDir.createDirectory("a");
+		dirA.write("a", ".zipfolder");
+		try (WritingArchive wa = dirA.getWritingArchive("0.zip")) {
+			wa.add("a1");
+		}
+		touch(tempFolder.getRoot());
+
+		assertTrue(sut.hasZips("a"));
+	}
+
+	@Test
+	public void zipsThatAreWrittenLaterAreRead() throws IOException {
+		Directory dirA = rootDir.createDirectory("a");
+		dirA.write("a", ".zipfolder");
+		try (WritingArchive wa = dirA.getWritingArchive("0.zip")) {
+			wa.add("a1");
+		}
+		assertEquals(Lists.newArrayList("a1"), sut.readAllZips("a", String.class));
+
+		try (WritingArchive wa = dirA.getWritingArchive("1.zip")) {
+			wa.add("a2");
+		}
+		touch(new File(tempFolder.getRoot(), "a"));
+
+		assertEquals(Lists.newArrayList("a1", "a2"), sut.readAllZips("a", String.class));
+	}
+
+	private static void touch(File dir) throws IOException {
+		Path path = dir.toPath();
+		long millis = Files.getLastModifiedTime(path).toMillis();
+		Files.setLastModifiedTime(path, FileTime.fromMillis(millis + 10000));
+	}
+
 	public static class TestClass {
 		public List<String> items = Lists.newLinkedList();
 
@@ -0,0 +1,217 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package cc.recommenders.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import cc.recommenders.exceptions.AssertionException;
+
+public class ParallelReadingArchiveTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+	private File dir;
+	private File zip;
+	private ForkJoinPool pool;
+
+	private ParallelReadingArchive sut;
+
+	@Before
+	public void setup() throws IOException {
+		dir = tmp.newFolder("data");
+		zip = new File(dir, "a.zip");
+		pool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void teardown() {
+		if (sut != null) {
+			sut.close();
+		}
+		pool.shutdown();
+	}
+
+	@Test(expected = AssertionException.class)
+	public void nonExistingZip() {
+		try (IReadingArchive ra = new ParallelReadingArchive(zip)) {
+		}
+	}
+
+	@Test(expected = AssertionException.class)
+	public void windowMustBePositive() {
+		PrepareZip();
+		new ParallelReadingArchive(zip, pool, 0);
+	}
+
+	@Test
+	public void EmptyZip() {
+		PrepareZip();
+		assertFalse(sut.hasNext());
+		assertEquals(0, sut.getNumberOfEntries());
+		assertEquals(Lists.newArrayList(), sut.getAll(String.class));
+	}
+
+	@Test
+	public void NonEmptyZip() {
+		PrepareZip("a", "b");
+
+		assertEquals(2, sut.getNumberOfEntries());
+		assertTrue(sut.hasNext());
+		assertEquals("a", sut.getNext(String.class));
+		assertTrue(sut.hasNext());
+		assertEquals("b", sut.getNext(String.class));
+		assertFalse(sut.hasNext());
+	}
+
+	@Test
+	public void plain() {
+		PrepareZip("a", "b");
+		assertEquals("\"a\"", sut.getNextPlain());
+		assertEquals("\"b\"", sut.getPlain(1));
+	}
+
+	@Test
+	public void indexedAccess() {
+		PrepareZip("a", "b", "c");
+		assertEquals("c", sut.get(2, String.class));
+		assertEquals("a", sut.get(0, String.class));
+		assertEquals("b", sut.get(1, String.class));
+		// does not move the cursor
+		assertEquals("a", sut.getNext(String.class));
+	}
+
+	@Test
+	public void GetAll() {
+		List<String> expected = PrepareZip(100);
+		assertEquals(expected, sut.getAll(String.class));
+		assertFalse(sut.hasNext());
+	}
+
+	@Test
+	public void GetAllOnlyReturnsRemaining() {
+		PrepareZip("a", "b", "c");
+		sut.getNext(String.class);
+		assertEquals(Lists.newArrayList("b", "c"), sut.getAll(String.class));
+	}
+
+	@Test
+	public void forEachOrdered() {
+		List<String> expected = PrepareZip(100);
+		List<String> actual = Lists.newArrayList();
+		sut.<String> forEach(String.class, actual::add, true);
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void forEachUnordered() {
+		List<String> expected = PrepareZip(100);
+		List<String> actual = Lists.newArrayList();
+		sut.<String> forEach(String.class, actual::add, false);
+		assertEquals(expected.size(), actual.size());
+		assertEquals(Sets.newHashSet(expected), Sets.newHashSet(actual));
+	}
+
+	@Test
+	public void streamOrdered() {
+		List<String> expected = PrepareZip(100);
+		List<String> actual = sut.<String> stream(String.class, true).collect(Collectors.toList());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void streamUnordered() {
+		List<String> expected = PrepareZip(100);
+		Set<String> actual = sut.<String> stream(String.class, false).collect(Collectors.toSet());
+		assertEquals(Sets.newHashSet(expected), actual);
+	}
+
+	@Test
+	public void streamDecodesInThePoolWithinTheWindow() {
+		AtomicInteger numSubmitted = new AtomicInteger();
+		pool.shutdown();
+		pool = new ForkJoinPool(4) {
+			@Override
+			public <T> ForkJoinTask<T> submit(Callable<T> task) {
+				numSubmitted.incrementAndGet();
+				return super.submit(task);
+			}
+		};
+		PrepareZip(100);
+
+		Iterator<String> it = sut.<String> stream(String.class, true).iterator();
+		assertEquals("e0", it.next());
+		assertEquals(3, numSubmitted.get());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void decodingErrorsArePropagated() {
+		PrepareZip("a", "{");
+		sut.getAll(Integer.class);
+	}
+
+	private List<String> PrepareZip(int num) {
+		List<String> entries = Lists.newArrayList();
+		for (int i = 0; i < num; i++) {
+			entries.add("e" + i);
+		}
+		PrepareZip(entries.toArray(new String[0]));
+		return entries;
+	}
+
+	private void PrepareZip(String... entries) {
+		try {
+			ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip));
+
+			int i = 0;
+			for (String entry : entries) {
+				String fileName = (i++) + ".json";
+				out.putNextEntry(new ZipEntry(fileName));
+
+				out.write(("\"" + entry + "\"").getBytes());
+				out.closeEntry();
+			}
+			out.close();
+			sut = new ParallelReadingArchive(zip, pool, 3);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -97,6 +97,41 @@ public class WritingArchiveTest {
 		assertFalse(zip.exists());
 	}
 
+	@Test(expected = AssertionException.class)
+	public void duplicateFileNamesCrash() {
+		try (IWritingArchive sut = new WritingArchive(zip)) {
+			sut.addPlain("a", "x.txt");
+			sut.addPlain("b", "x.txt");
+		}
+	}
+
+	@Test
+	public void archiveIsOnlyPublishedOnClose() {
+		IWritingArchive sut = new WritingArchive(zip);
+		sut.add("x");
+		assertFalse(zip.exists());
+		assertEquals(1, dir.list().length);
+
+		sut.close();
+		assertTrue(zip.exists());
+		assertEquals(1, dir.list().length);
+	}
+
+	@Test
+	public void plainAndJsonEntriesCanBeMixed() {
+		try (IWritingArchive sut = new WritingArchive(zip)) {
+			sut.add("a");
+			sut.addPlain("b");
+			sut.add("c");
+		}
+		try (ReadingArchive ra = new ReadingArchive(zip)) {
+			assertEquals("\"a\"", ra.getNextPlain());
+			assertEquals("b", ra.getNextPlain());
+			assertEquals("\"c\"", ra.getNextPlain());
+			assertFalse(ra.hasNext());
+		}
+	}
+
 	private void write(String... entries) {
 		try (WritingArchive sut = new WritingArchive(zip)) {
 			for (String entry : entries) {
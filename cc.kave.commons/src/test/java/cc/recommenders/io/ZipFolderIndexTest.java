@@ -0,0 +1,280 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package cc.recommenders.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import cc.recommenders.io.ZipFolderIndex.FolderInfo;
+import cc.recommenders.io.ZipFolderIndex.ZipInfo;
+
+public class ZipFolderIndexTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+	private File root;
+
+	@Before
+	public void setUp() throws IOException {
+		root = tmp.newFolder("data");
+	}
+
+	@Test
+	public void emptyRoot() {
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertTrue(sut.getFolders().isEmpty());
+	}
+
+	@Test
+	public void missingIndexIsCreatedByCrawling() throws IOException {
+		createZipFolder("\"a\"", "a");
+		createZip(2, "a", "0.zip");
+		createZip(1, "a", "1.zip");
+		createZipFolder("\"b\"", "b", "c");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+
+		Map<String, FolderInfo> folders = sut.getFolders();
+		assertEquals(Sets.newHashSet("a", "b/c"), folders.keySet());
+		assertEquals("\"a\"", folders.get("a").getMetaData());
+		assertEquals(Lists.newArrayList("0.zip", "1.zip"), names(folders.get("a")));
+		assertEquals(3, folders.get("a").getNumEntries());
+		assertEquals(file("a", "0.zip").length(), folders.get("a").getZips().get(0).getSize());
+		assertEquals("\"b\"", folders.get("b/c").getMetaData());
+		assertTrue(folders.get("b/c").getZips().isEmpty());
+	}
+
+	@Test
+	public void zipsAreOrderedByNumber() throws IOException {
+		createZipFolder("\"a\"", "a");
+		for (int i = 0; i < 12; i++) {
+			createZip(1, "a", i + ".zip");
+		}
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+
+		List<String> expecteds = Lists.newArrayList();
+		for (int i = 0; i < 12; i++) {
+			expecteds.add(i + ".zip");
+		}
+		assertEquals(expecteds, names(sut.getFolderInfo("a")));
+	}
+
+	@Test
+	public void indexIsOnlyStoredOnSave() throws IOException {
+		createZipFolder("\"a\"", "a");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertFalse(file(ZipFolderIndex.FILE_NAME).exists());
+
+		sut.save();
+		assertTrue(file(ZipFolderIndex.FILE_NAME).exists());
+	}
+
+	@Test
+	public void newFoldersAreDetected() throws IOException {
+		createZipFolder("\"a\"", "a");
+		createZipFolder("\"b\"", "x", "b");
+		ZipFolderIndex.open(root).save();
+
+		// not registered in the index
+		createZipFolder("\"c\"", "c");
+		touch("");
+		createZipFolder("\"d\"", "x", "y", "d");
+		touch("x");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertEquals(Sets.newHashSet("a", "x/b", "c", "x/y/d"), sut.getFolders().keySet());
+	}
+
+	@Test
+	public void markersInExistingDirectoriesAreDetected() throws IOException {
+		createZipFolder("\"b\"", "x", "b");
+		ZipFolderIndex.open(root).save();
+
+		createZipFolder("\"x\"", "x");
+		touch("x");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertEquals(Sets.newHashSet("x", "x/b"), sut.getFolders().keySet());
+	}
+
+	@Test
+	public void foldersInZipFoldersAreDetected() throws IOException {
+		createZipFolder("\"a\"", "a");
+		ZipFolderIndex.open(root).save();
+
+		createZipFolder("\"b\"", "a", "b");
+		touch("a");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertEquals(Sets.newHashSet("a", "a/b"), sut.getFolders().keySet());
+	}
+
+	@Test
+	public void refreshDetectsChanges() throws IOException {
+		createZipFolder("\"a\"", "a");
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		sut.save();
+		assertFalse(sut.refresh());
+
+		createZipFolder("\"b\"", "b");
+		touch("");
+
+		assertTrue(sut.refresh());
+		assertEquals(Sets.newHashSet("a", "b"), sut.getFolders().keySet());
+	}
+
+	@Test
+	public void indicesOfOlderVersionsAreCrawled() throws IOException {
+		createZipFolder("\"a\"", "a");
+		FileUtils.writeStringToFile(file(ZipFolderIndex.FILE_NAME), "{}");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertEquals(Sets.newHashSet("a"), sut.getFolders().keySet());
+	}
+
+	@Test
+	public void changedFoldersAreRefreshed() throws IOException {
+		createZipFolder("\"a\"", "a");
+		createZip(1, "a", "0.zip");
+		ZipFolderIndex.open(root).save();
+
+		createZip(2, "a", "1.zip");
+		touch("a");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertEquals(Lists.newArrayList("0.zip", "1.zip"), names(sut.getFolderInfo("a")));
+		assertEquals(3, sut.getFolderInfo("a").getNumEntries());
+	}
+
+	@Test
+	public void removedFoldersAreRefreshed() throws IOException {
+		createZipFolder("\"a\"", "a");
+		createZipFolder("\"b\"", "b");
+		ZipFolderIndex.open(root).save();
+
+		FileUtils.deleteDirectory(file("b"));
+		file("a", ZipFolder.MARKER_FILE_NAME).delete();
+		touch("a");
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertTrue(sut.getFolders().isEmpty());
+	}
+
+	@Test
+	public void registeringReplacesExistingZips() throws IOException {
+		createZipFolder("\"a\"", "a");
+		createZip(1, "a", "0.zip");
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+
+		sut.register(file("a"), "\"a\"", file("a", "0.zip"), 5);
+		sut.register(file("b"), "\"b\"", file("b", "0.zip"), 2);
+
+		assertEquals(Lists.newArrayList(new ZipInfo("0.zip", file("a", "0.zip").length(), 5)),
+				sut.getFolderInfo("a").getZips());
+		assertEquals("\"b\"", sut.getFolderInfo("b").getMetaData());
+		assertEquals(2, sut.getFolderInfo("b").getNumEntries());
+		assertNull(sut.getFolderInfo("c"));
+	}
+
+	@Test
+	public void registeringRemovesTheStoredIndexUntilSaved() throws IOException {
+		createZipFolder("\"a\"", "a");
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		sut.save();
+
+		sut.register(file("a"), "\"a\"", file("a", "0.zip"), 1);
+		assertFalse(file(ZipFolderIndex.FILE_NAME).exists());
+
+		sut.save();
+		assertTrue(file(ZipFolderIndex.FILE_NAME).exists());
+	}
+
+	@Test
+	public void writesOfTheCacheAreRegistered() throws IOException {
+		try (ZipFolderLRUCache<String> cache = new ZipFolderLRUCache<String>(root, 1)) {
+			cache.getArchive("La.A").add("x");
+			cache.getArchive("La.B").add("y");
+			cache.getArchive("La.A").add("z");
+		}
+		assertTrue(file(ZipFolderIndex.FILE_NAME).exists());
+
+		ZipFolderIndex sut = ZipFolderIndex.open(root);
+		assertEquals(Sets.newHashSet("La/A", "La/B"), sut.getFolders().keySet());
+		assertEquals("\"La.A\"", sut.getFolderInfo("La/A").getMetaData());
+		assertEquals(Lists.newArrayList("0.zip", "1.zip"), names(sut.getFolderInfo("La/A")));
+		assertEquals(2, sut.getFolderInfo("La/A").getNumEntries());
+		assertEquals(1, sut.getFolderInfo("La/B").getNumEntries());
+	}
+
+	private void createZipFolder(String metaData, String... path) throws IOException {
+		FileUtils.writeStringToFile(file(append(path, ZipFolder.MARKER_FILE_NAME)), metaData);
+	}
+
+	private void createZip(int numEntries, String... path) {
+		try (WritingArchive wa = new WritingArchive(file(path))) {
+			for (int i = 0; i < numEntries; i++) {
+				wa.add(i);
+			}
+		}
+	}
+
+	private void touch(String folder) throws IOException {
+		Path path = file(folder).toPath();
+		long millis = Files.getLastModifiedTime(path).toMillis();
+		Files.setLastModifiedTime(path, FileTime.fromMillis(millis + 10000));
+	}
+
+	private static List<String> names(FolderInfo info) {
+		List<String> names = Lists.newArrayList();
+		for (ZipInfo zip : info.getZips()) {
+			names.add(zip.getName());
+		}
+		return names;
+	}
+
+	private static String[] append(String[] path, String last) {
+		String[] out = new String[path.length + 1];
+		System.arraycopy(path, 0, out, 0, path.length);
+		out[path.length] = last;
+		return out;
+	}
+
+	private File file(String... parts) {
+		return Paths.get(root.getAbsolutePath(), parts).toFile();
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.usages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import cc.recommenders.exceptions.AssertionException;
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.CoReTypeName;
+
+public class UsageColumnsTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private UsageColumns.Builder builder;
+
+	@Before
+	public void setup() {
+		builder = new UsageColumns.Builder();
+	}
+
+	@Test
+	public void usagesAreRestored() {
+		Query a = createUsage("LA", "LC1", "m1");
+		a.setDefinition(DefinitionSites.createDefinitionByField("LC1.f;LA"));
+		a.addCallSite(CallSites.createReceiverCallSite("LA.x()V"));
+		a.addCallSite(CallSites.createParameterCallSite("LB.y(LA;)V", 0));
+		Query b = createUsage("LA", "LC2", "m2");
+		b.setDefinition(DefinitionSites.createDefinitionByParam("LC2.m2(LA;)V", 0));
+		b.addCallSite(CallSites.createReceiverCallSite("LA.z()V"));
+
+		UsageColumns sut = builder.add(a, "p1").add(new ProjectFoldedUsage(b, "p2")).build();
+
+		assertEquals(2, sut.size());
+		assertEquals(a, sut.getUsage(0));
+		assertEquals(b, sut.getUsage(1));
+		assertEquals("p1", sut.getProjectName(0));
+		assertEquals("p2", sut.getProjectName(1));
+		assertEquals(CoReTypeName.get("LA"), sut.getType(1));
+	}
+
+	@Test
+	public void missingValuesAreRestored() {
+		Query a = new Query();
+		Query b = new Query();
+		DefinitionSite def = DefinitionSites.createUnknownDefinitionSite();
+		def.setKind(null);
+		b.setDefinition(def);
+
+		UsageColumns sut = builder.add(a, "p").add(b, "p").build();
+
+		assertEquals(a, sut.getUsage(0));
+		assertNull(sut.getUsage(0).getDefinitionSite());
+		assertEquals(b, sut.getUsage(1));
+	}
+
+	@Test
+	public void namesAreDecodedOnce() {
+		UsageColumns sut = builder.add(createUsage("LA", "LC", "m"), "p").add(createUsage("LA", "LC", "m"), "p")
+				.build();
+
+		assertSame(sut.getUsage(0).getClassContext(), sut.getUsage(1).getClassContext());
+		assertSame(sut.getUsage(0).getMethodContext(), sut.getUsage(1).getMethodContext());
+	}
+
+	@Test
+	public void iteration() {
+		Query a = createUsage("LA", "LC1", "m1");
+		Query b = createUsage("LA", "LC2", "m2");
+		UsageColumns sut = builder.add(a, "p1").add(b, "p2").build();
+
+		Iterator<Usage> it = sut.iterator();
+		assertEquals(a, it.next());
+		assertEquals(b, it.next());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void selectionByProject() {
+		Query a = createUsage("LA", "LC1", "m1");
+		Query b = createUsage("LA", "LC2", "m2");
+		Query c = createUsage("LA", "LC3", "m3");
+		UsageColumns sut = builder.add(a, "p1").add(b, "p2").add(c, "p1").build();
+
+		List<Usage> actual = sut.select(Predicates.equalTo("p1"));
+
+		assertEquals(Lists.newArrayList(a, c), actual);
+		assertTrue(actual instanceof RandomAccess);
+		assertEquals(Sets.newHashSet("p1", "p2"), sut.getProjectNames());
+	}
+
+	@Test
+	public void roundtrip() throws IOException {
+		Query a = createUsage("LA", "LC1", "m1");
+		a.setDefinition(DefinitionSites.createDefinitionByConstructor("LA.<init>()V"));
+		a.addCallSite(CallSites.createReceiverCallSite("LA.x()V"));
+		Query b = createUsage("LA", "LCä", "m2");
+		UsageColumns expected = builder.add(a, "p1").add(b, "p2").build();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		expected.write(out);
+		UsageColumns actual = UsageColumns.read(new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(2, actual.size());
+		assertEquals(a, actual.getUsage(0));
+		assertEquals(b, actual.getUsage(1));
+		assertEquals("p2", actual.getProjectName(1));
+	}
+
+	@Test
+	public void emptyRoundtrip() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		builder.build().write(out);
+		UsageColumns actual = UsageColumns.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(0, actual.size());
+	}
+
+	@Test
+	public void manyUsages() {
+		for (int i = 0; i < 100; i++) {
+			Query q = createUsage("LA", "LC" + i, "m" + i);
+			q.addCallSite(CallSites.createReceiverCallSite("LA.x" + i + "()V"));
+			builder.add(q, "p" + (i % 3));
+		}
+		UsageColumns sut = builder.build();
+
+		assertEquals(100, sut.size());
+		assertEquals(CoReMethodName.get("LA.x57()V"), sut.getUsage(57).getAllCallsites().iterator().next().getMethod());
+		assertEquals("p0", sut.getProjectName(99));
+	}
+
+	@Test
+	public void invalidInput() throws IOException {
+		thrown.expect(IOException.class);
+		thrown.expectMessage("input is not in the usage column format");
+		UsageColumns.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }));
+	}
+
+	@Test
+	public void noUsagesCannotBeStored() {
+		thrown.expect(AssertionException.class);
+		builder.add(new NoUsage(), "p");
+	}
+
+	private static Query createUsage(String type, String classCtx, String method) {
+		Query q = new Query();
+		q.setType(CoReTypeName.get(type));
+		q.setClassContext(CoReTypeName.get(classCtx));
+		q.setMethodContext(CoReMethodName.get(classCtx + "." + method + "()V"));
+		return q;
+	}
+}
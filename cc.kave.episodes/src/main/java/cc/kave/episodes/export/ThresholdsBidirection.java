@@ -48,7 +48,10 @@ public class ThresholdsBidirection {
 	}
 
 	public void writer(int numbRepos, int frequency) throws IOException {
-		Map<Integer, Set<Episode>> episodes = parser.parse(numbRepos);
+		writer(numbRepos, frequency, parser.parse(numbRepos));
+	}
+
+	public void writer(int numbRepos, int frequency, Map<Integer, Set<Episode>> episodes) throws IOException {
 		StringBuilder bdsBuilder = new StringBuilder();
 		
 		for (Map.Entry<Integer, Set<Episode>> entry : episodes.entrySet()) {
@@ -48,7 +48,10 @@ public class ThresholdsFrequency {
 	}
 
 	public void writer(int numbRepos) throws IOException {
-		Map<Integer, Set<Episode>> episodes = parser.parse(numbRepos);
+		writer(numbRepos, parser.parse(numbRepos));
+	}
+
+	public void writer(int numbRepos, Map<Integer, Set<Episode>> episodes) throws IOException {
 		StringBuilder freqsBuilder = new StringBuilder();
 		
 		for (Map.Entry<Integer, Set<Episode>> entry : episodes.entrySet()) {
@@ -12,20 +12,18 @@ package cc.kave.episodes.mining.evaluation;
 
 import static cc.recommenders.assertions.Asserts.assertTrue;
 
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.Sets;
 
-import cc.kave.episodes.evaluation.queries.Separator;
+import cc.kave.episodes.model.EncodedEpisode;
 import cc.kave.episodes.model.Episode;
-import cc.kave.episodes.model.events.Fact;
 import cc.recommenders.datastructures.Tuple;
 import cc.recommenders.evaluation.data.Measure;
 
 public class EpisodeRecommender {
-	
-	private Separator separator = new Separator();
 
 	public Set<Tuple<Episode, Double>> getProposals(Episode query, Map<Integer, Set<Episode>> patterns, 
 															int numberOfProposals) {
@@ -33,12 +31,14 @@ public class EpisodeRecommender {
 		assertTrue(!patterns.isEmpty(), "The list of learned episodes is empty!");
 		assertTrue(numberOfProposals > 0, "Request a positive number of proposals to show!");
 		
-		Set<Tuple<Episode, Double>> allProposals = sortProposals(query, patterns);
+		EncodedEpisode queryBody = EncodedEpisode.of(query).getBody();
+		Map<Episode, EncodedEpisode> encodedPatterns = new IdentityHashMap<Episode, EncodedEpisode>();
+		Set<Tuple<Episode, Double>> allProposals = sortProposals(queryBody, patterns, encodedPatterns);
 		Set<Tuple<Episode, Double>> limitedProposals = Sets.newLinkedHashSet();
 		
 		int counter = 0;
 		for (Tuple<Episode, Double> tuple : allProposals) {
-			if ((counter < numberOfProposals) && !episodeIsPartOfQuery(query, tuple.getFirst())) {
+			if ((counter < numberOfProposals) && !queryBody.containsAllFacts(encodedPatterns.get(tuple.getFirst()))) {
 				if ((tuple.getSecond() > 0.0) || (tuple.getSecond() == 0.0) && (query.getNumEvents() == 1)) {
 					limitedProposals.add(tuple);
 					counter++;
@@ -48,42 +48,51 @@ public class EpisodeRecommender {
 		return limitedProposals;
 	}
 	
-	private Set<Tuple<Episode, Double>> sortProposals(Episode query, Map<Integer, Set<Episode>> patterns) {
+	private Set<Tuple<Episode, Double>> sortProposals(EncodedEpisode queryBody, Map<Integer, Set<Episode>> patterns,
+			Map<Episode, EncodedEpisode> encodedPatterns) {
 		Set<Tuple<Episode, Double>> allProposals = ProposalHelper.createEpisodesSortedSet();
 		
 		for (Map.Entry<Integer, Set<Episode>> entry : patterns.entrySet()) {
 			for (Episode e : entry.getValue()) {
-				allProposals.add(Tuple.newTuple(e, calcF1(query, e)));
+				EncodedEpisode encoded = EncodedEpisode.of(e);
+				encodedPatterns.put(e, encoded);
+				allProposals.add(Tuple.newTuple(e, calcF1(queryBody, encoded)));
 			}
 		}
 		return allProposals;
 	}
 
-	private boolean episodeIsPartOfQuery(Episode query, Episode episode) {
-		Set<Fact> factsQuery = separator.getEpisodeBody(query);
-		for (Fact fact : episode.getFacts()) {
-			if (factsQuery.contains(fact)) {
-				continue;
-			} else {
-				return false;
-			}
-		}
-		return true;
-	}
-
 	public double calcF1(Episode query, Episode episode) {
-		Set<Fact> factsQuery = separator.getEpisodeBody(query);
-		
-		Measure m = Measure.newMeasure(factsQuery, episode.getFacts());
-		double f1 = m.getF1();
-		return f1;
+		return calcF1(EncodedEpisode.of(query).getBody(), EncodedEpisode.of(episode));
 	}
 	
 	public double calcPrecision(Episode query, Episode episode) {
-		Set<Fact> factsQuery = separator.getEpisodeBody(query);
-		
-		Measure m = Measure.newMeasure(factsQuery, episode.getFacts());
-		double precision = m.getPrecision();
-		return precision;
+		return calcPrecision(EncodedEpisode.of(query).getBody(), EncodedEpisode.of(episode));
+	}
+
+	/**
+	 * same result as the F1 value of {@link Measure#newMeasure(Set, Set)} for the facts of the query body and the
+	 * facts of the episode
+	 */
+	public double calcF1(EncodedEpisode queryBody, EncodedEpisode episode) {
+		double numHits = queryBody.countSharedFacts(episode);
+		double precision = saveDivision(numHits, episode.getNumFacts());
+		double recall = saveDivision(numHits, queryBody.getNumFacts());
+		if (precision == 0.0 && recall == 0.0) {
+			return 0.0;
+		}
+		return 2.0 * precision * recall / (precision + recall);
+	}
+
+	public double calcPrecision(EncodedEpisode queryBody, EncodedEpisode episode) {
+		return saveDivision(queryBody.countSharedFacts(episode), episode.getNumFacts());
+	}
+
+	private static double saveDivision(double numerator, double denominator) {
+		if (denominator != 0.0) {
+			return numerator / denominator;
+		} else {
+			return 1.0;
+		}
 	}
 }
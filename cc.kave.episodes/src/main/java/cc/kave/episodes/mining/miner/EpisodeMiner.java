@@ -0,0 +1,533 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.episodes.mining.miner;
+
+import static cc.recommenders.assertions.Asserts.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+
+import cc.kave.episodes.model.Episode;
+import cc.kave.episodes.model.EventStream;
+import cc.kave.episodes.model.events.Fact;
+import cc.recommenders.io.Logger;
+
+/**
+ * Level-wise miner for serial, parallel and partial-order episodes that works directly on an event stream, so the
+ * stream does not have to be written out and mined by the external n-graph-miner.
+ *
+ * Episodes are injective (all events of an episode are distinct) and the frequency is the number of non-overlapped
+ * occurrences, where an occurrence is never spread over two methods. The bidirectional measure is the minimum, over
+ * all pairs of unordered events, of the binary entropy of the order in which the pair was observed in the
+ * occurrences; it is 1.0 for serial episodes. Candidates of one level are counted in parallel on a fork-join pool.
+ *
+ * The result has the same shape as the one of {@link cc.kave.episodes.mining.reader.EpisodeParser}: episodes are
+ * grouped by their number of events and the relations of an episode are transitively closed.
+ */
+public class EpisodeMiner {
+
+	private static final int MAX_NODES = Integer.SIZE - 1;
+	private static final int SEQUENTIAL_THRESHOLD = 32;
+
+	private final ForkJoinPool pool;
+
+	@Inject
+	public EpisodeMiner() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public EpisodeMiner(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	public Map<Integer, Set<Episode>> mine(File streamFile, int freqThresh, double bidirectThresh)
+			throws IOException {
+		return mine(FileUtils.readFileToString(streamFile), freqThresh, bidirectThresh);
+	}
+
+	public Map<Integer, Set<Episode>> mine(EventStream stream, int freqThresh, double bidirectThresh) {
+		return mine(stream.getStream(), freqThresh, bidirectThresh);
+	}
+
+	/**
+	 * @param stream
+	 *            event stream in the text format of {@link EventStream#getStream()} (one "id,timestamp" per line),
+	 *            methods are separated by a time gap of at least {@link EventStream#TIMEOUT}
+	 */
+	public Map<Integer, Set<Episode>> mine(String stream, int freqThresh, double bidirectThresh) {
+		List<int[]> methods = Lists.newArrayList();
+		int[] method = new int[16];
+		int size = 0;
+		double timer = -1;
+
+		for (String line : stream.split("\n")) {
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			int separator = line.indexOf(',');
+			int eventId = Integer.parseInt(line.substring(0, separator).trim());
+			double timestamp = Double.parseDouble(line.substring(separator + 1).trim());
+			if (timer != -1 && (timestamp - timer) >= EventStream.TIMEOUT) {
+				methods.add(Arrays.copyOf(method, size));
+				size = 0;
+			}
+			timer = timestamp;
+			if (size == method.length) {
+				method = Arrays.copyOf(method, size * 2);
+			}
+			method[size++] = eventId;
+		}
+		if (size > 0) {
+			methods.add(Arrays.copyOf(method, size));
+		}
+		return mineMethods(methods, freqThresh, bidirectThresh);
+	}
+
+	public Map<Integer, Set<Episode>> mine(List<List<Fact>> stream, int freqThresh, double bidirectThresh) {
+		List<int[]> methods = Lists.newArrayListWithCapacity(stream.size());
+		for (List<Fact> method : stream) {
+			int[] events = new int[method.size()];
+			int i = 0;
+			for (Fact fact : method) {
+				events[i++] = fact.getFactID();
+			}
+			methods.add(events);
+		}
+		return mineMethods(methods, freqThresh, bidirectThresh);
+	}
+
+	private Map<Integer, Set<Episode>> mineMethods(List<int[]> methods, int freqThresh, double bidirectThresh) {
+		assertTrue(freqThresh > 0, "Frequency threshold has to be positive!");
+		assertTrue(bidirectThresh >= 0.0 && bidirectThresh <= 1.0,
+				"Bidirectional threshold should be a probability value!");
+
+		Map<Integer, Set<Episode>> results = Maps.newLinkedHashMap();
+		Map<Integer, int[]> index = createIndex(methods);
+
+		Logger.log("Mining 1-node episodes");
+		List<Candidate> frequent = Lists.newArrayList();
+		Set<Episode> level = Sets.newLinkedHashSet();
+		for (Candidate candidate : countEvents(methods)) {
+			if (candidate.frequency >= freqThresh) {
+				frequent.add(candidate);
+				level.add(candidate.toEpisode());
+			}
+		}
+
+		int numNodes = 1;
+		while (!frequent.isEmpty()) {
+			results.put(numNodes, level);
+			if (numNodes == MAX_NODES) {
+				break;
+			}
+			numNodes++;
+
+			List<Candidate> candidates = generateCandidates(frequent);
+			Logger.log("Mining %d-node episodes (%d candidates)", numNodes, candidates.size());
+			pool.invoke(new CountingTask(candidates, 0, candidates.size(), methods, index));
+
+			frequent = Lists.newArrayList();
+			level = Sets.newLinkedHashSet();
+			for (Candidate candidate : candidates) {
+				if (candidate.frequency >= freqThresh) {
+					frequent.add(candidate);
+					if (candidate.bidirectMeasure >= bidirectThresh) {
+						level.add(candidate.toEpisode());
+					}
+				}
+			}
+		}
+		return results;
+	}
+
+	private static Map<Integer, int[]> createIndex(List<int[]> methods) {
+		Map<Integer, int[]> index = Maps.newHashMap();
+		Map<Integer, Integer> sizes = Maps.newHashMap();
+		for (int methodId = 0; methodId < methods.size(); methodId++) {
+			int[] events = methods.get(methodId).clone();
+			Arrays.sort(events);
+			for (int i = 0; i < events.length; i++) {
+				if (i > 0 && events[i] == events[i - 1]) {
+					continue;
+				}
+				int[] ids = index.get(events[i]);
+				int size = sizes.containsKey(events[i]) ? sizes.get(events[i]) : 0;
+				if (ids == null || size == ids.length) {
+					ids = ids == null ? new int[4] : Arrays.copyOf(ids, size * 2);
+					index.put(events[i], ids);
+				}
+				ids[size] = methodId;
+				sizes.put(events[i], size + 1);
+			}
+		}
+		for (Map.Entry<Integer, int[]> entry : index.entrySet()) {
+			entry.setValue(Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey())));
+		}
+		return index;
+	}
+
+	private static List<Candidate> countEvents(List<int[]> methods) {
+		Map<Integer, Integer> counts = Maps.newHashMap();
+		for (int[] method : methods) {
+			for (int event : method) {
+				Integer count = counts.get(event);
+				counts.put(event, count == null ? 1 : count + 1);
+			}
+		}
+		List<Candidate> candidates = Lists.newArrayListWithCapacity(counts.size());
+		for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+			Candidate candidate = new Candidate(new int[] { entry.getKey() }, new int[1]);
+			candidate.frequency = entry.getValue();
+			candidate.bidirectMeasure = 1.0;
+			candidates.add(candidate);
+		}
+		Collections.sort(candidates);
+		return candidates;
+	}
+
+	/**
+	 * joins all pairs of frequent episodes that only differ in their last event. The new pair of events can be
+	 * unordered or ordered in both directions, a candidate is kept if its order is a valid partial order and all of
+	 * its sub-episodes are frequent.
+	 */
+	private static List<Candidate> generateCandidates(List<Candidate> frequent) {
+		Set<Candidate> known = Sets.newHashSet(frequent);
+		Map<Candidate, List<Candidate>> groups = Maps.newLinkedHashMap();
+		for (Candidate episode : frequent) {
+			Candidate prefix = episode.remove(episode.size() - 1);
+			List<Candidate> group = groups.get(prefix);
+			if (group == null) {
+				group = Lists.newArrayList();
+				groups.put(prefix, group);
+			}
+			group.add(episode);
+		}
+
+		List<Candidate> candidates = Lists.newArrayList();
+		for (List<Candidate> group : groups.values()) {
+			for (int i = 0; i < group.size(); i++) {
+				for (int j = 0; j < group.size(); j++) {
+					Candidate first = group.get(i);
+					Candidate second = group.get(j);
+					if (first.lastEvent() < second.lastEvent()) {
+						join(first, second, known, candidates);
+					}
+				}
+			}
+		}
+		Collections.sort(candidates);
+		return candidates;
+	}
+
+	private static void join(Candidate first, Candidate second, Set<Candidate> known, List<Candidate> target) {
+		int k = first.size();
+		int[] events = Arrays.copyOf(first.events, k + 1);
+		events[k] = second.lastEvent();
+
+		int[] preds = new int[k + 1];
+		int lastBit = 1 << (k - 1);
+		int prefixMask = lastBit - 1;
+		for (int i = 0; i < k - 1; i++) {
+			preds[i] = first.preds[i];
+			if ((second.preds[i] & lastBit) != 0) {
+				preds[i] |= 1 << k;
+			}
+		}
+		preds[k - 1] = first.preds[k - 1] & prefixMask;
+		preds[k] = second.preds[k - 1] & prefixMask;
+
+		for (int relation = 0; relation < 3; relation++) {
+			int[] ordered = preds.clone();
+			if (relation == 1) {
+				ordered[k] |= lastBit;
+			} else if (relation == 2) {
+				ordered[k - 1] |= 1 << k;
+			}
+			Candidate candidate = new Candidate(events, ordered);
+			if (candidate.isPartialOrder() && hasFrequentSubEpisodes(candidate, known)) {
+				target.add(candidate);
+			}
+		}
+	}
+
+	private static boolean hasFrequentSubEpisodes(Candidate candidate, Set<Candidate> known) {
+		for (int node = 0; node < candidate.size() - 2; node++) {
+			if (!known.contains(candidate.remove(node))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int[] methodsContainingAll(int[] events, Map<Integer, int[]> index) {
+		int[] result = null;
+		for (int event : events) {
+			int[] ids = index.get(event);
+			if (ids == null) {
+				return new int[0];
+			}
+			result = result == null ? ids : intersect(result, ids);
+		}
+		return result;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[size++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * counts non-overlapped occurrences with one automaton per method: an event is accepted once all of its
+	 * predecessors in the episode have been accepted, the automaton is reset whenever an occurrence is complete and at
+	 * the start of every method.
+	 */
+	private static void count(Candidate candidate, List<int[]> methods, Map<Integer, int[]> index) {
+		int k = candidate.size();
+		int complete = (1 << k) - 1;
+		int[] positions = new int[k];
+		int[] before = new int[k * k];
+		int frequency = 0;
+
+		for (int methodId : methodsContainingAll(candidate.events, index)) {
+			int accepted = 0;
+			int step = 0;
+			for (int event : methods.get(methodId)) {
+				int node = Arrays.binarySearch(candidate.events, event);
+				if (node < 0 || (accepted & (1 << node)) != 0 || (candidate.preds[node] & ~accepted) != 0) {
+					continue;
+				}
+				accepted |= 1 << node;
+				positions[node] = step++;
+				if (accepted == complete) {
+					frequency++;
+					countOrders(candidate, positions, before);
+					accepted = 0;
+					step = 0;
+				}
+			}
+		}
+		candidate.frequency = frequency;
+		candidate.bidirectMeasure = bidirectMeasure(candidate, frequency, before);
+	}
+
+	private static void countOrders(Candidate candidate, int[] positions, int[] before) {
+		int k = candidate.size();
+		for (int i = 0; i < k; i++) {
+			for (int j = i + 1; j < k; j++) {
+				if (candidate.isUnordered(i, j)) {
+					if (positions[i] < positions[j]) {
+						before[i * k + j]++;
+					} else {
+						before[j * k + i]++;
+					}
+				}
+			}
+		}
+	}
+
+	private static double bidirectMeasure(Candidate candidate, int frequency, int[] before) {
+		if (frequency == 0) {
+			return 0.0;
+		}
+		int k = candidate.size();
+		double measure = 1.0;
+		for (int i = 0; i < k; i++) {
+			for (int j = i + 1; j < k; j++) {
+				if (candidate.isUnordered(i, j)) {
+					measure = Math.min(measure, entropy((double) before[i * k + j] / frequency));
+				}
+			}
+		}
+		return measure;
+	}
+
+	private static double entropy(double p) {
+		if (p <= 0.0 || p >= 1.0) {
+			return 0.0;
+		}
+		return -(p * Math.log(p) + (1 - p) * Math.log(1 - p)) / Math.log(2);
+	}
+
+	private static class CountingTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Candidate> candidates;
+		private final int from;
+		private final int to;
+		private final List<int[]> methods;
+		private final Map<Integer, int[]> index;
+
+		public CountingTask(List<Candidate> candidates, int from, int to, List<int[]> methods,
+				Map<Integer, int[]> index) {
+			this.candidates = candidates;
+			this.from = from;
+			this.to = to;
+			this.methods = methods;
+			this.index = index;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					count(candidates.get(i), methods, index);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new CountingTask(candidates, from, middle, methods, index),
+						new CountingTask(candidates, middle, to, methods, index));
+			}
+		}
+	}
+
+	/**
+	 * episode with its events sorted by id, preds[i] is a bit set of the nodes that have to occur before node i
+	 */
+	private static class Candidate implements Comparable<Candidate> {
+
+		private final int[] events;
+		private final int[] preds;
+		private final int hashCode;
+
+		private int frequency;
+		private double bidirectMeasure;
+
+		public Candidate(int[] events, int[] preds) {
+			this.events = events;
+			this.preds = preds;
+			this.hashCode = 31 * Arrays.hashCode(events) + Arrays.hashCode(preds);
+		}
+
+		public int size() {
+			return events.length;
+		}
+
+		public int lastEvent() {
+			return events[events.length - 1];
+		}
+
+		public boolean isUnordered(int i, int j) {
+			return (preds[i] & (1 << j)) == 0 && (preds[j] & (1 << i)) == 0;
+		}
+
+		public boolean isPartialOrder() {
+			for (int i = 0; i < preds.length; i++) {
+				for (int j = 0; j < preds.length; j++) {
+					if ((preds[i] & (1 << j)) == 0) {
+						continue;
+					}
+					boolean isCyclic = (preds[j] & (1 << i)) != 0;
+					boolean isNotClosed = (preds[j] & ~preds[i]) != 0;
+					if (isCyclic || isNotClosed) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		public Candidate remove(int node) {
+			int k = events.length - 1;
+			int[] subEvents = new int[k];
+			int[] subPreds = new int[k];
+			int lowMask = (1 << node) - 1;
+			for (int i = 0, j = 0; i < events.length; i++) {
+				if (i != node) {
+					subEvents[j] = events[i];
+					subPreds[j] = (preds[i] & lowMask) | ((preds[i] >>> (node + 1)) << node);
+					j++;
+				}
+			}
+			return new Candidate(subEvents, subPreds);
+		}
+
+		public Episode toEpisode() {
+			Episode episode = new Episode();
+			for (int event : events) {
+				episode.addFact(new Fact(event));
+			}
+			for (int j = 0; j < events.length; j++) {
+				for (int i = 0; i < events.length; i++) {
+					if ((preds[i] & (1 << j)) != 0) {
+						episode.addFact(new Fact(new Fact(events[j]), new Fact(events[i])));
+					}
+				}
+			}
+			episode.setFrequency(frequency);
+			episode.setBidirectMeasure(bidirectMeasure);
+			return episode;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			for (int i = 0; i < events.length; i++) {
+				if (events[i] != other.events[i]) {
+					return Integer.compare(events[i], other.events[i]);
+				}
+			}
+			for (int i = 0; i < preds.length; i++) {
+				if (preds[i] != other.preds[i]) {
+					return Integer.compare(preds[i], other.preds[i]);
+				}
+			}
+			return 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Candidate)) {
+				return false;
+			}
+			Candidate other = (Candidate) obj;
+			return hashCode == other.hashCode && Arrays.equals(events, other.events)
+					&& Arrays.equals(preds, other.preds);
+		}
+	}
+}
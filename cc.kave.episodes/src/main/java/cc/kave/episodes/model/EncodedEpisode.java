@@ -0,0 +1,275 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.episodes.model;
+
+import java.util.Arrays;
+
+import cc.kave.episodes.model.events.Fact;
+
+/**
+ * Immutable, integer-encoded view of an {@link Episode}. Events are stored as a sorted array of ids and relations as a
+ * sorted array of packed (first, after) pairs, so that set operations on the facts of two episodes are merges over
+ * primitive arrays and do not need any string handling.
+ */
+public class EncodedEpisode {
+
+	private static final int[] NO_EVENTS = new int[0];
+	private static final long[] NO_RELATIONS = new long[0];
+
+	private final int[] events;
+	private final long[] relations;
+	private final int frequency;
+	private final double bidirectMeasure;
+	private final int hashCode;
+
+	public EncodedEpisode(int[] events, long[] relations, int frequency, double bidirectMeasure) {
+		this.events = sortedDistinct(events.clone());
+		this.relations = sortedDistinct(relations.clone());
+		this.frequency = frequency;
+		this.bidirectMeasure = bidirectMeasure;
+		this.hashCode = 31 * Arrays.hashCode(this.events) + Arrays.hashCode(this.relations);
+	}
+
+	private EncodedEpisode(int[] sortedEvents, long[] sortedRelations, EncodedEpisode origin) {
+		this.events = sortedEvents;
+		this.relations = sortedRelations;
+		this.frequency = origin.frequency;
+		this.bidirectMeasure = origin.bidirectMeasure;
+		this.hashCode = 31 * Arrays.hashCode(sortedEvents) + Arrays.hashCode(sortedRelations);
+	}
+
+	public static EncodedEpisode of(Episode episode) {
+		int[] events = new int[episode.getNumFacts()];
+		long[] relations = new long[episode.getNumFacts()];
+		int numEvents = 0;
+		int numRelations = 0;
+		for (Fact fact : episode.getFacts()) {
+			String rawFact = fact.toString();
+			int separator = rawFact.indexOf('>');
+			if (separator == -1) {
+				events[numEvents++] = Integer.parseInt(rawFact);
+			} else {
+				int first = Integer.parseInt(rawFact.substring(0, separator));
+				int after = Integer.parseInt(rawFact.substring(separator + 1));
+				relations[numRelations++] = relation(first, after);
+			}
+		}
+		return new EncodedEpisode(Arrays.copyOf(events, numEvents), Arrays.copyOf(relations, numRelations),
+				episode.getFrequency(), episode.getBidirectMeasure());
+	}
+
+	public static long relation(int first, int after) {
+		return ((long) first << 32) | (after & 0xffffffffL);
+	}
+
+	public static int first(long relation) {
+		return (int) (relation >> 32);
+	}
+
+	public static int after(long relation) {
+		return (int) relation;
+	}
+
+	public Episode toEpisode() {
+		Episode episode = new Episode();
+		for (int event : events) {
+			episode.addFact(new Fact(event));
+		}
+		for (long relation : relations) {
+			episode.addFact(new Fact(new Fact(first(relation)), new Fact(after(relation))));
+		}
+		episode.setFrequency(frequency);
+		episode.setBidirectMeasure(bidirectMeasure);
+		return episode;
+	}
+
+	public int getNumEvents() {
+		return events.length;
+	}
+
+	public int getEvent(int index) {
+		return events[index];
+	}
+
+	public int getNumRelations() {
+		return relations.length;
+	}
+
+	public long getRelation(int index) {
+		return relations[index];
+	}
+
+	public int getNumFacts() {
+		return events.length + relations.length;
+	}
+
+	public int getFrequency() {
+		return frequency;
+	}
+
+	public double getBidirectMeasure() {
+		return bidirectMeasure;
+	}
+
+	public boolean containsEvent(int event) {
+		return Arrays.binarySearch(events, event) >= 0;
+	}
+
+	public boolean containsRelation(int first, int after) {
+		return Arrays.binarySearch(relations, relation(first, after)) >= 0;
+	}
+
+	/**
+	 * @return number of facts (events and relations) that are contained in both episodes
+	 */
+	public int countSharedFacts(EncodedEpisode other) {
+		int shared = 0;
+		int i = 0;
+		int j = 0;
+		while (i < events.length && j < other.events.length) {
+			if (events[i] < other.events[j]) {
+				i++;
+			} else if (events[i] > other.events[j]) {
+				j++;
+			} else {
+				shared++;
+				i++;
+				j++;
+			}
+		}
+		i = 0;
+		j = 0;
+		while (i < relations.length && j < other.relations.length) {
+			if (relations[i] < other.relations[j]) {
+				i++;
+			} else if (relations[i] > other.relations[j]) {
+				j++;
+			} else {
+				shared++;
+				i++;
+				j++;
+			}
+		}
+		return shared;
+	}
+
+	/**
+	 * @return true if every fact of the other episode is also a fact of this episode
+	 */
+	public boolean containsAllFacts(EncodedEpisode other) {
+		return countSharedFacts(other) == other.getNumFacts();
+	}
+
+	/**
+	 * Removes the method declaration from the episode, i.e., the event that occurs before all other events, together
+	 * with all of its relations. Episodes that consist of a single event have an empty body.
+	 */
+	public EncodedEpisode getBody() {
+		if (events.length == 1) {
+			return new EncodedEpisode(NO_EVENTS, NO_RELATIONS, this);
+		}
+		int declaration = findMethodDeclaration();
+		if (declaration == -1) {
+			return this;
+		}
+		int[] bodyEvents = new int[events.length - 1];
+		int numEvents = 0;
+		for (int event : events) {
+			if (event != events[declaration]) {
+				bodyEvents[numEvents++] = event;
+			}
+		}
+		long[] bodyRelations = new long[relations.length];
+		int numRelations = 0;
+		for (long relation : relations) {
+			if (first(relation) != events[declaration] && after(relation) != events[declaration]) {
+				bodyRelations[numRelations++] = relation;
+			}
+		}
+		return new EncodedEpisode(bodyEvents, Arrays.copyOf(bodyRelations, numRelations), this);
+	}
+
+	private int findMethodDeclaration() {
+		int start = 0;
+		while (start < relations.length) {
+			int first = first(relations[start]);
+			int end = start;
+			while (end < relations.length && first(relations[end]) == first) {
+				end++;
+			}
+			int index = Arrays.binarySearch(events, first);
+			if (end - start == events.length - 1 && index >= 0) {
+				return index;
+			}
+			start = end;
+		}
+		return -1;
+	}
+
+	private static int[] sortedDistinct(int[] values) {
+		Arrays.sort(values);
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (i == 0 || values[i] != values[size - 1]) {
+				values[size++] = values[i];
+			}
+		}
+		return size == values.length ? values : Arrays.copyOf(values, size);
+	}
+
+	private static long[] sortedDistinct(long[] values) {
+		Arrays.sort(values);
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (i == 0 || values[i] != values[size - 1]) {
+				values[size++] = values[i];
+			}
+		}
+		return size == values.length ? values : Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * two encoded episodes are equal if they consist of the same facts, frequency and bidirectional measure are not
+	 * considered
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof EncodedEpisode)) {
+			return false;
+		}
+		EncodedEpisode other = (EncodedEpisode) obj;
+		return hashCode == other.hashCode && Arrays.equals(events, other.events)
+				&& Arrays.equals(relations, other.relations);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("EncodedEpisode[");
+		for (int event : events) {
+			sb.append(event).append(", ");
+		}
+		for (long relation : relations) {
+			sb.append(first(relation)).append('>').append(after(relation)).append(", ");
+		}
+		sb.append("freq=").append(frequency).append(", bidirect=").append(bidirectMeasure).append(']');
+		return sb.toString();
+	}
+}
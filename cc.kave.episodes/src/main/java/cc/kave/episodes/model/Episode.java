@@ -20,8 +20,6 @@ import static cc.recommenders.assertions.Asserts.assertTrue;
 import java.util.List;
 import java.util.Set;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -121,12 +119,22 @@ public class Episode {
 
 	@Override
 	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+		// same value as the reflection-based HashCodeBuilder(17, 37) that was used before
+		long bits = Double.doubleToLongBits(bidirectMeasure);
+		int hash = 17 * 37 + facts.hashCode();
+		hash = hash * 37 + frequency;
+		return hash * 37 + (int) (bits ^ (bits >> 32));
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (!(obj instanceof Episode)) {
+			return false;
+		}
+		Episode other = (Episode) obj;
+		return frequency == other.frequency
+				&& Double.doubleToLongBits(bidirectMeasure) == Double.doubleToLongBits(other.bidirectMeasure)
+				&& facts.equals(other.facts);
 	}
 
 	public boolean equals(Episode ep) {
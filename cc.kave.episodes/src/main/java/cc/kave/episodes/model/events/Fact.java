@@ -15,9 +15,6 @@
  */
 package cc.kave.episodes.model.events;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-
 import cc.recommenders.assertions.Asserts;
 import cc.recommenders.datastructures.Tuple;
 
@@ -70,10 +67,11 @@ public class Fact {
 
 	public boolean containsEvent(int eventId) {
 		String eventStr = String.valueOf(eventId);
-		if (rawFact.contains(eventStr)) {
-			return true;
+		int separator = rawFact.indexOf('>');
+		if (separator == -1) {
+			return rawFact.equals(eventStr);
 		}
-		return false;
+		return rawFact.substring(0, separator).equals(eventStr) || rawFact.substring(separator + 1).equals(eventStr);
 	}
 	
 	public int getFactID() {
@@ -91,11 +89,16 @@ public class Fact {
 
 	@Override
 	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+		// same value as the reflection-based HashCodeBuilder(17, 37) that was used before
+		return 17 * 37 + (rawFact == null ? 0 : rawFact.hashCode());
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (!(obj instanceof Fact)) {
+			return false;
+		}
+		Fact other = (Fact) obj;
+		return rawFact == null ? other.rawFact == null : rawFact.equals(other.rawFact);
 	}
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +63,8 @@ public class ThresholdsBidirectionalTest {
 	private static final int NUMBREPOS = 2;
 	private static final int FREQTHRESH = 3;
 	
+	private Map<Integer, Set<Episode>> episodes;
+
 	private ThresholdsBidirection sut;
 	
 	@Before
@@ -71,7 +74,7 @@ public class ThresholdsBidirectionalTest {
 
 		MockitoAnnotations.initMocks(this);
 		
-		Map<Integer, Set<Episode>> episodes = Maps.newLinkedHashMap();
+		episodes = Maps.newLinkedHashMap();
 		Set<Episode> currEpLevel = Sets.newLinkedHashSet();
 		
 		currEpLevel.add(createEpisode(3, 0.7, "1"));
@@ -157,6 +160,14 @@ public class ThresholdsBidirectionalTest {
 		assertEquals(expBds.toString(), actualBds);
 	}
 
+	@Test
+	public void episodesCanBeGivenDirectly() throws IOException {
+		sut.writer(NUMBREPOS, FREQTHRESH, episodes);
+
+		verify(parser, never()).parse(anyInt());
+		assertTrue(new File(getBdsPath()).exists());
+	}
+
 	private String getBdsPath() {
 		File streamFile = new File(rootFolder.getRoot().getAbsolutePath() + "/bds" + FREQTHRESH + "Freq" + NUMBREPOS + "Repos.txt");
 		return streamFile.getAbsolutePath();
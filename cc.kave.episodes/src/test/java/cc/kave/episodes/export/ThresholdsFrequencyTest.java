@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -61,6 +62,8 @@ public class ThresholdsFrequencyTest {
 	
 	private static final int NUMBREPOS = 2;
 	
+	private Map<Integer, Set<Episode>> episodes;
+
 	private ThresholdsFrequency sut;
 	
 	@Before
@@ -70,7 +73,7 @@ public class ThresholdsFrequencyTest {
 
 		MockitoAnnotations.initMocks(this);
 		
-		Map<Integer, Set<Episode>> episodes = Maps.newLinkedHashMap();
+		episodes = Maps.newLinkedHashMap();
 		Set<Episode> currEpLevel = Sets.newLinkedHashSet();
 		
 		currEpLevel.add(createEpisode(3, 0.7, "1"));
@@ -157,6 +160,14 @@ public class ThresholdsFrequencyTest {
 		assertEquals(expFreqs.toString(), actualFreqs);
 	}
 	
+	@Test
+	public void episodesCanBeGivenDirectly() throws IOException {
+		sut.writer(NUMBREPOS, episodes);
+
+		verify(parser, never()).parse(anyInt());
+		assertTrue(new File(getFreqsPath()).exists());
+	}
+
 	private String getFreqsPath() {
 		File streamFile = new File(rootFolder.getRoot().getAbsolutePath() + "/freqs" + NUMBREPOS + "Repos.txt");
 		return streamFile.getAbsolutePath();
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.episodes.mining.miner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import cc.kave.episodes.model.Episode;
+import cc.kave.episodes.model.events.Fact;
+import cc.recommenders.exceptions.AssertionException;
+import cc.recommenders.io.Logger;
+
+public class EpisodeMinerTest {
+
+	@Rule
+	public TemporaryFolder rootFolder = new TemporaryFolder();
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private EpisodeMiner sut;
+
+	@Before
+	public void setup() {
+		Logger.reset();
+		Logger.setCapturing(true);
+
+		sut = new EpisodeMiner();
+	}
+
+	@After
+	public void teardown() {
+		Logger.reset();
+	}
+
+	@Test
+	public void serialEpisodes() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1, 2), m(1, 2), m(1, 2)), 2, 0.0);
+
+		assertEquals(Sets.newHashSet(createEpisode(3, 1.0, "1"), createEpisode(3, 1.0, "2")), actual.get(1));
+		assertEquals(Sets.newHashSet(createEpisode(3, 0.0, "1", "2"), createEpisode(3, 1.0, "1", "2", "1>2")),
+				actual.get(2));
+		assertEquals(2, actual.size());
+	}
+
+	@Test
+	public void parallelEpisodes() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1, 2), m(2, 1)), 2, 0.0);
+
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1", "2")), actual.get(2));
+	}
+
+	@Test
+	public void partialOrderEpisodes() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1, 2, 3), m(1, 3, 2)), 2, 0.9);
+
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1", "2", "3", "1>2", "1>3")), actual.get(3));
+	}
+
+	@Test
+	public void bidirectThresholdOnlyFiltersOutput() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1, 2, 3), m(1, 2, 3)), 2, 0.5);
+
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1", "2", "1>2"), createEpisode(2, 1.0, "1", "3", "1>3"),
+				createEpisode(2, 1.0, "2", "3", "2>3")), actual.get(2));
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1", "2", "3", "1>2", "1>3", "2>3")), actual.get(3));
+	}
+
+	@Test
+	public void occurrencesDoNotSpanMethods() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1), m(2), m(1), m(2)), 1, 0.0);
+
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1"), createEpisode(2, 1.0, "2")), actual.get(1));
+		assertFalse(actual.containsKey(2));
+	}
+
+	@Test
+	public void occurrencesDoNotOverlap() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1, 1, 2, 2)), 1, 1.0);
+
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1"), createEpisode(2, 1.0, "2")), actual.get(1));
+		assertEquals(Sets.newHashSet(createEpisode(1, 1.0, "1", "2", "1>2")), actual.get(2));
+	}
+
+	@Test
+	public void infrequentEventsArePruned() {
+		Map<Integer, Set<Episode>> actual = sut.mine(stream(m(1, 2), m(1, 3)), 2, 0.0);
+
+		assertEquals(Sets.newHashSet(createEpisode(2, 1.0, "1")), actual.get(1));
+		assertEquals(1, actual.size());
+	}
+
+	@Test
+	public void streamTextIsSplitIntoMethods() {
+		String stream = "1,0.000\n2,0.001\n1,0.502\n2,0.503\n";
+
+		assertEquals(sut.mine(stream(m(1, 2), m(1, 2)), 2, 0.0), sut.mine(stream, 2, 0.0));
+	}
+
+	@Test
+	public void partitionFilesCanBeMined() throws IOException {
+		File partition = rootFolder.newFile("eventStream1.txt");
+		FileUtils.writeStringToFile(partition, "1,0.000\n2,0.001\n1,0.502\n2,0.503\n");
+
+		assertEquals(sut.mine(stream(m(1, 2), m(1, 2)), 2, 0.0), sut.mine(partition, 2, 0.0));
+	}
+
+	@Test
+	public void parallelCountingGivesSameEpisodes() {
+		Random rnd = new Random(42);
+		List<List<Fact>> stream = Lists.newLinkedList();
+		for (int i = 0; i < 300; i++) {
+			int[] events = new int[2 + rnd.nextInt(6)];
+			for (int j = 0; j < events.length; j++) {
+				events[j] = 1 + rnd.nextInt(8);
+			}
+			stream.add(m(events));
+		}
+
+		Map<Integer, Set<Episode>> expected = new EpisodeMiner(new ForkJoinPool(1)).mine(stream, 20, 0.2);
+		Map<Integer, Set<Episode>> actual = new EpisodeMiner(new ForkJoinPool(4)).mine(stream, 20, 0.2);
+
+		assertEquals(expected, actual);
+		assertFalse(actual.get(3).isEmpty());
+	}
+
+	@Test
+	public void frequencyThresholdHasToBePositive() {
+		thrown.expect(AssertionException.class);
+		thrown.expectMessage("Frequency threshold has to be positive!");
+		sut.mine(stream(m(1)), 0, 0.0);
+	}
+
+	@Test
+	public void bidirectThresholdHasToBeProbability() {
+		thrown.expect(AssertionException.class);
+		thrown.expectMessage("Bidirectional threshold should be a probability value!");
+		sut.mine(stream(m(1)), 1, 1.1);
+	}
+
+	@SafeVarargs
+	private static List<List<Fact>> stream(List<Fact>... methods) {
+		return Lists.newArrayList(methods);
+	}
+
+	private static List<Fact> m(int... events) {
+		List<Fact> method = Lists.newLinkedList();
+		for (int event : events) {
+			method.add(new Fact(event));
+		}
+		return method;
+	}
+
+	private Episode createEpisode(int freq, double bdmeas, String... strings) {
+		Episode episode = new Episode();
+		episode.setFrequency(freq);
+		episode.setBidirectMeasure(bdmeas);
+		for (String fact : strings) {
+			episode.addFact(fact);
+		}
+		return episode;
+	}
+}
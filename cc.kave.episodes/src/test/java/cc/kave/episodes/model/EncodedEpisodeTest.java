@@ -0,0 +1,126 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.kave.episodes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class EncodedEpisodeTest {
+
+	@Test
+	public void episodesAreEncoded() {
+		EncodedEpisode sut = EncodedEpisode.of(createEpisode(3, 0.5, "12", "1", "12>1"));
+
+		assertEquals(2, sut.getNumEvents());
+		assertEquals(1, sut.getEvent(0));
+		assertEquals(12, sut.getEvent(1));
+		assertEquals(1, sut.getNumRelations());
+		assertEquals(EncodedEpisode.relation(12, 1), sut.getRelation(0));
+		assertEquals(3, sut.getNumFacts());
+		assertEquals(3, sut.getFrequency());
+		assertEquals(0.5, sut.getBidirectMeasure(), 0.0);
+	}
+
+	@Test
+	public void relationsArePacked() {
+		long relation = EncodedEpisode.relation(-3, 7);
+
+		assertEquals(-3, EncodedEpisode.first(relation));
+		assertEquals(7, EncodedEpisode.after(relation));
+		assertNotEquals(relation, EncodedEpisode.relation(7, -3));
+	}
+
+	@Test
+	public void conversionRoundtrip() {
+		Episode expected = createEpisode(2, 0.7, "1", "2", "3", "1>2", "1>3");
+
+		assertEquals(expected, EncodedEpisode.of(expected).toEpisode());
+	}
+
+	@Test
+	public void factOrderDoesNotMatter() {
+		EncodedEpisode a = EncodedEpisode.of(createEpisode(1, 1.0, "1", "2", "1>2"));
+		EncodedEpisode b = EncodedEpisode.of(createEpisode(1, 1.0, "1>2", "2", "1"));
+
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
+
+	@Test
+	public void duplicatesAreRemoved() {
+		EncodedEpisode sut = new EncodedEpisode(new int[] { 2, 1, 2 },
+				new long[] { EncodedEpisode.relation(1, 2), EncodedEpisode.relation(1, 2) }, 1, 1.0);
+
+		assertEquals(2, sut.getNumEvents());
+		assertEquals(1, sut.getNumRelations());
+	}
+
+	@Test
+	public void containment() {
+		EncodedEpisode sut = EncodedEpisode.of(createEpisode(1, 1.0, "1", "12", "1>12"));
+
+		assertTrue(sut.containsEvent(12));
+		assertFalse(sut.containsEvent(2));
+		assertTrue(sut.containsRelation(1, 12));
+		assertFalse(sut.containsRelation(12, 1));
+	}
+
+	@Test
+	public void sharedFacts() {
+		EncodedEpisode a = EncodedEpisode.of(createEpisode(1, 1.0, "1", "2", "3", "1>2", "1>3"));
+		EncodedEpisode b = EncodedEpisode.of(createEpisode(1, 1.0, "1", "3", "4", "1>3", "3>4"));
+
+		assertEquals(3, a.countSharedFacts(b));
+		assertEquals(3, b.countSharedFacts(a));
+		assertFalse(a.containsAllFacts(b));
+		assertTrue(a.containsAllFacts(EncodedEpisode.of(createEpisode(1, 1.0, "1", "3", "1>3"))));
+	}
+
+	@Test
+	public void bodyRemovesMethodDeclaration() {
+		EncodedEpisode sut = EncodedEpisode.of(createEpisode(1, 1.0, "1", "12", "2", "1>12", "1>2", "12>2"));
+
+		assertEquals(EncodedEpisode.of(createEpisode(1, 1.0, "12", "2", "12>2")), sut.getBody());
+	}
+
+	@Test
+	public void bodyOfSingleEvent() {
+		EncodedEpisode sut = EncodedEpisode.of(createEpisode(1, 1.0, "1"));
+
+		assertEquals(0, sut.getBody().getNumFacts());
+	}
+
+	@Test
+	public void bodyWithoutMethodDeclaration() {
+		EncodedEpisode sut = EncodedEpisode.of(createEpisode(1, 1.0, "1", "2"));
+
+		assertEquals(sut, sut.getBody());
+	}
+
+	private Episode createEpisode(int freq, double bdmeas, String... strings) {
+		Episode episode = new Episode();
+		episode.setFrequency(freq);
+		episode.setBidirectMeasure(bdmeas);
+		for (String fact : strings) {
+			episode.addFact(fact);
+		}
+		return episode;
+	}
+}
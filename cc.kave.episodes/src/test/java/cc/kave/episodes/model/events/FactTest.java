@@ -16,6 +16,7 @@
 package cc.kave.episodes.model.events;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -65,6 +66,16 @@ public class FactTest {
 		assertEquals(12, fact.getFactID());
 	}
 	
+	@Test
+	public void containsEvent() {
+		assertTrue(new Fact("12").containsEvent(12));
+		assertTrue(new Fact("12>7").containsEvent(12));
+		assertTrue(new Fact("12>7").containsEvent(7));
+		assertFalse(new Fact("12").containsEvent(1));
+		assertFalse(new Fact("12>7").containsEvent(1));
+		assertFalse(new Fact("12>7").containsEvent(2));
+	}
+
 	@Test
 	public void getFactsFromRelation() {
 		Fact orderFact = new Fact("ab>bc");
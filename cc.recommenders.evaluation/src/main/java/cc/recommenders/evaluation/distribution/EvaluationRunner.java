@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import java.rmi.RemoteException;
+
+import com.google.inject.Injector;
+
+/**
+ * Runs the tasks of a provider through a {@link LeasingTaskScheduler}, either with the threads of a
+ * {@link LocalWorkerPool} or by publishing the scheduler for {@link TaskWorker}s in other processes.
+ */
+public class EvaluationRunner {
+
+	/**
+	 * runs all tasks in the current process and blocks until they are finished
+	 * 
+	 * @param journal
+	 *            nullable, results are not journaled if no journal is provided
+	 * @param injector
+	 *            nullable, used to inject the members of every {@link InjectableRunnable} before it is run
+	 */
+	public static <T> void runLocally(ITaskProvider<T> provider, ResultJournal<T> journal, int numWorkers,
+			Injector injector) throws RemoteException, InterruptedException {
+		LeasingTaskScheduler<T> scheduler = LeasingTaskScheduler.createLocal(provider, journal);
+		new LocalWorkerPool(numWorkers, injector).run(scheduler);
+	}
+
+	/**
+	 * publishes a scheduler for remote workers, which connect through {@link TaskWorker#connect}
+	 * 
+	 * @param journal
+	 *            nullable, results are not journaled if no journal is provided
+	 */
+	public static <T> LeasingTaskScheduler<T> publish(ITaskProvider<T> provider, ResultJournal<T> journal,
+			String serverIp) throws RemoteException {
+		LeasingTaskScheduler<T> scheduler = LeasingTaskScheduler.create(provider, journal);
+		RmiUtils.publish(scheduler, serverIp, ITaskScheduler.class);
+		return scheduler;
+	}
+}
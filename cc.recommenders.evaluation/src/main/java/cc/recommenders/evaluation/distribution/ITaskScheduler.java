@@ -21,5 +21,10 @@ public interface ITaskScheduler<T> extends Remote, Serializable {
 	 */
 	public Runnable getNextNullableTask() throws RemoteException;
 
+	/**
+	 * @return <i>next task</i> for the given worker or <i>null</i> if no more tasks exist
+	 */
+	public Runnable getNextNullableTask(String workerId) throws RemoteException;
+
 	public void finished(Task<T> task) throws RemoteException;
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static cc.recommenders.assertions.Asserts.assertNotNull;
+import static cc.recommenders.assertions.Asserts.assertTrue;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.rmi.server.ServerNotActiveException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import cc.recommenders.io.Logger;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Scheduler that hands out tasks on leases instead of serializing all workers on a single queue.
+ * <ul>
+ * <li>Unassigned tasks are moved in small batches into a local queue of the requesting worker. A worker that runs out
+ * of work steals half of the queue of the busiest other worker.</li>
+ * <li>Every handed out task is leased to its worker for a limited time. Depending on the {@link LeasePolicy}, tasks of
+ * expired leases are put back into the queue of the next requesting worker and idle workers get a duplicate of the
+ * oldest leased task once all tasks are handed out. Only the first result of a task is reported.</li>
+ * <li>If a {@link ResultJournal} is used, every result is appended to it. Tasks that are already contained in the
+ * journal are not scheduled again, their results are replayed to the provider instead.</li>
+ * </ul>
+ * Tasks are identified across runs by the {@link #toString()} of their callable.
+ */
+public class LeasingTaskScheduler<T> extends UnicastRemoteObject implements ITaskScheduler<T> {
+
+	private static final long serialVersionUID = -2461337950012934578L;
+
+	public static final String DEFAULT_WORKER = "default";
+	public static final long DEFAULT_LEASE_TIMEOUT_IN_MIN = 30;
+	public static final int BATCH_SIZE = 4;
+
+	private final ITaskProvider<T> provider;
+	private final ResultJournal<T> journal;
+	private final Ticker ticker;
+	private final long leaseTimeoutInNs;
+	private final LeasePolicy policy;
+
+	private final Map<Task<T>, String> keys = Maps.newHashMap();
+	private final Queue<Task<T>> unassigned = new ConcurrentLinkedQueue<Task<T>>();
+	private final ConcurrentMap<String, Deque<Task<T>>> localQueues = new ConcurrentHashMap<String, Deque<Task<T>>>();
+	private final ConcurrentMap<Task<T>, Lease> leases = new ConcurrentHashMap<Task<T>, Lease>();
+	private final Set<Task<T>> finished = ConcurrentHashMap.newKeySet();
+
+	private final Object resultLock = new Object();
+	private int numOpenTasks;
+	private final Set<String> unjournaledKeys = Sets.newLinkedHashSet();
+
+	/**
+	 * @param journal
+	 *            nullable, results are not journaled if no journal is provided
+	 */
+	public LeasingTaskScheduler(ITaskProvider<T> provider, ResultJournal<T> journal, long leaseTimeout, TimeUnit unit,
+			Ticker ticker, LeasePolicy policy) throws RemoteException {
+		super();
+		assertNotNull(provider);
+		assertNotNull(unit);
+		assertNotNull(ticker);
+		assertNotNull(policy);
+		assertTrue(leaseTimeout > 0);
+		this.provider = provider;
+		this.journal = journal;
+		this.leaseTimeoutInNs = unit.toNanos(leaseTimeout);
+		this.ticker = ticker;
+		this.policy = policy;
+
+		int numReplayed = 0;
+		Map<String, Integer> keyCounts = Maps.newHashMap();
+		for (Callable<T> callable : provider.createWorkers()) {
+			String key = uniqueKey(callable.toString(), keyCounts);
+			if (journal != null && journal.contains(key)) {
+				provider.addResult(journal.get(key));
+				numReplayed++;
+			} else {
+				Task<T> task = new Task<T>(callable, this);
+				keys.put(task, key);
+				unassigned.add(task);
+			}
+		}
+		numOpenTasks = unassigned.size();
+		if (numReplayed > 0) {
+			Logger.log("replayed %d results from %s", numReplayed, journal.getFile());
+			if (numOpenTasks == 0) {
+				provider.done();
+			}
+		}
+	}
+
+	private static String uniqueKey(String key, Map<String, Integer> keyCounts) {
+		Integer count = keyCounts.get(key);
+		keyCounts.put(key, count == null ? 1 : count + 1);
+		return count == null ? key : key + "#" + (count + 1);
+	}
+
+	/**
+	 * workers that do not provide an id are identified by their host, or share {@value #DEFAULT_WORKER} for local calls
+	 */
+	@Override
+	public Runnable getNextNullableTask() throws RemoteException {
+		return getNextNullableTask(getCallerId());
+	}
+
+	private static String getCallerId() {
+		try {
+			return getClientHost();
+		} catch (ServerNotActiveException e) {
+			return DEFAULT_WORKER;
+		}
+	}
+
+	@Override
+	public Runnable getNextNullableTask(String workerId) throws RemoteException {
+		assertNotNull(workerId);
+		long now = ticker.read();
+		Deque<Task<T>> local = getLocalQueue(workerId);
+		if (policy != LeasePolicy.EXCLUSIVE) {
+			requeueExpiredLeases(local, now);
+		}
+
+		Task<T> task = pollOpen(local);
+		if (task == null && refill(local)) {
+			task = pollOpen(local);
+		}
+		if (task == null && steal(workerId, local)) {
+			task = pollOpen(local);
+		}
+		if (task == null && policy == LeasePolicy.DUPLICATE_STRAGGLERS) {
+			task = findOldestLease();
+		}
+		if (task != null) {
+			leases.put(task, new Lease(workerId, now + leaseTimeoutInNs));
+			if (finished.contains(task)) {
+				// finished concurrently, the result of this run will be ignored
+				leases.remove(task);
+			}
+		}
+		return task;
+	}
+
+	private Deque<Task<T>> getLocalQueue(String workerId) {
+		Deque<Task<T>> local = localQueues.get(workerId);
+		if (local == null) {
+			Deque<Task<T>> newQueue = new ConcurrentLinkedDeque<Task<T>>();
+			local = localQueues.putIfAbsent(workerId, newQueue);
+			if (local == null) {
+				local = newQueue;
+			}
+		}
+		return local;
+	}
+
+	private void requeueExpiredLeases(Deque<Task<T>> local, long now) {
+		for (Entry<Task<T>, Lease> e : leases.entrySet()) {
+			Lease lease = e.getValue();
+			if (now - lease.deadline > 0 && leases.remove(e.getKey(), lease)) {
+				Logger.log("lease of %s has expired for worker '%s'", e.getKey(), lease.workerId);
+				local.addFirst(e.getKey());
+			}
+		}
+	}
+
+	private Task<T> pollOpen(Deque<Task<T>> local) {
+		Task<T> task;
+		while ((task = local.pollFirst()) != null) {
+			if (!finished.contains(task)) {
+				return task;
+			}
+		}
+		return null;
+	}
+
+	private boolean refill(Deque<Task<T>> local) {
+		boolean hasRefilled = false;
+		Task<T> task;
+		for (int i = 0; i < BATCH_SIZE && (task = unassigned.poll()) != null; i++) {
+			local.addLast(task);
+			hasRefilled = true;
+		}
+		return hasRefilled;
+	}
+
+	private boolean steal(String workerId, Deque<Task<T>> local) {
+		Deque<Task<T>> victim = null;
+		int victimSize = 0;
+		for (Entry<String, Deque<Task<T>>> e : localQueues.entrySet()) {
+			int size = e.getValue().size();
+			if (!e.getKey().equals(workerId) && size > victimSize) {
+				victim = e.getValue();
+				victimSize = size;
+			}
+		}
+		boolean hasStolen = false;
+		if (victim != null) {
+			Task<T> task;
+			for (int i = 0; i < (victimSize + 1) / 2 && (task = victim.pollLast()) != null; i++) {
+				local.addFirst(task);
+				hasStolen = true;
+			}
+		}
+		return hasStolen;
+	}
+
+	private Task<T> findOldestLease() {
+		Task<T> oldest = null;
+		long oldestDeadline = 0;
+		for (Entry<Task<T>, Lease> e : leases.entrySet()) {
+			long deadline = e.getValue().deadline;
+			if (!finished.contains(e.getKey()) && (oldest == null || deadline - oldestDeadline < 0)) {
+				oldest = e.getKey();
+				oldestDeadline = deadline;
+			}
+		}
+		return oldest;
+	}
+
+	@Override
+	public void finished(Task<T> task) throws RemoteException {
+		String key = keys.get(task);
+		if (key == null || !finished.add(task)) {
+			return;
+		}
+		leases.remove(task);
+		synchronized (resultLock) {
+			if (task.hasResult()) {
+				appendToJournal(key, task.getResult());
+				provider.addResult(task.getResult());
+			} else {
+				assertTrue(task.hasCrashed());
+				provider.addCrash(task.toString(), task.getException());
+			}
+			if (--numOpenTasks == 0) {
+				if (!unjournaledKeys.isEmpty()) {
+					Logger.err("%d results are missing in %s and will be recomputed in the next run",
+							unjournaledKeys.size(), journal.getFile());
+				}
+				provider.done();
+			}
+		}
+	}
+
+	/**
+	 * a failing journal must not lose the result, it is still passed to the provider but the key is recorded as not
+	 * journaled
+	 */
+	private void appendToJournal(String key, T result) {
+		if (journal != null) {
+			try {
+				journal.append(key, result);
+			} catch (IOException e) {
+				Logger.err("cannot append result of '%s' to %s: %s", key, journal.getFile(), e.getMessage());
+				unjournaledKeys.add(key);
+			}
+		}
+	}
+
+	/**
+	 * @return keys of all results that could not be appended to the journal
+	 */
+	public Set<String> getUnjournaledKeys() {
+		synchronized (resultLock) {
+			return Sets.newLinkedHashSet(unjournaledKeys);
+		}
+	}
+
+	public int getNumOpenTasks() {
+		synchronized (resultLock) {
+			return numOpenTasks;
+		}
+	}
+
+	public int getNumLeases() {
+		return leases.size();
+	}
+
+	public static <U> LeasingTaskScheduler<U> create(ITaskProvider<U> provider) throws RemoteException {
+		return create(provider, null);
+	}
+
+	/**
+	 * creates a scheduler for remote workers, i.e., leases expire after the default timeout and are reassigned
+	 */
+	public static <U> LeasingTaskScheduler<U> create(ITaskProvider<U> provider, ResultJournal<U> journal)
+			throws RemoteException {
+		return new LeasingTaskScheduler<U>(provider, journal, DEFAULT_LEASE_TIMEOUT_IN_MIN, TimeUnit.MINUTES,
+				Ticker.systemTicker(), LeasePolicy.REASSIGN_EXPIRED);
+	}
+
+	/**
+	 * creates a scheduler for the {@link LocalWorkerPool}, in which every task is handed out exactly once
+	 */
+	public static <U> LeasingTaskScheduler<U> createLocal(ITaskProvider<U> provider, ResultJournal<U> journal)
+			throws RemoteException {
+		return new LeasingTaskScheduler<U>(provider, journal, DEFAULT_LEASE_TIMEOUT_IN_MIN, TimeUnit.MINUTES,
+				Ticker.systemTicker(), LeasePolicy.EXCLUSIVE);
+	}
+
+	public enum LeasePolicy {
+		/**
+		 * every task is handed out exactly once, required if the workers share the callables of the provider, as a
+		 * callable might otherwise be executed concurrently
+		 */
+		EXCLUSIVE,
+		/**
+		 * tasks of expired leases are handed out again, so the tasks of disappearing remote workers are not lost
+		 */
+		REASSIGN_EXPIRED,
+		/**
+		 * like {@link #REASSIGN_EXPIRED}, but idle workers additionally run a duplicate of the oldest active lease once
+		 * all tasks are handed out, so a slow worker cannot block the end of the evaluation
+		 */
+		DUPLICATE_STRAGGLERS
+	}
+
+	private static class Lease {
+		private final String workerId;
+		private final long deadline;
+
+		public Lease(String workerId, long deadline) {
+			this.workerId = workerId;
+			this.deadline = deadline;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static cc.recommenders.assertions.Asserts.assertNotNull;
+import static cc.recommenders.assertions.Asserts.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Injector;
+
+/**
+ * Worker backend that runs an evaluation on the local machine. Each worker is a thread with its own worker id that
+ * requests tasks from the scheduler until no more tasks exist, so the same scheduling is used as for remote workers.
+ */
+public class LocalWorkerPool {
+
+	public static final String WORKER_PREFIX = "local-";
+
+	private final int numWorkers;
+	private final Injector injector;
+
+	/**
+	 * @param injector
+	 *            nullable, used to inject the members of every {@link InjectableRunnable} before it is run
+	 */
+	public LocalWorkerPool(int numWorkers, Injector injector) {
+		assertTrue(numWorkers > 0);
+		this.numWorkers = numWorkers;
+		this.injector = injector;
+	}
+
+	/**
+	 * runs the workers and blocks until all of them are finished
+	 */
+	public void run(final ITaskScheduler<?> scheduler) throws InterruptedException {
+		assertNotNull(scheduler);
+		ExecutorService executor = Executors.newFixedThreadPool(numWorkers);
+		try {
+			List<Future<Integer>> futures = Lists.newLinkedList();
+			for (int i = 0; i < numWorkers; i++) {
+				final String workerId = WORKER_PREFIX + i;
+				futures.add(executor.submit(() -> work(scheduler, workerId)));
+			}
+			for (Future<Integer> f : futures) {
+				f.get();
+			}
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private int work(ITaskScheduler<?> scheduler, String workerId) {
+		return new TaskWorker(scheduler, workerId, injector).run();
+	}
+}
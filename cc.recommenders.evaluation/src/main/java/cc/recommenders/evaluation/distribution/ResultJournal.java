@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static cc.recommenders.assertions.Asserts.assertNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+import cc.recommenders.io.Logger;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.CountingInputStream;
+
+/**
+ * Append-only log of finished tasks. Every record consists of the key of the task and its serialized result and is
+ * flushed as soon as it is written, so an interrupted evaluation can be resumed from the journal. A record that was
+ * only partially written before a crash is ignored (and truncated) when the journal is opened again.
+ */
+public class ResultJournal<T> implements Closeable {
+
+	private final File file;
+	private final Map<String, T> results = Maps.newLinkedHashMap();
+	private final DataOutputStream out;
+
+	public ResultJournal(File file) throws IOException {
+		assertNotNull(file);
+		this.file = file;
+		long validLength = file.exists() ? readRecords() : 0;
+		truncateTo(validLength);
+		out = new DataOutputStream(new FileOutputStream(file, true));
+	}
+
+	private long readRecords() throws IOException {
+		long validLength = 0;
+		CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try (DataInputStream in = new DataInputStream(counter)) {
+			while (true) {
+				String key = in.readUTF();
+				byte[] payload = new byte[in.readInt()];
+				in.readFully(payload);
+				results.put(key, deserialize(payload));
+				validLength = counter.getCount();
+			}
+		} catch (EOFException e) {
+			// end of journal or incomplete last record
+		}
+		return validLength;
+	}
+
+	private void truncateTo(long validLength) throws IOException {
+		if (file.exists() && file.length() > validLength) {
+			Logger.log("ignoring incomplete record at the end of %s", file);
+			try (FileOutputStream fos = new FileOutputStream(file, true)) {
+				fos.getChannel().truncate(validLength);
+			}
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public synchronized boolean contains(String key) {
+		return results.containsKey(key);
+	}
+
+	public synchronized T get(String key) {
+		return results.get(key);
+	}
+
+	/**
+	 * @return all recorded results in the order in which they have been appended
+	 */
+	public synchronized Map<String, T> getResults() {
+		return Collections.unmodifiableMap(Maps.newLinkedHashMap(results));
+	}
+
+	public synchronized int size() {
+		return results.size();
+	}
+
+	/**
+	 * records the result of a finished task, a result for a key that is already contained is ignored
+	 *
+	 * @return true if the result has been appended
+	 */
+	public synchronized boolean append(String key, T result) throws IOException {
+		assertNotNull(key);
+		if (results.containsKey(key)) {
+			return false;
+		}
+		byte[] payload = serialize(result);
+		ByteArrayOutputStream record = new ByteArrayOutputStream(payload.length + key.length() + 8);
+		DataOutputStream dos = new DataOutputStream(record);
+		dos.writeUTF(key);
+		dos.writeInt(payload.length);
+		dos.write(payload);
+		dos.flush();
+		// a single write per record keeps the journal consistent up to the last complete record
+		record.writeTo(out);
+		out.flush();
+		results.put(key, result);
+		return true;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+
+	private static byte[] serialize(Object o) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject((Serializable) o);
+		}
+		return baos.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private T deserialize(byte[] payload) throws IOException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+			return (T) ois.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+}
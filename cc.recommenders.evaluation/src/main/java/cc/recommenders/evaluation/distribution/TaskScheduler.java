@@ -58,6 +58,14 @@ public class TaskScheduler<T> extends UnicastRemoteObject implements ITaskSchedu
 		return null;
 	}
 
+	/**
+	 * all workers share a single queue, so the worker id is ignored
+	 */
+	@Override
+	public synchronized Runnable getNextNullableTask(String workerId) throws RemoteException {
+		return getNextNullableTask();
+	}
+
 	@Override
 	public synchronized void finished(Task<T> task) throws RemoteException {
 		if (started.remove(task)) {
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static cc.recommenders.assertions.Asserts.assertNotNull;
+
+import java.lang.management.ManagementFactory;
+import java.rmi.RemoteException;
+
+import org.apache.commons.lang.UnhandledException;
+
+import cc.recommenders.io.Logger;
+
+import com.google.inject.Injector;
+
+/**
+ * Requests tasks under its own worker id from a scheduler and runs them until no more tasks exist. The worker id allows
+ * the scheduler to keep a local queue and the leases of every worker, so each worker needs a distinct id.
+ */
+public class TaskWorker {
+
+	private final ITaskScheduler<?> scheduler;
+	private final String workerId;
+	private final Injector injector;
+
+	/**
+	 * @param injector
+	 *            nullable, used to inject the members of every {@link InjectableRunnable} before it is run
+	 */
+	public TaskWorker(ITaskScheduler<?> scheduler, String workerId, Injector injector) {
+		assertNotNull(scheduler);
+		assertNotNull(workerId);
+		this.scheduler = scheduler;
+		this.workerId = workerId;
+		this.injector = injector;
+	}
+
+	/**
+	 * @return number of tasks that have been run
+	 */
+	public int run() {
+		int numTasks = 0;
+		try {
+			Runnable task;
+			while ((task = scheduler.getNextNullableTask(workerId)) != null) {
+				if (injector != null && task instanceof InjectableRunnable) {
+					((InjectableRunnable) task).injectionForMembers(injector);
+				}
+				task.run();
+				numTasks++;
+			}
+		} catch (RemoteException e) {
+			throw new UnhandledException(e);
+		}
+		Logger.log("worker '%s' has finished after %d tasks", workerId, numTasks);
+		return numTasks;
+	}
+
+	public String getWorkerId() {
+		return workerId;
+	}
+
+	/**
+	 * connects to the scheduler that has been published by {@link EvaluationRunner#publish}, the worker is identified
+	 * by process id and host
+	 */
+	public static TaskWorker connect(String serverIp, Injector injector) {
+		ITaskScheduler<?> scheduler = RmiUtils.request(ITaskScheduler.class, serverIp);
+		return new TaskWorker(scheduler, ManagementFactory.getRuntimeMXBean().getName(), injector);
+	}
+}
@@ -17,13 +17,16 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.concurrent.Callable;
 
+import cc.recommenders.evaluation.io.ModelCache;
 import cc.recommenders.evaluation.io.ProjectFoldedUsageStore;
 import cc.recommenders.evaluation.io.TypeStore;
 import cc.recommenders.evaluation.queries.QueryBuilderFactory;
+import cc.recommenders.mining.calls.ICallsRecommender;
 import cc.recommenders.mining.calls.MinerFactory;
 import cc.recommenders.mining.calls.MiningOptions;
 import cc.recommenders.mining.calls.QueryOptions;
 import cc.recommenders.names.CoReTypeName;
+import cc.recommenders.usages.Query;
 import cc.recommenders.usages.Usage;
 import cc.recommenders.utils.Timer;
 
@@ -51,6 +54,9 @@ public abstract class AbstractWorker<TTask extends AbstractTask> implements Call
 	@Inject
 	public transient ProjectFoldedUsageStore usageStore;
 
+	@Inject
+	public transient ModelCache modelCache;
+
 	private TTask task;
 
 	private transient List<Usage> trainingData;
@@ -107,6 +113,16 @@ public abstract class AbstractWorker<TTask extends AbstractTask> implements Call
 		}
 	}
 
+	/**
+	 * @return recommender for the complete training data, its model is shared with all tasks that mine the same
+	 *         training data with the same options
+	 */
+	protected ICallsRecommender<Query> getCachedRecommender() {
+		List<Usage> trainingData = getTrainingData();
+		String key = ModelCache.createKey(task.typeName, mOpts, qOpts, trainingData);
+		return modelCache.getRecommender(key, minerFactory.get(), trainingData);
+	}
+
 	protected abstract void call2();
 
 	@Override
@@ -34,7 +34,7 @@ public class DefinitionSitesWorker extends AbstractWorker<DefinitionSitesTask> {
 	protected void call2() {
 		evaluator.reinit();
 
-		ICallsRecommender<Query> rec = minerFactory.get().createRecommender(getTrainingData());
+		ICallsRecommender<Query> rec = getCachedRecommender();
 		evaluator.query(rec, getValidationData());
 
 		task.results = evaluator.getRawResults();
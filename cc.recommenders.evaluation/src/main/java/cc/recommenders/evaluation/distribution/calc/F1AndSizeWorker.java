@@ -36,7 +36,7 @@ public class F1AndSizeWorker extends AbstractWorker<F1AndSizeTask> {
 	public void call2() {
 		evaluator.reinit();
 
-		ICallsRecommender<Query> rec = minerFactory.get().createRecommender(getTrainingData());
+		ICallsRecommender<Query> rec = getCachedRecommender();
 		evaluator.query(rec, getValidationData());
 
 		Pair<double[], Integer> res = evaluator.getRawResults();
@@ -56,7 +56,7 @@ public class F1ForInputWorker extends AbstractWorker<F1ForInputTask> {
 			logIteration(i, numQueries);
 			List<Usage> trainingSubset = SublistSelector.pickRandomSublist(trainingData, task.inputSize);
 			List<Usage> validationSubset = SublistSelector.pickRandomSublist(validationData, numQueries);
-			Miner<Usage, Query> miner = minerFactory.get();
+			Miner<Usage, Query, ?> miner = minerFactory.get();
 			ICallsRecommender<Query> rec = miner.createRecommender(trainingSubset);
 			evaluator.query(rec, validationSubset);
 
@@ -55,7 +55,7 @@ public class QueryPerformanceWorker extends AbstractWorker<QueryPerformanceTask>
 	}
 
 	private ICallsRecommender<Query> createRecommender() {
-		Miner<Usage, Query> miner = minerFactory.get();
+		Miner<Usage, Query, ?> miner = minerFactory.get();
 		List<Usage> trainingSublist = SublistSelector.pickRandomSublist(getTrainingData(), task.inputSize);
 		Logger.log("learning... (from %d usages)", trainingSublist.size());
 
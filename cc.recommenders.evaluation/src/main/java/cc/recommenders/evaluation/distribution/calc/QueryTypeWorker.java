@@ -39,7 +39,7 @@ public class QueryTypeWorker extends AbstractWorker<QueryTypeTask> {
 		evaluator.reinit();
 		evaluator.setInterestingValues(getInterestingValues());
 
-		ICallsRecommender<Query> rec = minerFactory.get().createRecommender(getTrainingData());
+		ICallsRecommender<Query> rec = getCachedRecommender();
 		evaluator.query(rec, getValidationData());
 
 		task.results = evaluator.getRawResults();
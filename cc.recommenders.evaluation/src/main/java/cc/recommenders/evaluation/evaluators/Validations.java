@@ -27,7 +27,7 @@ public class Validations {
 	/**
 	 * only used for testing purposes
 	 */
-	public static <In, Out, Query> void testValidation(Miner<In, Query> miner, Evaluator<In, ?, Query> e,
+	public static <In, Out, Query> void testValidation(Miner<In, Query, ?> miner, Evaluator<In, ?, Query> e,
 			List<In> trainingData, List<In> validationData) {
 
 		assertPositive(trainingData.size());
@@ -37,7 +37,7 @@ public class Validations {
 		e.query(rec, validationData);
 	}
 
-	public static <In, Out, Query> void nFoldCrossValidation(int numFolds, Miner<In, Query> miner,
+	public static <In, Out, Query> void nFoldCrossValidation(int numFolds, Miner<In, Query, ?> miner,
 			Evaluator<In, ?, Query> e, List<In> in) {
 
 		assertGreaterOrEqual(in.size(), numFolds);
@@ -57,7 +57,7 @@ public class Validations {
 	 * performance measurement). Here, only a single fold is calculated and at
 	 * most <i>maxNumberOfQueries</i> queries are placed for validation
 	 */
-	public static <In, Out, Query> void fuzzyOneFoldValidation(int numFolds, Miner<In, Query> miner,
+	public static <In, Out, Query> void fuzzyOneFoldValidation(int numFolds, Miner<In, Query, ?> miner,
 			Evaluator<In, ?, Query> e, List<In> in, int maxNumberOfQueries) {
 
 		assertGreaterOrEqual(in.size(), numFolds);
@@ -75,7 +75,7 @@ public class Validations {
 		}
 	}
 
-	public static <In, Out, Query> void sizedNFoldCrossValidation(int numFolds, Miner<In, Query> miner,
+	public static <In, Out, Query> void sizedNFoldCrossValidation(int numFolds, Miner<In, Query, ?> miner,
 			Evaluator<In, ?, Query> e, List<In> in, int size) {
 
 		assertGreaterOrEqual(in.size(), numFolds);
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.io;
+
+import static cc.recommenders.assertions.Asserts.assertNotNull;
+import static cc.recommenders.assertions.Asserts.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import cc.recommenders.io.Logger;
+import cc.recommenders.mining.calls.ICallsRecommender;
+import cc.recommenders.mining.calls.Miner;
+import cc.recommenders.mining.calls.MiningOptions;
+import cc.recommenders.mining.calls.QueryOptions;
+import cc.recommenders.usages.CallSite;
+import cc.recommenders.usages.Query;
+import cc.recommenders.usages.Usage;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Striped;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Cache for mined models that is shared by all workers of a process. Tasks that only differ in query-time options
+ * learn their model from the same training data, so models are addressed by type, training data and all options that
+ * influence mining. Recently used models are kept in memory; if a directory is configured, serializable models are
+ * additionally stored on disk, so they can be reused across processes, runs and datasets.
+ */
+@Singleton
+public class ModelCache {
+
+	public static final int DEFAULT_CAPACITY = 8;
+	public static final String FILE_EXTENSION = ".model";
+
+	public static final String PROPERTY_CAPACITY = "evaluation.modelcache.capacity";
+	public static final String PROPERTY_DIR = "evaluation.modelcache.dir";
+
+	private final int capacity;
+	private final File dir;
+	private final Map<String, Object> models;
+	private final Striped<Lock> locks = Striped.lock(64);
+
+	private final AtomicInteger numHits = new AtomicInteger();
+	private final AtomicInteger numDiskHits = new AtomicInteger();
+	private final AtomicInteger numMisses = new AtomicInteger();
+
+	/**
+	 * configured through the system properties {@value #PROPERTY_CAPACITY} and {@value #PROPERTY_DIR}, the cache keeps
+	 * {@value #DEFAULT_CAPACITY} models in memory and uses no directory if they are not set
+	 */
+	@Inject
+	public ModelCache() {
+		this(Integer.getInteger(PROPERTY_CAPACITY, DEFAULT_CAPACITY), getConfiguredDir());
+	}
+
+	private static File getConfiguredDir() {
+		String dir = System.getProperty(PROPERTY_DIR);
+		return dir == null ? null : new File(dir);
+	}
+
+	/**
+	 * @param dir
+	 *            nullable, models are only cached in memory if no directory is provided
+	 */
+	public ModelCache(final int capacity, File dir) {
+		assertTrue(capacity >= 0);
+		this.capacity = capacity;
+		this.dir = dir;
+		models = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = -2017532826418513093L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+				return size() > capacity;
+			}
+		};
+		if (dir != null) {
+			assertTrue(dir.isDirectory() || dir.mkdirs(), "cannot create cache directory " + dir);
+		}
+	}
+
+	/**
+	 * The key contains the training data and all options that influence mining, so the same key is never used for
+	 * different models. The mining options are encoded field by field, because their {@link MiningOptions#toString()}
+	 * rounds weights and thresholds and omits the cluster count of combined clustering. Only the query options that
+	 * select the features of the model are part of the key, all other query options are applied when the recommender is
+	 * queried.
+	 */
+	public static String createKey(String typeName, MiningOptions mOpts, QueryOptions qOpts, List<Usage> trainingData) {
+		assertNotNull(typeName);
+		assertNotNull(mOpts);
+		assertNotNull(qOpts);
+		assertNotNull(trainingData);
+		String options = ReflectionToStringBuilder.toString(mOpts, ToStringStyle.SHORT_PREFIX_STYLE);
+		return String.format("%s|%s|%sCLASS%sMETHOD%sDEF%sPARAMS|%s", typeName, options, sign(qOpts.useClassContext),
+				sign(qOpts.useMethodContext), sign(qOpts.useDefinition), sign(qOpts.useParameterSites),
+				hash(trainingData));
+	}
+
+	private static String hash(List<Usage> usages) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putInt(usages.size());
+		for (Usage u : usages) {
+			putField(hasher, u.getType());
+			putField(hasher, u.getClassContext());
+			putField(hasher, u.getMethodContext());
+			putField(hasher, u.getDefinitionSite());
+			// call sites are a set, their order must not change the key
+			List<String> callsites = Lists.newArrayList();
+			for (CallSite site : u.getAllCallsites()) {
+				callsites.add(site.toString());
+			}
+			Collections.sort(callsites);
+			hasher.putInt(callsites.size());
+			for (String site : callsites) {
+				putField(hasher, site);
+			}
+		}
+		return hasher.hash().toString();
+	}
+
+	private static void putField(Hasher hasher, Object field) {
+		String value = String.valueOf(field);
+		hasher.putInt(value.length());
+		hasher.putString(value, StandardCharsets.UTF_8);
+	}
+
+	private static String sign(boolean value) {
+		return value ? "+" : "-";
+	}
+
+	public <M> ICallsRecommender<Query> getRecommender(String key, Miner<Usage, Query, M> miner,
+			List<Usage> trainingData) {
+		return miner.createRecommenderForModel(getModel(key, miner, trainingData));
+	}
+
+	/**
+	 * @return the cached model for the key or a new model that is learned from the training data
+	 */
+	public <M> M getModel(String key, Miner<Usage, Query, M> miner, List<Usage> trainingData) {
+		assertNotNull(key);
+		assertNotNull(miner);
+		assertNotNull(trainingData);
+
+		Lock lock = locks.get(key);
+		lock.lock();
+		try {
+			M model = getFromMemory(key);
+			if (model != null) {
+				numHits.incrementAndGet();
+				return model;
+			}
+			model = readFromDisk(key);
+			if (model != null) {
+				numDiskHits.incrementAndGet();
+			} else {
+				numMisses.incrementAndGet();
+				model = miner.learnModel(trainingData);
+				writeToDisk(key, model);
+			}
+			putIntoMemory(key, model);
+			Logger.log("model cache: %d hits, %d from disk, %d misses", numHits.get(), numDiskHits.get(),
+					numMisses.get());
+			return model;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// the key determines the miner and its options, so a cached model always has the type of the requesting miner
+	@SuppressWarnings("unchecked")
+	private synchronized <M> M getFromMemory(String key) {
+		return (M) models.get(key);
+	}
+
+	private synchronized void putIntoMemory(String key, Object model) {
+		if (model != null) {
+			models.put(key, model);
+		}
+	}
+
+	public synchronized int size() {
+		return models.size();
+	}
+
+	public synchronized void clear() {
+		models.clear();
+	}
+
+	private File getFile(String key) {
+		String hash = Hashing.sha1().hashString(key, StandardCharsets.UTF_8).toString();
+		return new File(dir, hash + FILE_EXTENSION);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <M> M readFromDisk(String key) {
+		if (dir == null) {
+			return null;
+		}
+		File file = getFile(key);
+		if (!file.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			String storedKey = in.readUTF();
+			return key.equals(storedKey) ? (M) in.readObject() : null;
+		} catch (IOException | ClassNotFoundException e) {
+			Logger.err("cannot read cached model %s, learning it again (%s)", file, e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, Object model) {
+		if (dir == null || !(model instanceof Serializable)) {
+			return;
+		}
+		File file = getFile(key);
+		try {
+			// models are written to a temporary file first, so other processes never see a partial model
+			File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+			try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeUTF(key);
+				out.writeObject(model);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Logger.err("cannot write cached model %s (%s)", file, e.getMessage());
+		}
+	}
+
+	public int getNumHits() {
+		return numHits.get();
+	}
+
+	public int getNumDiskHits() {
+		return numDiskHits.get();
+	}
+
+	public int getNumMisses() {
+		return numMisses.get();
+	}
+}
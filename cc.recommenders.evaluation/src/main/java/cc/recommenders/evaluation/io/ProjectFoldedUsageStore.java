@@ -11,6 +11,7 @@
 package cc.recommenders.evaluation.io;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,6 +22,7 @@ import cc.recommenders.io.IReadingArchive;
 import cc.recommenders.names.ICoReTypeName;
 import cc.recommenders.usages.ProjectFoldedUsage;
 import cc.recommenders.usages.ProjectFoldingIndex;
+import cc.recommenders.usages.UsageColumns;
 
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
@@ -61,18 +63,30 @@ public class ProjectFoldedUsageStore {
 		Asserts.assertGreaterThan(numFolds, 0);
 		Asserts.assertTrue(isAvailable(type, numFolds));
 
+		String baseName = type.toString().replace('/', '_');
+		String columnsFileName = baseName + UsageColumns.FILE_EXTENSION;
+		if (in.exists(columnsFileName)) {
+			try (InputStream is = in.getInputStream(columnsFileName)) {
+				UsageColumns columns = UsageColumns.read(is);
+				return new TypeStore(columns, createMapping(type, numFolds));
+			}
+		}
+
 		List<ProjectFoldedUsage> usages = Lists.newLinkedList();
 
-		String fileName = type.toString().replace('/', '_') + ".zip";
+		String fileName = baseName + ".zip";
 		IReadingArchive ra = in.getReadingArchive(fileName);
 		while (ra.hasNext()) {
 			ProjectFoldedUsage pfu = ra.getNext(ProjectFoldedUsage.class);
 			usages.add(pfu);
 		}
 		ra.close();
+		return new TypeStore(usages, createMapping(type, numFolds));
+	}
+
+	private Map<String, Integer> createMapping(ICoReTypeName type, int numFolds) {
 		Map<String, Integer> counts = index.getCounts(type);
-		Map<String, Integer> mapping = foldingStrategy.createMapping(counts, numFolds);
-		return new TypeStore(usages, mapping);
+		return foldingStrategy.createMapping(counts, numFolds);
 	}
 
 	private void lazyReadIndex() {
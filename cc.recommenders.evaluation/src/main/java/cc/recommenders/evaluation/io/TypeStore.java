@@ -16,6 +16,7 @@ import java.util.Map;
 import cc.recommenders.assertions.Asserts;
 import cc.recommenders.usages.ProjectFoldedUsage;
 import cc.recommenders.usages.Usage;
+import cc.recommenders.usages.UsageColumns;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
@@ -25,6 +26,7 @@ import com.google.common.collect.Lists;
 public class TypeStore {
 
 	private List<ProjectFoldedUsage> allUsages;
+	private UsageColumns columns;
 	private Map<String, Integer> mapping;
 
 	public TypeStore(List<ProjectFoldedUsage> allUsages, Map<String, Integer> mapping) {
@@ -33,7 +35,22 @@ public class TypeStore {
 
 	}
 
+	/**
+	 * usages are only created for the requested folds
+	 */
+	public TypeStore(UsageColumns columns, Map<String, Integer> mapping) {
+		this.columns = columns;
+		this.mapping = mapping;
+	}
+
 	public List<ProjectFoldedUsage> getAllUsages() {
+		if (allUsages == null) {
+			List<ProjectFoldedUsage> usages = Lists.newArrayListWithCapacity(columns.size());
+			for (int row = 0; row < columns.size(); row++) {
+				usages.add(new ProjectFoldedUsage(columns.getUsage(row), columns.getProjectName(row)));
+			}
+			return usages;
+		}
 		return allUsages;
 	}
 
@@ -42,6 +59,9 @@ public class TypeStore {
 	}
 
 	public List<Usage> getTrainingData(int foldNum) {
+		if (columns != null) {
+			return columns.select(isProjectInFold(foldNum, false));
+		}
 		return filterAndMapUsages(isNotEqual(foldNum));
 	}
 
@@ -57,6 +77,9 @@ public class TypeStore {
 	}
 
 	public List<Usage> getValidationData(int foldNum) {
+		if (columns != null) {
+			return columns.select(isProjectInFold(foldNum, true));
+		}
 		return filterAndMapUsages(isEqual(foldNum));
 	}
 
@@ -71,6 +94,17 @@ public class TypeStore {
 		};
 	}
 
+	private Predicate<String> isProjectInFold(final int val, final boolean isInFold) {
+		return new Predicate<String>() {
+			@Override
+			public boolean apply(String projectName) {
+				Integer idx = mapping.get(projectName);
+				Asserts.assertNotNull(idx);
+				return (idx == val) == isInFold;
+			}
+		};
+	}
+
 	private List<Usage> filterAndMapUsages(Predicate<ProjectFoldedUsage> pred) {
 		Iterable<ProjectFoldedUsage> filtered = Iterables.filter(allUsages, pred);
 		Iterable<Usage> usages = Iterables.transform(filtered, usageTransformation());
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.google.common.base.Predicate;
+
+import cc.recommenders.io.Directory;
+import cc.recommenders.io.IReadingArchive;
+import cc.recommenders.io.WritingArchive;
+import cc.recommenders.usages.ProjectFoldedUsage;
+import cc.recommenders.usages.UsageColumns;
+
+/**
+ * Converts a directory of project-folded usages between the JSON layout (one "&lt;type&gt;.zip" archive per type that
+ * contains a {@link ProjectFoldedUsage} per entry) and the column layout (one {@link UsageColumns} file per type). The
+ * project index is copied along, so both directories can be used by a {@link ProjectFoldedUsageStore}.
+ */
+public class UsageColumnsConverter {
+
+	private static final String INDEX_FILE = "index.json";
+	private static final String ZIP_EXTENSION = ".zip";
+
+	public void toColumns(Directory from, Directory to) throws IOException {
+		for (String fileName : from.list(endsWith(ZIP_EXTENSION))) {
+			UsageColumns.Builder builder = new UsageColumns.Builder();
+			IReadingArchive ra = from.getReadingArchive(fileName);
+			while (ra.hasNext()) {
+				builder.add(ra.getNext(ProjectFoldedUsage.class));
+			}
+			ra.close();
+
+			String columnsFileName = baseName(fileName, ZIP_EXTENSION) + UsageColumns.FILE_EXTENSION;
+			try (OutputStream out = to.getOutputStream(columnsFileName)) {
+				builder.build().write(out);
+			}
+		}
+		copyIndex(from, to);
+	}
+
+	public void toJson(Directory from, Directory to) throws IOException {
+		for (String fileName : from.list(endsWith(UsageColumns.FILE_EXTENSION))) {
+			UsageColumns columns;
+			try (InputStream in = from.getInputStream(fileName)) {
+				columns = UsageColumns.read(in);
+			}
+
+			String zipFileName = baseName(fileName, UsageColumns.FILE_EXTENSION) + ZIP_EXTENSION;
+			WritingArchive wa = to.getWritingArchive(zipFileName);
+			for (int row = 0; row < columns.size(); row++) {
+				wa.add(new ProjectFoldedUsage(columns.getUsage(row), columns.getProjectName(row)));
+			}
+			wa.close();
+		}
+		copyIndex(from, to);
+	}
+
+	private static void copyIndex(Directory from, Directory to) throws IOException {
+		if (from.exists(INDEX_FILE)) {
+			to.writeContent(from.readContent(INDEX_FILE), INDEX_FILE);
+		}
+	}
+
+	private static String baseName(String fileName, String extension) {
+		return fileName.substring(0, fileName.length() - extension.length());
+	}
+
+	private static Predicate<String> endsWith(final String extension) {
+		return new Predicate<String>() {
+			@Override
+			public boolean apply(String fileName) {
+				return fileName.endsWith(extension);
+			}
+		};
+	}
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import cc.recommenders.evaluation.distribution.LeasingTaskScheduler.LeasePolicy;
+import cc.recommenders.exceptions.AssertionException;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class LeasingTaskSchedulerTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Mock
+	private ITaskProvider<String> provider;
+	private Map<String, Callable<String>> tasks;
+	private ManualTicker ticker;
+	private ResultJournal<String> journal;
+
+	private LeasingTaskScheduler<String> sut;
+
+	@Before
+	public void setup() {
+		MockitoAnnotations.initMocks(this);
+		tasks = Maps.newLinkedHashMap();
+		ticker = new ManualTicker();
+		when(provider.createWorkers()).thenReturn(tasks.values());
+	}
+
+	@After
+	public void teardown() throws IOException {
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	private void initSut() throws RemoteException {
+		initSut(LeasePolicy.REASSIGN_EXPIRED);
+	}
+
+	private void initSut(LeasePolicy policy) throws RemoteException {
+		sut = new LeasingTaskScheduler<String>(provider, journal, 10, TimeUnit.SECONDS, ticker, policy);
+	}
+
+	private void initJournal() throws IOException {
+		if (journal != null) {
+			journal.close();
+		}
+		journal = new ResultJournal<String>(new File(tmp.getRoot(), "journal.bin"));
+	}
+
+	@Test(expected = AssertionException.class)
+	public void providerMustNotBeNull() throws RemoteException {
+		LeasingTaskScheduler.create(null);
+	}
+
+	@Test
+	public void nullIsReturnedWithNoTasks() throws RemoteException {
+		initSut();
+		assertNull(sut.getNextNullableTask());
+		verify(provider, never()).done();
+	}
+
+	@Test(expected = AssertionException.class)
+	public void policyMustNotBeNull() throws RemoteException {
+		initSut(null);
+	}
+
+	@Test
+	public void callsWithoutWorkerIdUseTheDefaultWorker() throws Exception {
+		addTasks("a", "b", "c", "d", "e", "f");
+		initSut();
+
+		sut.getNextNullableTask();
+		sut.getNextNullableTask(LeasingTaskScheduler.DEFAULT_WORKER).run();
+
+		verify(provider).addResult("b");
+	}
+
+	@Test
+	public void tasksAreHandedOutInOrder() throws Exception {
+		addTasks("a", "b", "c");
+		initSut();
+
+		sut.getNextNullableTask("w").run();
+		sut.getNextNullableTask("w").run();
+		sut.getNextNullableTask("w").run();
+
+		verify(provider).addResult("a");
+		verify(provider).addResult("b");
+		verify(provider).addResult("c");
+		verify(provider).done();
+		assertNull(sut.getNextNullableTask("w"));
+	}
+
+	@Test
+	public void tasksAreQueuedLocallyPerWorker() throws Exception {
+		addTasks("a", "b", "c", "d", "e", "f");
+		initSut();
+
+		sut.getNextNullableTask("w1").run();
+		sut.getNextNullableTask("w2").run();
+		sut.getNextNullableTask("w1").run();
+
+		verify(provider).addResult("a");
+		verify(provider).addResult("e");
+		verify(provider).addResult("b");
+	}
+
+	@Test
+	public void idleWorkersStealFromBusiestWorker() throws Exception {
+		addTasks("a", "b", "c", "d", "e");
+		initSut();
+
+		sut.getNextNullableTask("w1"); // a, local queue: b, c, d
+		sut.getNextNullableTask("w2").run(); // e
+		sut.getNextNullableTask("w2").run(); // c, d are stolen from the tail
+
+		verify(provider).addResult("e");
+		verify(provider).addResult("c");
+
+		sut.getNextNullableTask("w1").run();
+		verify(provider).addResult("b");
+	}
+
+	@Test
+	public void expiredLeasesAreReassigned() throws Exception {
+		addTasks("a", "b", "c", "d", "e", "f");
+		initSut();
+
+		sut.getNextNullableTask("w1"); // a, is never finished
+		ticker.advance(11, TimeUnit.SECONDS);
+		sut.getNextNullableTask("w2").run();
+
+		verify(provider).addResult("a");
+	}
+
+	@Test
+	public void activeLeasesAreNotReassignedWhileTasksAreAvailable() throws Exception {
+		addTasks("a", "b", "c", "d", "e", "f");
+		initSut();
+
+		sut.getNextNullableTask("w1");
+		ticker.advance(9, TimeUnit.SECONDS);
+		sut.getNextNullableTask("w2").run();
+
+		verify(provider).addResult("e");
+	}
+
+	@Test
+	public void activeLeasesAreNotDuplicatedWhenNoTasksAreLeft() throws Exception {
+		addTasks("a", "b");
+		initSut();
+
+		sut.getNextNullableTask("w1");
+		ticker.advance(1, TimeUnit.SECONDS);
+		sut.getNextNullableTask("w2");
+
+		assertNull(sut.getNextNullableTask("w3"));
+		assertEquals(2, sut.getNumLeases());
+	}
+
+	@Test
+	public void expiredLeasesAreReassignedWhenNoTasksAreLeft() throws Exception {
+		addTasks("a");
+		initSut();
+
+		Runnable a = sut.getNextNullableTask("w1");
+		assertNull(sut.getNextNullableTask("w2"));
+		ticker.advance(11, TimeUnit.SECONDS);
+
+		assertSame(a, sut.getNextNullableTask("w2"));
+	}
+
+	@Test
+	public void oldestLeaseIsDuplicatedForStragglers() throws Exception {
+		addTasks("a", "b");
+		initSut(LeasePolicy.DUPLICATE_STRAGGLERS);
+
+		Runnable a = sut.getNextNullableTask("w1");
+		ticker.advance(1, TimeUnit.SECONDS);
+		sut.getNextNullableTask("w2");
+
+		assertSame(a, sut.getNextNullableTask("w3"));
+	}
+
+	@Test
+	public void leasesAreNotReassignedInLocalMode() throws Exception {
+		addTasks("a");
+		initSut(LeasePolicy.EXCLUSIVE);
+
+		sut.getNextNullableTask("w1");
+		ticker.advance(1, TimeUnit.HOURS);
+
+		assertNull(sut.getNextNullableTask("w2"));
+		assertEquals(1, sut.getNumLeases());
+	}
+
+	@Test
+	public void resultsAreOnlyPassedOnceToProvider() throws Exception {
+		addTasks("a");
+		initSut();
+
+		Runnable a1 = sut.getNextNullableTask("w1");
+		ticker.advance(11, TimeUnit.SECONDS);
+		Runnable a2 = sut.getNextNullableTask("w2");
+		a1.run();
+		a2.run();
+
+		verify(provider).addResult("a");
+		verify(provider).done();
+		assertEquals(0, sut.getNumLeases());
+		assertEquals(0, sut.getNumOpenTasks());
+	}
+
+	@Test
+	public void crashesAreReported() throws Exception {
+		RuntimeException e = new RuntimeException();
+		tasks.put("failing", failingCallable("xyz", e));
+		initSut();
+
+		sut.getNextNullableTask().run();
+
+		verify(provider).addCrash(contains("xyz"), eq(e));
+		verify(provider).done();
+		assertNull(sut.getNextNullableTask());
+	}
+
+	@Test
+	public void resultsAreJournaled() throws Exception {
+		addTasks("a", "b");
+		initJournal();
+		initSut();
+
+		sut.getNextNullableTask().run();
+
+		assertEquals("a", journal.get("a"));
+		assertEquals(1, journal.size());
+	}
+
+	@Test
+	public void resultsThatCannotBeJournaledAreStillProvided() throws Exception {
+		addTasks("a");
+		initJournal();
+		initSut();
+		journal.close();
+
+		sut.getNextNullableTask().run();
+
+		verify(provider).addResult("a");
+		verify(provider).done();
+		assertEquals(Sets.newHashSet("a"), sut.getUnjournaledKeys());
+	}
+
+	@Test
+	public void crashesAreNotJournaled() throws Exception {
+		tasks.put("failing", failingCallable("xyz", new RuntimeException()));
+		initJournal();
+		initSut();
+
+		sut.getNextNullableTask().run();
+
+		assertEquals(0, journal.size());
+	}
+
+	@Test
+	public void journaledTasksAreReplayedAndSkipped() throws Exception {
+		addTasks("a", "b");
+		initJournal();
+		initSut();
+		sut.getNextNullableTask().run();
+
+		initJournal();
+		provider = mockProvider();
+		initSut();
+
+		verify(provider).addResult("a");
+		Runnable next = sut.getNextNullableTask();
+		assertNotNull(next);
+		next.run();
+		verify(provider).addResult("b");
+		verify(provider).done();
+		assertNull(sut.getNextNullableTask());
+	}
+
+	@Test
+	public void doneIsCalledIfAllTasksAreReplayed() throws Exception {
+		addTasks("a");
+		initJournal();
+		initSut();
+		sut.getNextNullableTask().run();
+
+		initJournal();
+		provider = mockProvider();
+		initSut();
+
+		verify(provider).addResult("a");
+		verify(provider).done();
+		assertNull(sut.getNextNullableTask());
+	}
+
+	@Test
+	public void tasksWithSameNameAreDistinguished() throws Exception {
+		tasks.put("a1", constantCallable("x", "1"));
+		tasks.put("a2", constantCallable("x", "2"));
+		initJournal();
+		initSut();
+
+		sut.getNextNullableTask().run();
+		sut.getNextNullableTask().run();
+
+		verify(provider).addResult("1");
+		verify(provider).addResult("2");
+		assertEquals(2, journal.size());
+	}
+
+	@Test
+	public void unknownTasksAreIgnored() throws Exception {
+		addTasks("a");
+		initSut();
+
+		new Task<String>(constantCallable("a", "a"), sut).run();
+
+		verify(provider, never()).addResult(any(String.class));
+		verify(provider, times(0)).done();
+	}
+
+	private ITaskProvider<String> mockProvider() {
+		@SuppressWarnings("unchecked")
+		ITaskProvider<String> p = mock(ITaskProvider.class);
+		when(p.createWorkers()).thenReturn(tasks.values());
+		return p;
+	}
+
+	private void addTasks(String... contents) {
+		for (String content : contents) {
+			tasks.put(content, constantCallable(content, content));
+		}
+	}
+
+	private static Callable<String> constantCallable(final String name, final String result) {
+		return new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				return result;
+			}
+
+			@Override
+			public String toString() {
+				return name;
+			}
+		};
+	}
+
+	private Callable<String> failingCallable(String toString, RuntimeException e) throws Exception {
+		@SuppressWarnings("unchecked")
+		Callable<String> callable = mock(Callable.class, toString);
+		when(callable.call()).thenThrow(e);
+		return callable;
+	}
+
+	private static class ManualTicker extends Ticker {
+		private long nanos = 0;
+
+		public void advance(long duration, TimeUnit unit) {
+			nanos += unit.toNanos(duration);
+		}
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+	}
+}
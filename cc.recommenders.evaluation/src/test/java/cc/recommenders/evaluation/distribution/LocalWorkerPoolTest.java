@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import cc.recommenders.exceptions.AssertionException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+public class LocalWorkerPoolTest {
+
+	@Test(expected = AssertionException.class)
+	public void atLeastOneWorkerIsRequired() {
+		new LocalWorkerPool(0, null);
+	}
+
+	@Test
+	public void allTasksAreRunExactlyOnce() throws Exception {
+		CountingProvider provider = new CountingProvider(200);
+		LeasingTaskScheduler<Integer> scheduler = LeasingTaskScheduler.createLocal(provider, null);
+
+		new LocalWorkerPool(4, null).run(scheduler);
+
+		assertEquals(provider.expected, provider.results);
+		assertEquals(200, provider.numCalls.get());
+		assertEquals(1, provider.numDone);
+	}
+
+	@Test
+	public void runnerUsesLocalWorkers() throws Exception {
+		CountingProvider provider = new CountingProvider(20);
+
+		EvaluationRunner.runLocally(provider, null, 3, null);
+
+		assertEquals(provider.expected, provider.results);
+		assertEquals(1, provider.numDone);
+	}
+
+	@Test
+	public void tasksAreInjected() throws Exception {
+		InjectedProvider provider = new InjectedProvider();
+		Injector injector = Guice.createInjector(binder -> binder.bind(String.class).toInstance("injected"));
+
+		new LocalWorkerPool(2, injector).run(LeasingTaskScheduler.createLocal(provider, null));
+
+		assertEquals(Lists.newArrayList("injected"), provider.results);
+	}
+
+	@Test
+	public void workersStopWithoutTasks() throws InterruptedException, RemoteException {
+		CountingProvider provider = new CountingProvider(0);
+		new LocalWorkerPool(3, null).run(LeasingTaskScheduler.createLocal(provider, null));
+		assertTrue(provider.results.isEmpty());
+	}
+
+	private static class CountingProvider implements ITaskProvider<Integer> {
+
+		private final Set<Integer> expected = Sets.newHashSet();
+		private final Set<Integer> results = Sets.newHashSet();
+		private final AtomicInteger numCalls = new AtomicInteger();
+		private int numDone = 0;
+
+		public CountingProvider(int numTasks) {
+			for (int i = 0; i < numTasks; i++) {
+				expected.add(i);
+			}
+		}
+
+		@Override
+		public Collection<Callable<Integer>> createWorkers() {
+			List<Callable<Integer>> workers = Lists.newLinkedList();
+			for (final int i : expected) {
+				workers.add(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						numCalls.incrementAndGet();
+						return i;
+					}
+
+					@Override
+					public String toString() {
+						return "task" + i;
+					}
+				});
+			}
+			return workers;
+		}
+
+		@Override
+		public void addResult(Integer r) {
+			assertTrue(results.add(r));
+		}
+
+		@Override
+		public void addCrash(String taskToString, Exception e) {
+			throw new RuntimeException(e);
+		}
+
+		@Override
+		public void done() {
+			numDone++;
+		}
+	}
+
+	private static class InjectedProvider implements ITaskProvider<String> {
+
+		private final List<String> results = Lists.newArrayList();
+
+		@Override
+		public Collection<Callable<String>> createWorkers() {
+			List<Callable<String>> workers = Lists.newLinkedList();
+			workers.add(new InjectedCallable());
+			return workers;
+		}
+
+		@Override
+		public void addResult(String r) {
+			results.add(r);
+		}
+
+		@Override
+		public void addCrash(String taskToString, Exception e) {
+			throw new RuntimeException(e);
+		}
+
+		@Override
+		public void done() {
+		}
+	}
+
+	public static class InjectedCallable implements Callable<String> {
+
+		@Inject
+		public String value;
+
+		@Override
+		public String call() throws Exception {
+			return value;
+		}
+	}
+}
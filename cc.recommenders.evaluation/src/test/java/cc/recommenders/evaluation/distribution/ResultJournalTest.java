@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cc.recommenders.exceptions.AssertionException;
+
+import com.google.common.collect.Maps;
+
+public class ResultJournalTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private File file;
+	private ResultJournal<String> sut;
+
+	@Before
+	public void setup() throws IOException {
+		file = new File(tmp.getRoot(), "journal.bin");
+		sut = new ResultJournal<String>(file);
+	}
+
+	@After
+	public void teardown() throws IOException {
+		sut.close();
+	}
+
+	@Test(expected = AssertionException.class)
+	public void fileMustNotBeNull() throws IOException {
+		new ResultJournal<String>(null);
+	}
+
+	@Test
+	public void newJournalIsEmpty() {
+		assertEquals(0, sut.size());
+		assertFalse(sut.contains("a"));
+		assertNull(sut.get("a"));
+	}
+
+	@Test
+	public void resultsCanBeAppended() throws IOException {
+		assertTrue(sut.append("a", "1"));
+
+		assertTrue(sut.contains("a"));
+		assertEquals("1", sut.get("a"));
+	}
+
+	@Test
+	public void firstResultWins() throws IOException {
+		sut.append("a", "1");
+		assertFalse(sut.append("a", "2"));
+
+		assertEquals("1", sut.get("a"));
+		assertEquals(1, reopen().size());
+	}
+
+	@Test
+	public void resultsArePersisted() throws IOException {
+		sut.append("a", "1");
+		sut.append("b", "2");
+
+		Map<String, String> expected = Maps.newLinkedHashMap();
+		expected.put("a", "1");
+		expected.put("b", "2");
+		assertEquals(expected, reopen().getResults());
+	}
+
+	@Test
+	public void reopenedJournalCanBeExtended() throws IOException {
+		sut.append("a", "1");
+		reopen().append("b", "2");
+
+		assertEquals("2", reopen().get("b"));
+		assertEquals(2, sut.size());
+	}
+
+	@Test
+	public void incompleteRecordIsIgnoredAndTruncated() throws IOException {
+		sut.append("a", "1");
+		sut.close();
+		long validLength = file.length();
+		try (FileOutputStream out = new FileOutputStream(file, true)) {
+			out.write(new byte[] { 0, 1, 'b', 0, 0 });
+		}
+
+		sut = new ResultJournal<String>(file);
+		assertEquals(1, sut.size());
+		assertEquals(validLength, file.length());
+
+		sut.append("b", "2");
+		assertEquals("2", reopen().get("b"));
+	}
+
+	private ResultJournal<String> reopen() throws IOException {
+		sut.close();
+		sut = new ResultJournal<String>(file);
+		return sut;
+	}
+}
@@ -158,6 +158,11 @@ public class TaskTest {
 			return null;
 		}
 
+		@Override
+		public InjectableRunnable getNextNullableTask(String workerId) throws RemoteException {
+			return null;
+		}
+
 		@Override
 		public void finished(Task<String> task) throws RemoteException {
 		}
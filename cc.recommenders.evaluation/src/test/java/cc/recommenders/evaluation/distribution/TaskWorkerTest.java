@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.distribution;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import cc.recommenders.exceptions.AssertionException;
+
+import com.google.inject.Injector;
+
+public class TaskWorkerTest {
+
+	private ITaskScheduler<?> scheduler;
+
+	@Before
+	public void setup() {
+		scheduler = mock(ITaskScheduler.class);
+	}
+
+	@Test(expected = AssertionException.class)
+	public void schedulerMustNotBeNull() {
+		new TaskWorker(null, "w", null);
+	}
+
+	@Test(expected = AssertionException.class)
+	public void workerIdMustNotBeNull() {
+		new TaskWorker(scheduler, null, null);
+	}
+
+	@Test
+	public void tasksAreRequestedWithWorkerIdUntilNoneIsLeft() throws Exception {
+		Runnable a = mock(Runnable.class);
+		Runnable b = mock(Runnable.class);
+		when(scheduler.getNextNullableTask("w")).thenReturn(a, b, null);
+
+		int numTasks = new TaskWorker(scheduler, "w", null).run();
+
+		assertEquals(2, numTasks);
+		InOrder order = inOrder(a, b);
+		order.verify(a).run();
+		order.verify(b).run();
+	}
+
+	@Test
+	public void injectableTasksAreInjectedBeforeTheyAreRun() throws Exception {
+		InjectableRunnable task = mock(InjectableRunnable.class);
+		Injector injector = mock(Injector.class);
+		when(scheduler.getNextNullableTask("w")).thenReturn(task, (Runnable) null);
+
+		new TaskWorker(scheduler, "w", injector).run();
+
+		InOrder order = inOrder(task);
+		order.verify(task).injectionForMembers(injector);
+		order.verify(task).run();
+	}
+
+	@Test
+	public void workerIdIsStored() {
+		assertEquals("w", new TaskWorker(scheduler, "w", null).getWorkerId());
+	}
+}
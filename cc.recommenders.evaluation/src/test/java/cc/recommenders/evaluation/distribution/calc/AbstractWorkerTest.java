@@ -52,7 +52,7 @@ public class AbstractWorkerTest {
 	private static final ICoReTypeName TYPE = CoReTypeName.get("LT");
 
 	@Mock
-	private Miner<Usage, Query> miner;
+	private Miner<Usage, Query, Object> miner;
 	@Mock
 	private QueryBuilder<Usage, Query> queryBuilder;
 
@@ -87,7 +87,7 @@ public class AbstractWorkerTest {
 		// TODO get rid of funny instantiation pattern
 		sut.minerFactory = new MinerFactory(null, null, null) {
 			@Override
-			public Miner<Usage, Query> get() {
+			public Miner<Usage, Query, ?> get() {
 				return miner;
 			}
 		};
@@ -11,6 +11,7 @@
 package cc.recommenders.evaluation.distribution.calc;
 
 import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,8 +23,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import cc.recommenders.evaluation.evaluators.DefF1Evaluator;
-import cc.recommenders.mining.calls.Miner;
+import cc.recommenders.evaluation.io.ModelCache;
 import cc.recommenders.mining.calls.MinerFactory;
+import cc.recommenders.mining.calls.MiningOptions;
+import cc.recommenders.mining.calls.QueryOptions;
 import cc.recommenders.mining.calls.bmn.BMNMiner;
 import cc.recommenders.usages.DefinitionSiteKind;
 import cc.recommenders.usages.Query;
@@ -37,7 +40,7 @@ public class DefinitionSitesWorkerTest {
 	private List<Usage> trainingData;
 	private List<Usage> validationData;
 	private DefinitionSitesTask task;
-	private Miner<Usage, Query> miner;
+	private BMNMiner miner;
 
 	private DefinitionSitesWorker sut;
 	private Map<DefinitionSiteKind, double[]> expectedResult;
@@ -49,11 +52,15 @@ public class DefinitionSitesWorkerTest {
 		validationData = Lists.newLinkedList();
 
 		task = new DefinitionSitesTask();
+		task.typeName = "LT";
 		sut = new TestDefinitionSitesWorker();
 
 		miner = mock(BMNMiner.class);
 		sut.minerFactory = mock(MinerFactory.class);
-		when(sut.minerFactory.get()).thenReturn(miner);
+		doReturn(miner).when(sut.minerFactory).get();
+		sut.mOpts = new MiningOptions();
+		sut.qOpts = new QueryOptions();
+		sut.modelCache = new ModelCache();
 		sut.evaluator = mock(DefF1Evaluator.class);
 		expectedResult = Maps.newHashMap();
 		when(sut.evaluator.getRawResults()).thenReturn(expectedResult);
@@ -12,7 +12,9 @@ package cc.recommenders.evaluation.distribution.calc;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -23,10 +25,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import cc.recommenders.evaluation.evaluators.SizeAndF1Evaluator;
+import cc.recommenders.evaluation.io.ModelCache;
 import cc.recommenders.mining.calls.MinerFactory;
 import cc.recommenders.mining.calls.MiningOptions;
 import cc.recommenders.mining.calls.MiningOptions.Algorithm;
+import cc.recommenders.mining.calls.QueryOptions;
 import cc.recommenders.mining.calls.bmn.BMNMiner;
+import cc.recommenders.mining.calls.bmn.BMNModel;
 import cc.recommenders.usages.Usage;
 
 import com.google.common.collect.Lists;
@@ -46,11 +51,15 @@ public class F1AndSizeWorkerTest {
 		trainingData = Lists.newLinkedList();
 		validationData = Lists.newLinkedList();
 		task = new F1AndSizeTask();
+		task.typeName = "LT";
 		sut = new TestF1AndSizeWorker();
 
 		miner = mock(BMNMiner.class);
 		sut.minerFactory = mock(MinerFactory.class);
-		when(sut.minerFactory.get()).thenReturn(miner);
+		doReturn(miner).when(sut.minerFactory).get();
+		sut.mOpts = mOpts;
+		sut.qOpts = new QueryOptions();
+		sut.modelCache = new ModelCache();
 		sut.evaluator = mock(SizeAndF1Evaluator.class);
 		setResult(1, 0.0);
 	}
@@ -69,6 +78,18 @@ public class F1AndSizeWorkerTest {
 		assertArrayEquals(new double[] { 0.0, 0.1, 0.2, 0.3, 1234.5678 }, task.f1s, 0.00001);
 	}
 
+	@Test
+	public void modelIsReusedForSameTypeAndFold() {
+		BMNModel model = new BMNModel();
+		when(miner.learnModel(trainingData)).thenReturn(model);
+
+		sut.call2();
+		sut.call2();
+
+		verify(miner).learnModel(trainingData);
+		verify(miner, times(2)).createRecommenderForModel(model);
+	}
+
 	private void setResult(int sizeInB, double... values) {
 		when(sut.evaluator.getRawResults()).thenReturn(Pair.of(values, sizeInB));
 	}
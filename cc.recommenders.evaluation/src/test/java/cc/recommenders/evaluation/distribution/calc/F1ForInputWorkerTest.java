@@ -14,6 +14,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,7 +31,6 @@ import cc.recommenders.exceptions.AssertionException;
 import cc.recommenders.io.Logger;
 import cc.recommenders.io.LoggerUtils;
 import cc.recommenders.mining.calls.ICallsRecommender;
-import cc.recommenders.mining.calls.Miner;
 import cc.recommenders.mining.calls.MinerFactory;
 import cc.recommenders.mining.calls.bmn.BMNMiner;
 import cc.recommenders.usages.Query;
@@ -43,7 +43,7 @@ public class F1ForInputWorkerTest {
 	private List<Usage> trainingData;
 	private List<Usage> validationData;
 	private F1ForInputTask task;
-	private Miner<Usage, Query> miner;
+	private BMNMiner miner;
 
 	private F1ForInputWorker sut;
 	private double[] expectedResult;
@@ -65,7 +65,7 @@ public class F1ForInputWorkerTest {
 
 		miner = mock(BMNMiner.class);
 		sut.minerFactory = mock(MinerFactory.class);
-		when(sut.minerFactory.get()).thenReturn(miner);
+		doReturn(miner).when(sut.minerFactory).get();
 		sut.evaluator = mock(F1Evaluator.class);
 		expectedResult = new double[0];
 		when(sut.evaluator.getRawResults()).thenReturn(expectedResult);
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -47,7 +48,7 @@ public class QueryPerformanceWorkerTest {
 
 	private TestQueryPerformanceWorker sut;
 	@Mock
-	private Miner<Usage, Query> miner;
+	private Miner<Usage, Query, Object> miner;
 	@Mock
 	private ICallsRecommender<Query> recommender;
 	@Mock
@@ -74,7 +75,7 @@ public class QueryPerformanceWorkerTest {
 		List<Query> queries = Lists.newArrayList(mock(Query.class), mock(Query.class));
 		when(queryBuilder.createQueries(any(Usage.class))).thenReturn(queries);
 
-		when(sut.minerFactory.get()).thenReturn(miner);
+		doReturn(miner).when(sut.minerFactory).get();
 		when(miner.createRecommender(anyListOf(Usage.class))).thenReturn(recommender);
 		sut.taskDurationTimer = mock(Timer.class);
 	}
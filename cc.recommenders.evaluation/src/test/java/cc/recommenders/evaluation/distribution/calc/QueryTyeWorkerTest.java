@@ -12,6 +12,7 @@ package cc.recommenders.evaluation.distribution.calc;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,8 +26,10 @@ import org.junit.Test;
 
 import cc.recommenders.evaluation.data.NM;
 import cc.recommenders.evaluation.evaluators.NMF1Evaluator;
-import cc.recommenders.mining.calls.Miner;
+import cc.recommenders.evaluation.io.ModelCache;
 import cc.recommenders.mining.calls.MinerFactory;
+import cc.recommenders.mining.calls.MiningOptions;
+import cc.recommenders.mining.calls.QueryOptions;
 import cc.recommenders.mining.calls.bmn.BMNMiner;
 import cc.recommenders.usages.Query;
 import cc.recommenders.usages.Usage;
@@ -40,7 +43,7 @@ public class QueryTyeWorkerTest {
 	private List<Usage> trainingData;
 	private List<Usage> validationData;
 	private QueryTypeTask task;
-	private Miner<Usage, Query> miner;
+	private BMNMiner miner;
 
 	private QueryTypeWorker sut;
 	private Map<NM, double[]> expectedResult;
@@ -52,11 +55,15 @@ public class QueryTyeWorkerTest {
 		validationData = Lists.newLinkedList();
 
 		task = new QueryTypeTask();
+		task.typeName = "LT";
 		sut = new TestQueryTypeWorker();
 
 		miner = mock(BMNMiner.class);
 		sut.minerFactory = mock(MinerFactory.class);
-		when(sut.minerFactory.get()).thenReturn(miner);
+		doReturn(miner).when(sut.minerFactory).get();
+		sut.mOpts = new MiningOptions();
+		sut.qOpts = new QueryOptions();
+		sut.modelCache = new ModelCache();
 		sut.evaluator = mock(NMF1Evaluator.class);
 		expectedResult = Maps.newHashMap();
 		when(sut.evaluator.getRawResults()).thenReturn(expectedResult);
@@ -46,7 +46,7 @@ public class ValidationsTest {
 
 	private static final int NUM_FOLDS = 3;
 
-	private Miner<String, String> builder;
+	private Miner<String, String, Object> builder;
 	private Evaluator<String, String, String> evaluator;
 
 	private List<List<String>> capturedValidationData;
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cc.recommenders.exceptions.AssertionException;
+import cc.recommenders.mining.calls.MiningOptions.Algorithm;
+import cc.recommenders.mining.calls.ICallsRecommender;
+import cc.recommenders.mining.calls.Miner;
+import cc.recommenders.mining.calls.MiningOptions;
+import cc.recommenders.mining.calls.QueryOptions;
+import cc.recommenders.names.CoReTypeName;
+import cc.recommenders.usages.CallSites;
+import cc.recommenders.usages.Query;
+import cc.recommenders.usages.Usage;
+
+import com.google.common.collect.Lists;
+
+public class ModelCacheTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Miner<Usage, Query, Object> miner;
+	private List<Usage> trainingData;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		miner = mock(Miner.class);
+		trainingData = Lists.newArrayList();
+		when(miner.learnModel(trainingData)).thenAnswer(invocation -> "model");
+	}
+
+	@Test
+	public void modelIsLearnedOnce() {
+		ModelCache sut = new ModelCache();
+
+		Object a = sut.getModel("a", miner, trainingData);
+		Object b = sut.getModel("a", miner, trainingData);
+
+		assertSame(a, b);
+		verify(miner).learnModel(trainingData);
+		assertEquals(1, sut.getNumMisses());
+		assertEquals(1, sut.getNumHits());
+	}
+
+	@Test
+	public void differentKeysAreLearnedSeparately() {
+		ModelCache sut = new ModelCache();
+
+		sut.getModel("a", miner, trainingData);
+		sut.getModel("b", miner, trainingData);
+
+		verify(miner, times(2)).learnModel(trainingData);
+		assertEquals(2, sut.size());
+	}
+
+	@Test
+	public void leastRecentlyUsedModelIsEvicted() {
+		ModelCache sut = new ModelCache(2, null);
+
+		sut.getModel("a", miner, trainingData);
+		sut.getModel("b", miner, trainingData);
+		sut.getModel("a", miner, trainingData);
+		sut.getModel("c", miner, trainingData);
+		sut.getModel("a", miner, trainingData);
+		sut.getModel("b", miner, trainingData);
+
+		assertEquals(2, sut.size());
+		assertEquals(2, sut.getNumHits());
+		assertEquals(4, sut.getNumMisses());
+	}
+
+	@Test
+	public void nothingIsKeptWithoutCapacity() {
+		ModelCache sut = new ModelCache(0, null);
+
+		sut.getModel("a", miner, trainingData);
+		sut.getModel("a", miner, trainingData);
+
+		verify(miner, times(2)).learnModel(trainingData);
+	}
+
+	@Test
+	public void capacityAndDirCanBeConfiguredThroughSystemProperties() {
+		System.setProperty(ModelCache.PROPERTY_CAPACITY, "1");
+		System.setProperty(ModelCache.PROPERTY_DIR, tmp.getRoot().getAbsolutePath());
+		try {
+			ModelCache sut = new ModelCache();
+			sut.getModel("a", miner, trainingData);
+			sut.getModel("b", miner, trainingData);
+			assertEquals(1, sut.size());
+			assertEquals(2, tmp.getRoot().list().length);
+		} finally {
+			System.clearProperty(ModelCache.PROPERTY_CAPACITY);
+			System.clearProperty(ModelCache.PROPERTY_DIR);
+		}
+	}
+
+	@Test(expected = AssertionException.class)
+	public void capacityMustNotBeNegative() {
+		new ModelCache(-1, null);
+	}
+
+	@Test
+	public void modelsAreReadFromDisk() {
+		File dir = tmp.getRoot();
+		new ModelCache(1, dir).getModel("a", miner, trainingData);
+
+		ModelCache sut = new ModelCache(1, dir);
+		assertEquals("model", sut.getModel("a", miner, trainingData));
+
+		verify(miner).learnModel(trainingData);
+		assertEquals(1, sut.getNumDiskHits());
+		assertEquals(0, sut.getNumMisses());
+	}
+
+	@Test
+	public void evictedModelsAreReadFromDisk() {
+		ModelCache sut = new ModelCache(1, tmp.getRoot());
+
+		sut.getModel("a", miner, trainingData);
+		sut.getModel("b", miner, trainingData);
+		sut.getModel("a", miner, trainingData);
+
+		verify(miner, times(2)).learnModel(trainingData);
+		assertEquals(1, sut.getNumDiskHits());
+	}
+
+	@Test
+	public void unserializableModelsAreOnlyKeptInMemory() {
+		when(miner.learnModel(trainingData)).thenAnswer(invocation -> new Object());
+		new ModelCache(1, tmp.getRoot()).getModel("a", miner, trainingData);
+
+		assertEquals(0, tmp.getRoot().list().length);
+	}
+
+	@Test
+	public void corruptFilesAreIgnored() throws IOException {
+		File dir = tmp.getRoot();
+		new ModelCache(1, dir).getModel("a", miner, trainingData);
+		for (File f : dir.listFiles()) {
+			try (FileOutputStream out = new FileOutputStream(f)) {
+				out.write(1);
+			}
+		}
+
+		ModelCache sut = new ModelCache(1, dir);
+		assertEquals("model", sut.getModel("a", miner, trainingData));
+		assertEquals(1, sut.getNumMisses());
+	}
+
+	@Test
+	public void recommendersAreCreatedForCachedModel() {
+		@SuppressWarnings("unchecked")
+		ICallsRecommender<Query> rec = mock(ICallsRecommender.class);
+		when(miner.createRecommenderForModel("model")).thenReturn(rec);
+		ModelCache sut = new ModelCache();
+
+		assertSame(rec, sut.getRecommender("a", miner, trainingData));
+		assertSame(rec, sut.getRecommender("a", miner, trainingData));
+		verify(miner).learnModel(trainingData);
+	}
+
+	@Test
+	public void keyContainsTypeAndMiningOptions() {
+		MiningOptions mOpts = new MiningOptions();
+		QueryOptions qOpts = new QueryOptions();
+		String key = ModelCache.createKey("LT", mOpts, qOpts, trainingData);
+
+		assertEquals(key, ModelCache.createKey("LT", new MiningOptions(), new QueryOptions(), trainingData));
+		assertNotEquals(key, ModelCache.createKey("LU", mOpts, qOpts, trainingData));
+		mOpts.setFeatureDropping(!mOpts.isFeatureDropping());
+		assertNotEquals(key, ModelCache.createKey("LT", mOpts, qOpts, trainingData));
+	}
+
+	@Test
+	public void keyDistinguishesOptionsThatAreRoundedInToString() {
+		MiningOptions mOpts = new MiningOptions();
+		mOpts.setT1(2.001);
+		MiningOptions other = new MiningOptions();
+		other.setT1(2.002);
+
+		assertEquals(mOpts.toString(), other.toString());
+		assertNotEquals(ModelCache.createKey("LT", mOpts, new QueryOptions(), trainingData),
+				ModelCache.createKey("LT", other, new QueryOptions(), trainingData));
+	}
+
+	@Test
+	public void keyContainsClusterCountOfCombinedClustering() {
+		MiningOptions mOpts = new MiningOptions().setAlgorithm(Algorithm.COMBINED);
+		MiningOptions other = new MiningOptions().setAlgorithm(Algorithm.COMBINED);
+		other.setClusterCount(mOpts.getClusterCount() + 1);
+
+		assertNotEquals(ModelCache.createKey("LT", mOpts, new QueryOptions(), trainingData),
+				ModelCache.createKey("LT", other, new QueryOptions(), trainingData));
+	}
+
+	@Test
+	public void keyContainsTrainingData() {
+		MiningOptions mOpts = new MiningOptions();
+		QueryOptions qOpts = new QueryOptions();
+		List<Usage> a = Lists.newArrayList(createUsage("LA.m()V", "LA.n()V"));
+		List<Usage> b = Lists.newArrayList(createUsage("LA.m()V", "LA.o()V"));
+		String key = ModelCache.createKey("LT", mOpts, qOpts, a);
+
+		List<Usage> reordered = Lists.newArrayList(createUsage("LA.n()V", "LA.m()V"));
+		assertEquals(key, ModelCache.createKey("LT", mOpts, qOpts, reordered));
+		assertNotEquals(key, ModelCache.createKey("LT", mOpts, qOpts, b));
+		assertNotEquals(key, ModelCache.createKey("LT", mOpts, qOpts, trainingData));
+	}
+
+	@Test
+	public void keyContainsFeatureSelectionOfQueryOptions() {
+		QueryOptions qOpts = new QueryOptions();
+		String key = ModelCache.createKey("LT", new MiningOptions(), qOpts, trainingData);
+
+		qOpts.minProbability = 0.3;
+		qOpts.useDoublePrecision = !qOpts.useDoublePrecision;
+		assertEquals(key, ModelCache.createKey("LT", new MiningOptions(), qOpts, trainingData));
+
+		qOpts.useDefinition = !qOpts.useDefinition;
+		assertNotEquals(key, ModelCache.createKey("LT", new MiningOptions(), qOpts, trainingData));
+	}
+
+	private static Usage createUsage(String... calls) {
+		Query q = new Query();
+		q.setType(CoReTypeName.get("LA"));
+		for (String call : calls) {
+			q.addCallSite(CallSites.createReceiverCallSite(call));
+		}
+		return q;
+	}
+}
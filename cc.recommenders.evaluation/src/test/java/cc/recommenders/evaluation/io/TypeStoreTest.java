@@ -10,6 +10,7 @@
  */
 package cc.recommenders.evaluation.io;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -25,7 +26,9 @@ import cc.recommenders.names.ICoReMethodName;
 import cc.recommenders.names.CoReMethodName;
 import cc.recommenders.names.CoReTypeName;
 import cc.recommenders.usages.ProjectFoldedUsage;
+import cc.recommenders.usages.Query;
 import cc.recommenders.usages.Usage;
+import cc.recommenders.usages.UsageColumns;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -56,6 +59,29 @@ public class TypeStoreTest {
 		assertLists(2);
 	}
 
+	@Test
+	public void columnsAreSelectedByFold() {
+		map.put("p1", 0);
+		map.put("p2", 1);
+		map.put("p3", 1);
+		map.put("p4", 0);
+
+		UsageColumns.Builder builder = new UsageColumns.Builder();
+		for (int projectNum : new int[] { 1, 2, 3, 4, 3, 1, 2, 4 }) {
+			String projectName = "p" + projectNum;
+			Query q = new Query();
+			q.setType(CoReTypeName.get("LT"));
+			q.setMethodContext(m(projectName));
+			builder.add(q, projectName);
+		}
+
+		sut = new TypeStore(builder.build(), map);
+
+		assertLists(2);
+		assertEquals(4, sut.getTrainingData(0).size());
+		assertEquals(8, sut.getAllUsages().size());
+	}
+
 	private void assertLists(int numFolds) {
 		for (int foldNum = 0; foldNum < numFolds; foldNum++) {
 			List<Usage> trainingData = sut.getTrainingData(foldNum);
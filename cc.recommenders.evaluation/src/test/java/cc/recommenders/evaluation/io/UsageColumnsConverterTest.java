@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.evaluation.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+import cc.recommenders.io.Directory;
+import cc.recommenders.io.IReadingArchive;
+import cc.recommenders.io.WritingArchive;
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.CoReTypeName;
+import cc.recommenders.names.ICoReTypeName;
+import cc.recommenders.usages.CallSites;
+import cc.recommenders.usages.DefinitionSites;
+import cc.recommenders.usages.ProjectFoldedUsage;
+import cc.recommenders.usages.ProjectFoldingIndex;
+import cc.recommenders.usages.Query;
+import cc.recommenders.usages.Usage;
+
+public class UsageColumnsConverterTest {
+
+	private static final ICoReTypeName TYPE = CoReTypeName.get("La/B");
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Directory json;
+	private Directory columns;
+	private List<ProjectFoldedUsage> usages;
+	private UsageColumnsConverter sut;
+
+	@Before
+	public void setup() throws IOException {
+		json = new Directory(tmp.newFolder("json").getAbsolutePath());
+		columns = new Directory(tmp.newFolder("columns").getAbsolutePath());
+		sut = new UsageColumnsConverter();
+
+		usages = Lists.newArrayList();
+		ProjectFoldingIndex index = new ProjectFoldingIndex();
+		for (int i = 0; i < 12; i++) {
+			String project = "p" + (i % 4);
+			usages.add(new ProjectFoldedUsage(createUsage(i), project));
+			index.count(TYPE, project);
+		}
+
+		WritingArchive wa = json.getWritingArchive("La_B.zip");
+		wa.addAll(usages);
+		wa.close();
+		json.write(index, "index.json");
+	}
+
+	@Test
+	public void jsonIsConvertedToColumns() throws IOException {
+		sut.toColumns(json, columns);
+
+		assertTrue(columns.exists("La_B.usages"));
+		assertTrue(columns.exists("index.json"));
+		assertFalse(columns.exists("La_B.zip"));
+	}
+
+	@Test
+	public void roundtrip() throws IOException {
+		Directory back = new Directory(tmp.newFolder("back").getAbsolutePath());
+		sut.toColumns(json, columns);
+		sut.toJson(columns, back);
+
+		List<ProjectFoldedUsage> actual = Lists.newArrayList();
+		IReadingArchive ra = back.getReadingArchive("La_B.zip");
+		while (ra.hasNext()) {
+			actual.add(ra.getNext(ProjectFoldedUsage.class));
+		}
+		ra.close();
+
+		assertEquals(usages, actual);
+		ProjectFoldingIndex expectedIndex = json.read("index.json", ProjectFoldingIndex.class);
+		ProjectFoldingIndex actualIndex = back.read("index.json", ProjectFoldingIndex.class);
+		assertEquals(expectedIndex, actualIndex);
+	}
+
+	@Test
+	public void storesProvideSameFolds() throws IOException {
+		sut.toColumns(json, columns);
+
+		TypeStore expected = new ProjectFoldedUsageStore(json, new ProjectFoldingStrategy()).createTypeStore(TYPE, 2);
+		TypeStore actual = new ProjectFoldedUsageStore(columns, new ProjectFoldingStrategy()).createTypeStore(TYPE,
+				2);
+
+		for (int fold = 0; fold < 2; fold++) {
+			assertEquals(expected.getTrainingData(fold), Lists.newArrayList(actual.getTrainingData(fold)));
+			assertEquals(expected.getValidationData(fold), Lists.newArrayList(actual.getValidationData(fold)));
+		}
+		assertEquals(expected.getAllUsages(), actual.getAllUsages());
+	}
+
+	private static Usage createUsage(int i) {
+		Query q = new Query();
+		q.setType(TYPE);
+		q.setClassContext(CoReTypeName.get("LC" + i));
+		q.setMethodContext(CoReMethodName.get("LC" + i + ".m()V"));
+		q.setDefinition(DefinitionSites.createDefinitionByReturn("LC.get" + (i % 2) + "()La/B;"));
+		q.addCallSite(CallSites.createReceiverCallSite("La/B.m" + (i % 3) + "()V"));
+		return q;
+	}
+}
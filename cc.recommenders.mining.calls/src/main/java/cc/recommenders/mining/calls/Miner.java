@@ -14,9 +14,15 @@ import java.util.List;
 
 import cc.recommenders.mining.calls.ICallsRecommender;
 
-public interface Miner<Input, Query> {
+public interface Miner<Input, Query, Model> {
 
-    public Object learnModel(List<Input> in);
+    public Model learnModel(List<Input> in);
 
     public ICallsRecommender<Query> createRecommender(List<Input> in);
+
+    /**
+     * creates a recommender for a model that has been returned by {@link #learnModel(List)}, which allows to reuse a
+     * model for several recommenders
+     */
+    public ICallsRecommender<Query> createRecommenderForModel(Model model);
 }
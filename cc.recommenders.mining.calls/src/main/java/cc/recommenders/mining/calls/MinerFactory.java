@@ -31,7 +31,7 @@ public class MinerFactory {
 		this.pbnMiner = pbnMiner;
 	}
 
-	public Miner<Usage, Query> get() {
+	public Miner<Usage, Query, ?> get() {
 		switch (mOpts.getAlgorithm()) {
 		case BMN:
 			return bmnMiner;
@@ -12,9 +12,16 @@ package cc.recommenders.mining.calls;
 
 import java.util.List;
 
+import cc.recommenders.mining.features.FeatureEncoder;
 import cc.recommenders.utils.dictionary.Dictionary;
 
 public interface PatternFinder<Feature> {
 
     public List<Pattern<Feature>> find(List<List<Feature>> usages, Dictionary<Feature> dictionary);
+
+    /**
+     * @param usages
+     *            usages that are encoded with a {@link FeatureEncoder} for the given dictionary
+     */
+    public List<Pattern<Feature>> find(int[][] usages, Dictionary<Feature> dictionary);
 }
\ No newline at end of file
@@ -73,13 +73,14 @@ public class PatternFinderFactory<ObjectUsageFeature> {
 		int clusterCount = miningOptions.getClusterCount();
 		int numIterations = miningOptions.getNumberOfIterations();
 		double convergenceThreshold = miningOptions.getConvergenceThreshold();
+		VectorBuilder<ObjectUsageFeature> vectorBuilder = new VectorBuilder<ObjectUsageFeature>(weighter);
 
 		assertGreaterThan(clusterCount, 0);
 		assertGreaterThan(numIterations, 0);
 		assertNotNegative(convergenceThreshold);
 
-		return new KMeansClusteredPatternFinder<ObjectUsageFeature>(distanceMeasureFactory.get(), clusterCount,
-				numIterations, convergenceThreshold);
+		return new KMeansClusteredPatternFinder<ObjectUsageFeature>(vectorBuilder, weighter,
+				distanceMeasureFactory.get(), clusterCount, numIterations, convergenceThreshold);
 	}
 
 	private PatternFinder<ObjectUsageFeature> createCombinedClusterer() {
@@ -19,16 +19,16 @@ import cc.recommenders.mining.calls.MiningOptions;
 import cc.recommenders.mining.calls.MiningOptions.Algorithm;
 import cc.recommenders.mining.calls.MiningOptions.DistanceMeasure;
 import cc.recommenders.mining.calls.QueryOptions;
+import cc.recommenders.mining.features.FeatureEncoder;
 import cc.recommenders.mining.features.FeatureExtractor;
 import cc.recommenders.mining.features.OptionAwareFeaturePredicate;
 import cc.recommenders.usages.Query;
 import cc.recommenders.usages.Usage;
 import cc.recommenders.usages.features.UsageFeature;
-import cc.recommenders.utils.dictionary.Dictionary;
 
 import com.google.inject.Inject;
 
-public class BMNMiner implements Miner<Usage, Query> {
+public class BMNMiner implements Miner<Usage, Query, BMNModel> {
 
 	private final QueryOptions qOpts;
 	private final DictionaryBuilder<Usage, UsageFeature> dictBuilder;
@@ -54,27 +54,31 @@ public class BMNMiner implements Miner<Usage, Query> {
 
 		bmnModel.table = new Table(bmnModel.dictionary.size());
 
+		FeatureEncoder<UsageFeature> encoder = new FeatureEncoder<UsageFeature>(bmnModel.dictionary);
 		for (Usage u : in) {
-			boolean[] uArr = convert(u, bmnModel.dictionary);
-			bmnModel.table.add(uArr);
+			long[] row = convert(encoder.encode(extractor.extract(u)), bmnModel.dictionary.size());
+			bmnModel.table.add(row);
 		}
 
 		return bmnModel;
 	}
 
-	private boolean[] convert(Usage u, Dictionary<UsageFeature> dict) {
-		boolean[] uArr = new boolean[dict.size()];
-		List<UsageFeature> fs = extractor.extract(u);
-		for (int i = 0; i < dict.size(); i++) {
-			UsageFeature f = dict.getEntry(i);
-			uArr[i] = fs.contains(f);
+	private static long[] convert(int[] usage, int numCols) {
+		long[] row = new long[Table.numOfWords(numCols)];
+		for (int col : usage) {
+			row[col >>> 6] |= 1L << col;
 		}
-		return uArr;
+		return row;
 	}
 
 	@Override
 	public BMNRecommender createRecommender(List<Usage> in) {
 		BMNModel model = learnModel(in);
+		return createRecommenderForModel(model);
+	}
+
+	@Override
+	public BMNRecommender createRecommenderForModel(BMNModel model) {
 		return new BMNRecommender(extractor, model, qOpts);
 	}
 }
\ No newline at end of file
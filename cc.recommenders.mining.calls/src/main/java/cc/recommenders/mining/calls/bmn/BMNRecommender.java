@@ -15,14 +15,13 @@ import static cc.recommenders.assertions.Asserts.assertEquals;
 import static cc.recommenders.mining.calls.bmn.QueryState.FALSE;
 import static cc.recommenders.mining.calls.bmn.QueryState.TRUE;
 
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import cc.recommenders.datastructures.Tuple;
 import cc.recommenders.mining.calls.AbstractCallsRecommender;
 import cc.recommenders.mining.calls.ProposalHelper;
 import cc.recommenders.mining.calls.QueryOptions;
+import cc.recommenders.mining.features.FeatureEncoder;
 import cc.recommenders.mining.features.FeatureExtractor;
 import cc.recommenders.names.ICoReMethodName;
 import cc.recommenders.usages.Query;
@@ -36,31 +35,73 @@ import cc.recommenders.usages.features.TypeFeature;
 import cc.recommenders.usages.features.UsageFeature;
 import cc.recommenders.utils.dictionary.Dictionary;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-
 public class BMNRecommender extends AbstractCallsRecommender<Query> {
 
 	private FeatureExtractor<Usage, UsageFeature> featureExtractor;
+	private FeatureEncoder<UsageFeature> encoder;
 	private Dictionary<UsageFeature> dictionary;
 	private Table table;
 	private QueryOptions qOpts;
 
+	// columns of the table, grouped by the kind of their feature
+	private final long[] typeCols;
+	private final long[] callCols;
+	private final long[] classCols;
+	private final long[] methodCols;
+	private final long[] definitionCols;
+	private final long[] parameterCols;
+
 	public BMNRecommender(FeatureExtractor<Usage, UsageFeature> featureExtractor, BMNModel model, QueryOptions qOpts) {
 		this.featureExtractor = featureExtractor;
 		this.qOpts = qOpts;
 		this.table = model.table;
 		this.dictionary = model.dictionary;
+		this.encoder = new FeatureEncoder<UsageFeature>(dictionary);
+
+		int numWords = Table.numOfWords(dictionary.size());
+		typeCols = new long[numWords];
+		callCols = new long[numWords];
+		classCols = new long[numWords];
+		methodCols = new long[numWords];
+		definitionCols = new long[numWords];
+		parameterCols = new long[numWords];
+		for (int col = 0; col < dictionary.size(); col++) {
+			long[] cols = getColumnsOfKind(dictionary.getEntry(col));
+			if (cols != null) {
+				cols[col >>> 6] |= 1L << col;
+			}
+		}
+	}
+
+	private long[] getColumnsOfKind(UsageFeature f) {
+		if (f instanceof TypeFeature) {
+			return typeCols;
+		}
+		if (f instanceof CallFeature) {
+			return callCols;
+		}
+		if (f instanceof ClassFeature) {
+			return classCols;
+		}
+		if (f instanceof FirstMethodFeature) {
+			return methodCols;
+		}
+		if (f instanceof DefinitionFeature) {
+			return definitionCols;
+		}
+		if (f instanceof ParameterFeature) {
+			return parameterCols;
+		}
+		return null;
 	}
 
 	@Override
 	public Set<Tuple<ICoReMethodName, Double>> query(Query query) {
 		Set<Tuple<ICoReMethodName, Double>> res = ProposalHelper.createSortedSet();
 
-		List<UsageFeature> fs = featureExtractor.extract(query);
-		QueryState[] states = convert(fs);
+		int[] fs = encoder.encode(featureExtractor.extract(query));
 
-		Set<Tuple<Integer, Double>> proposals = query(states);
+		Set<Tuple<Integer, Double>> proposals = query(fs);
 		for (Tuple<Integer, Double> proposal : proposals) {
 			int idx = proposal.getFirst();
 			CallFeature feature = (CallFeature) dictionary.getEntry(idx);
@@ -75,109 +116,60 @@ public class BMNRecommender extends AbstractCallsRecommender<Query> {
 		return res;
 	}
 
-	private QueryState[] convert(List<UsageFeature> fs) {
-		QueryState[] qss = new QueryState[dictionary.size()];
-
-		for (int i = 0; i < dictionary.size(); i++) {
-			UsageFeature f = dictionary.getEntry(i);
-			final boolean isContained = fs.contains(f);
-			qss[i] = getState(f, isContained);
-		}
-
-		return qss;
-	}
-
-	private QueryState getState(UsageFeature f, boolean isContained) {
-		if (f instanceof TypeFeature) {
-			return isContained ? TRUE : FALSE;
-		}
-		if (f instanceof CallFeature) {
-			return isContained ? TRUE : QueryState.CREATE_PROPOSAL;
-		}
-		if (f instanceof ClassFeature) {
-			if (qOpts.useClassContext) {
-				return isContained ? TRUE : FALSE;
-			}
-		}
-		if (f instanceof FirstMethodFeature) {
-			if (qOpts.useMethodContext) {
-				return isContained ? TRUE : FALSE;
-			}
-		}
-		if (f instanceof DefinitionFeature) {
-			if (qOpts.useDefinition) {
-				return isContained ? TRUE : FALSE;
-			}
-		}
-		if (f instanceof ParameterFeature) {
-			if (qOpts.useParameterSites) {
-				return isContained ? TRUE : FALSE;
-			}
-		}
-		return QueryState.IGNORE_IN_DISTANCE_CALCULATION;
-	}
-
 	@Override
 	public int getSize() {
 		return table.getSize();
 	}
 
-	private Set<Tuple<Integer, Double>> query(QueryState[] query) {
+	/**
+	 * Contained features have to be set in the nearest neighbors, missing features have to be unset. Missing calls are
+	 * not considered in the distance, but are proposed. Context features are ignored, if they are disabled in the
+	 * query options.
+	 */
+	private Set<Tuple<Integer, Double>> query(int[] fs) {
 		Set<Tuple<Integer, Double>> res = ProposalHelper.createSortedSet();
 
-		int totalNum = 0;
-		List<Integer> nns = findNearestNeighbors(query);
-		Map<Integer, Integer> colCounts = findUnkownFeatures(query);
-		int[] frequencies = table.getRowFrequencies();
-
-		for (int nn : nns) {
-			totalNum += frequencies[nn];
-			boolean[] row = table.getBMNTable()[nn];
-			for (int col : colCounts.keySet()) {
-				if (row[col]) {
-					int newVal = colCounts.get(col) + frequencies[nn];
-					colCounts.put(col, newVal);
-				}
-			}
+		int numWords = typeCols.length;
+		long[] contained = new long[numWords];
+		for (int col : fs) {
+			contained[col >>> 6] |= 1L << col;
 		}
 
-		for (int col : colCounts.keySet()) {
-			double probablity = colCounts.get(col) / (double) totalNum;
-			Tuple<Integer, Double> tuple = Tuple.newTuple(col, probablity);
-			res.add(tuple);
+		long[] setMask = new long[numWords];
+		long[] unsetMask = new long[numWords];
+		long[] proposalMask = new long[numWords];
+		for (int i = 0; i < numWords; i++) {
+			long considered = typeCols[i];
+			considered |= qOpts.useClassContext ? classCols[i] : 0;
+			considered |= qOpts.useMethodContext ? methodCols[i] : 0;
+			considered |= qOpts.useDefinition ? definitionCols[i] : 0;
+			considered |= qOpts.useParameterSites ? parameterCols[i] : 0;
+
+			setMask[i] = contained[i] & (considered | callCols[i]);
+			unsetMask[i] = ~contained[i] & considered;
+			proposalMask[i] = ~contained[i] & callCols[i];
 		}
 
-		return res;
-	}
+		int[] nns = table.findNearestNeighbors(setMask, unsetMask);
+		int[] colCounts = table.countColumns(nns, proposalMask);
 
-	private Map<Integer, Integer> findUnkownFeatures(QueryState[] query) {
-		Map<Integer, Integer> colCounts = Maps.newHashMap();
-
-		for (int i = 0; i < query.length; i++) {
-			if (query[i] == QueryState.CREATE_PROPOSAL) {
-				colCounts.put(i, 0);
-			}
+		int totalNum = 0;
+		for (int nn : nns) {
+			totalNum += table.getFrequency(nn);
 		}
 
-		return colCounts;
-	}
-
-	private List<Integer> findNearestNeighbors(QueryState[] query) {
-		int minDistance = Integer.MAX_VALUE;
-		List<Integer> nearestNeighbors = Lists.newLinkedList();
-
-		for (int i = 0; i < table.getBMNTable().length; i++) {
-			boolean[] row = table.getBMNTable()[i];
-			int dist = calculateDistance(query, row);
-			if (dist < minDistance) {
-				nearestNeighbors.clear();
-				nearestNeighbors.add(i);
-				minDistance = dist;
-			} else if (dist == minDistance) {
-				nearestNeighbors.add(i);
+		for (int i = 0; i < numWords; i++) {
+			long word = proposalMask[i];
+			while (word != 0) {
+				int col = (i << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				double probablity = colCounts[col] / (double) totalNum;
+				Tuple<Integer, Double> tuple = Tuple.newTuple(col, probablity);
+				res.add(tuple);
 			}
 		}
-		return nearestNeighbors;
+
+		return res;
 	}
 
 	public static int calculateDistance(QueryState[] query, boolean[] row) {
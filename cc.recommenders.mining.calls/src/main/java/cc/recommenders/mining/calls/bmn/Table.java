@@ -14,94 +14,280 @@ package cc.recommenders.mining.calls.bmn;
 import static cc.recommenders.assertions.Asserts.assertEquals;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Frequency table of distinct boolean feature vectors. Rows are packed into {@code long} words (column i is stored in
+ * bit i % 64 of word i / 64) and are stored consecutively in a single array. Identical rows are found through an
+ * open-addressing hash index, so adding a row takes amortized constant time, and distances are calculated for 64
+ * columns at once.
+ */
 public class Table {
 
-	private int numOfCols;
-	private boolean[][] bmnTable = new boolean[0][0];
-	private int[] frequencies = new int[0];
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int PARALLEL_SCAN_THRESHOLD = 1 << 14;
+	private static final int SCAN_CHUNK_SIZE = 1 << 12;
+
+	private final int numOfCols;
+	private final int numOfWords;
+
+	private int numOfRows = 0;
+	private long[] rows;
+	private int[] frequencies;
+	private int[] rowHashes;
+
+	// slots contain the row index + 1, empty slots are 0
+	private int[] index;
+
+	private boolean[][] unpackedTable;
 
 	public Table(int bmnTableSize) {
 		this.numOfCols = bmnTableSize;
+		this.numOfWords = numOfWords(bmnTableSize);
+		this.rows = new long[INITIAL_CAPACITY * numOfWords];
+		this.frequencies = new int[INITIAL_CAPACITY];
+		this.rowHashes = new int[INITIAL_CAPACITY];
+		this.index = new int[2 * INITIAL_CAPACITY];
 	}
 
 	public Table(boolean[][] bmnTable, int[] frequencies) {
+		this(bmnTable[0].length);
 		assertEquals(bmnTable.length, frequencies.length);
-		this.numOfCols = bmnTable[0].length;
-		this.bmnTable = deepCopy(bmnTable, numOfCols);
-		this.frequencies = frequencies.clone();
+		for (int i = 0; i < bmnTable.length; i++) {
+			assertEquals(numOfCols, bmnTable[i].length);
+			long[] row = pack(bmnTable[i]);
+			appendRow(row, hash(row, 0), frequencies[i]);
+		}
+	}
+
+	public static int numOfWords(int numOfCols) {
+		return (numOfCols + 63) >>> 6;
+	}
+
+	public static long[] pack(boolean[] row) {
+		long[] words = new long[numOfWords(row.length)];
+		for (int col = 0; col < row.length; col++) {
+			if (row[col]) {
+				words[col >>> 6] |= 1L << col;
+			}
+		}
+		return words;
 	}
 
 	public void add(boolean[] row) {
 		assertEquals(numOfCols, row.length);
+		add(pack(row));
+	}
 
-		int index = findRow(row);
+	/**
+	 * adds a packed row, see {@link #pack(boolean[])}
+	 */
+	public void add(long[] row) {
+		assertEquals(numOfWords, row.length);
 
-		if (index == -1) {
-			int totalNumOfRows = bmnTable.length;
+		int hash = hash(row, 0);
+		int rowIdx = findRow(row, hash);
+		if (rowIdx == -1) {
+			appendRow(row, hash, 1);
+		} else {
+			frequencies[rowIdx]++;
+		}
+	}
 
-			boolean[][] newTable = new boolean[totalNumOfRows + 1][numOfCols];
-			System.arraycopy(bmnTable, 0, newTable, 0, bmnTable.length);
-			newTable[totalNumOfRows] = row;
+	private int findRow(long[] row, int hash) {
+		int mask = index.length - 1;
+		for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+			int rowIdx = index[slot] - 1;
+			if (rowHashes[rowIdx] == hash && isRowEqual(rowIdx, row)) {
+				return rowIdx;
+			}
+		}
+		return -1;
+	}
 
-			bmnTable = newTable;
+	private boolean isRowEqual(int rowIdx, long[] row) {
+		int offset = rowIdx * numOfWords;
+		for (int w = 0; w < numOfWords; w++) {
+			if (rows[offset + w] != row[w]) {
+				return false;
+			}
+		}
+		return true;
+	}
 
-			int[] newFreq = new int[totalNumOfRows + 1];
-			System.arraycopy(frequencies, 0, newFreq, 0, frequencies.length);
-			newFreq[totalNumOfRows] = 1;
+	private void appendRow(long[] row, int hash, int frequency) {
+		if (numOfRows == frequencies.length) {
+			int capacity = 2 * frequencies.length;
+			rows = Arrays.copyOf(rows, capacity * numOfWords);
+			frequencies = Arrays.copyOf(frequencies, capacity);
+			rowHashes = Arrays.copyOf(rowHashes, capacity);
+			rebuildIndex(2 * capacity);
+		}
+		// duplicates can only be introduced through the constructor, the first occurrence stays indexed
+		boolean isIndexed = findRow(row, hash) != -1;
+		System.arraycopy(row, 0, rows, numOfRows * numOfWords, numOfWords);
+		frequencies[numOfRows] = frequency;
+		rowHashes[numOfRows] = hash;
+		if (!isIndexed) {
+			insertIntoIndex(numOfRows);
+		}
+		numOfRows++;
+		unpackedTable = null;
+	}
 
-			frequencies = newFreq;
-		} else {
-			frequencies[index]++;
+	private void rebuildIndex(int size) {
+		index = new int[size];
+		for (int rowIdx = 0; rowIdx < numOfRows; rowIdx++) {
+			if (findRow(getRow(rowIdx), rowHashes[rowIdx]) == -1) {
+				insertIntoIndex(rowIdx);
+			}
 		}
 	}
 
-	private int findRow(boolean[] row) {
-		for (int i = 0; i < bmnTable.length; i++) {
-			boolean[] cur = bmnTable[i];
-			if (Arrays.equals(cur, row)) {
-				return i;
+	private void insertIntoIndex(int rowIdx) {
+		int mask = index.length - 1;
+		int slot = rowHashes[rowIdx] & mask;
+		while (index[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		index[slot] = rowIdx + 1;
+	}
+
+	private int hash(long[] words, int offset) {
+		int hash = 1;
+		for (int w = offset; w < offset + numOfWords; w++) {
+			long word = words[w];
+			hash = 31 * hash + (int) (word ^ (word >>> 32));
+		}
+		// spread the bits, the index is addressed with the lower bits only
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	public int getNumOfCols() {
+		return numOfCols;
+	}
+
+	public int getNumOfRows() {
+		return numOfRows;
+	}
+
+	public int getFrequency(int rowIdx) {
+		return frequencies[rowIdx];
+	}
+
+	public boolean isSet(int rowIdx, int col) {
+		return (rows[rowIdx * numOfWords + (col >>> 6)] & (1L << col)) != 0;
+	}
+
+	public long[] getRow(int rowIdx) {
+		int offset = rowIdx * numOfWords;
+		return Arrays.copyOfRange(rows, offset, offset + numOfWords);
+	}
+
+	/**
+	 * Finds all rows with the minimal distance to a query. The distance of a row is the number of columns that are
+	 * included in {@code setMask}, but are not set in the row, plus the number of columns that are included in
+	 * {@code unsetMask} and are set in the row. Columns that are in neither mask are ignored. Large tables are scanned
+	 * in parallel.
+	 * 
+	 * @return indices of the nearest rows in ascending order
+	 */
+	public int[] findNearestNeighbors(long[] setMask, long[] unsetMask) {
+		return findNearestNeighbors(setMask, unsetMask, numOfRows >= PARALLEL_SCAN_THRESHOLD);
+	}
+
+	public int[] findNearestNeighbors(long[] setMask, long[] unsetMask, boolean isParallel) {
+		assertEquals(numOfWords, setMask.length);
+		assertEquals(numOfWords, unsetMask.length);
+
+		if (!isParallel || numOfRows <= SCAN_CHUNK_SIZE) {
+			return scan(setMask, unsetMask, 0, numOfRows).toArray();
+		}
+
+		int numOfChunks = (numOfRows + SCAN_CHUNK_SIZE - 1) / SCAN_CHUNK_SIZE;
+		List<Neighbors> partials = IntStream.range(0, numOfChunks).parallel().mapToObj(chunk -> {
+			int from = chunk * SCAN_CHUNK_SIZE;
+			return scan(setMask, unsetMask, from, Math.min(from + SCAN_CHUNK_SIZE, numOfRows));
+		}).collect(Collectors.toList());
+
+		Neighbors merged = new Neighbors();
+		for (Neighbors partial : partials) {
+			merged.merge(partial);
+		}
+		return merged.toArray();
+	}
+
+	private Neighbors scan(long[] setMask, long[] unsetMask, int fromRow, int toRow) {
+		Neighbors nns = new Neighbors();
+		for (int rowIdx = fromRow; rowIdx < toRow; rowIdx++) {
+			int offset = rowIdx * numOfWords;
+			int distance = 0;
+			for (int w = 0; w < numOfWords && distance <= nns.distance; w++) {
+				long word = rows[offset + w];
+				distance += Long.bitCount((~word & setMask[w]) | (word & unsetMask[w]));
 			}
+			nns.offer(rowIdx, distance);
 		}
-		return -1;
+		return nns;
 	}
 
 	/**
-	 * do not alter the array that is returned here! you have access to the
-	 * internal version, for performance reasons
+	 * sums up the frequencies of the given rows for each column in which they are set, only columns that are included
+	 * in {@code columnMask} are counted
+	 * 
+	 * @return counts for all columns of the table
 	 */
-	public boolean[][] getBMNTable() {
-		// return deepCopy(bmnTable, numOfCols);
-		return bmnTable;
+	public int[] countColumns(int[] rowIdxs, long[] columnMask) {
+		assertEquals(numOfWords, columnMask.length);
+		int[] counts = new int[numOfCols];
+		for (int rowIdx : rowIdxs) {
+			int offset = rowIdx * numOfWords;
+			int frequency = frequencies[rowIdx];
+			for (int w = 0; w < numOfWords; w++) {
+				long word = rows[offset + w] & columnMask[w];
+				while (word != 0) {
+					counts[(w << 6) + Long.numberOfTrailingZeros(word)] += frequency;
+					word &= word - 1;
+				}
+			}
+		}
+		return counts;
 	}
 
-	private static boolean[][] deepCopy(boolean[][] bmnTable, int numOfCols) {
-		boolean[][] newTable = new boolean[bmnTable.length][numOfCols];
-		for (int i = 0; i < bmnTable.length; i++) {
-			System.arraycopy(bmnTable[i], 0, newTable[i], 0, numOfCols);
+	/**
+	 * do not alter the array that is returned here! the unpacked version of the table is cached for performance
+	 * reasons
+	 */
+	public boolean[][] getBMNTable() {
+		if (unpackedTable == null) {
+			boolean[][] table = new boolean[numOfRows][numOfCols];
+			for (int rowIdx = 0; rowIdx < numOfRows; rowIdx++) {
+				for (int col = 0; col < numOfCols; col++) {
+					table[rowIdx][col] = isSet(rowIdx, col);
+				}
+			}
+			unpackedTable = table;
 		}
-		return newTable;
+		return unpackedTable;
 	}
 
 	public int[] getRowFrequencies() {
-		return frequencies.clone();
+		return Arrays.copyOf(frequencies, numOfRows);
 	}
-	
+
 	public int[] getFreqs() {
-		return frequencies;
+		return getRowFrequencies();
 	}
 
 	/**
 	 * returns the size of this table in byte
 	 */
 	public int getSize() {
-		// if(bmnTable.length == 0 || bmnTable[0].length == 0) {
-		// return 0;
-		// }
-		int numRows = bmnTable.length;
-		int numCols = bmnTable[0].length;
-		double rowSizeInByte = (numCols + 32) / 8d;
-		return (int) Math.round(Math.ceil(numRows * rowSizeInByte));
+		double rowSizeInByte = (numOfCols + 32) / 8d;
+		return (int) Math.round(Math.ceil(numOfRows * rowSizeInByte));
 	}
 
 	@Override
@@ -113,12 +299,18 @@ public class Table {
 		if (getClass() != obj.getClass())
 			return false;
 		Table other = (Table) obj;
-		if (!Arrays.deepEquals(bmnTable, other.bmnTable))
-			return false;
-		if (!Arrays.equals(frequencies, other.frequencies))
-			return false;
 		if (numOfCols != other.numOfCols)
 			return false;
+		if (numOfRows != other.numOfRows)
+			return false;
+		for (int i = 0; i < numOfRows * numOfWords; i++) {
+			if (rows[i] != other.rows[i])
+				return false;
+		}
+		for (int i = 0; i < numOfRows; i++) {
+			if (frequencies[i] != other.frequencies[i])
+				return false;
+		}
 		return true;
 	}
 
@@ -126,11 +318,50 @@ public class Table {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		for (int rowIdx = 0; rowIdx < bmnTable.length; rowIdx++) {
-			result = prime * result + Arrays.hashCode(bmnTable[rowIdx]);
+		for (int rowIdx = 0; rowIdx < numOfRows; rowIdx++) {
+			result = prime * result + rowHashes[rowIdx];
+			result = prime * result + frequencies[rowIdx];
 		}
-		result = prime * result + Arrays.hashCode(frequencies);
 		result = prime * result + numOfCols;
 		return result;
 	}
-}
\ No newline at end of file
+
+	private static class Neighbors {
+
+		private int distance = Integer.MAX_VALUE;
+		private int[] rowIdxs = new int[8];
+		private int size = 0;
+
+		private void offer(int rowIdx, int rowDistance) {
+			if (rowDistance < distance) {
+				distance = rowDistance;
+				size = 0;
+			}
+			if (rowDistance == distance) {
+				if (size == rowIdxs.length) {
+					rowIdxs = Arrays.copyOf(rowIdxs, 2 * size);
+				}
+				rowIdxs[size++] = rowIdx;
+			}
+		}
+
+		private void merge(Neighbors other) {
+			if (other.size == 0 || other.distance > distance) {
+				return;
+			}
+			if (other.distance < distance) {
+				distance = other.distance;
+				size = 0;
+			}
+			if (size + other.size > rowIdxs.length) {
+				rowIdxs = Arrays.copyOf(rowIdxs, size + other.size);
+			}
+			System.arraycopy(other.rowIdxs, 0, rowIdxs, size, other.size);
+			size += other.size;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(rowIdxs, size);
+		}
+	}
+}
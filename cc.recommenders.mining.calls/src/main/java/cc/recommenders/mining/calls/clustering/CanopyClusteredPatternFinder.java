@@ -10,20 +10,16 @@
  */
 package cc.recommenders.mining.calls.clustering;
 
-import static org.apache.mahout.clustering.canopy.CanopyClusterer.createCanopies;
-
 import java.util.List;
 
-import org.apache.mahout.clustering.canopy.Canopy;
 import org.apache.mahout.common.distance.DistanceMeasure;
-import org.apache.mahout.math.Vector;
 
 import cc.recommenders.mining.calls.Pattern;
 import cc.recommenders.utils.dictionary.Dictionary;
 
 public class CanopyClusteredPatternFinder<Feature> extends ClusteredPatternFinder<Feature> {
 
-	private final DistanceMeasure distanceMeasure;
+	private final ClusteringEngine engine;
 	private final FeatureWeighter<Feature> weighter;
 	private final VectorBuilder<Feature> vectorBuilder;
 
@@ -34,7 +30,7 @@ public class CanopyClusteredPatternFinder<Feature> extends ClusteredPatternFinde
 			DistanceMeasure distanceMeasure, double t1, double t2) {
 		this.vectorBuilder = vectorBuilder;
 		this.weighter = weighter;
-		this.distanceMeasure = distanceMeasure;
+		this.engine = new ClusteringEngine(ClusteringDistance.of(distanceMeasure));
 
 		this.t1 = t1;
 		this.t2 = t2;
@@ -49,9 +45,9 @@ public class CanopyClusteredPatternFinder<Feature> extends ClusteredPatternFinde
 	}
 
 	@Override
-	public List<Pattern<Feature>> find(List<List<Feature>> usages, Dictionary<Feature> dictionary) {
-		List<Vector> vectors = vectorBuilder.build(usages, dictionary);
-		List<Canopy> canopies = createCanopies(vectors, distanceMeasure, t1, t2);
+	public List<Pattern<Feature>> find(int[][] usages, Dictionary<Feature> dictionary) {
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
+		List<Cluster> canopies = engine.canopy(points, t1, t2);
 		List<Pattern<Feature>> patterns = createPatterns(canopies, dictionary);
 		return patterns;
 	}
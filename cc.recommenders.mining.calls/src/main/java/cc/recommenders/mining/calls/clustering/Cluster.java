@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.clustering;
+
+/**
+ * result of a clustering, the center and the number of points that have been assigned to it
+ */
+public class Cluster {
+
+	private final double[] center;
+	private final int numPoints;
+
+	public Cluster(double[] center, int numPoints) {
+		this.center = center;
+		this.numPoints = numPoints;
+	}
+
+	/**
+	 * do not alter the array that is returned here!
+	 */
+	public double[] getCenter() {
+		return center;
+	}
+
+	public int getNumPoints() {
+		return numPoints;
+	}
+}
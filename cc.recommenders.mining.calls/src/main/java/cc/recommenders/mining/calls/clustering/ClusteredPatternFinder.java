@@ -13,29 +13,29 @@ package cc.recommenders.mining.calls.clustering;
 import static cc.recommenders.io.Logger.debug;
 import static cc.recommenders.mining.calls.Pattern.newPattern;
 
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.apache.mahout.clustering.DistanceMeasureCluster;
-import org.apache.mahout.math.Vector;
-import org.apache.mahout.math.Vector.Element;
-
 import cc.recommenders.mining.calls.Pattern;
 import cc.recommenders.mining.calls.PatternFinder;
+import cc.recommenders.mining.features.FeatureEncoder;
 import cc.recommenders.utils.dictionary.Dictionary;
 
 public abstract class ClusteredPatternFinder<Feature> implements PatternFinder<Feature> {
 
 	public abstract double getWeight(Feature f);
 
-	protected List<Pattern<Feature>> createPatterns(List<? extends DistanceMeasureCluster> clusters,
-			Dictionary<Feature> dictionary) {
+	@Override
+	public List<Pattern<Feature>> find(List<List<Feature>> usages, Dictionary<Feature> dictionary) {
+		return find(new FeatureEncoder<Feature>(dictionary).encodeAll(usages), dictionary);
+	}
+
+	protected List<Pattern<Feature>> createPatterns(List<Cluster> clusters, Dictionary<Feature> dictionary) {
 
 		List<Pattern<Feature>> patterns = new LinkedList<Pattern<Feature>>();
 
 		int i = 0;
-		for (DistanceMeasureCluster cluster : clusters) {
+		for (Cluster cluster : clusters) {
 			Pattern<Feature> p = createPattern(i++, cluster, dictionary);
 			patterns.add(p);
 		}
@@ -45,22 +45,24 @@ public abstract class ClusteredPatternFinder<Feature> implements PatternFinder<F
 		return patterns;
 	}
 
-	protected Pattern<Feature> createPattern(int i, DistanceMeasureCluster canopy, Dictionary<Feature> dictionary) {
+	protected Pattern<Feature> createPattern(int i, Cluster cluster, Dictionary<Feature> dictionary) {
 
-		Pattern<Feature> pattern = newPattern("p" + i, (int) canopy.getNumPoints());
+		Pattern<Feature> pattern = newPattern("p" + i, cluster.getNumPoints());
 
-		Vector centroid = canopy.computeCentroid();
+		double[] centroid = cluster.getCenter();
 
-		for (Iterator<Element> it = centroid.iterateNonZero(); it.hasNext();) {
-			Element element = it.next();
+		for (int index = 0; index < centroid.length; index++) {
+			if (centroid[index] == 0) {
+				continue;
+			}
 
-			Feature feature = dictionary.getEntry(element.index());
+			Feature feature = dictionary.getEntry(index);
 			double weight = getWeight(feature);
-			double propability = element.get() / weight;
+			double propability = centroid[index] / weight;
 
 			pattern.setProbability(feature, propability);
 		}
 
 		return pattern;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.clustering;
+
+import org.apache.mahout.common.distance.CosineDistanceMeasure;
+import org.apache.mahout.common.distance.DistanceMeasure;
+import org.apache.mahout.common.distance.ManhattanDistanceMeasure;
+import org.apache.mahout.math.DenseVector;
+import org.apache.mahout.math.RandomAccessSparseVector;
+import org.apache.mahout.math.Vector;
+
+/**
+ * Distance between dense cluster centers and the rows of a {@link UsageMatrix}. Manhattan and cosine distance are
+ * computed on the primitive arrays with the same formulas that Mahout uses, all other Mahout measures are supported
+ * through conversion into Mahout vectors. Mahout does not specify whether its measures are thread-safe, so distances
+ * that delegate to them are always computed sequentially.
+ */
+public abstract class ClusteringDistance {
+
+	public static ClusteringDistance of(DistanceMeasure measure) {
+		if (measure instanceof ManhattanDistanceMeasure) {
+			return new Manhattan();
+		}
+		if (measure instanceof CosineDistanceMeasure) {
+			return new Cosine();
+		}
+		return new MahoutAdapter(measure);
+	}
+
+	/**
+	 * distance between a center and a row of the matrix
+	 */
+	public abstract double distance(double[] center, double centerLengthSquared, UsageMatrix points, int row);
+
+	/**
+	 * distance between two centers, used to test the convergence of a cluster
+	 */
+	public abstract double distance(double[] a, double aLengthSquared, double[] b);
+
+	/**
+	 * whether the distance can be computed concurrently from multiple threads
+	 */
+	public boolean isThreadSafe() {
+		return true;
+	}
+
+	public static double lengthSquared(double[] vector) {
+		double lengthSquared = 0;
+		for (double value : vector) {
+			lengthSquared += value * value;
+		}
+		return lengthSquared;
+	}
+
+	private static class Manhattan extends ClusteringDistance {
+
+		@Override
+		public double distance(double[] center, double centerLengthSquared, UsageMatrix points, int row) {
+			double distance = 0;
+			int next = points.getRowStart(row);
+			int end = points.getRowEnd(row);
+			for (int col = 0; col < center.length; col++) {
+				if (next < end && points.getCol(next) == col) {
+					distance += Math.abs(center[col] - points.getValue(next++));
+				} else {
+					distance += Math.abs(center[col]);
+				}
+			}
+			return distance;
+		}
+
+		@Override
+		public double distance(double[] a, double aLengthSquared, double[] b) {
+			double distance = 0;
+			for (int col = 0; col < a.length; col++) {
+				distance += Math.abs(a[col] - b[col]);
+			}
+			return distance;
+		}
+	}
+
+	private static class Cosine extends ClusteringDistance {
+
+		@Override
+		public double distance(double[] center, double centerLengthSquared, UsageMatrix points, int row) {
+			double dotProduct = 0;
+			for (int i = points.getRowStart(row); i < points.getRowEnd(row); i++) {
+				dotProduct += center[points.getCol(i)] * points.getValue(i);
+			}
+			return cosineDistance(dotProduct, centerLengthSquared, points.getLengthSquared(row));
+		}
+
+		@Override
+		public double distance(double[] a, double aLengthSquared, double[] b) {
+			double dotProduct = 0;
+			double bLengthSquared = 0;
+			for (int col = 0; col < a.length; col++) {
+				dotProduct += a[col] * b[col];
+				bLengthSquared += b[col] * b[col];
+			}
+			return cosineDistance(dotProduct, aLengthSquared, bLengthSquared);
+		}
+
+		private static double cosineDistance(double dotProduct, double aLengthSquared, double bLengthSquared) {
+			double denominator = Math.sqrt(aLengthSquared) * Math.sqrt(bLengthSquared);
+			// correct for floating-point rounding errors (zero vectors are not corrected, like in Mahout)
+			if (denominator < dotProduct) {
+				denominator = dotProduct;
+			}
+			return 1.0 - dotProduct / denominator;
+		}
+	}
+
+	private static class MahoutAdapter extends ClusteringDistance {
+
+		private final DistanceMeasure measure;
+
+		public MahoutAdapter(DistanceMeasure measure) {
+			this.measure = measure;
+		}
+
+		@Override
+		public double distance(double[] center, double centerLengthSquared, UsageMatrix points, int row) {
+			Vector point = new RandomAccessSparseVector(points.getNumCols());
+			for (int i = points.getRowStart(row); i < points.getRowEnd(row); i++) {
+				point.setQuick(points.getCol(i), points.getValue(i));
+			}
+			return measure.distance(new DenseVector(center, true), point);
+		}
+
+		@Override
+		public double distance(double[] a, double aLengthSquared, double[] b) {
+			return measure.distance(aLengthSquared, new DenseVector(a, true), new DenseVector(b, true));
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.clustering;
+
+import static cc.recommenders.assertions.Asserts.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Canopy and k-means clustering on a {@link UsageMatrix}. The algorithms follow the sequential implementations of
+ * Mahout 0.6 (same order of points, same tie breaking, same convergence criterion), but all distances of a step are
+ * computed in parallel for larger inputs of thread-safe distances. Random initialization is seeded, so results are
+ * reproducible.
+ */
+public class ClusteringEngine {
+
+	private static final int PARALLEL_THRESHOLD = 1024;
+
+	private final ClusteringDistance distance;
+
+	public ClusteringEngine(ClusteringDistance distance) {
+		this.distance = distance;
+	}
+
+	/**
+	 * Every point that has not been removed yet starts a new canopy. All remaining points with a distance < t1 are
+	 * added to the canopy and all points with a distance < t2 are removed.
+	 */
+	public List<Cluster> canopy(UsageMatrix points, double t1, double t2) {
+		List<Cluster> canopies = Lists.newArrayList();
+
+		int numRemaining = points.getNumRows();
+		int[] remaining = IntStream.range(0, numRemaining).toArray();
+		double[] distances = new double[numRemaining];
+
+		while (numRemaining > 0) {
+			int first = remaining[0];
+			double[] center = points.toDense(first);
+			double centerLengthSquared = points.getLengthSquared(first);
+
+			forEach(1, numRemaining, i -> {
+				distances[i] = distance.distance(center, centerLengthSquared, points, remaining[i]);
+			});
+
+			double[] sum = center.clone();
+			int numPoints = 1;
+			int numKept = 0;
+			for (int i = 1; i < numRemaining; i++) {
+				if (distances[i] < t1) {
+					add(points, remaining[i], sum);
+					numPoints++;
+				}
+				if (!(distances[i] < t2)) {
+					remaining[numKept++] = remaining[i];
+				}
+			}
+			numRemaining = numKept;
+
+			canopies.add(new Cluster(divide(sum, numPoints), numPoints));
+		}
+
+		return canopies;
+	}
+
+	/**
+	 * Picks k initial centers with the k-means++ strategy: the first center is chosen uniformly, every other one with a
+	 * probability proportional to its squared distance to the closest center that has already been chosen.
+	 */
+	public List<double[]> seedCenters(UsageMatrix points, int k, Random random) {
+		int numPoints = points.getNumRows();
+		assertTrue(numPoints > 0, "cannot seed centers without points");
+
+		List<double[]> centers = Lists.newArrayList();
+		double[] minDistances = new double[numPoints];
+
+		double[] center = points.toDense(random.nextInt(numPoints));
+		centers.add(center);
+		updateMinDistances(points, center, minDistances, true);
+
+		while (centers.size() < k) {
+			double total = 0;
+			for (double d : minDistances) {
+				total += d;
+			}
+
+			int next = numPoints - 1;
+			if (total > 0) {
+				double target = random.nextDouble() * total;
+				for (int i = 0; i < numPoints; i++) {
+					target -= minDistances[i];
+					if (target < 0) {
+						next = i;
+						break;
+					}
+				}
+			} else {
+				// fewer distinct points than clusters
+				next = random.nextInt(numPoints);
+			}
+
+			center = points.toDense(next);
+			centers.add(center);
+			updateMinDistances(points, center, minDistances, false);
+		}
+
+		return centers;
+	}
+
+	private void updateMinDistances(UsageMatrix points, double[] center, double[] minDistances, boolean isFirst) {
+		double centerLengthSquared = ClusteringDistance.lengthSquared(center);
+		forEach(0, points.getNumRows(), i -> {
+			double d = distance.distance(center, centerLengthSquared, points, i);
+			double weight = Double.isNaN(d) ? 0 : d * d;
+			if (isFirst || weight < minDistances[i]) {
+				minDistances[i] = weight;
+			}
+		});
+	}
+
+	/**
+	 * Assigns every point to its nearest center and moves the centers to the mean of their points, until no center
+	 * moves further than the convergence threshold or the maximum number of iterations is reached. Centers that do not
+	 * get any points keep their position.
+	 */
+	public List<Cluster> kmeans(UsageMatrix points, List<double[]> initialCenters, int maxIterations,
+			double convergenceThreshold) {
+		int k = initialCenters.size();
+		int numCols = points.getNumCols();
+		double[][] centers = new double[k][];
+		for (int c = 0; c < k; c++) {
+			assertTrue(initialCenters.get(c).length == numCols, "centers must have the same size as the points");
+			centers[c] = initialCenters.get(c).clone();
+		}
+		int[] counts = new int[k];
+		int[] assignments = new int[points.getNumRows()];
+
+		boolean isConverged = false;
+		for (int iteration = 0; !isConverged && iteration < maxIterations; iteration++) {
+			double[] lengthsSquared = new double[k];
+			for (int c = 0; c < k; c++) {
+				lengthsSquared[c] = ClusteringDistance.lengthSquared(centers[c]);
+			}
+			double[][] currentCenters = centers;
+			forEach(0, assignments.length, i -> {
+				assignments[i] = findNearest(currentCenters, lengthsSquared, points, i);
+			});
+
+			// sums are built in the order of the points, so rounding does not depend on the number of threads
+			double[][] sums = new double[k][numCols];
+			counts = new int[k];
+			for (int i = 0; i < assignments.length; i++) {
+				add(points, i, sums[assignments[i]]);
+				counts[assignments[i]]++;
+			}
+
+			isConverged = true;
+			for (int c = 0; c < k; c++) {
+				double[] centroid = counts[c] == 0 ? centers[c] : divide(sums[c], counts[c]);
+				double d = distance.distance(centroid, ClusteringDistance.lengthSquared(centroid), centers[c]);
+				if (!(d <= convergenceThreshold)) {
+					isConverged = false;
+				}
+				centers[c] = centroid;
+			}
+		}
+
+		List<Cluster> clusters = Lists.newArrayList();
+		for (int c = 0; c < k; c++) {
+			clusters.add(new Cluster(centers[c], counts[c]));
+		}
+		return clusters;
+	}
+
+	private int findNearest(double[][] centers, double[] lengthsSquared, UsageMatrix points, int row) {
+		int nearest = 0;
+		double minDistance = Double.MAX_VALUE;
+		for (int c = 0; c < centers.length; c++) {
+			double d = distance.distance(centers[c], lengthsSquared[c], points, row);
+			if (c == 0 || minDistance > d) {
+				nearest = c;
+				minDistance = d;
+			}
+		}
+		return nearest;
+	}
+
+	private static void add(UsageMatrix points, int row, double[] sum) {
+		for (int i = points.getRowStart(row); i < points.getRowEnd(row); i++) {
+			sum[points.getCol(i)] += points.getValue(i);
+		}
+	}
+
+	private static double[] divide(double[] sum, int count) {
+		double[] result = new double[sum.length];
+		for (int col = 0; col < sum.length; col++) {
+			result[col] = sum[col] / count;
+		}
+		return result;
+	}
+
+	private void forEach(int from, int to, IntConsumer action) {
+		if (to - from < PARALLEL_THRESHOLD || !distance.isThreadSafe()) {
+			for (int i = from; i < to; i++) {
+				action.accept(i);
+			}
+		} else {
+			IntStream.range(from, to).parallel().forEach(action);
+		}
+	}
+}
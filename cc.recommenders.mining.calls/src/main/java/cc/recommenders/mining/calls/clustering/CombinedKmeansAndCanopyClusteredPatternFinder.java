@@ -10,27 +10,21 @@
  */
 package cc.recommenders.mining.calls.clustering;
 
-import static org.apache.mahout.clustering.canopy.CanopyClusterer.createCanopies;
-import static org.apache.mahout.clustering.kmeans.KMeansClusterer.clusterPoints;
-
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
-import org.apache.mahout.clustering.canopy.Canopy;
-import org.apache.mahout.clustering.kmeans.Cluster;
 import org.apache.mahout.common.distance.DistanceMeasure;
-import org.apache.mahout.math.Vector;
 
 import cc.recommenders.mining.calls.Pattern;
 import cc.recommenders.utils.dictionary.Dictionary;
 
+import com.google.common.collect.Lists;
+
 public class CombinedKmeansAndCanopyClusteredPatternFinder<Feature> extends ClusteredPatternFinder<Feature> {
 
 	private final VectorBuilder<Feature> vectorBuilder;
 	private final FeatureWeighter<Feature> weighter;
 
-	private final DistanceMeasure distanceMeasure;
+	private final ClusteringEngine engine;
 	private final double t1;
 	private final double t2;
 	private final int numIterations;
@@ -41,7 +35,7 @@ public class CombinedKmeansAndCanopyClusteredPatternFinder<Feature> extends Clus
 			int numIterations, double convergenceThreshold) {
 		this.vectorBuilder = vectorBuilder;
 		this.weighter = weighter;
-		this.distanceMeasure = distanceMeasure;
+		this.engine = new ClusteringEngine(ClusteringDistance.of(distanceMeasure));
 
 		this.t1 = t1;
 		this.t2 = t2;
@@ -50,35 +44,23 @@ public class CombinedKmeansAndCanopyClusteredPatternFinder<Feature> extends Clus
 	}
 
 	@Override
-	public List<Pattern<Feature>> find(List<List<Feature>> usages, Dictionary<Feature> dictionary) {
+	public List<Pattern<Feature>> find(int[][] usages, Dictionary<Feature> dictionary) {
 
-		List<Vector> vectors = vectorBuilder.build(usages, dictionary);
-		List<Vector> vectors2 = new LinkedList<Vector>();
-		vectors2.addAll(vectors);
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
 
-		List<Canopy> canopies = createCanopies(vectors, distanceMeasure, t1, t2);
+		List<Cluster> canopies = engine.canopy(points, t1, t2);
 
-		List<Cluster> clusters = buildClusters(canopies, distanceMeasure);
+		List<double[]> centers = Lists.newArrayList();
+		for (Cluster canopy : canopies) {
+			centers.add(canopy.getCenter());
+		}
 
-		List<List<Cluster>> iterations = clusterPoints(vectors2, clusters, distanceMeasure, numIterations,
-				convergenceTreshold);
+		List<Cluster> clusters = engine.kmeans(points, centers, numIterations, convergenceTreshold);
 
-		List<Cluster> finalIteration = iterations.get(iterations.size() - 1);
-		List<Pattern<Feature>> patterns = createPatterns(finalIteration, dictionary);
+		List<Pattern<Feature>> patterns = createPatterns(clusters, dictionary);
 		return patterns;
 	}
 
-	private List<Cluster> buildClusters(List<Canopy> canopies, DistanceMeasure distanceMeasure) {
-		List<Cluster> clusters = new ArrayList<Cluster>();
-		int i = 0;
-		for (Canopy canopy : canopies) {
-			Cluster c = new Cluster(canopy.getCenter(), i, distanceMeasure);
-			clusters.add(c);
-			i++;
-		}
-		return clusters;
-	}
-
 	@Override
 	public double getWeight(Feature f) {
 		return weighter.getWeight(f);
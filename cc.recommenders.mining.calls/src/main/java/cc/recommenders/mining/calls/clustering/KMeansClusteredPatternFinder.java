@@ -10,77 +10,68 @@
  */
 package cc.recommenders.mining.calls.clustering;
 
-import java.security.SecureRandom;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
-import org.apache.mahout.clustering.kmeans.Cluster;
-import org.apache.mahout.clustering.kmeans.KMeansClusterer;
 import org.apache.mahout.common.distance.DistanceMeasure;
-import org.apache.mahout.math.Vector;
 
 import cc.recommenders.mining.calls.Pattern;
 import cc.recommenders.utils.dictionary.Dictionary;
 
 public class KMeansClusteredPatternFinder<Feature> extends ClusteredPatternFinder<Feature> {
 
+	public static final long DEFAULT_SEED = 1234;
+
 	private final int clusterCount;
 	private final int numIterations;
 	private final double convergenceTreshold;
-	private final DistanceMeasure distanceMeasure;
+	private final long seed;
+	private final ClusteringEngine engine;
 
 	private final FeatureWeighter<Feature> weighter;
 	private final VectorBuilder<Feature> vectorBuilder;
 
+	/**
+	 * @deprecated the finder cannot find patterns without a vector builder and a weighter, use one of the other
+	 *             constructors
+	 */
+	@Deprecated
 	public KMeansClusteredPatternFinder(DistanceMeasure distanceMeasure, int clusterCount, int numIterations,
 			double convergenceTreshold) {
-		this.distanceMeasure = distanceMeasure;
+		this(null, null, distanceMeasure, clusterCount, numIterations, convergenceTreshold);
+	}
+
+	public KMeansClusteredPatternFinder(VectorBuilder<Feature> vectorBuilder, FeatureWeighter<Feature> weighter,
+			DistanceMeasure distanceMeasure, int clusterCount, int numIterations, double convergenceTreshold) {
+		this(vectorBuilder, weighter, distanceMeasure, clusterCount, numIterations, convergenceTreshold,
+				DEFAULT_SEED);
+	}
+
+	public KMeansClusteredPatternFinder(VectorBuilder<Feature> vectorBuilder, FeatureWeighter<Feature> weighter,
+			DistanceMeasure distanceMeasure, int clusterCount, int numIterations, double convergenceTreshold,
+			long seed) {
+		this.vectorBuilder = vectorBuilder;
+		this.weighter = weighter;
+		this.engine = new ClusteringEngine(ClusteringDistance.of(distanceMeasure));
 		this.clusterCount = clusterCount;
 		this.numIterations = numIterations;
 		this.convergenceTreshold = convergenceTreshold;
-
-		// TODO review: WTF?
-		weighter = null;
-		vectorBuilder = null;
+		this.seed = seed;
 	}
 
 	@Override
-	public List<Pattern<Feature>> find(List<List<Feature>> usages, Dictionary<Feature> dictionary) {
+	public List<Pattern<Feature>> find(int[][] usages, Dictionary<Feature> dictionary) {
 
-		List<Vector> vectors = vectorBuilder.build(usages, dictionary);
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
 
-		List<Cluster> rndCenters = buildRandomCenters(vectors, clusterCount, distanceMeasure);
-		List<List<Cluster>> iterations = KMeansClusterer.clusterPoints(vectors, rndCenters, distanceMeasure,
-				numIterations, convergenceTreshold);
+		// every call starts from the same seed, so mining the same usages results in the same patterns
+		List<double[]> centers = engine.seedCenters(points, clusterCount, new Random(seed));
+		List<Cluster> clusters = engine.kmeans(points, centers, numIterations, convergenceTreshold);
 
-		List<Cluster> finalIteration = iterations.get(iterations.size() - 1);
-		List<Pattern<Feature>> patterns = createPatterns(finalIteration, dictionary);
+		List<Pattern<Feature>> patterns = createPatterns(clusters, dictionary);
 		return patterns;
 	}
 
-	private List<Cluster> buildRandomCenters(List<Vector> vectors, int kmeansClusterCount,
-			DistanceMeasure distanceMeasure) {
-
-		List<Cluster> clusters = new ArrayList<Cluster>();
-
-		SecureRandom randomGenerator = new SecureRandom();
-
-		for (int i = 0; i < kmeansClusterCount; i++) {
-			int rndIndex = randomGenerator.nextInt();
-
-			if (rndIndex < 0)
-				rndIndex = (rndIndex + 1) * -1;
-
-			rndIndex %= vectors.size();
-			Vector randomVector = vectors.get(rndIndex);
-
-			Cluster c = new Cluster(randomVector, i, distanceMeasure);
-			clusters.add(c);
-		}
-
-		return clusters;
-	}
-
 	@Override
 	public double getWeight(Feature f) {
 		return weighter.getWeight(f);
@@ -97,4 +88,8 @@ public class KMeansClusteredPatternFinder<Feature> extends ClusteredPatternFinde
 	public double getConvergenceThreshold() {
 		return convergenceTreshold;
 	}
-}
\ No newline at end of file
+
+	public long getSeed() {
+		return seed;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.clustering;
+
+import static cc.recommenders.assertions.Asserts.assertTrue;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse matrix of usage vectors in compressed row format. The non-zero columns of each row are sorted, the
+ * squared length of every row is precomputed.
+ */
+public class UsageMatrix {
+
+	private final int numCols;
+	private final int[] rowStarts;
+	private final int[] cols;
+	private final double[] values;
+	private final double[] lengthsSquared;
+
+	/**
+	 * @param rowStarts
+	 *            offsets of the rows in cols/values, has one additional element that marks the end of the last row
+	 */
+	public UsageMatrix(int numCols, int[] rowStarts, int[] cols, double[] values) {
+		assertTrue(rowStarts.length > 0 && rowStarts[rowStarts.length - 1] == cols.length, "invalid row offsets");
+		assertTrue(cols.length == values.length, "columns and values must have the same length");
+		this.numCols = numCols;
+		this.rowStarts = rowStarts;
+		this.cols = cols;
+		this.values = values;
+		this.lengthsSquared = new double[rowStarts.length - 1];
+		for (int row = 0; row < lengthsSquared.length; row++) {
+			sortRow(row);
+			for (int i = rowStarts[row]; i < rowStarts[row + 1]; i++) {
+				assertTrue(cols[i] >= 0 && cols[i] < numCols, "column out of range");
+				assertTrue(i == rowStarts[row] || cols[i - 1] != cols[i], "duplicate column in row");
+				lengthsSquared[row] += values[i] * values[i];
+			}
+		}
+	}
+
+	private void sortRow(int row) {
+		// rows are short, insertion sort avoids boxing
+		for (int i = rowStarts[row] + 1; i < rowStarts[row + 1]; i++) {
+			int col = cols[i];
+			double value = values[i];
+			int j = i - 1;
+			while (j >= rowStarts[row] && cols[j] > col) {
+				cols[j + 1] = cols[j];
+				values[j + 1] = values[j];
+				j--;
+			}
+			cols[j + 1] = col;
+			values[j + 1] = value;
+		}
+	}
+
+	public int getNumRows() {
+		return lengthsSquared.length;
+	}
+
+	public int getNumCols() {
+		return numCols;
+	}
+
+	public int getRowStart(int row) {
+		return rowStarts[row];
+	}
+
+	public int getRowEnd(int row) {
+		return rowStarts[row + 1];
+	}
+
+	public int getCol(int index) {
+		return cols[index];
+	}
+
+	public double getValue(int index) {
+		return values[index];
+	}
+
+	public double getLengthSquared(int row) {
+		return lengthsSquared[row];
+	}
+
+	public double[] toDense(int row) {
+		double[] dense = new double[numCols];
+		for (int i = rowStarts[row]; i < rowStarts[row + 1]; i++) {
+			dense[cols[i]] = values[i];
+		}
+		return dense;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof UsageMatrix)) {
+			return false;
+		}
+		UsageMatrix other = (UsageMatrix) obj;
+		return numCols == other.numCols && Arrays.equals(rowStarts, other.rowStarts)
+				&& Arrays.equals(cols, other.cols) && Arrays.equals(values, other.values);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 31 * numCols + Arrays.hashCode(rowStarts);
+		hash = 31 * hash + Arrays.hashCode(cols);
+		return 31 * hash + Arrays.hashCode(values);
+	}
+}
@@ -15,6 +15,7 @@ import java.util.List;
 import org.apache.mahout.math.RandomAccessSparseVector;
 import org.apache.mahout.math.Vector;
 
+import cc.recommenders.mining.features.FeatureEncoder;
 import cc.recommenders.utils.dictionary.Dictionary;
 
 import com.google.common.collect.Lists;
@@ -50,4 +51,40 @@ public class VectorBuilder<Feature> {
 
 		return vectors;
 	}
+
+	public UsageMatrix buildMatrix(List<List<Feature>> usages, Dictionary<Feature> dictionary) {
+		return buildMatrix(new FeatureEncoder<Feature>(dictionary).encodeAll(usages), dictionary);
+	}
+
+	/**
+	 * @param usages
+	 *            usages that are encoded with a {@link FeatureEncoder} for the given dictionary
+	 */
+	public UsageMatrix buildMatrix(int[][] usages, Dictionary<Feature> dictionary) {
+		int numCols = dictionary.size();
+		double[] weights = new double[numCols];
+		for (int col = 0; col < numCols; col++) {
+			Feature f = dictionary.getEntry(col);
+			// a dictionary without any frequent feature contains a single null entry
+			weights[col] = f == null ? 0 : weighter.getWeight(f);
+		}
+
+		int[] rowStarts = new int[usages.length + 1];
+		for (int row = 0; row < usages.length; row++) {
+			rowStarts[row + 1] = rowStarts[row] + usages[row].length;
+		}
+
+		int numEntries = rowStarts[usages.length];
+		int[] cols = new int[numEntries];
+		double[] values = new double[numEntries];
+		for (int row = 0; row < usages.length; row++) {
+			int[] usage = usages[row];
+			System.arraycopy(usage, 0, cols, rowStarts[row], usage.length);
+			for (int i = 0; i < usage.length; i++) {
+				values[rowStarts[row] + i] = weights[usage[i]];
+			}
+		}
+
+		return new UsageMatrix(numCols, rowStarts, cols, values);
+	}
 }
\ No newline at end of file
@@ -16,7 +16,6 @@
 package cc.recommenders.mining.calls.pbn;
 
 import java.util.List;
-import java.util.Set;
 
 import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
 
@@ -31,6 +30,7 @@ import cc.recommenders.mining.calls.ModelBuilder;
 import cc.recommenders.mining.calls.Pattern;
 import cc.recommenders.mining.calls.PatternFinderFactory;
 import cc.recommenders.mining.calls.QueryOptions;
+import cc.recommenders.mining.features.FeatureEncoder;
 import cc.recommenders.mining.features.FeatureExtractor;
 import cc.recommenders.mining.features.OptionAwareFeaturePredicate;
 import cc.recommenders.mining.features.RareFeatureDropper;
@@ -39,7 +39,7 @@ import cc.recommenders.usages.Usage;
 import cc.recommenders.usages.features.UsageFeature;
 import cc.recommenders.utils.dictionary.Dictionary;
 
-public abstract class AbstractPBNMiner<Model> implements Miner<Usage, Query> {
+public abstract class AbstractPBNMiner<Model> implements Miner<Usage, Query, Model> {
 
 	private final FeatureExtractor<Usage, UsageFeature> featureExtractor;
 	private final DictionaryBuilder<Usage, UsageFeature> dictionaryBuilder;
@@ -74,8 +74,12 @@ public abstract class AbstractPBNMiner<Model> implements Miner<Usage, Query> {
 
 		lastNumberOfFeatures = dictionary.size();
 
+		Logger.debug("encoding usages");
+		int[][] encodedUsages = new FeatureEncoder<UsageFeature>(dictionary).encodeAll(features);
+
 		Logger.debug("mining");
-		List<Pattern<UsageFeature>> patterns = patternFinderFactory.createPatternFinder().find(features, dictionary);
+		List<Pattern<UsageFeature>> patterns = patternFinderFactory.createPatternFinder().find(encodedUsages,
+				dictionary);
 
 		lastNumberOfPatterns = patterns.size();
 
@@ -93,12 +97,8 @@ public abstract class AbstractPBNMiner<Model> implements Miner<Usage, Query> {
 	protected Dictionary<UsageFeature> createDictionary(List<Usage> usages, List<List<UsageFeature>> features) {
 		Dictionary<UsageFeature> rawDictionary = dictionaryBuilder.newDictionary(usages, featurePred);
 		if (mOpts.isFeatureDropping()) {
-			Dictionary<UsageFeature> dictionary = dropper.dropRare(rawDictionary, features);
-			Set<String> diff = DictionaryHelper.diff(rawDictionary, dictionary);
-
-			Set<UsageFeature> rawClassContexts = new DictionaryHelper(rawDictionary).getClassContexts();
-			Set<UsageFeature> classContexts = new DictionaryHelper(dictionary).getClassContexts();
-			return dictionary;
+			int[][] encodedUsages = new FeatureEncoder<UsageFeature>(rawDictionary).encodeAll(features);
+			return dropper.dropRare(rawDictionary, encodedUsages);
 		} else {
 			return rawDictionary;
 		}
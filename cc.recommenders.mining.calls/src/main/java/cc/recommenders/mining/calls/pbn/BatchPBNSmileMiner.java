@@ -18,8 +18,18 @@ package cc.recommenders.mining.calls.pbn;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 
 import cc.recommenders.collections.SublistSelector;
 import cc.recommenders.io.Directory;
@@ -34,81 +44,194 @@ import cc.recommenders.names.CoReTypeName;
 import cc.recommenders.usages.Usage;
 import smile.Network;
 
+/**
+ * Mines the networks of all types in a pipeline: a reader thread prefetches the usages of the next types, a pool of
+ * workers learns the networks and a writer thread stores the models. All types that have been processed are recorded
+ * in {@link #PROGRESS_FILE} in the model directory and are skipped, when an interrupted run is restarted. Models
+ * of types that are not recorded are written again. The log
+ * messages of each type are collected by its worker and logged as one block by the writer thread.
+ */
 public class BatchPBNSmileMiner {
 
+	public static final String PROGRESS_FILE = "progress.txt";
+
 	private int MAX_NUM_OF_USAGES = 20000;
 	private static final ICoReTypeName unknownType = CoReTypeName.get("LUnknown");
 
 	private IoUtils io;
 	private SmileUtils smileUtils;
-	private PBNSmileMiner miner;
+	private Provider<PBNSmileMiner> minerProvider;
 	private MiningOptions mOpts;
 	private QueryOptions qOpts;
+	private int numWorkers;
 
 	@Inject
-	public BatchPBNSmileMiner(SmileUtils smileUtils, IoUtils io, PBNSmileMiner miner, MiningOptions mOpts,
-			QueryOptions qOpts) {
+	public BatchPBNSmileMiner(SmileUtils smileUtils, IoUtils io, Provider<PBNSmileMiner> minerProvider,
+			MiningOptions mOpts, QueryOptions qOpts) {
+		this(smileUtils, io, minerProvider, mOpts, qOpts, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * miners are not thread-safe, each worker requests its own instance from the provider
+	 */
+	public BatchPBNSmileMiner(SmileUtils smileUtils, IoUtils io, Provider<PBNSmileMiner> minerProvider,
+			MiningOptions mOpts, QueryOptions qOpts, int numWorkers) {
 		this.smileUtils = smileUtils;
 		this.io = io;
-		this.miner = miner;
+		this.minerProvider = minerProvider;
 		this.mOpts = mOpts;
 		this.qOpts = qOpts;
+		this.numWorkers = numWorkers;
+	}
+
+	/**
+	 * uses a single worker, because the miner instance cannot be shared between threads
+	 */
+	public BatchPBNSmileMiner(SmileUtils smileUtils, IoUtils io, PBNSmileMiner miner, MiningOptions mOpts,
+			QueryOptions qOpts) {
+		this(smileUtils, io, () -> miner, mOpts, qOpts, 1);
 	}
 
 	public void run(NestedZipFolders<ICoReTypeName> usagesDir, Directory modelDir) {
-		int numMined = 0;
-		int numUsages = 0;
+		AtomicInteger numMined = new AtomicInteger();
+		AtomicInteger numUsages = new AtomicInteger();
+		AtomicReference<Throwable> firstFailure = new AtomicReference<>();
 
 		Logger.log("options for learning: %s%s\n", mOpts, qOpts);
 
-		Set<ICoReTypeName> types = usagesDir.findKeys();
-		for (ICoReTypeName t : types) {
-			Logger.log("%s", t);
+		Set<String> processedTypes = readProgress(modelDir);
 
-			if (t.equals(unknownType) || t.isArrayType() || !isInteresting(t)) {
-				Logger.log("skipping '%s'...", t);
-				continue;
-			}
+		ExecutorService reader = Executors.newSingleThreadExecutor();
+		ExecutorService workers = Executors.newFixedThreadPool(numWorkers);
+		ExecutorService writer = Executors.newSingleThreadExecutor();
+		ThreadLocal<PBNSmileMiner> miners = ThreadLocal.withInitial(minerProvider::get);
+		// limits the number of types that are kept in memory (being read, mined, or waiting for the writer)
+		Semaphore inFlight = new Semaphore(2 * numWorkers);
+		List<CompletableFuture<?>> pending = Lists.newLinkedList();
 
-			List<Usage> usages = usagesDir.readAllZips(t, Usage.class);
-			if (usages.isEmpty()) {
-				Logger.log("\t\tno usages, ignored");
-				continue;
-			}
+		try {
+			Set<ICoReTypeName> types = usagesDir.findKeys();
+			for (ICoReTypeName t : types) {
+				if (t.equals(unknownType) || t.isArrayType() || !isInteresting(t)) {
+					writer.execute(() -> {
+						Logger.log("%s", t);
+						Logger.log("skipping '%s'...", t);
+					});
+					continue;
+				}
+				if (processedTypes.contains(t.getIdentifier())) {
+					writer.execute(() -> {
+						Logger.log("%s", t);
+						Logger.log("already processed, skipping '%s'...", t);
+					});
+					continue;
+				}
 
-			int curSize = usages.size();
-			if (curSize > MAX_NUM_OF_USAGES) {
-				Logger.log("\t\ttoo many usages (%d)... selecting %d random ones", curSize, MAX_NUM_OF_USAGES);
-				usages = SublistSelector.pickRandomSublist(usages, MAX_NUM_OF_USAGES);
+				inFlight.acquireUninterruptibly();
+				TypeLog log = new TypeLog();
+				log.log("%s", t);
+
+				CompletableFuture<?> f = CompletableFuture.supplyAsync(() -> {
+					return usagesDir.readAllZips(t, Usage.class);
+				}, reader).thenApplyAsync(usages -> {
+					return mine(t, usages, miners.get(), log, numUsages);
+				}, workers).handleAsync((xml, e) -> {
+					log.flush();
+					Throwable failure = e instanceof CompletionException ? e.getCause() : e;
+					if (failure == null) {
+						try {
+							if (xml != null) {
+								numMined.incrementAndGet();
+								String zipFile = io.toNestedFileName(t, "zip");
+								String fileName = io.toFlatFileName(t, "xdsl");
+								write(xml, fileName, zipFile, modelDir);
+							}
+							modelDir.appendContent(t.getIdentifier() + "\n", PROGRESS_FILE);
+						} catch (IOException | RuntimeException writeFailure) {
+							failure = writeFailure;
+						}
+					}
+					if (failure != null) {
+						Logger.err("mining of '%s' failed: %s", t, failure);
+						firstFailure.compareAndSet(null, failure);
+					}
+					return null;
+				}, writer).whenComplete((nothing, e) -> inFlight.release());
+				pending.add(f);
 			}
+			CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+		} finally {
+			reader.shutdownNow();
+			workers.shutdownNow();
+			writer.shutdownNow();
+		}
+
+		Logger.log("");
+		Logger.log("--> mined models for %d type from %d total usages", numMined.get(), numUsages.get());
+
+		Throwable failure = firstFailure.get();
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure != null) {
+			throw new RuntimeException(failure);
+		}
+	}
 
-			numMined++;
-			numUsages += usages.size();
-			Logger.log("\t\t%d usages", usages.size());
+	private String mine(ICoReTypeName t, List<Usage> usages, PBNSmileMiner miner, TypeLog log,
+			AtomicInteger numUsages) {
+		if (usages.isEmpty()) {
+			log.log("\t\tno usages, ignored");
+			return null;
+		}
 
-			Network network = miner.learnModel(usages);
+		int curSize = usages.size();
+		if (curSize > MAX_NUM_OF_USAGES) {
+			log.log("\t\ttoo many usages (%d)... selecting %d random ones", curSize, MAX_NUM_OF_USAGES);
+			usages = SublistSelector.pickRandomSublist(usages, MAX_NUM_OF_USAGES);
+		}
 
-			int numPatterns = smileUtils.getNumPatterns(network);
-			Logger.append(" --> %d patterns", numPatterns);
+		numUsages.addAndGet(usages.size());
+		log.log("\t\t%d usages", usages.size());
 
-			String xml = smileUtils.toString(network);
+		Network network = miner.learnModel(usages);
 
-			String zipFile = io.toNestedFileName(t, "zip");
-			String fileName = io.toFlatFileName(t, "xdsl");
+		int numPatterns = smileUtils.getNumPatterns(network);
+		log.append(" --> %d patterns", numPatterns);
 
-			write(xml, fileName, zipFile, modelDir);
-		}
+		return smileUtils.toString(network);
+	}
 
-		Logger.log("");
-		Logger.log("--> mined models for %d type from %d total usages", numMined, numUsages);
+	private static Set<String> readProgress(Directory modelDir) {
+		Set<String> processedTypes = Sets.newHashSet();
+		if (modelDir.exists(PROGRESS_FILE)) {
+			try {
+				for (String line : modelDir.readContent(PROGRESS_FILE).split("\n")) {
+					if (!line.isEmpty()) {
+						processedTypes.add(line);
+					}
+				}
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			Logger.log("found %d types that have already been processed", processedTypes.size());
+		}
+		return processedTypes;
 	}
 
 	private boolean isInteresting(ICoReTypeName t) {
 		return true;// t.getIdentifier().startsWith("LSystem/");
 	}
 
+	/**
+	 * a zip of a type that is not recorded as processed is left over by a run that was interrupted after writing the
+	 * model, so it is replaced
+	 */
 	private void write(String xml, String nameOfFileInZip, String zipFile, Directory modelDir) {
 		try {
+			if (modelDir.exists(zipFile)) {
+				Logger.log("replacing unfinished model '%s'", zipFile);
+				modelDir.delete(zipFile);
+			}
 			WritingArchive wa = modelDir.getWritingArchive(zipFile);
 			wa.addPlain(xml, nameOfFileInZip);
 			wa.close();
@@ -116,4 +239,26 @@ public class BatchPBNSmileMiner {
 			throw new RuntimeException(e);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * collects the messages of a single type, so they can be logged together
+	 */
+	private static class TypeLog {
+
+		private final List<Runnable> messages = Lists.newLinkedList();
+
+		public void log(String msg, Object... args) {
+			messages.add(() -> Logger.log(msg, args));
+		}
+
+		public void append(String msg, Object... args) {
+			messages.add(() -> Logger.append(msg, args));
+		}
+
+		public void flush() {
+			for (Runnable message : messages) {
+				message.run();
+			}
+		}
+	}
+}
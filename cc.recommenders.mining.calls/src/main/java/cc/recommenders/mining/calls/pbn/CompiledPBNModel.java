@@ -0,0 +1,458 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.pbn;
+
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.CALL_PREFIX;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.CLASS_CONTEXT_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.DEFINITION_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.METHOD_CONTEXT_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.PATTERN_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.STATE_TRUE;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
+import org.eclipse.recommenders.commons.bayesnet.Node;
+import org.eclipse.recommenders.jayes.BayesNet;
+import org.eclipse.recommenders.jayes.BayesNode;
+import org.eclipse.recommenders.jayes.inference.IIndexedBayesInferer;
+import org.eclipse.recommenders.jayes.inference.StarTopologyInferer;
+import org.eclipse.recommenders.jayes.inference.junctionTree.JunctionTreeAlgorithm;
+import org.eclipse.recommenders.jayes.util.BufferUtils;
+
+import cc.recommenders.io.Logger;
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.ICoReMethodName;
+
+/**
+ * Immutable part of a pattern-based Bayesian network: the network itself, the junction tree with its initial
+ * potentials and prepared operations, and the tables that map outcome names and calls to indices. All outcome names are
+ * resolved once when the model is compiled.
+ *
+ * Networks in which the pattern node is the only parent of all other nodes, which is the case for all networks that
+ * are created by {@link PBNModelBuilder}, are answered by a {@link StarTopologyInferer} instead of the junction tree.
+ * The star inference always computes in double precision, so it is only used for double precision models. The junction
+ * tree is built for all other models and propagates evidence incrementally.
+ *
+ * A compiled model is safe to share between threads, queries are answered by {@link PBNQueryEngine} sessions that are
+ * created with {@link #newSession()} and that must not be shared.
+ *
+ * Compiled models can be written in a binary format with {@link #write(File)}. Reading a model with
+ * {@link #read(File)} maps the file into memory and restores the junction tree, so neither the network needs to be
+ * translated nor the junction tree to be rebuilt.
+ */
+public class CompiledPBNModel {
+
+	// "PBNC"
+	private static final int MAGIC = 0x50424e43;
+	private static final int FORMAT_VERSION = 1;
+
+	private final BayesNet bayesNet = new BayesNet();
+	private final JunctionTreeAlgorithm prototype = new JunctionTreeAlgorithm();
+	private boolean isJunctionTreeCompiled;
+	private StarTopologyInferer starPrototype;
+	private final boolean useDoublePrecision;
+
+	private BayesNode patternNode;
+	private BayesNode classContextNode;
+	private BayesNode methodContextNode;
+	private BayesNode definitionNode;
+
+	private final Map<String, Integer> classContexts = newHashMap();
+	private final Map<String, Integer> methodContexts = newHashMap();
+	private final Map<String, Integer> definitions = newHashMap();
+	private final Map<String, Integer> patterns = newHashMap();
+
+	private final Map<String, Integer> paramNodeIds = newHashMap();
+	private final Map<ICoReMethodName, Integer> callIndices = newHashMap();
+	private ICoReMethodName[] calls;
+	private int[] callNodeIds;
+	// position of each call in the natural order of the method names, used to break ties
+	private int[] callRanks;
+	// index of STATE_TRUE per node id, -1 if the node does not have such an outcome
+	private int[] trueOutcomes;
+
+	public CompiledPBNModel(BayesianNetwork network, boolean useDoublePrecision) {
+		this.useDoublePrecision = useDoublePrecision;
+		List<ICoReMethodName> callNames = newArrayList();
+		List<Integer> callIds = newArrayList();
+		for (Node node : network.getNodes()) {
+			BayesNode bayesNode = createNodeFrom(node);
+			assignToMember(node.getIdentifier(), bayesNode, callNames, callIds);
+		}
+		initializeArcs(network);
+		initializeProbabilities(network);
+		indexCalls(callNames, callIds);
+		rankCalls();
+		compileOutcomes();
+
+		if (!useDoublePrecision) {
+			prototype.getFactory().setFloatingPointType(float.class);
+		}
+		// sessions are typically refined by adding evidence, e.g., one call at a time
+		prototype.setIncrementalPropagation(true);
+		if (!compileStarTopology()) {
+			compileJunctionTree();
+		}
+	}
+
+	private CompiledPBNModel(ByteBuffer in) {
+		useDoublePrecision = in.get() != 0;
+		int numNodes = in.getInt();
+		int[][] parents = new int[numNodes][];
+		double[][] probabilities = new double[numNodes][];
+		List<ICoReMethodName> callNames = newArrayList();
+		List<Integer> callIds = newArrayList();
+		for (int i = 0; i < numNodes; i++) {
+			BayesNode bayesNode = bayesNet.createNode(BufferUtils.readString(in));
+			int numOutcomes = in.getInt();
+			for (int j = 0; j < numOutcomes; j++) {
+				bayesNode.addOutcome(BufferUtils.readString(in));
+			}
+			parents[i] = BufferUtils.readInts(in);
+			probabilities[i] = BufferUtils.readDoubles(in);
+			assignToMember(bayesNode.getName(), bayesNode, callNames, callIds);
+		}
+		for (BayesNode bayesNode : bayesNet.getNodes()) {
+			List<BayesNode> bnParents = newArrayList();
+			for (int parentId : parents[bayesNode.getId()]) {
+				bnParents.add(bayesNet.getNode(parentId));
+			}
+			bayesNode.setParents(bnParents);
+			bayesNode.setProbabilities(probabilities[bayesNode.getId()]);
+		}
+		indexCalls(callNames, callIds);
+		callRanks = BufferUtils.readInts(in);
+		compileOutcomes();
+
+		prototype.setIncrementalPropagation(true);
+		boolean hasJunctionTree = in.get() != 0;
+		if (compileStarTopology()) {
+			return;
+		}
+		if (hasJunctionTree) {
+			prototype.setNetwork(bayesNet, in);
+			isJunctionTreeCompiled = true;
+		} else {
+			if (!useDoublePrecision) {
+				prototype.getFactory().setFloatingPointType(float.class);
+			}
+			compileJunctionTree();
+		}
+	}
+
+	private boolean compileStarTopology() {
+		if (!useDoublePrecision) {
+			return false;
+		}
+		boolean isPatternRoot = patternNode != null && patternNode.getParents().isEmpty();
+		if (!isPatternRoot || !StarTopologyInferer.isStarTopology(bayesNet)) {
+			return false;
+		}
+		starPrototype = new StarTopologyInferer();
+		starPrototype.setNetwork(bayesNet);
+		// the first outcome of a call node is STATE_TRUE
+		starPrototype.setQueryOutcomes(callNodeIds, new int[callNodeIds.length]);
+		return true;
+	}
+
+	private void compileJunctionTree() {
+		prototype.setNetwork(bayesNet);
+		isJunctionTreeCompiled = true;
+	}
+
+	private BayesNode createNodeFrom(Node node) {
+		BayesNode bayesNode = bayesNet.createNode(node.getIdentifier());
+		String[] states = node.getStates();
+		for (int i = 0; i < states.length; i++) {
+			try {
+				bayesNode.addOutcome(states[i]);
+			} catch (IllegalArgumentException e) {
+				Logger.err("error when adding outcome %s: %s", states[i], e.getMessage());
+			}
+		}
+		return bayesNode;
+	}
+
+	private void assignToMember(String nodeTitle, BayesNode bayesNode, List<ICoReMethodName> callNames,
+			List<Integer> callIds) {
+		if (nodeTitle.equals(CLASS_CONTEXT_TITLE)) {
+			classContextNode = bayesNode;
+		} else if (nodeTitle.equals(METHOD_CONTEXT_TITLE)) {
+			methodContextNode = bayesNode;
+		} else if (nodeTitle.equals(DEFINITION_TITLE)) {
+			definitionNode = bayesNode;
+		} else if (nodeTitle.equals(PATTERN_TITLE)) {
+			patternNode = bayesNode;
+		} else if (nodeTitle.startsWith(CALL_PREFIX)) {
+			callNames.add(CoReMethodName.get(nodeTitle.substring(CALL_PREFIX.length())));
+			callIds.add(bayesNode.getId());
+		} else {
+			paramNodeIds.put(nodeTitle, bayesNode.getId());
+		}
+	}
+
+	private void initializeArcs(BayesianNetwork network) {
+		for (Node node : network.getNodes()) {
+			Node[] parents = node.getParents();
+			BayesNode children = bayesNet.getNode(node.getIdentifier());
+			List<BayesNode> bnParents = newArrayList();
+			for (int i = 0; i < parents.length; i++) {
+				String parentTitle = parents[i].getIdentifier();
+				bnParents.add(bayesNet.getNode(parentTitle));
+			}
+			children.setParents(bnParents);
+		}
+	}
+
+	private void initializeProbabilities(BayesianNetwork network) {
+		for (Node node : network.getNodes()) {
+			BayesNode bayesNode = bayesNet.getNode(node.getIdentifier());
+			bayesNode.setProbabilities(node.getProbabilities());
+		}
+	}
+
+	private void indexCalls(List<ICoReMethodName> callNames, List<Integer> callIds) {
+		int numCalls = callNames.size();
+		calls = new ICoReMethodName[numCalls];
+		callNodeIds = new int[numCalls];
+		for (int i = 0; i < numCalls; i++) {
+			calls[i] = callNames.get(i);
+			callNodeIds[i] = callIds.get(i);
+			callIndices.put(calls[i], i);
+		}
+	}
+
+	private void rankCalls() {
+		int numCalls = calls.length;
+		Integer[] byName = new Integer[numCalls];
+		for (int i = 0; i < numCalls; i++) {
+			byName[i] = i;
+		}
+		Arrays.sort(byName, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return calls[a].compareTo(calls[b]);
+			}
+		});
+		callRanks = new int[numCalls];
+		for (int rank = 0; rank < numCalls; rank++) {
+			callRanks[byName[rank]] = rank;
+		}
+	}
+
+	private void compileOutcomes() {
+		addOutcomes(classContextNode, classContexts);
+		addOutcomes(methodContextNode, methodContexts);
+		addOutcomes(definitionNode, definitions);
+		addOutcomes(patternNode, patterns);
+
+		List<BayesNode> nodes = bayesNet.getNodes();
+		trueOutcomes = new int[nodes.size()];
+		for (BayesNode node : nodes) {
+			trueOutcomes[node.getId()] = node.getOutcomes().indexOf(STATE_TRUE);
+		}
+	}
+
+	private static void addOutcomes(BayesNode node, Map<String, Integer> dictionary) {
+		if (node == null) {
+			return;
+		}
+		for (int i = 0; i < node.getOutcomeCount(); i++) {
+			dictionary.put(node.getOutcomeName(i), i);
+		}
+	}
+
+	public void write(File file) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			write(out);
+		}
+	}
+
+	/**
+	 * writes the network, the call ranks and the compiled junction tree, the stream is flushed but not closed. The
+	 * junction tree is omitted for networks with a star topology.
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(FORMAT_VERSION);
+		data.writeBoolean(useDoublePrecision);
+		List<BayesNode> nodes = bayesNet.getNodes();
+		data.writeInt(nodes.size());
+		for (BayesNode node : nodes) {
+			BufferUtils.writeString(data, node.getName());
+			data.writeInt(node.getOutcomeCount());
+			for (String outcome : node.getOutcomes()) {
+				BufferUtils.writeString(data, outcome);
+			}
+			int[] parentIds = new int[node.getParents().size()];
+			for (int i = 0; i < parentIds.length; i++) {
+				parentIds[i] = node.getParents().get(i).getId();
+			}
+			BufferUtils.writeInts(data, parentIds);
+			BufferUtils.writeDoubles(data, node.getProbabilities());
+		}
+		BufferUtils.writeInts(data, callRanks);
+		data.writeBoolean(isJunctionTreeCompiled);
+		if (isJunctionTreeCompiled) {
+			prototype.writeJunctionTree(data);
+		}
+		data.flush();
+	}
+
+	/**
+	 * reads a model that was written with {@link #write(File)}, the file is mapped into memory
+	 */
+	public static CompiledPBNModel read(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			return read(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	public static CompiledPBNModel read(ByteBuffer in) throws IOException {
+		if (in.remaining() < 8 || in.getInt() != MAGIC) {
+			throw new IOException("not a compiled PBN model");
+		}
+		int version = in.getInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("unsupported version of compiled PBN model: " + version);
+		}
+		return new CompiledPBNModel(in);
+	}
+
+	/**
+	 * creates a new inference session that shares this model, sessions are cheap compared to compiling the model
+	 */
+	public PBNQueryEngine newSession() {
+		return new PBNQueryEngine(this);
+	}
+
+	IIndexedBayesInferer newInferer() {
+		if (starPrototype != null) {
+			return starPrototype.copy();
+		}
+		return prototype.copy();
+	}
+
+	public boolean isStarTopology() {
+		return starPrototype != null;
+	}
+
+	int getClassContextIndex(String outcome) {
+		return indexOf(classContexts, outcome);
+	}
+
+	int getMethodContextIndex(String outcome) {
+		return indexOf(methodContexts, outcome);
+	}
+
+	int getDefinitionIndex(String outcome) {
+		return indexOf(definitions, outcome);
+	}
+
+	int getPatternIndex(String outcome) {
+		return indexOf(patterns, outcome);
+	}
+
+	private static int indexOf(Map<String, Integer> dictionary, String outcome) {
+		Integer index = dictionary.get(outcome);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @return node id of the parameter site or -1 if the network does not contain a node with the given title
+	 */
+	int getParameterNodeId(String nodeTitle) {
+		Integer nodeId = paramNodeIds.get(nodeTitle);
+		return nodeId == null ? -1 : nodeId;
+	}
+
+	/**
+	 * @return index of the call or -1 if the network does not contain the call
+	 */
+	int getCallIndex(ICoReMethodName method) {
+		Integer callIndex = callIndices.get(method);
+		return callIndex == null ? -1 : callIndex;
+	}
+
+	int getCallNodeId(int callIndex) {
+		return callNodeIds[callIndex];
+	}
+
+	int getCallRank(int callIndex) {
+		return callRanks[callIndex];
+	}
+
+	int getTrueOutcome(int nodeId) {
+		return trueOutcomes[nodeId];
+	}
+
+	public int getNumCalls() {
+		return calls.length;
+	}
+
+	public ICoReMethodName getCall(int callIndex) {
+		return calls[callIndex];
+	}
+
+	public int getNumPatterns() {
+		return patternNode.getOutcomeCount();
+	}
+
+	public String getPattern(int patternIndex) {
+		return patternNode.getOutcomeName(patternIndex);
+	}
+
+	public boolean isDoublePrecision() {
+		return useDoublePrecision;
+	}
+
+	public BayesNet getBayesNet() {
+		return bayesNet;
+	}
+
+	public BayesNode getPatternNode() {
+		return patternNode;
+	}
+
+	public BayesNode getClassContextNode() {
+		return classContextNode;
+	}
+
+	public BayesNode getMethodContextNode() {
+		return methodContextNode;
+	}
+
+	public BayesNode getDefinitionNode() {
+		return definitionNode;
+	}
+}
@@ -56,6 +56,11 @@ public class PBNMiner extends AbstractPBNMiner<BayesianNetwork> {
 	@Override
 	public ICallsRecommender<Query> createRecommender(List<Usage> in) {
 		BayesianNetwork network = learnModel(in);
-		return new PBNRecommender(network, qOpts);
+		return createRecommenderForModel(network);
+	}
+
+	@Override
+	public ICallsRecommender<Query> createRecommenderForModel(BayesianNetwork model) {
+		return new PBNRecommender(model, qOpts);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.pbn;
+
+import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
+import org.eclipse.recommenders.jayes.BayesNode;
+import org.eclipse.recommenders.jayes.inference.IIndexedBayesInferer;
+import org.eclipse.recommenders.jayes.inference.StarTopologyInferer;
+
+import cc.recommenders.names.ICoReMethodName;
+
+/**
+ * Compiled query path for a pattern-based Bayesian network. Evidence is kept in primitive arrays and the call
+ * probabilities are gathered into a reusable array, so a query does not allocate once the engine is warmed up.
+ *
+ * An engine is a lightweight inference session on top of a {@link CompiledPBNModel}: it only owns the mutable state of
+ * a query (potentials, evidence and beliefs). Sessions are not thread-safe, but any number of sessions can share the
+ * same model. Calls are addressed by a dense index in [0, getNumCalls()). Arrays returned by this class are owned by
+ * the engine and are overwritten by the next query.
+ */
+public class PBNQueryEngine {
+
+	private final CompiledPBNModel model;
+	private final IIndexedBayesInferer inferer;
+	private final StarTopologyInferer starInferer;
+
+	private final boolean[] isCallObserved;
+	private final int[] observedCalls;
+	private int numObservedCalls;
+	private final double[] callProbabilities;
+
+	public PBNQueryEngine(BayesianNetwork network, boolean useDoublePrecision) {
+		this(new CompiledPBNModel(network, useDoublePrecision));
+	}
+
+	public PBNQueryEngine(CompiledPBNModel model) {
+		this.model = model;
+		inferer = model.newInferer();
+		starInferer = inferer instanceof StarTopologyInferer ? (StarTopologyInferer) inferer : null;
+		int numCalls = model.getNumCalls();
+		isCallObserved = new boolean[numCalls];
+		observedCalls = new int[numCalls];
+		callProbabilities = new double[numCalls];
+	}
+
+	public CompiledPBNModel getModel() {
+		return model;
+	}
+
+	public void clearEvidence() {
+		inferer.clearEvidence();
+		for (int i = 0; i < numObservedCalls; i++) {
+			isCallObserved[observedCalls[i]] = false;
+		}
+		numObservedCalls = 0;
+	}
+
+	public boolean observeClassContext(String outcome) {
+		return observe(model.getClassContextNode(), model.getClassContextIndex(outcome));
+	}
+
+	public boolean observeMethodContext(String outcome) {
+		return observe(model.getMethodContextNode(), model.getMethodContextIndex(outcome));
+	}
+
+	public boolean observeDefinition(String outcome) {
+		return observe(model.getDefinitionNode(), model.getDefinitionIndex(outcome));
+	}
+
+	public boolean observePattern(String outcome) {
+		return observe(model.getPatternNode(), model.getPatternIndex(outcome));
+	}
+
+	private boolean observe(BayesNode node, int outcomeIndex) {
+		if (outcomeIndex == -1) {
+			return false;
+		}
+		inferer.addEvidence(node.getId(), outcomeIndex);
+		return true;
+	}
+
+	/**
+	 * @return false if the network does not contain a node with the given title
+	 */
+	public boolean observeParameterSite(String nodeTitle) {
+		int nodeId = model.getParameterNodeId(nodeTitle);
+		if (nodeId == -1 || model.getTrueOutcome(nodeId) == -1) {
+			return false;
+		}
+		inferer.addEvidence(nodeId, model.getTrueOutcome(nodeId));
+		return true;
+	}
+
+	/**
+	 * marks the call as already present, it will be excluded from the proposals
+	 *
+	 * @return index of the call or -1 if the network does not contain the call
+	 */
+	public int observeCall(ICoReMethodName method) {
+		int callIndex = model.getCallIndex(method);
+		if (callIndex == -1) {
+			return -1;
+		}
+		int nodeId = model.getCallNodeId(callIndex);
+		if (model.getTrueOutcome(nodeId) == -1) {
+			return -1;
+		}
+		inferer.addEvidence(nodeId, model.getTrueOutcome(nodeId));
+		if (!isCallObserved[callIndex]) {
+			isCallObserved[callIndex] = true;
+			observedCalls[numObservedCalls++] = callIndex;
+		}
+		return callIndex;
+	}
+
+	public boolean isCallObserved(int callIndex) {
+		return isCallObserved[callIndex];
+	}
+
+	/**
+	 * gathers the probability of the first outcome (STATE_TRUE) of all call nodes in one pass, for star-shaped models
+	 * this is a single matrix-vector product
+	 *
+	 * @return reusable array that is indexed by call index
+	 */
+	public double[] computeCallProbabilities() {
+		if (starInferer != null) {
+			starInferer.getQueryProbabilities(callProbabilities);
+			return callProbabilities;
+		}
+		for (int i = 0; i < callProbabilities.length; i++) {
+			callProbabilities[i] = inferer.getBeliefs(model.getCallNodeId(i))[0];
+		}
+		return callProbabilities;
+	}
+
+	/**
+	 * @return the array that was filled by the last call of {@link #computeCallProbabilities()} or
+	 *         {@link #topCalls(double, int[])}, nothing is recomputed
+	 */
+	public double[] getCallProbabilities() {
+		return callProbabilities;
+	}
+
+	/**
+	 * selects the most probable calls that have not been observed and that have at least the given probability. Ties
+	 * are broken by the natural order of the method names.
+	 *
+	 * @param target
+	 *            receives the selected call indices in descending order of probability, at most target.length
+	 *            entries are written
+	 * @return number of call indices written to target
+	 */
+	public int topCalls(double minProbability, int[] target) {
+		double[] probabilities = computeCallProbabilities();
+		int size = 0;
+		if (target.length == 0) {
+			return size;
+		}
+		for (int i = 0; i < probabilities.length; i++) {
+			if (isCallObserved[i] || probabilities[i] < minProbability) {
+				continue;
+			}
+			if (size == target.length && !isBefore(i, target[size - 1])) {
+				continue;
+			}
+			int pos = size < target.length ? size++ : size - 1;
+			while (pos > 0 && isBefore(i, target[pos - 1])) {
+				target[pos] = target[pos - 1];
+				pos--;
+			}
+			target[pos] = i;
+		}
+		return size;
+	}
+
+	private boolean isBefore(int callA, int callB) {
+		int valueOrdering = Double.compare(callProbabilities[callB], callProbabilities[callA]);
+		if (valueOrdering == 0) {
+			return model.getCallRank(callA) < model.getCallRank(callB);
+		}
+		return valueOrdering < 0;
+	}
+
+	/**
+	 * @return reusable array that is indexed by pattern outcome index
+	 */
+	public double[] computePatternProbabilities() {
+		return inferer.getBeliefs(model.getPatternNode().getId());
+	}
+
+	public double[] getBeliefs(BayesNode node) {
+		return inferer.getBeliefs(node.getId());
+	}
+
+	public int getNumCalls() {
+		return model.getNumCalls();
+	}
+
+	public ICoReMethodName getCall(int callIndex) {
+		return model.getCall(callIndex);
+	}
+
+	public int getNumPatterns() {
+		return model.getNumPatterns();
+	}
+
+	public String getPattern(int patternIndex) {
+		return model.getPattern(patternIndex);
+	}
+}
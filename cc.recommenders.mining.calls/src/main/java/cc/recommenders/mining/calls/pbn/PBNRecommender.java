@@ -15,26 +15,17 @@ import static cc.recommenders.mining.calls.pbn.PBNModelConstants.CALL_PREFIX;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.CLASS_CONTEXT_TITLE;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.DEFINITION_TITLE;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.METHOD_CONTEXT_TITLE;
-import static cc.recommenders.mining.calls.pbn.PBNModelConstants.PATTERN_TITLE;
-import static cc.recommenders.mining.calls.pbn.PBNModelConstants.STATE_TRUE;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newClassContext;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newDefinition;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newMethodContext;
 import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newParameterSite;
-import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Maps.newHashMap;
-import static com.google.common.collect.Sets.newHashSet;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
-import org.eclipse.recommenders.commons.bayesnet.Node;
-import org.eclipse.recommenders.jayes.BayesNet;
 import org.eclipse.recommenders.jayes.BayesNode;
-import org.eclipse.recommenders.jayes.inference.junctionTree.JunctionTreeAlgorithm;
 import org.eclipse.recommenders.jayes.util.NumericalInstabilityException;
 
 import cc.recommenders.datastructures.Tuple;
@@ -44,149 +35,84 @@ import cc.recommenders.mining.calls.ProposalHelper;
 import cc.recommenders.mining.calls.QueryOptions;
 import cc.recommenders.names.ICoReMethodName;
 import cc.recommenders.names.ICoReTypeName;
-import cc.recommenders.names.CoReMethodName;
 import cc.recommenders.usages.CallSite;
 import cc.recommenders.usages.Query;
 
+/**
+ * Recommender for a pattern-based Bayesian network. The compiled network is shared by all queries, each query borrows
+ * an inference session from a pool, so a single recommender can answer concurrent requests.
+ */
 public class PBNRecommender implements ICallsRecommender<Query> {
 
-	private BayesNet bayesNet;
-	private BayesNode patternNode;
-	private BayesNode classContextNode;
-	private BayesNode methodContextNode;
-	private BayesNode definitionNode;
-
-	private Map<ICoReMethodName, BayesNode> callNodes = newHashMap();
-	private Map<String, BayesNode> paramNodes = newHashMap();
-
-	private JunctionTreeAlgorithm junctionTreeAlgorithm;
-	private QueryOptions options;
+	private final CompiledPBNModel model;
+	private final QueryOptions options;
 
-	private Set<ICoReMethodName> queriedMethods = newHashSet();
+	private final Queue<Session> sessions = new ConcurrentLinkedQueue<Session>();
 
 	public PBNRecommender(BayesianNetwork network, QueryOptions options) {
-		this.options = options;
-		initializeNetwork(network);
-	}
-
-	private void initializeNetwork(final BayesianNetwork network) {
-		bayesNet = new BayesNet();
-
-		initializeNodes(network);
-		initializeArcs(network);
-		initializeProbabilities(network);
-
-		junctionTreeAlgorithm = new JunctionTreeAlgorithm();
-		if (!options.useDoublePrecision) {
-			junctionTreeAlgorithm.getFactory().setFloatingPointType(float.class);
-		}
-		junctionTreeAlgorithm.setNetwork(bayesNet);
-	}
-
-	private void initializeNodes(final BayesianNetwork network) {
-		for (final Node node : network.getNodes()) {
-			BayesNode bayesNode = createNodeFrom(node);
-			assignToClassMember(node, bayesNode);
-		}
+		this(new CompiledPBNModel(network, options.useDoublePrecision), options);
 	}
 
-	private BayesNode createNodeFrom(Node node) {
-		BayesNode bayesNode = bayesNet.createNode(node.getIdentifier());
-		String[] states = node.getStates();
-		for (int i = 0; i < states.length; i++) {
-			try {
-				bayesNode.addOutcome(states[i]);
-			} catch (IllegalArgumentException e) {
-				Logger.err("error when adding outcome %s: %s", states[i], e.getMessage());
-			}
-		}
-		return bayesNode;
-	}
-
-	private void assignToClassMember(Node node, BayesNode bayesNode) {
-		String nodeTitle = node.getIdentifier();
-		if (nodeTitle.equals(CLASS_CONTEXT_TITLE)) {
-			classContextNode = bayesNode;
-		} else if (nodeTitle.equals(METHOD_CONTEXT_TITLE)) {
-			methodContextNode = bayesNode;
-		} else if (nodeTitle.equals(DEFINITION_TITLE)) {
-			definitionNode = bayesNode;
-		} else if (nodeTitle.equals(PATTERN_TITLE)) {
-			patternNode = bayesNode;
-		} else if (nodeTitle.startsWith(CALL_PREFIX)) {
-			ICoReMethodName call = CoReMethodName.get(nodeTitle.substring(CALL_PREFIX.length()));
-			callNodes.put(call, bayesNode);
-		} else {
-			paramNodes.put(nodeTitle, bayesNode);
-		}
-	}
-
-	private void initializeArcs(final BayesianNetwork network) {
-		for (final Node node : network.getNodes()) {
-			Node[] parents = node.getParents();
-			BayesNode children = bayesNet.getNode(node.getIdentifier());
-			List<BayesNode> bnParents = newArrayList();
-			for (int i = 0; i < parents.length; i++) {
-				String parentTitle = parents[i].getIdentifier();
-				bnParents.add(bayesNet.getNode(parentTitle));
-			}
-			children.setParents(bnParents);
-		}
+	public PBNRecommender(CompiledPBNModel model, QueryOptions options) {
+		this.model = model;
+		this.options = options;
 	}
 
-	private void initializeProbabilities(final BayesianNetwork network) {
-		for (final Node node : network.getNodes()) {
-			final BayesNode bayesNode = bayesNet.getNode(node.getIdentifier());
-			bayesNode.setProbabilities(node.getProbabilities());
+	private Session borrowSession() {
+		Session session = sessions.poll();
+		if (session == null) {
+			session = new Session(model.newSession());
 		}
+		session.engine.clearEvidence();
+		return session;
 	}
 
-	protected void clearEvidence() {
-		junctionTreeAlgorithm.setEvidence(new HashMap<BayesNode, String>());
-		queriedMethods.clear();
+	private void releaseSession(Session session) {
+		sessions.offer(session);
 	}
 
 	@Override
 	public Set<Tuple<ICoReMethodName, Double>> query(Query u) {
-		clearEvidence();
+		Session session = borrowSession();
+		try {
+			PBNQueryEngine engine = session.engine;
 
-		if (options.useClassContext) {
-			addEvidenceIfAvailableInNetwork(classContextNode, newClassContext(u.getClassContext()));
-		}
-		if (options.useMethodContext) {
-			addEvidenceIfAvailableInNetwork(getMethodContextNode(), newMethodContext(u.getMethodContext()));
-		}
-		if (options.useDefinition) {
-			addEvidenceIfAvailableInNetwork(definitionNode, newDefinition(u.getDefinitionSite()));
-		}
+			if (options.useClassContext) {
+				String outcome = newClassContext(u.getClassContext());
+				if (!engine.observeClassContext(outcome)) {
+					debug("unknown outcome: %s (%s)", outcome, CLASS_CONTEXT_TITLE);
+				}
+			}
+			if (options.useMethodContext) {
+				String outcome = newMethodContext(u.getMethodContext());
+				if (!engine.observeMethodContext(outcome)) {
+					debug("unknown outcome: %s (%s)", outcome, METHOD_CONTEXT_TITLE);
+				}
+			}
+			if (options.useDefinition) {
+				String outcome = newDefinition(u.getDefinitionSite());
+				if (!engine.observeDefinition(outcome)) {
+					debug("unknown outcome: %s (%s)", outcome, DEFINITION_TITLE);
+				}
+			}
 
-		ICoReTypeName type = u.getType();
-		for (CallSite site : u.getAllCallsites()) {
-			markRebasedSite(type, site);
-		}
-		
-		return collectCallProbabilities();
-	}
+			ICoReTypeName type = u.getType();
+			for (CallSite site : u.getAllCallsites()) {
+				markRebasedSite(engine, type, site);
+			}
 
-	private void addEvidenceIfAvailableInNetwork(BayesNode node, String outcome) {
-		if (node.getOutcomes().contains(outcome)) {
-			junctionTreeAlgorithm.addEvidence(node, outcome);
-			// debug("outcome marked '%s'", node.getName());
-		} else {
-			debug("unknown outcome: %s (%s)", outcome, node.getName());
+			return collectCallProbabilities(session);
+		} finally {
+			releaseSession(session);
 		}
 	}
 
-	private void markRebasedSite(ICoReTypeName type, CallSite site) {
+	private void markRebasedSite(PBNQueryEngine engine, ICoReTypeName type, CallSite site) {
 		switch (site.getKind()) {
 		case PARAMETER:
 			if (options.useParameterSites) {
 				String nodeTitle = newParameterSite(site.getMethod(), site.getArgIndex());
-				BayesNode node = paramNodes.get(nodeTitle);
-				if (node != null) {
-					junctionTreeAlgorithm.addEvidence(node, STATE_TRUE);
-					// debug("outcome marked 'parameter'");
-				} else {
+				if (!engine.observeParameterSite(nodeTitle)) {
 					debug("unknown node: %s (%s)", nodeTitle, type);
 				}
 			}
@@ -194,41 +120,25 @@ public class PBNRecommender implements ICallsRecommender<Query> {
 		case RECEIVER:
 			// TODO re-enable rebasing (here and in modelBuilder)
 			// IMethodName rebasedName = rebase(type, site.targetMethod);
-			// BayesNode node = callNodes.get(rebasedName);
 
 			// it is not necessary to call OUMC.newCallSite(...), because the
-			// prefix is already stripped in that map (see
-			// assignToClassMember())
-			BayesNode node = callNodes.get(site.getMethod());
-			if (node != null) {
-				// queriedMethods.add(rebasedName);
-				queriedMethods.add(site.getMethod());
-				junctionTreeAlgorithm.addEvidence(node, STATE_TRUE);
-				// debug("outcome marked 'method call'");
-			} else {
+			// prefix is already stripped in the compiled model
+			if (engine.observeCall(site.getMethod()) == -1) {
 				debug("unknown node: %S%s (%s)", CALL_PREFIX, site.getMethod(), type);
 			}
 			break;
 		}
 	}
 
-	private Set<Tuple<ICoReMethodName, Double>> collectCallProbabilities() {
+	private Set<Tuple<ICoReMethodName, Double>> collectCallProbabilities(Session session) {
 		Set<Tuple<ICoReMethodName, Double>> res = ProposalHelper.createSortedSet();
 		try {
-			for (ICoReMethodName methodName : callNodes.keySet()) {
-				if (!isPartOfQuery(methodName)) {
-					BayesNode node = callNodes.get(methodName);
-					if (node == null) {
-						debug("no node found for %s", methodName);
-					} else {
-						double[] beliefs = junctionTreeAlgorithm.getBeliefs(node);
-						boolean isGreaterOrEqualToMinProbability = beliefs[0] >= options.minProbability;
-						if (isGreaterOrEqualToMinProbability) {
-							Tuple<ICoReMethodName, Double> tuple = newTuple(methodName, beliefs[0]);
-							res.add(tuple);
-						}
-					}
-				}
+			int[] topCalls = session.topCalls;
+			int numProposals = session.engine.topCalls(options.minProbability, topCalls);
+			double[] probabilities = session.engine.getCallProbabilities();
+			for (int i = 0; i < numProposals; i++) {
+				int call = topCalls[i];
+				res.add(newTuple(model.getCall(call), probabilities[call]));
 			}
 		} catch (NumericalInstabilityException e) {
 			Logger.err("NumericalInstabilityException: %s", e.getMessage());
@@ -236,69 +146,81 @@ public class PBNRecommender implements ICallsRecommender<Query> {
 		return res;
 	}
 
-	private boolean isPartOfQuery(ICoReMethodName methodName) {
-		return queriedMethods.contains(methodName);
-	}
-
 	@Override
 	public Set<Tuple<String, Double>> getPatternsWithProbability() {
 		Set<Tuple<String, Double>> res = ProposalHelper.createSortedSet();
-		clearEvidence();
-		double[] beliefs = junctionTreeAlgorithm.getBeliefs(patternNode);
-		for (int i = 0; i < patternNode.getOutcomeCount(); i++) {
-			String outcome = patternNode.getOutcomeName(i);
-			Tuple<String, Double> tuple = newTuple(outcome, beliefs[i]);
-			res.add(tuple);
+		Session session = borrowSession();
+		try {
+			double[] beliefs = session.engine.computePatternProbabilities();
+			for (int i = 0; i < model.getNumPatterns(); i++) {
+				Tuple<String, Double> tuple = newTuple(model.getPattern(i), beliefs[i]);
+				res.add(tuple);
+			}
+		} finally {
+			releaseSession(session);
 		}
 		return res;
 	}
 
 	@Override
 	public Set<Tuple<ICoReMethodName, Double>> queryPattern(String patternName) {
-		clearEvidence();
-		junctionTreeAlgorithm.addEvidence(patternNode, patternName);
-		return collectCallProbabilities();
+		Session session = borrowSession();
+		try {
+			if (!session.engine.observePattern(patternName)) {
+				throw new IllegalArgumentException(patternName + " is not a pattern of this network");
+			}
+			return collectCallProbabilities(session);
+		} finally {
+			releaseSession(session);
+		}
 	}
 
 	@Override
 	public int getSize() {
 		int size = 0;
-		for (BayesNode n : bayesNet.getNodes()) {
+		for (BayesNode n : model.getBayesNet().getNodes()) {
 			int numValues = n.getProbabilities().length;
-			int bytePerValue = options.useDoublePrecision ? 8 : 4;
+			int bytePerValue = model.isDoublePrecision() ? 8 : 4;
 			size += numValues * bytePerValue;
 		}
 		return size;
 	}
-	
-	protected double[] getBeliefs(BayesNode node) {
-		return this.junctionTreeAlgorithm.getBeliefs(node);
+
+	protected CompiledPBNModel getModel() {
+		return this.model;
 	}
-	
 
 	protected BayesNode getClassContextNode() {
-		return this.classContextNode;
+		return model.getClassContextNode();
 	}
-	
+
 	protected BayesNode getDefinitionNode() {
-		return this.definitionNode;
+		return model.getDefinitionNode();
 	}
-	
+
 	protected BayesNode getMethodContextNode() {
-		return this.methodContextNode;
+		return model.getMethodContextNode();
 	}
-	
+
 	protected QueryOptions getOptions() {
 		return this.options;
 	}
-	
+
 	protected BayesNode getPatternNode() {
-		return this.patternNode;
+		return model.getPatternNode();
 	}
-	
 
 	private static void debug(String msg, Object... args) {
 		// Logger.debug(msg, args);
 	}
 
+	private static class Session {
+		private final PBNQueryEngine engine;
+		private final int[] topCalls;
+
+		public Session(PBNQueryEngine engine) {
+			this.engine = engine;
+			topCalls = new int[engine.getNumCalls()];
+		}
+	}
 }
\ No newline at end of file
@@ -58,4 +58,9 @@ public class PBNSmileMiner extends AbstractPBNMiner<Network> {
 	public ICallsRecommender<Query> createRecommender(List<Usage> in) {
 		throw new RuntimeException("not implemented");
 	}
+
+	@Override
+	public ICallsRecommender<Query> createRecommenderForModel(Network model) {
+		throw new RuntimeException("not implemented");
+	}
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.features;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import cc.recommenders.utils.dictionary.Dictionary;
+
+/**
+ * Encodes usages as sorted arrays of distinct dictionary ids. The feature-to-id mapping is held in an open-addressing
+ * table, so encoding neither boxes ids nor allocates anything but the resulting array. Features that are not contained
+ * in the dictionary are skipped. An encoder is immutable and can be shared between threads.
+ */
+public class FeatureEncoder<Feature> {
+
+	private static final int NO_ID = -1;
+
+	private final Dictionary<Feature> dictionary;
+	private final Object[] keys;
+	private final int[] values;
+	private final int mask;
+
+	public FeatureEncoder(Dictionary<Feature> dictionary) {
+		this.dictionary = dictionary;
+		int size = dictionary.size();
+		int capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+		keys = new Object[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		for (int id = 0; id < size; id++) {
+			Feature f = dictionary.getEntry(id);
+			if (f == null) {
+				continue;
+			}
+			int slot = slot(f);
+			if (keys[slot] == null) {
+				keys[slot] = f;
+				values[slot] = id;
+			}
+		}
+	}
+
+	public Dictionary<Feature> getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * @return the dictionary id of the feature or -1 if it is unknown
+	 */
+	public int getId(Feature f) {
+		if (f == null) {
+			return NO_ID;
+		}
+		int slot = slot(f);
+		return keys[slot] == null ? NO_ID : values[slot];
+	}
+
+	public int[] encode(Collection<Feature> usage) {
+		int[] ids = new int[usage.size()];
+		int num = 0;
+		for (Feature f : usage) {
+			int id = getId(f);
+			if (id != NO_ID) {
+				ids[num++] = id;
+			}
+		}
+		return sortedDistinct(ids, num);
+	}
+
+	public int[][] encodeAll(List<List<Feature>> usages) {
+		int[][] encoded = new int[usages.size()][];
+		int i = 0;
+		for (List<Feature> usage : usages) {
+			encoded[i++] = encode(usage);
+		}
+		return encoded;
+	}
+
+	/**
+	 * @return the slot that contains the feature or the empty slot in which it would have to be stored
+	 */
+	private int slot(Object f) {
+		int h = f.hashCode() * 0x9E3779B9;
+		int slot = (h ^ (h >>> 16)) & mask;
+		while (keys[slot] != null && !keys[slot].equals(f)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int[] sortedDistinct(int[] ids, int num) {
+		Arrays.sort(ids, 0, num);
+		int size = 0;
+		for (int i = 0; i < num; i++) {
+			if (size == 0 || ids[i] != ids[size - 1]) {
+				ids[size++] = ids[i];
+			}
+		}
+		return size == ids.length ? ids : Arrays.copyOf(ids, size);
+	}
+}
@@ -29,23 +29,28 @@ public class RareFeatureDropper<Feature> {
 	}
 
 	public Dictionary<Feature> dropRare(Dictionary<Feature> dictionary, List<List<Feature>> usages) {
-		Asserts.assertGreaterThan(usages.size(), 0);
-		Dictionary<Feature> d = new Dictionary<Feature>();
-		Feature last = null;
-
-		for (Feature f : dictionary.getAllEntries()) {
-			int count = 0;
+		return dropRare(dictionary, new FeatureEncoder<Feature>(dictionary).encodeAll(usages));
+	}
 
-			for (List<Feature> usage : usages) {
-				for (Feature uf : usage) {
-					if (f.equals(uf)) {
-						count++;
-						break;
-					}
-				}
+	/**
+	 * @param usages
+	 *            usages that are encoded with a {@link FeatureEncoder} for the given dictionary
+	 */
+	public Dictionary<Feature> dropRare(Dictionary<Feature> dictionary, int[][] usages) {
+		Asserts.assertGreaterThan(usages.length, 0);
+		int[] counts = new int[dictionary.size()];
+		for (int[] usage : usages) {
+			for (int id : usage) {
+				counts[id]++;
 			}
+		}
+
+		Dictionary<Feature> d = new Dictionary<Feature>();
+		Feature last = null;
 
-			if (count >= threshold) {
+		for (int id = 0; id < counts.length; id++) {
+			Feature f = dictionary.getEntry(id);
+			if (counts[id] >= threshold) {
 				d.add(f);
 			}
 			last = f;
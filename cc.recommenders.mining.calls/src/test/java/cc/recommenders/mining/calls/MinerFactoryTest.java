@@ -42,16 +42,16 @@ public class MinerFactoryTest {
 	@Test
 	public void bmn() {
 		mOpts.setAlgorithm(Algorithm.BMN);
-		Miner<Usage, Query> actual = sut.get();
-		Miner<Usage, Query> expected = bmnMiner;
+		Miner<Usage, Query, ?> actual = sut.get();
+		Miner<Usage, Query, ?> expected = bmnMiner;
 		assertEquals(expected, actual);
 	}
 
 	@Test
 	public void pbn() {
 		mOpts.setAlgorithm(Algorithm.CANOPY);
-		Miner<Usage, Query> actual = sut.get();
-		Miner<Usage, Query> expected = pbnMiner;
+		Miner<Usage, Query, ?> actual = sut.get();
+		Miner<Usage, Query, ?> expected = pbnMiner;
 		assertEquals(expected, actual);
 	}
 
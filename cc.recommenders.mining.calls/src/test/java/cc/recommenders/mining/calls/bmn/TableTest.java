@@ -18,6 +18,8 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -186,6 +188,93 @@ public class TableTest {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void rowsAreDeduplicatedAcrossGrowth() {
+		sut = new Table(110);
+		for (int i = 0; i < 900; i++) {
+			sut.add(row(110, i % 100, 100 + i % 6));
+		}
+
+		assertEquals(300, sut.getNumOfRows());
+		for (int freq : sut.getRowFrequencies()) {
+			assertEquals(3, freq);
+		}
+		assertTrue(sut.isSet(0, 0));
+		assertTrue(sut.isSet(0, 100));
+		assertFalse(sut.isSet(0, 101));
+	}
+
+	@Test
+	public void packedAndUnpackedRowsAreEquivalent() {
+		boolean[] row = row(130, 1, 63, 64, 129);
+
+		Table a = new Table(130);
+		a.add(row);
+		Table b = new Table(130);
+		b.add(Table.pack(row));
+
+		assertEquals(a, b);
+		assertArrayEquals(new boolean[][] { row }, b.getBMNTable());
+	}
+
+	@Test(expected = AssertionException.class)
+	public void packedRowsMustHaveTheRightNumberOfWords() {
+		sut = new Table(65);
+		sut.add(new long[1]);
+	}
+
+	@Test
+	public void nearestNeighbors() {
+		sut = new Table(3);
+		sut.add(_(1, 0, 1));
+		sut.add(_(1, 1, 1));
+		sut.add(_(0, 0, 1));
+		sut.add(_(1, 0, 0));
+
+		// 1, 0, ?
+		int[] actual = sut.findNearestNeighbors(Table.pack(_(1, 0, 0)), Table.pack(_(0, 1, 0)));
+		assertArrayEquals(new int[] { 0, 3 }, actual);
+	}
+
+	@Test
+	public void nearestNeighborsOfEmptyTable() {
+		sut = new Table(3);
+		assertArrayEquals(new int[0], sut.findNearestNeighbors(new long[1], new long[1]));
+	}
+
+	@Test
+	public void parallelScanFindsSameNeighbors() {
+		Random rnd = new Random(1);
+		sut = new Table(100);
+		for (int i = 0; i < 20000; i++) {
+			boolean[] row = new boolean[100];
+			for (int col = 0; col < row.length; col++) {
+				row[col] = rnd.nextInt(4) == 0;
+			}
+			sut.add(row);
+		}
+		long[] setMask = Table.pack(row(100, 3, 70, 99));
+		long[] unsetMask = Table.pack(row(100, 0, 1, 2, 64, 65));
+
+		int[] expected = sut.findNearestNeighbors(setMask, unsetMask, false);
+		int[] actual = sut.findNearestNeighbors(setMask, unsetMask, true);
+
+		assertArrayEquals(expected, actual);
+		assertTrue(expected.length > 1);
+	}
+
+	@Test
+	public void columnsAreCounted() {
+		sut = new Table(3);
+		sut.add(_(1, 0, 1));
+		sut.add(_(1, 0, 1));
+		sut.add(_(0, 1, 1));
+		sut.add(_(1, 1, 0));
+
+		int[] actual = sut.countColumns(new int[] { 0, 1, 2 }, Table.pack(_(0, 1, 1)));
+		assertArrayEquals(new int[] { 0, 2, 3 }, actual);
+	}
+
 	private static Table createTable(int numRows, int numFeatures) {
 		int[] freqs = new int[numRows];
 		boolean[][] arr = new boolean[numRows][];
@@ -195,6 +284,14 @@ public class TableTest {
 		return new Table(arr, freqs);
 	}
 
+	private static boolean[] row(int numCols, int... setCols) {
+		boolean[] res = new boolean[numCols];
+		for (int col : setCols) {
+			res[col] = true;
+		}
+		return res;
+	}
+
 	private static boolean[] _(int... values) {
 		boolean[] res = new boolean[values.length];
 		for (int i = 0; i < values.length; i++) {
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.clustering;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.mahout.clustering.canopy.Canopy;
+import org.apache.mahout.clustering.canopy.CanopyClusterer;
+import org.apache.mahout.clustering.kmeans.KMeansClusterer;
+import org.apache.mahout.common.distance.CosineDistanceMeasure;
+import org.apache.mahout.common.distance.DistanceMeasure;
+import org.apache.mahout.common.distance.EuclideanDistanceMeasure;
+import org.apache.mahout.common.distance.ManhattanDistanceMeasure;
+import org.apache.mahout.math.Vector;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import cc.recommenders.utils.dictionary.Dictionary;
+
+public class ClusteringEngineTest {
+
+	private static final int NUM_FEATURES = 30;
+	private static final double DELTA = 0.000001;
+
+	private Dictionary<String> dictionary;
+	private VectorBuilder<String> vectorBuilder;
+
+	@Before
+	public void setup() {
+		dictionary = new Dictionary<String>();
+		for (int i = 0; i < NUM_FEATURES; i++) {
+			dictionary.add("f" + i);
+		}
+		vectorBuilder = new VectorBuilder<String>(new FeatureWeighter<String>() {
+			@Override
+			public double getWeight(String f) {
+				return f.hashCode() % 2 == 0 ? 1.0 : 0.5;
+			}
+
+			@Override
+			public double getUnweighted(String f, double value) {
+				return value / getWeight(f);
+			}
+		});
+	}
+
+	@Test
+	public void canopyIsEquivalentToMahout_manhattan() {
+		assertCanopiesAsInMahout(new ManhattanDistanceMeasure(), 200, 3.0, 1.5);
+	}
+
+	@Test
+	public void canopyIsEquivalentToMahout_cosine() {
+		assertCanopiesAsInMahout(new CosineDistanceMeasure(), 200, 0.3, 0.15);
+	}
+
+	@Test
+	public void canopyIsEquivalentToMahout_otherMeasures() {
+		assertCanopiesAsInMahout(new EuclideanDistanceMeasure(), 100, 1.5, 0.8);
+	}
+
+	@Test
+	public void canopyIsEquivalentToMahout_parallel() {
+		assertCanopiesAsInMahout(new ManhattanDistanceMeasure(), 3000, 3.0, 1.5);
+	}
+
+	@Test
+	public void kmeansIsEquivalentToMahout_manhattan() {
+		assertKmeansAsInMahout(new ManhattanDistanceMeasure(), 200);
+	}
+
+	@Test
+	public void kmeansIsEquivalentToMahout_cosine() {
+		assertKmeansAsInMahout(new CosineDistanceMeasure(), 200);
+	}
+
+	@Test
+	public void kmeansIsEquivalentToMahout_parallel() {
+		assertKmeansAsInMahout(new CosineDistanceMeasure(), 3000);
+	}
+
+	@Test
+	public void mahoutMeasuresAreNotCalledConcurrently() {
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		DistanceMeasure measure = new EuclideanDistanceMeasure() {
+			@Override
+			public double distance(Vector v1, Vector v2) {
+				threads.add(Thread.currentThread());
+				return super.distance(v1, v2);
+			}
+		};
+		UsageMatrix points = vectorBuilder.buildMatrix(createUsages(3000, 1), dictionary);
+		ClusteringEngine sut = new ClusteringEngine(ClusteringDistance.of(measure));
+
+		sut.canopy(points, 1.5, 0.8);
+
+		assertEquals(Sets.newHashSet(Thread.currentThread()), threads);
+	}
+
+	@Test
+	public void ownDistancesAreThreadSafe() {
+		assertTrue(ClusteringDistance.of(new ManhattanDistanceMeasure()).isThreadSafe());
+		assertTrue(ClusteringDistance.of(new CosineDistanceMeasure()).isThreadSafe());
+		assertFalse(ClusteringDistance.of(new EuclideanDistanceMeasure()).isThreadSafe());
+	}
+
+	@Test
+	public void seedingIsReproducible() {
+		UsageMatrix points = vectorBuilder.buildMatrix(createUsages(500, 1), dictionary);
+		ClusteringEngine sut = new ClusteringEngine(ClusteringDistance.of(new ManhattanDistanceMeasure()));
+
+		List<double[]> a = sut.seedCenters(points, 5, new Random(3));
+		List<double[]> b = sut.seedCenters(points, 5, new Random(3));
+
+		assertEquals(5, a.size());
+		for (int i = 0; i < a.size(); i++) {
+			assertArrayEquals(a.get(i), b.get(i), 0.0);
+		}
+	}
+
+	@Test
+	public void seedingPrefersDistantPoints() {
+		List<List<String>> usages = Lists.newArrayList();
+		for (int i = 0; i < 50; i++) {
+			usages.add(Lists.newArrayList("f0", "f2"));
+		}
+		usages.add(Lists.newArrayList("f4", "f6"));
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
+		ClusteringEngine sut = new ClusteringEngine(ClusteringDistance.of(new ManhattanDistanceMeasure()));
+
+		List<double[]> centers = sut.seedCenters(points, 2, new Random(1));
+
+		assertNotEquals(centers.get(0)[0], centers.get(1)[0], 0.0);
+	}
+
+	@Test
+	public void seedingWithTooFewDistinctPoints() {
+		List<List<String>> usages = Lists.newArrayList();
+		usages.add(Lists.newArrayList("f0"));
+		usages.add(Lists.newArrayList("f0"));
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
+		ClusteringEngine sut = new ClusteringEngine(ClusteringDistance.of(new ManhattanDistanceMeasure()));
+
+		List<double[]> centers = sut.seedCenters(points, 3, new Random(1));
+
+		assertEquals(3, centers.size());
+		List<Cluster> clusters = sut.kmeans(points, centers, 5, 0.01);
+		assertEquals(2, clusters.get(0).getNumPoints());
+		assertEquals(0, clusters.get(1).getNumPoints());
+	}
+
+	private void assertCanopiesAsInMahout(DistanceMeasure measure, int numUsages, double t1, double t2) {
+		List<List<String>> usages = createUsages(numUsages, 42);
+		List<Vector> vectors = vectorBuilder.build(usages, dictionary);
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
+
+		List<Canopy> expecteds = CanopyClusterer.createCanopies(vectors, measure, t1, t2);
+		List<Cluster> actuals = new ClusteringEngine(ClusteringDistance.of(measure)).canopy(points, t1, t2);
+
+		assertEquals(expecteds.size(), actuals.size());
+		for (int i = 0; i < expecteds.size(); i++) {
+			assertEquals(expecteds.get(i).getNumPoints(), actuals.get(i).getNumPoints());
+			assertCenter(expecteds.get(i).computeCentroid(), actuals.get(i).getCenter());
+		}
+	}
+
+	private void assertKmeansAsInMahout(DistanceMeasure measure, int numUsages) {
+		List<List<String>> usages = createUsages(numUsages, 7);
+		List<Vector> vectors = vectorBuilder.build(usages, dictionary);
+		UsageMatrix points = vectorBuilder.buildMatrix(usages, dictionary);
+		ClusteringEngine sut = new ClusteringEngine(ClusteringDistance.of(measure));
+
+		List<double[]> centers = sut.seedCenters(points, 6, new Random(5));
+		List<org.apache.mahout.clustering.kmeans.Cluster> initial = Lists.newArrayList();
+		for (double[] center : centers) {
+			initial.add(new org.apache.mahout.clustering.kmeans.Cluster(
+					new org.apache.mahout.math.DenseVector(center), initial.size(), measure));
+		}
+
+		List<List<org.apache.mahout.clustering.kmeans.Cluster>> iterations = KMeansClusterer.clusterPoints(vectors,
+				initial, measure, 10, 0.001);
+		List<org.apache.mahout.clustering.kmeans.Cluster> expecteds = iterations.get(iterations.size() - 1);
+		List<Cluster> actuals = sut.kmeans(points, centers, 10, 0.001);
+
+		assertEquals(expecteds.size(), actuals.size());
+		for (int i = 0; i < expecteds.size(); i++) {
+			assertEquals(expecteds.get(i).getNumPoints(), actuals.get(i).getNumPoints());
+			assertCenter(expecteds.get(i).computeCentroid(), actuals.get(i).getCenter());
+		}
+	}
+
+	private static void assertCenter(Vector expected, double[] actual) {
+		assertEquals(expected.size(), actual.length);
+		for (int i = 0; i < actual.length; i++) {
+			assertEquals(expected.get(i), actual[i], DELTA);
+		}
+	}
+
+	/**
+	 * usages are derived from a few prototypes, some features are randomly added or removed
+	 */
+	private static List<List<String>> createUsages(int num, long seed) {
+		Random rnd = new Random(seed);
+		int[][] prototypes = { { 0, 1, 2 }, { 3, 4, 5, 6 }, { 7, 8 }, { 0, 9, 10, 11, 12 } };
+		List<List<String>> usages = Lists.newArrayList();
+		for (int i = 0; i < num; i++) {
+			List<String> usage = Lists.newArrayList();
+			for (int f : prototypes[rnd.nextInt(prototypes.length)]) {
+				if (rnd.nextInt(10) != 0) {
+					usage.add("f" + f);
+				}
+			}
+			if (rnd.nextInt(3) == 0) {
+				usage.add("f" + rnd.nextInt(NUM_FEATURES));
+			}
+			usages.add(usage);
+		}
+		return usages;
+	}
+}
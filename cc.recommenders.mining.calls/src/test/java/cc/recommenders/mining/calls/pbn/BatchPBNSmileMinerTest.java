@@ -17,6 +17,12 @@ package cc.recommenders.mining.calls.pbn;
 
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -24,9 +30,11 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -35,6 +43,7 @@ import com.google.common.collect.Sets;
 
 import cc.recommenders.io.Directory;
 import cc.recommenders.io.IoUtils;
+import cc.recommenders.io.Logger;
 import cc.recommenders.io.NestedZipFolders;
 import cc.recommenders.io.WritingArchive;
 import cc.recommenders.mining.calls.MiningOptions;
@@ -112,6 +121,127 @@ public class BatchPBNSmileMinerTest {
 		verify(writingArchive).close();
 	}
 
+	@Test
+	public void progressIsRecorded() throws IOException {
+		sut.run(usageDir, modelDir);
+		verify(modelDir).appendContent("Lp/T\n", BatchPBNSmileMiner.PROGRESS_FILE);
+	}
+
+	@Test
+	public void typesWithoutUsagesAreRecorded() throws IOException {
+		when(usageDir.readAllZips(type, Usage.class)).thenReturn(Lists.newLinkedList());
+		sut.run(usageDir, modelDir);
+		verify(modelDir).appendContent("Lp/T\n", BatchPBNSmileMiner.PROGRESS_FILE);
+	}
+
+	@Test
+	public void processedTypesAreSkipped() throws IOException {
+		when(modelDir.exists(BatchPBNSmileMiner.PROGRESS_FILE)).thenReturn(true);
+		when(modelDir.readContent(BatchPBNSmileMiner.PROGRESS_FILE)).thenReturn("Lp/T\n");
+
+		sut.run(usageDir, modelDir);
+
+		verify(usageDir).findKeys();
+		verifyNoMoreInteractions(usageDir);
+		verify(modelDir, never()).getWritingArchive(anyString());
+	}
+
+	@Test
+	public void unfinishedModelsAreReplaced() throws IOException {
+		when(modelDir.exists("nestedname.zip")).thenReturn(true);
+
+		sut.run(usageDir, modelDir);
+
+		InOrder order = inOrder(modelDir, writingArchive);
+		order.verify(modelDir).delete("nestedname.zip");
+		order.verify(modelDir).getWritingArchive("nestedname.zip");
+		order.verify(writingArchive).close();
+		order.verify(modelDir).appendContent("Lp/T\n", BatchPBNSmileMiner.PROGRESS_FILE);
+	}
+
+	@Test
+	public void newModelsDoNotDeleteAnything() throws IOException {
+		sut.run(usageDir, modelDir);
+		verify(modelDir, never()).delete(anyString());
+	}
+
+	@Test
+	public void typesAreMinedInParallel() throws IOException {
+		Set<ICoReTypeName> types = Sets.newHashSet();
+		for (int i = 0; i < 20; i++) {
+			ICoReTypeName t = CoReTypeName.get("Lp/T" + i);
+			types.add(t);
+			when(usageDir.readAllZips(t, Usage.class)).thenReturn(usages);
+			when(io.toNestedFileName(t, "zip")).thenReturn(i + ".zip");
+			when(io.toFlatFileName(t, "xdsl")).thenReturn(i + ".xdsl");
+		}
+		when(usageDir.findKeys()).thenReturn(types);
+
+		sut = new BatchPBNSmileMiner(smileUtils, io, () -> miner, new MiningOptions(), new QueryOptions(), 4);
+		sut.run(usageDir, modelDir);
+
+		verify(miner, times(20)).learnModel(usages);
+		for (int i = 0; i < 20; i++) {
+			verify(modelDir).getWritingArchive(i + ".zip");
+			verify(writingArchive).addPlain("XYZ", i + ".xdsl");
+			verify(modelDir).appendContent("Lp/T" + i + "\n", BatchPBNSmileMiner.PROGRESS_FILE);
+		}
+	}
+
+	@Test
+	public void logOfConcurrentTypesIsNotInterleaved() throws IOException {
+		Set<ICoReTypeName> types = Sets.newHashSet();
+		for (int i = 0; i < 10; i++) {
+			ICoReTypeName t = CoReTypeName.get("Lp/T" + i);
+			types.add(t);
+			when(usageDir.readAllZips(t, Usage.class)).thenReturn(usages);
+		}
+		when(usageDir.findKeys()).thenReturn(types);
+		when(usages.size()).thenReturn(3);
+		when(smileUtils.getNumPatterns(network)).thenReturn(2);
+
+		Logger.reset();
+		Logger.setCapturing(true);
+		try {
+			sut = new BatchPBNSmileMiner(smileUtils, io, () -> miner, new MiningOptions(), new QueryOptions(), 4);
+			sut.run(usageDir, modelDir);
+
+			List<String> log = Logger.getCapturedLog();
+			int numTypes = 0;
+			for (int i = 0; i < log.size(); i++) {
+				if (log.get(i).matches("(?s).*    Lp/T\\d+")) {
+					numTypes++;
+					assertTrue(log.get(i + 1).endsWith("\t\t3 usages"));
+					assertEquals(" --> 2 patterns", log.get(i + 2));
+				}
+			}
+			assertEquals(10, numTypes);
+		} finally {
+			Logger.reset();
+		}
+	}
+
+	@Test
+	public void failuresDoNotStopOtherTypes() throws IOException {
+		ICoReTypeName other = CoReTypeName.get("Lp/U");
+		@SuppressWarnings("unchecked")
+		List<Usage> otherUsages = mock(List.class);
+		when(usageDir.findKeys()).thenReturn(Sets.newHashSet(type, other));
+		when(usageDir.readAllZips(other, Usage.class)).thenReturn(otherUsages);
+		when(miner.learnModel(otherUsages)).thenThrow(new IllegalStateException("xyz"));
+
+		try {
+			sut.run(usageDir, modelDir);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("xyz", e.getMessage());
+		}
+
+		verify(writingArchive).addPlain("XYZ", "flatname.xdsl");
+		verify(modelDir).appendContent("Lp/T\n", BatchPBNSmileMiner.PROGRESS_FILE);
+		verify(modelDir, never()).appendContent("Lp/U\n", BatchPBNSmileMiner.PROGRESS_FILE);
+	}
+
 	@Test
 	public void noUsages() throws IOException {
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.pbn;
+
+import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.createNonStarNetwork;
+import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.createSampleNetwork;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cc.recommenders.names.CoReMethodName;
+
+public class CompiledPBNModelTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void writtenModelCanBeRead() throws IOException {
+		CompiledPBNModel expected = new CompiledPBNModel(createSampleNetwork(), true);
+		File file = tmp.newFile("model.pbn");
+		expected.write(file);
+
+		CompiledPBNModel actual = CompiledPBNModel.read(file);
+
+		assertEquals(expected.getNumCalls(), actual.getNumCalls());
+		for (int i = 0; i < expected.getNumCalls(); i++) {
+			assertEquals(expected.getCall(i), actual.getCall(i));
+			assertEquals(expected.getCallRank(i), actual.getCallRank(i));
+		}
+		assertEquals(expected.getNumPatterns(), actual.getNumPatterns());
+		for (int i = 0; i < expected.getNumPatterns(); i++) {
+			assertEquals(expected.getPattern(i), actual.getPattern(i));
+		}
+		assertEquals(expected.getClassContextNode().getOutcomes(), actual.getClassContextNode().getOutcomes());
+		assertEquals(expected.getMethodContextNode().getOutcomes(), actual.getMethodContextNode().getOutcomes());
+		assertEquals(expected.getDefinitionNode().getOutcomes(), actual.getDefinitionNode().getOutcomes());
+		assertTrue(actual.isDoublePrecision());
+	}
+
+	@Test
+	public void readModelGivesSameProbabilities() throws IOException {
+		CompiledPBNModel model = new CompiledPBNModel(createSampleNetwork(), true);
+		PBNQueryEngine expected = model.newSession();
+		PBNQueryEngine actual = CompiledPBNModel.read(writeToBuffer(model)).newSession();
+
+		assertProbabilities(expected, actual);
+
+		expected.observeClassContext("LC1");
+		actual.observeClassContext("LC1");
+		assertProbabilities(expected, actual);
+
+		expected.observeCall(CoReMethodName.get("LC.m1()V"));
+		actual.observeCall(CoReMethodName.get("LC.m1()V"));
+		assertProbabilities(expected, actual);
+
+		expected.clearEvidence();
+		actual.clearEvidence();
+		expected.observePattern("p2");
+		actual.observePattern("p2");
+		assertProbabilities(expected, actual);
+	}
+
+	@Test
+	public void floatPrecisionIsKept() throws IOException {
+		CompiledPBNModel model = new CompiledPBNModel(createSampleNetwork(), false);
+		CompiledPBNModel actual = CompiledPBNModel.read(writeToBuffer(model));
+
+		assertFalse(actual.isDoublePrecision());
+		PBNQueryEngine expectedSession = model.newSession();
+		PBNQueryEngine actualSession = actual.newSession();
+		expectedSession.observePattern("p1");
+		actualSession.observePattern("p1");
+		assertProbabilities(expectedSession, actualSession);
+	}
+
+	@Test
+	public void floatPrecisionUsesTheJunctionTree() {
+		assertTrue(new CompiledPBNModel(createSampleNetwork(), true).isStarTopology());
+		assertFalse(new CompiledPBNModel(createSampleNetwork(), false).isStarTopology());
+	}
+
+	@Test
+	public void modelsWithoutStarTopologyAreRestored() throws IOException {
+		CompiledPBNModel model = new CompiledPBNModel(createNonStarNetwork(), true);
+		CompiledPBNModel actual = CompiledPBNModel.read(writeToBuffer(model));
+
+		assertFalse(actual.isStarTopology());
+		PBNQueryEngine expectedSession = model.newSession();
+		PBNQueryEngine actualSession = actual.newSession();
+		expectedSession.observeClassContext("LC2");
+		actualSession.observeClassContext("LC2");
+		assertProbabilities(expectedSession, actualSession);
+	}
+
+	@Test(expected = IOException.class)
+	public void otherFilesAreRejected() throws IOException {
+		File file = tmp.newFile("model.pbn");
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		out.close();
+		CompiledPBNModel.read(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void otherVersionsAreRejected() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		buffer.putInt(0x50424e43).putInt(2).flip();
+		CompiledPBNModel.read(buffer);
+	}
+
+	@Test(expected = IOException.class)
+	public void emptyFilesAreRejected() throws IOException {
+		CompiledPBNModel.read(tmp.newFile("model.pbn"));
+	}
+
+	private static ByteBuffer writeToBuffer(CompiledPBNModel model) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		model.write(out);
+		return ByteBuffer.wrap(out.toByteArray());
+	}
+
+	private static void assertProbabilities(PBNQueryEngine expected, PBNQueryEngine actual) {
+		assertArrayEquals(expected.computeCallProbabilities(), actual.computeCallProbabilities(), 0.000001);
+		assertArrayEquals(expected.computePatternProbabilities(), actual.computePatternProbabilities(), 0.000001);
+	}
+}
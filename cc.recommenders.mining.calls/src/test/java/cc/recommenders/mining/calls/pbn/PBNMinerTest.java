@@ -11,6 +11,7 @@
 package cc.recommenders.mining.calls.pbn;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -23,6 +24,7 @@ import java.util.List;
 import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import cc.recommenders.mining.calls.DictionaryBuilder;
 import cc.recommenders.mining.calls.MiningOptions;
@@ -96,11 +98,11 @@ public class PBNMinerTest {
 		when(extractor.extract(eq(usages))).thenReturn(features);
 
 		when(patternFinderFactory.createPatternFinder()).thenReturn(patternFinder);
-		when(patternFinder.find(eq(features), any(Dictionary.class))).thenReturn(patterns);
+		when(patternFinder.find(any(int[][].class), any(Dictionary.class))).thenReturn(patterns);
 
 		when(modelBuilder.build(eq(patterns), any(Dictionary.class))).thenReturn(network);
 
-		when(rareFeatureDropper.dropRare(any(Dictionary.class), eq(features))).thenReturn(filteredDictionary);
+		when(rareFeatureDropper.dropRare(any(Dictionary.class), any(int[][].class))).thenReturn(filteredDictionary);
 
 		sut = new PBNMiner(extractor, dictionaryBuilder, patternFinderFactory, modelBuilder, queryOptions,
 				miningOptions, rareFeatureDropper, featurePred);
@@ -127,9 +129,12 @@ public class PBNMinerTest {
 	}
 
 	@Test
-	public void patternsAreCreatedWithVectorsAndDictionary() {
+	public void patternsAreCreatedWithEncodedUsagesAndDictionary() {
+		features.add(newArrayList(dictionary.getEntry(2), dictionary.getEntry(0)));
 		sut.learnModel(usages);
-		verify(patternFinder).find(features, dictionary);
+		ArgumentCaptor<int[][]> captor = ArgumentCaptor.forClass(int[][].class);
+		verify(patternFinder).find(captor.capture(), eq(dictionary));
+		assertArrayEquals(new int[][] { { 0, 2 } }, captor.getValue());
 	}
 
 	@Test
@@ -153,4 +158,14 @@ public class PBNMinerTest {
 		BayesianNetwork expected = network;
 		assertSame(expected, actual);
 	}
+
+	@Test
+	public void encodedUsagesArePassedToFeatureDropper() {
+		miningOptions.setFeatureDropping(true);
+		features.add(newArrayList(dictionary.getEntry(3), dictionary.getEntry(2)));
+		sut.learnModel(usages);
+		ArgumentCaptor<int[][]> captor = ArgumentCaptor.forClass(int[][].class);
+		verify(rareFeatureDropper).dropRare(eq(dictionary), captor.capture());
+		assertArrayEquals(new int[][] { { 2, 3 } }, captor.getValue());
+	}
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.calls.pbn;
+
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newCallSite;
+import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.createNonStarNetwork;
+import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.createSampleNetwork;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.recommenders.jayes.BayesNode;
+import org.eclipse.recommenders.jayes.inference.junctionTree.JunctionTreeAlgorithm;
+import org.junit.Before;
+import org.junit.Test;
+
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.ICoReMethodName;
+
+public class PBNQueryEngineTest {
+
+	private static final ICoReMethodName M1 = CoReMethodName.get("LC.m1()V");
+	private static final ICoReMethodName M2 = CoReMethodName.get("LC.m2()V");
+	private static final ICoReMethodName M3 = CoReMethodName.get("LC.m3()V");
+
+	private PBNQueryEngine sut;
+
+	@Before
+	public void setup() {
+		sut = new PBNQueryEngine(createSampleNetwork(), true);
+	}
+
+	@Test
+	public void callsAreIndexed() {
+		assertEquals(3, sut.getNumCalls());
+		for (int i = 0; i < sut.getNumCalls(); i++) {
+			assertEquals(i, sut.observeCall(sut.getCall(i)));
+		}
+	}
+
+	@Test
+	public void unknownOutcomesAreNotObserved() {
+		assertFalse(sut.observeClassContext("LUnknown"));
+		assertFalse(sut.observeMethodContext("LUnknown.m()V"));
+		assertFalse(sut.observeDefinition("UNKNOWN"));
+		assertFalse(sut.observePattern("p3"));
+		assertFalse(sut.observeParameterSite("P_LUnknown.m(LC;)V#1"));
+		assertEquals(-1, sut.observeCall(CoReMethodName.get("LC.unknown()V")));
+	}
+
+	@Test
+	public void knownOutcomesAreObserved() {
+		assertTrue(sut.observeClassContext("LC1"));
+		assertTrue(sut.observeMethodContext("LC1.m1()V"));
+		assertTrue(sut.observeDefinition("CONSTANT"));
+		assertTrue(sut.observePattern("p1"));
+		assertTrue(sut.observeParameterSite("P_LSomeClassWithParams.m1(LC;)V#2"));
+	}
+
+	@Test
+	public void callProbabilitiesAreGatheredIntoReusableArray() {
+		sut.observePattern("p2");
+		double[] a = sut.computeCallProbabilities();
+		assertEquals(0.1, a[indexOf(M1)], 0.001);
+		assertEquals(0.2, a[indexOf(M2)], 0.001);
+		assertEquals(0.25, a[indexOf(M3)], 0.001);
+
+		sut.clearEvidence();
+		double[] b = sut.computeCallProbabilities();
+		assertSame(a, b);
+	}
+
+	@Test
+	public void topCallsAreSortedByProbability() {
+		sut.observePattern("p2");
+		int[] target = new int[3];
+		int num = sut.topCalls(0, target);
+		assertEquals(3, num);
+		assertEquals(M3, sut.getCall(target[0]));
+		assertEquals(M2, sut.getCall(target[1]));
+		assertEquals(M1, sut.getCall(target[2]));
+	}
+
+	@Test
+	public void topCallsFillTheCallProbabilities() {
+		sut.observePattern("p2");
+		sut.topCalls(0, new int[3]);
+		double[] actual = sut.getCallProbabilities();
+		assertEquals(0.1, actual[indexOf(M1)], 0.001);
+		assertEquals(0.2, actual[indexOf(M2)], 0.001);
+		assertEquals(0.25, actual[indexOf(M3)], 0.001);
+		assertSame(sut.computeCallProbabilities(), actual);
+	}
+
+	@Test
+	public void topCallsAreLimitedByTargetSize() {
+		sut.observePattern("p2");
+		int[] target = new int[2];
+		int num = sut.topCalls(0, target);
+		assertEquals(2, num);
+		assertEquals(M3, sut.getCall(target[0]));
+		assertEquals(M2, sut.getCall(target[1]));
+	}
+
+	@Test
+	public void topCallsRespectMinProbability() {
+		sut.observePattern("p2");
+		int[] target = new int[3];
+		int num = sut.topCalls(0.15, target);
+		assertEquals(2, num);
+		assertEquals(M3, sut.getCall(target[0]));
+		assertEquals(M2, sut.getCall(target[1]));
+	}
+
+	@Test
+	public void observedCallsAreExcluded() {
+		sut.observePattern("p2");
+		sut.observeCall(M3);
+		assertTrue(sut.isCallObserved(indexOf(M3)));
+		int[] target = new int[3];
+		int num = sut.topCalls(0, target);
+		assertEquals(2, num);
+		assertEquals(M2, sut.getCall(target[0]));
+		assertEquals(M1, sut.getCall(target[1]));
+	}
+
+	@Test
+	public void clearingEvidenceResetsObservedCalls() {
+		sut.observeCall(M3);
+		sut.clearEvidence();
+		assertFalse(sut.isCallObserved(indexOf(M3)));
+		assertEquals(3, sut.topCalls(0, new int[3]));
+	}
+
+	@Test
+	public void emptyTarget() {
+		assertEquals(0, sut.topCalls(0, new int[0]));
+	}
+
+	@Test
+	public void patternProbabilities() {
+		double[] actual = sut.computePatternProbabilities();
+		assertEquals(2, sut.getNumPatterns());
+		assertEquals("p1", sut.getPattern(0));
+		assertEquals(0.4, actual[0], 0.001);
+		assertEquals("p2", sut.getPattern(1));
+		assertEquals(0.6, actual[1], 0.001);
+	}
+
+	@Test
+	public void evidenceIsReplacedOnRequery() {
+		sut.observePattern("p1");
+		sut.clearEvidence();
+		sut.observePattern("p2");
+		double[] actual = sut.computeCallProbabilities();
+		assertEquals(0.25, actual[indexOf(M3)], 0.001);
+	}
+
+	@Test
+	public void sessionsOfTheSameModelAreIndependent() {
+		PBNQueryEngine other = sut.getModel().newSession();
+		sut.observePattern("p2");
+		sut.observeCall(M3);
+		other.observePattern("p1");
+
+		assertEquals(0.7, other.computeCallProbabilities()[indexOf(M2)], 0.001);
+		assertFalse(other.isCallObserved(indexOf(M3)));
+		assertEquals(0.2, sut.computeCallProbabilities()[indexOf(M2)], 0.001);
+	}
+
+	@Test
+	public void sessionsShareTheModel() {
+		PBNQueryEngine other = sut.getModel().newSession();
+		assertSame(sut.getModel(), other.getModel());
+		assertEquals(sut.getCall(0), other.getCall(0));
+	}
+
+	@Test
+	public void addingEvidenceIncrementallyGivesSameBeliefsAsFreshQuery() {
+		PBNQueryEngine fresh = sut.getModel().newSession();
+
+		sut.observeClassContext("LC1");
+		sut.computeCallProbabilities();
+		sut.observeMethodContext("LC1.m1()V");
+		sut.computeCallProbabilities();
+		sut.observeCall(M1);
+		double[] actual = sut.computeCallProbabilities();
+
+		fresh.observeClassContext("LC1");
+		fresh.observeMethodContext("LC1.m1()V");
+		fresh.observeCall(M1);
+		double[] expected = fresh.computeCallProbabilities();
+
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], actual[i], 0.000001);
+		}
+	}
+
+	@Test
+	public void evidenceCanBeClearedAfterIncrementalUpdates() {
+		sut.observePattern("p1");
+		sut.computeCallProbabilities();
+		sut.observeCall(M1);
+		sut.computeCallProbabilities();
+		sut.clearEvidence();
+		sut.observePattern("p2");
+		assertEquals(0.25, sut.computeCallProbabilities()[indexOf(M3)], 0.001);
+	}
+
+	@Test
+	public void builtModelsHaveStarTopology() {
+		assertTrue(sut.getModel().isStarTopology());
+	}
+
+	@Test
+	public void starTopologyGivesSameBeliefsAsJunctionTree() {
+		JunctionTreeAlgorithm expected = new JunctionTreeAlgorithm();
+		expected.setNetwork(sut.getModel().getBayesNet());
+		assertSameBeliefs(expected);
+
+		observe(expected, sut.getModel().getClassContextNode(), "LC1");
+		sut.observeClassContext("LC1");
+		assertSameBeliefs(expected);
+
+		observe(expected, sut.getModel().getDefinitionNode(), "PARAM#2");
+		sut.observeDefinition("PARAM#2");
+		sut.observeCall(M2);
+		observe(expected, sut.getModel().getBayesNet().getNode(newCallSite(M2)), "t");
+		assertSameBeliefs(expected);
+
+		expected.clearEvidence();
+		sut.clearEvidence();
+		observe(expected, sut.getModel().getPatternNode(), "p1");
+		sut.observePattern("p1");
+		assertSameBeliefs(expected);
+	}
+
+	@Test
+	public void otherTopologiesFallBackToJunctionTree() {
+		sut = new PBNQueryEngine(createNonStarNetwork(), true);
+
+		assertFalse(sut.getModel().isStarTopology());
+		JunctionTreeAlgorithm expected = new JunctionTreeAlgorithm();
+		expected.setNetwork(sut.getModel().getBayesNet());
+		sut.observeClassContext("LC2");
+		observe(expected, sut.getModel().getClassContextNode(), "LC2");
+		assertSameBeliefs(expected);
+	}
+
+	private static void observe(JunctionTreeAlgorithm inferer, BayesNode node, String outcome) {
+		inferer.addEvidence(node.getId(), node.getOutcomeIndex(outcome));
+	}
+
+	private void assertSameBeliefs(JunctionTreeAlgorithm expected) {
+		for (BayesNode node : sut.getModel().getBayesNet().getNodes()) {
+			assertArrayEquals(expected.getBeliefs(node.getId()), sut.getBeliefs(node), 0.000001);
+		}
+		double[] callProbabilities = sut.computeCallProbabilities();
+		for (int i = 0; i < sut.getNumCalls(); i++) {
+			BayesNode node = sut.getModel().getBayesNet().getNode(newCallSite(sut.getCall(i)));
+			assertEquals(expected.getBeliefs(node.getId())[0], callProbabilities[i], 0.000001);
+		}
+	}
+
+	private int indexOf(ICoReMethodName call) {
+		for (int i = 0; i < sut.getNumCalls(); i++) {
+			if (sut.getCall(i).equals(call)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
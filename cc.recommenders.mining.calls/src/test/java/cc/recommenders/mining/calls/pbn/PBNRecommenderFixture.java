@@ -79,6 +79,15 @@ public class PBNRecommenderFixture {
 		return net;
 	}
 
+	// sample network in which one call additionally depends on the class context
+	public static BayesianNetwork createNonStarNetwork() {
+		BayesianNetwork net = createSampleNetwork();
+		Node call2 = net.getNode("C_LC.m2()V");
+		call2.setParents(new Node[] { net.getNode("patterns"), net.getNode("inClass") });
+		call2.setProbabilities(new double[] { 0.7, 0.3, 0.2, 0.8, 0.5, 0.5, 0.1, 0.9, 0.3, 0.7, 0.6, 0.4 });
+		return net;
+	}
+
 	public static Node createAndAddNode(String title, BayesianNetwork net, Node parent) {
 		Node node = new Node(title);
 		net.addNode(node);
@@ -20,12 +20,18 @@ import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.createSampl
 import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.createTuple;
 import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.newDoubleRecommender;
 import static cc.recommenders.mining.calls.pbn.PBNRecommenderFixture.newFloatRecommender;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
 import org.junit.Before;
@@ -146,6 +152,29 @@ public class PBNRecommenderTest {
 		recommender.query(createQueryWithUnobservedData());
 	}
 
+	@Test
+	public void concurrentQueriesShareTheModel() throws Exception {
+		final Set<Tuple<ICoReMethodName, Double>> expected = createResult(createTuple("LC.m2()V", 0.3571),
+				createTuple("LC.m3()V", 0.3128));
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Set<Tuple<ICoReMethodName, Double>>>> results = newArrayList();
+			for (int i = 0; i < 100; i++) {
+				results.add(pool.submit(new Callable<Set<Tuple<ICoReMethodName, Double>>>() {
+					@Override
+					public Set<Tuple<ICoReMethodName, Double>> call() {
+						return recommender.query(createQuery());
+					}
+				}));
+			}
+			for (Future<Set<Tuple<ICoReMethodName, Double>>> result : results) {
+				assertEqualSet(expected, result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 	@Test
 	public void size_floatMinimal() {
 		int actual = newFloatRecommender().getSize();
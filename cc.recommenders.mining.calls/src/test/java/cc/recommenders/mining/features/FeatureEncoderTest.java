@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.recommenders.mining.features;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import cc.recommenders.utils.dictionary.Dictionary;
+
+public class FeatureEncoderTest {
+
+	private Dictionary<String> dictionary;
+	private FeatureEncoder<String> sut;
+
+	@Before
+	public void setup() {
+		dictionary = new Dictionary<String>();
+		dictionary.add("a");
+		dictionary.add("b");
+		dictionary.add("c");
+		sut = new FeatureEncoder<String>(dictionary);
+	}
+
+	@Test
+	public void dictionaryIsExposed() {
+		assertSame(dictionary, sut.getDictionary());
+	}
+
+	@Test
+	public void idsAreTakenFromDictionary() {
+		assertEquals(0, sut.getId("a"));
+		assertEquals(1, sut.getId("b"));
+		assertEquals(2, sut.getId("c"));
+	}
+
+	@Test
+	public void unknownFeatures() {
+		assertEquals(-1, sut.getId("x"));
+		assertEquals(-1, sut.getId(null));
+	}
+
+	@Test
+	public void usagesAreSortedAndDistinct() {
+		assertArrayEquals(new int[] { 0, 1, 2 }, sut.encode(Lists.newArrayList("c", "a", "b", "a")));
+	}
+
+	@Test
+	public void unknownFeaturesAreSkipped() {
+		assertArrayEquals(new int[] { 1 }, sut.encode(Lists.newArrayList("x", "b", "y")));
+	}
+
+	@Test
+	public void emptyUsage() {
+		assertArrayEquals(new int[0], sut.encode(Lists.<String> newArrayList()));
+	}
+
+	@Test
+	public void allUsagesAreEncoded() {
+		List<List<String>> usages = Lists.newArrayList();
+		usages.add(Lists.newArrayList("b"));
+		usages.add(Lists.newArrayList("c", "a"));
+
+		assertArrayEquals(new int[][] { { 1 }, { 0, 2 } }, sut.encodeAll(usages));
+	}
+
+	@Test
+	public void emptyDictionary() {
+		sut = new FeatureEncoder<String>(new Dictionary<String>());
+		assertArrayEquals(new int[0], sut.encode(Lists.newArrayList("a")));
+	}
+
+	@Test
+	public void collidingFeaturesAreDistinguished() {
+		// "Aa" and "BB" have the same hash code
+		dictionary = new Dictionary<String>();
+		for (int i = 0; i < 100; i++) {
+			dictionary.add("f" + i);
+		}
+		dictionary.add("Aa");
+		dictionary.add("BB");
+		sut = new FeatureEncoder<String>(dictionary);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, sut.getId("f" + i));
+		}
+		assertEquals(100, sut.getId("Aa"));
+		assertEquals(101, sut.getId("BB"));
+		assertEquals(-1, sut.getId("C#"));
+	}
+}
@@ -95,6 +95,15 @@ public class RareFeatureDropperTest {
 		assertEquals(1, actual.size());
 	}
 
+	@Test
+	public void encodedUsagesCanBeUsed() {
+		rawDict = dict("a", "b", "c");
+		int[][] usages = { { 0, 2 }, { 0, 1 }, { 2 } };
+
+		Dictionary<String> actual = sut.dropRare(rawDict, usages);
+		assertEquals(dict("a", "c"), actual);
+	}
+
 	@Test(expected = AssertionException.class)
 	public void inputMustBeNonEmpty() {
 		rawDict = dict();
@@ -0,0 +1,29 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the JMH benchmarks of this module, all arguments are passed to JMH (e.g., a regular expression that selects
+ * the benchmarks or "-h" for help).
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		Main.main(args);
+	}
+}
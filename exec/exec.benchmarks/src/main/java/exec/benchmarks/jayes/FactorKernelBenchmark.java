@@ -0,0 +1,142 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks.jayes;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.recommenders.jayes.factor.AbstractFactor;
+import org.eclipse.recommenders.jayes.factor.DenseFactor;
+import org.eclipse.recommenders.jayes.factor.arraywrapper.DoubleArrayWrapper;
+import org.eclipse.recommenders.jayes.factor.arraywrapper.FloatArrayWrapper;
+import org.eclipse.recommenders.jayes.factor.arraywrapper.IArrayWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the element-wise array wrapper loops that were used before with the array kernels of the factors. The
+ * shapes are the cliques of PBN junction trees: the pattern node and one child (a call or parameter node with two
+ * states, or a context node with many states), with the pattern node as separator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FactorKernelBenchmark {
+
+	@Param({ "30", "300" })
+	public int numPatterns;
+
+	@Param({ "2", "80" })
+	public int numChildStates;
+
+	@Param({ "true", "false" })
+	public boolean useDoublePrecision;
+
+	private AbstractFactor clique;
+	private AbstractFactor sepSet;
+	private IArrayWrapper cliqueValues;
+	private IArrayWrapper sepSetValues;
+	private int[] positions;
+
+	@Setup
+	public void setup() {
+		Random rnd = new Random(42);
+		clique = new DenseFactor();
+		clique.setDimensions(numPatterns, numChildStates);
+		clique.setDimensionIDs(0, 1);
+		sepSet = new DenseFactor();
+		sepSet.setDimensions(numPatterns);
+		sepSet.setDimensionIDs(0);
+
+		int length = numPatterns * numChildStates;
+		if (useDoublePrecision) {
+			clique.setValues(new DoubleArrayWrapper(new double[length]));
+			sepSet.setValues(new DoubleArrayWrapper(new double[numPatterns]));
+		} else {
+			clique.setValues(new FloatArrayWrapper(new float[length]));
+			sepSet.setValues(new FloatArrayWrapper(new float[numPatterns]));
+		}
+		cliqueValues = clique.getValues();
+		sepSetValues = sepSet.getValues();
+		for (int i = 0; i < length; i++) {
+			cliqueValues.set(i, rnd.nextDouble());
+		}
+		// neutral messages keep the values stable across invocations
+		sepSetValues.fill(1.0);
+		positions = clique.prepareMultiplication(sepSet);
+	}
+
+	@Benchmark
+	public IArrayWrapper sumWrapperLoop() {
+		sepSetValues.fill(0);
+		for (int i = 0; i < cliqueValues.length(); i++) {
+			sepSetValues.addAssign(positions[i], cliqueValues, i);
+		}
+		return sepSetValues;
+	}
+
+	@Benchmark
+	public IArrayWrapper sumKernel() {
+		clique.sumPrepared(sepSetValues, positions);
+		return sepSetValues;
+	}
+
+	@Benchmark
+	public IArrayWrapper multiplyWrapperLoop() {
+		sepSetValues.fill(1.0);
+		for (int i = 0; i < cliqueValues.length(); i++) {
+			cliqueValues.mulAssign(i, sepSetValues, positions[i]);
+		}
+		return cliqueValues;
+	}
+
+	@Benchmark
+	public IArrayWrapper multiplyKernel() {
+		sepSetValues.fill(1.0);
+		clique.multiplyPrepared(sepSetValues, positions);
+		return cliqueValues;
+	}
+
+	@Benchmark
+	public IArrayWrapper multiplyLogWrapperLoop() {
+		sepSetValues.fill(0.0);
+		for (int i = 0; i < cliqueValues.length(); i++) {
+			cliqueValues.addAssign(i, sepSetValues, positions[i]);
+		}
+		return cliqueValues;
+	}
+
+	@Benchmark
+	public IArrayWrapper multiplyLogKernel() {
+		sepSetValues.fill(0.0);
+		clique.setLogScale(true);
+		clique.multiplyPrepared(sepSetValues, positions);
+		clique.setLogScale(false);
+		return cliqueValues;
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks.names;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.MapMaker;
+
+import cc.kave.commons.utils.NameInterner;
+import cc.recommenders.names.CoReMethodName;
+import cc.recommenders.names.CoReTypeName;
+
+/**
+ * Time for a number of threads to look up a shared set of method and type names at the same time, each thread
+ * requesting every name once in its own order. Compares the {@link NameInterner} of the name factories with a single
+ * monitor around a weak-valued map, which is how the method names used to be interned. Both sides create their names
+ * with the same factories, and all names are interned and retained before the measurement, so that the lookups
+ * measure the contention on the index rather than the creation of names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NameInterningBenchmark {
+
+	private static final int NUM_NAMES = 20000;
+
+	@Param({ "1", "2", "4", "8", "16", "32" })
+	public int numThreads;
+
+	private String[][] methodNames;
+	private String[][] typeNames;
+	private ExecutorService executor;
+
+	private final NameInterner<CoReMethodName> concurrentMethods = new NameInterner<>(CoReMethodName::get, 64);
+	private final NameInterner<CoReTypeName> concurrentTypes = new NameInterner<>(CoReTypeName::get, 64);
+	private final SynchronizedInterner<CoReMethodName> synchronizedMethods = new SynchronizedInterner<>(
+			CoReMethodName::get);
+	private final SynchronizedInterner<CoReTypeName> synchronizedTypes = new SynchronizedInterner<>(
+			CoReTypeName::get);
+	// strong references that keep the weakly indexed names alive during the measurement
+	private final List<Object> retained = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		methodNames = new String[numThreads][NUM_NAMES];
+		typeNames = new String[numThreads][NUM_NAMES];
+		for (int t = 0; t < numThreads; t++) {
+			for (int i = 0; i < NUM_NAMES; i++) {
+				// rotate the names per thread, so that threads do not request the same name at the same time
+				int n = (i + t * NUM_NAMES / numThreads) % NUM_NAMES;
+				typeNames[t][i] = "Lcc/recommenders/T" + (n % 500);
+				methodNames[t][i] = typeNames[t][i] + ".m" + n + "(Ljava/lang/String;)V";
+			}
+		}
+		for (int i = 0; i < NUM_NAMES; i++) {
+			retained.add(concurrentMethods.get(methodNames[0][i]));
+			retained.add(concurrentTypes.get(typeNames[0][i]));
+			retained.add(synchronizedMethods.get(methodNames[0][i]));
+			retained.add(synchronizedTypes.get(typeNames[0][i]));
+		}
+		executor = Executors.newFixedThreadPool(numThreads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public int concurrentIndex() throws Exception {
+		return run(t -> {
+			int hash = 0;
+			for (int i = 0; i < NUM_NAMES; i++) {
+				hash += System.identityHashCode(concurrentMethods.get(methodNames[t][i]));
+				hash += System.identityHashCode(concurrentTypes.get(typeNames[t][i]));
+			}
+			return hash;
+		});
+	}
+
+	@Benchmark
+	public int synchronizedIndex() throws Exception {
+		return run(t -> {
+			int hash = 0;
+			for (int i = 0; i < NUM_NAMES; i++) {
+				hash += System.identityHashCode(synchronizedMethods.get(methodNames[t][i]));
+				hash += System.identityHashCode(synchronizedTypes.get(typeNames[t][i]));
+			}
+			return hash;
+		});
+	}
+
+	private int run(Function<Integer, Integer> lookups) throws Exception {
+		List<Future<Integer>> futures = new ArrayList<>(numThreads);
+		for (int t = 0; t < numThreads; t++) {
+			final int thread = t;
+			futures.add(executor.submit((Callable<Integer>) () -> lookups.apply(thread)));
+		}
+		int hash = 0;
+		for (Future<Integer> future : futures) {
+			hash += future.get();
+		}
+		return hash;
+	}
+
+	private static class SynchronizedInterner<T> {
+
+		private final Map<String, T> names = new MapMaker().weakValues().makeMap();
+		private final Function<String, T> factory;
+
+		public SynchronizedInterner(Function<String, T> factory) {
+			this.factory = factory;
+		}
+
+		public synchronized T get(String id) {
+			T name = names.get(id);
+			if (name == null) {
+				name = factory.apply(id);
+				names.put(id, name);
+			}
+			return name;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks.pbn;
+
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newCallSite;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.recommenders.jayes.BayesNet;
+import org.eclipse.recommenders.jayes.inference.junctionTree.JunctionTreeAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import cc.recommenders.mining.calls.pbn.CompiledPBNModel;
+
+/**
+ * Simulates an interactive completion session: the context of a query is observed, then calls are added one at a
+ * time and all call beliefs are requested after every step. Compares full propagation with incremental propagation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IncrementalEvidenceBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean isIncremental;
+
+	@Param({ "false", "true" })
+	public boolean useDoublePrecision;
+
+	@Param({ "1", "5" })
+	public int numAddedCalls;
+
+	private JunctionTreeAlgorithm jta;
+	private int classContextNode;
+	private int methodContextNode;
+	private int definitionNode;
+	private int[] callNodes;
+
+	@Setup
+	public void setup() {
+		CompiledPBNModel model = new CompiledPBNModel(PBNNetworks.createTypical(42), useDoublePrecision);
+		BayesNet net = model.getBayesNet();
+		jta = new JunctionTreeAlgorithm();
+		if (!useDoublePrecision) {
+			jta.getFactory().setFloatingPointType(float.class);
+		}
+		jta.setIncrementalPropagation(isIncremental);
+		jta.setNetwork(net);
+
+		classContextNode = model.getClassContextNode().getId();
+		methodContextNode = model.getMethodContextNode().getId();
+		definitionNode = model.getDefinitionNode().getId();
+		callNodes = new int[model.getNumCalls()];
+		for (int i = 0; i < callNodes.length; i++) {
+			callNodes[i] = net.getNode(newCallSite(model.getCall(i))).getId();
+		}
+	}
+
+	@Benchmark
+	public void addCallsOneByOne(Blackhole bh) {
+		jta.clearEvidence();
+		jta.addEvidence(classContextNode, 3);
+		jta.addEvidence(methodContextNode, 7);
+		jta.addEvidence(definitionNode, 1);
+		queryAllCalls(bh);
+		for (int i = 0; i < numAddedCalls; i++) {
+			jta.addEvidence(callNodes[i * 7 % callNodes.length], 0);
+			queryAllCalls(bh);
+		}
+	}
+
+	private void queryAllCalls(Blackhole bh) {
+		for (int callNode : callNodes) {
+			bh.consume(jta.getBeliefs(callNode)[0]);
+		}
+	}
+}
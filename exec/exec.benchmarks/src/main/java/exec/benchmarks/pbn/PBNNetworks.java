@@ -0,0 +1,125 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks.pbn;
+
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.CALL_PREFIX;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.CLASS_CONTEXT_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.DEFINITION_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.METHOD_CONTEXT_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.PARAMETER_PREFIX;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.PATTERN_TITLE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.STATE_FALSE;
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.STATE_TRUE;
+
+import java.util.Random;
+
+import org.eclipse.recommenders.commons.bayesnet.BayesianNetwork;
+import org.eclipse.recommenders.commons.bayesnet.Node;
+
+/**
+ * Generates pattern-based Bayesian networks with the same shape as the ones created by the PBN miners: a pattern node
+ * is the only parent of the context, definition, call and parameter nodes. Probabilities are random, but
+ * reproducible for a given seed.
+ */
+public class PBNNetworks {
+
+	public static final int NUM_PATTERNS = 30;
+	public static final int NUM_CLASS_CONTEXTS = 40;
+	public static final int NUM_METHOD_CONTEXTS = 80;
+	public static final int NUM_DEFINITIONS = 30;
+	public static final int NUM_CALLS = 60;
+	public static final int NUM_PARAMS = 20;
+
+	public static BayesianNetwork createTypical(long seed) {
+		return create(seed, NUM_PATTERNS, NUM_CLASS_CONTEXTS, NUM_METHOD_CONTEXTS, NUM_DEFINITIONS, NUM_CALLS,
+				NUM_PARAMS);
+	}
+
+	public static BayesianNetwork create(long seed, int numPatterns, int numClassContexts, int numMethodContexts,
+			int numDefinitions, int numCalls, int numParams) {
+		Random rnd = new Random(seed);
+		BayesianNetwork net = new BayesianNetwork();
+
+		Node patterns = new Node(PATTERN_TITLE);
+		net.addNode(patterns);
+		patterns.setStates(states("p", numPatterns));
+		patterns.setProbabilities(randomDistribution(rnd, 1, numPatterns));
+
+		addChild(net, patterns, CLASS_CONTEXT_TITLE, states("LC", numClassContexts), rnd);
+		addChild(net, patterns, METHOD_CONTEXT_TITLE, states("LC.m", numMethodContexts), rnd);
+		addChild(net, patterns, DEFINITION_TITLE, states("DEF", numDefinitions), rnd);
+		for (int i = 0; i < numCalls; i++) {
+			addChild(net, patterns, CALL_PREFIX + call(i), booleanStates(), rnd);
+		}
+		for (int i = 0; i < numParams; i++) {
+			addChild(net, patterns, PARAMETER_PREFIX + "LP.m" + i + "(LT;)V#0", booleanStates(), rnd);
+		}
+		return net;
+	}
+
+	public static String call(int i) {
+		return "LT.m" + i + "()V";
+	}
+
+	public static String classContext(int i) {
+		return "LC" + i;
+	}
+
+	public static String methodContext(int i) {
+		return "LC.m" + i;
+	}
+
+	public static String definition(int i) {
+		return "DEF" + i;
+	}
+
+	private static void addChild(BayesianNetwork net, Node parent, String title, String[] states, Random rnd) {
+		Node node = new Node(title);
+		net.addNode(node);
+		node.setParents(new Node[] { parent });
+		node.setStates(states);
+		node.setProbabilities(randomDistribution(rnd, parent.getStates().length, states.length));
+	}
+
+	private static String[] states(String prefix, int num) {
+		String[] states = new String[num];
+		for (int i = 0; i < num; i++) {
+			states[i] = prefix + i;
+		}
+		return states;
+	}
+
+	private static String[] booleanStates() {
+		return new String[] { STATE_TRUE, STATE_FALSE };
+	}
+
+	private static double[] randomDistribution(Random rnd, int numRows, int numStates) {
+		double[] probabilities = new double[numRows * numStates];
+		for (int row = 0; row < numRows; row++) {
+			double sum = 0;
+			for (int i = 0; i < numStates; i++) {
+				// keep a minimum probability like the smoothing of the miners does
+				double p = 0.001 + rnd.nextDouble();
+				probabilities[row * numStates + i] = p;
+				sum += p;
+			}
+			for (int i = 0; i < numStates; i++) {
+				probabilities[row * numStates + i] /= sum;
+			}
+		}
+		return probabilities;
+	}
+}
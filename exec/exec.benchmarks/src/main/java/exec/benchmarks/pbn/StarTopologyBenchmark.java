@@ -0,0 +1,112 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks.pbn;
+
+import static cc.recommenders.mining.calls.pbn.PBNModelConstants.newCallSite;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.recommenders.jayes.BayesNet;
+import org.eclipse.recommenders.jayes.inference.StarTopologyInferer;
+import org.eclipse.recommenders.jayes.inference.junctionTree.JunctionTreeAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import cc.recommenders.mining.calls.pbn.CompiledPBNModel;
+
+/**
+ * Latency of a typical recommender query (context, definition and two calls observed, probabilities of all calls
+ * requested) answered by the junction tree and by the closed-form inference for star-shaped networks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StarTopologyBenchmark {
+
+	@Param({ "30", "300" })
+	public int numPatterns;
+
+	private JunctionTreeAlgorithm jta;
+	private StarTopologyInferer star;
+	private int classContextNode;
+	private int methodContextNode;
+	private int definitionNode;
+	private int[] callNodes;
+	private double[] callProbabilities;
+
+	@Setup
+	public void setup() {
+		CompiledPBNModel model = new CompiledPBNModel(PBNNetworks.create(42, numPatterns,
+				PBNNetworks.NUM_CLASS_CONTEXTS, PBNNetworks.NUM_METHOD_CONTEXTS, PBNNetworks.NUM_DEFINITIONS,
+				PBNNetworks.NUM_CALLS, PBNNetworks.NUM_PARAMS), true);
+		BayesNet net = model.getBayesNet();
+
+		classContextNode = model.getClassContextNode().getId();
+		methodContextNode = model.getMethodContextNode().getId();
+		definitionNode = model.getDefinitionNode().getId();
+		callNodes = new int[model.getNumCalls()];
+		for (int i = 0; i < callNodes.length; i++) {
+			callNodes[i] = net.getNode(newCallSite(model.getCall(i))).getId();
+		}
+		callProbabilities = new double[callNodes.length];
+
+		jta = new JunctionTreeAlgorithm();
+		jta.setIncrementalPropagation(true);
+		jta.setNetwork(net);
+
+		star = new StarTopologyInferer();
+		star.setNetwork(net);
+		star.setQueryOutcomes(callNodes, new int[callNodes.length]);
+	}
+
+	@Benchmark
+	public void junctionTree(Blackhole bh) {
+		jta.clearEvidence();
+		jta.addEvidence(classContextNode, 3);
+		jta.addEvidence(methodContextNode, 7);
+		jta.addEvidence(definitionNode, 1);
+		jta.addEvidence(callNodes[0], 0);
+		jta.addEvidence(callNodes[7], 0);
+		for (int callNode : callNodes) {
+			bh.consume(jta.getBeliefs(callNode)[0]);
+		}
+	}
+
+	@Benchmark
+	public void starTopology(Blackhole bh) {
+		star.clearEvidence();
+		star.addEvidence(classContextNode, 3);
+		star.addEvidence(methodContextNode, 7);
+		star.addEvidence(definitionNode, 1);
+		star.addEvidence(callNodes[0], 0);
+		star.addEvidence(callNodes[7], 0);
+		star.getQueryProbabilities(callProbabilities);
+		bh.consume(callProbabilities);
+	}
+}
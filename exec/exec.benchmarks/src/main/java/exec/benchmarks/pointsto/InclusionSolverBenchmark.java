@@ -0,0 +1,167 @@
+/**
+ * Copyright 2016 Technische Universität Darmstadt
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package exec.benchmarks.pointsto;
+
+import static cc.kave.commons.model.ssts.impl.SSTUtil.declareFields;
+import static cc.kave.commons.model.ssts.impl.SSTUtil.declareVar;
+import static cc.kave.commons.pointsto.analysis.utils.SSTBuilder.fieldReference;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import cc.kave.commons.model.events.completionevents.Context;
+import cc.kave.commons.model.naming.Names;
+import cc.kave.commons.model.naming.codeelements.IFieldName;
+import cc.kave.commons.model.ssts.impl.SST;
+import cc.kave.commons.model.ssts.references.IVariableReference;
+import cc.kave.commons.model.ssts.statements.IVariableDeclaration;
+import cc.kave.commons.pointsto.analysis.PointsToAnalysis;
+import cc.kave.commons.pointsto.analysis.inclusion.InclusionAnalysis;
+import cc.kave.commons.pointsto.analysis.inclusion.allocations.StmtAllocationSite;
+import cc.kave.commons.pointsto.analysis.inclusion.contexts.EmptyContextFactory;
+import cc.kave.commons.pointsto.analysis.inclusion.graph.ClosureStrategy;
+import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraph;
+import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraphBuilder;
+import cc.kave.commons.pointsto.analysis.references.DistinctReference;
+import cc.kave.commons.pointsto.analysis.references.DistinctReferenceCreationVisitor;
+import cc.kave.commons.pointsto.analysis.references.DistinctVariableReference;
+import cc.kave.commons.pointsto.analysis.utils.ScopedMap;
+import cc.kave.commons.pointsto.extraction.DeclarationMapper;
+import cc.kave.commons.pointsto.io.IOHelper;
+import cc.kave.commons.pointsto.io.StreamingZipReader;
+
+/**
+ * Runtime of the inclusion analysis with the worklist closure and with the cycle-collapsing closure. The contexts are
+ * read from the zip files of the corpus that is used by the points-to evaluation (e.g., "-p contexts=/data/Contexts"),
+ * without a corpus a synthetic program of assignments and field accesses between random variables is analyzed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InclusionSolverBenchmark {
+
+	private static final String TYPE_IDENTIFIER = "Bench.Synthetic, Bench";
+
+	@Param({ "WORKLIST", "CYCLE_COLLAPSING" })
+	public ClosureStrategy strategy;
+
+	@Param({ "" })
+	public String contexts;
+
+	@Param({ "200" })
+	public int maxContexts;
+
+	@Param({ "200", "500" })
+	public int numVariables;
+
+	private List<Context> corpus;
+	private IFieldName[] fields;
+	private SST sst;
+
+	@Setup
+	public void setup() throws IOException {
+		corpus = new ArrayList<>();
+		if (!contexts.isEmpty()) {
+			for (Path zip : IOHelper.getZipFiles(Paths.get(contexts))) {
+				try (StreamingZipReader reader = new StreamingZipReader(zip.toFile())) {
+					corpus.addAll(reader.stream(Context.class).limit(maxContexts - corpus.size())
+							.collect(Collectors.toList()));
+				}
+				if (corpus.size() >= maxContexts) {
+					break;
+				}
+			}
+		}
+
+		fields = new IFieldName[8];
+		sst = new SST();
+		for (int i = 0; i < fields.length; i++) {
+			fields[i] = Names.newField("[?] [" + TYPE_IDENTIFIER + "].f" + i);
+			sst.getFields().addAll(declareFields(fields[i].getIdentifier()));
+		}
+	}
+
+	@Benchmark
+	public void analyze(Blackhole bh) {
+		if (corpus.isEmpty()) {
+			ConstraintGraph graph = createSyntheticGraph();
+			graph.computeClosure(strategy);
+			bh.consume(graph.computeLeastSolution());
+		} else {
+			for (Context context : corpus) {
+				PointsToAnalysis analysis = new InclusionAnalysis(strategy);
+				bh.consume(analysis.compute(context));
+			}
+		}
+	}
+
+	private ConstraintGraph createSyntheticGraph() {
+		ScopedMap<String, DistinctReference> scopes = new ScopedMap<>();
+		scopes.enter();
+		DistinctReferenceCreationVisitor distRefCreationVisitor = new DistinctReferenceCreationVisitor();
+		ConstraintGraphBuilder builder = new ConstraintGraphBuilder(ref -> ref.accept(distRefCreationVisitor, scopes),
+				new DeclarationMapper(sst), new EmptyContextFactory());
+
+		IVariableReference[] vars = new IVariableReference[numVariables];
+		for (int i = 0; i < numVariables; i++) {
+			IVariableDeclaration decl = declareVar("v" + i);
+			scopes.create(decl.getReference().getIdentifier(), new DistinctVariableReference(decl));
+			vars[i] = decl.getReference();
+			if (i % 10 == 0) {
+				builder.allocate(vars[i], new StmtAllocationSite(decl));
+			}
+		}
+
+		// mostly local assignments, which form chains and cycles, and some field accesses between distant variables
+		Random rnd = new Random(42);
+		for (int i = 0; i < 3 * numVariables; i++) {
+			int src = rnd.nextInt(numVariables);
+			int dest = Math.floorMod(src + rnd.nextInt(21) - 10, numVariables);
+			builder.alias(vars[dest], vars[src]);
+		}
+		for (int i = 0; i < numVariables / 4; i++) {
+			IFieldName field = fields[rnd.nextInt(fields.length)];
+			builder.writeMember(fieldReference(vars[rnd.nextInt(numVariables)], field),
+					vars[rnd.nextInt(numVariables)], field);
+			builder.readMember(vars[rnd.nextInt(numVariables)],
+					fieldReference(vars[rnd.nextInt(numVariables)], field), field);
+		}
+
+		return builder.createConstraintGraph();
+	}
+}
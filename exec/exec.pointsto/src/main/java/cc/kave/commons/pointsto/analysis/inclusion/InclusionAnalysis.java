@@ -24,6 +24,7 @@ import cc.kave.commons.pointsto.analysis.AbstractPointsToAnalysis;
 import cc.kave.commons.pointsto.analysis.PointsToContext;
 import cc.kave.commons.pointsto.analysis.PointsToQuery;
 import cc.kave.commons.pointsto.analysis.inclusion.contexts.EmptyContextFactory;
+import cc.kave.commons.pointsto.analysis.inclusion.graph.ClosureStrategy;
 import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintEdge;
 import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraph;
 import cc.kave.commons.pointsto.analysis.references.DistinctReference;
@@ -42,6 +43,16 @@ import cc.kave.commons.pointsto.analysis.visitors.ThisReferenceOption;
  */
 public class InclusionAnalysis extends AbstractPointsToAnalysis {
 
+	private final ClosureStrategy closureStrategy;
+
+	public InclusionAnalysis() {
+		this(ClosureStrategy.WORKLIST);
+	}
+
+	public InclusionAnalysis(ClosureStrategy closureStrategy) {
+		this.closureStrategy = closureStrategy;
+	}
+
 	@Override
 	public PointsToContext compute(Context context) {
 		checkContextBinding();
@@ -52,7 +63,7 @@ public class InclusionAnalysis extends AbstractPointsToAnalysis {
 		context.getSST().accept(visitor, visitorContext);
 
 		ConstraintGraph graph = visitorContext.createConstraintGraph();
-		graph.computeClosure();
+		graph.computeClosure(closureStrategy);
 		Multimap<DistinctReference, ConstraintEdge> ls = graph.computeLeastSolution();
 		Map<ConstructedTerm, AbstractLocation> locations = new HashMap<>();
 
@@ -0,0 +1,31 @@
+/**
+ * Copyright 2016 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.analysis.inclusion.graph;
+
+/**
+ * The algorithm that is used to compute the closure and least solution of a {@link ConstraintGraph}.
+ */
+public enum ClosureStrategy {
+
+	/**
+	 * Repeatedly combines all predecessors and successors of changed nodes.
+	 */
+	WORKLIST,
+
+	/**
+	 * Merges variables on cycles of unannotated constraints, only combines edges that have not been combined before
+	 * and processes nodes in topological order. The least solution is stored in sparse bit sets.
+	 */
+	CYCLE_COLLAPSING
+
+}
@@ -0,0 +1,570 @@
+/**
+ * Copyright 2016 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.analysis.inclusion.graph;
+
+import static cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraph.concat;
+import static cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraph.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import cc.kave.commons.pointsto.analysis.inclusion.ConstructedTerm;
+import cc.kave.commons.pointsto.analysis.inclusion.RefTerm;
+import cc.kave.commons.pointsto.analysis.inclusion.SetExpression;
+import cc.kave.commons.pointsto.analysis.inclusion.SetVariable;
+import cc.kave.commons.pointsto.analysis.inclusion.annotations.ContextAnnotation;
+import cc.kave.commons.pointsto.analysis.inclusion.annotations.InclusionAnnotation;
+import cc.kave.commons.pointsto.analysis.utils.SparseBitSet;
+
+/**
+ * Computes the closure and least solution of a {@link ConstraintGraph} for {@link ClosureStrategy#CYCLE_COLLAPSING}.
+ * 
+ * Nodes are numbered and processed in the order of their topological rank. Unannotated constraints between variables
+ * (copy edges) that point against this order indicate a possible cycle. Once enough of them have been added, the
+ * strongly connected components of the copy edges are merged into a single node and the ranks are recomputed. Every
+ * node remembers how many of its edges have already been combined, so that only pairs involving new edges are
+ * processed again.
+ */
+final class CollapsingSolver {
+
+	private static final int MIN_CYCLE_DETECTION_THRESHOLD = 64;
+
+	private final ConstraintGraph graph;
+
+	private final List<ConstraintNode> nodes = new ArrayList<>();
+	private int[] parent = new int[64];
+	private int[] nextMember = new int[64];
+	private int[] rank = new int[64];
+	private int[] processedPredecessors = new int[64];
+	private int[] processedSuccessors = new int[64];
+	private int nextRank;
+
+	private final RankedWorklist worklist = new RankedWorklist();
+	private int numRankViolations;
+	private int cycleDetectionThreshold = MIN_CYCLE_DETECTION_THRESHOLD;
+
+	private LeastSolution leastSolution;
+
+	CollapsingSolver(ConstraintGraph graph) {
+		this.graph = graph;
+	}
+
+	void solve() {
+		for (ConstraintNode node : graph.getNodes()) {
+			enqueue(node);
+		}
+		collapseCycles();
+
+		do {
+			computeClosure();
+			addUnknownObjects();
+		} while (!worklist.isEmpty());
+	}
+
+	Collection<ConstraintEdge> getLeastSolution(SetVariable variable) {
+		ConstraintNode node = graph.findNode(variable);
+		if (node == null) {
+			return Collections.emptyList();
+		}
+		int id = find(getId(node));
+		return computeLeastSolution().getEdges(id);
+	}
+
+	private int getId(ConstraintNode node) {
+		int id = node.getId();
+		if (id < 0) {
+			id = nodes.size();
+			node.setId(id);
+			nodes.add(node);
+
+			if (id == parent.length) {
+				int capacity = 2 * id;
+				parent = Arrays.copyOf(parent, capacity);
+				nextMember = Arrays.copyOf(nextMember, capacity);
+				rank = Arrays.copyOf(rank, capacity);
+				processedPredecessors = Arrays.copyOf(processedPredecessors, capacity);
+				processedSuccessors = Arrays.copyOf(processedSuccessors, capacity);
+			}
+			parent[id] = id;
+			nextMember[id] = id;
+			rank[id] = nextRank++;
+		}
+		return id;
+	}
+
+	private int find(int id) {
+		while (parent[id] != id) {
+			parent[id] = parent[parent[id]];
+			id = parent[id];
+		}
+		return id;
+	}
+
+	private void enqueue(ConstraintNode node) {
+		int id = find(getId(node));
+		worklist.add(id, rank[id]);
+	}
+
+	private void enqueueAll(Collection<ConstraintNode> nodes) {
+		for (ConstraintNode node : nodes) {
+			enqueue(node);
+		}
+	}
+
+	private static boolean isCopyEdge(ConstraintEdge edge) {
+		return edge.getTarget().getSetExpression() instanceof SetVariable
+				&& InclusionAnnotation.EMPTY.equals(edge.getInclusionAnnotation())
+				&& edge.getContextAnnotation().isEmpty();
+	}
+
+	private void computeClosure() {
+		while (!worklist.isEmpty()) {
+			leastSolution = null;
+			if (numRankViolations >= cycleDetectionThreshold) {
+				collapseCycles();
+			}
+
+			int id = worklist.poll();
+			// merged nodes are processed by their representative
+			if (find(id) == id) {
+				process(id);
+			}
+
+			if (worklist.isEmpty() && numRankViolations > 0) {
+				collapseCycles();
+			}
+		}
+	}
+
+	private void process(int id) {
+		ConstraintNode node = nodes.get(id);
+		int numPredecessors = node.getNumPredecessors();
+		int numSuccessors = node.getNumSuccessors();
+		int oldPredecessors = processedPredecessors[id];
+		int oldSuccessors = processedSuccessors[id];
+		processedPredecessors[id] = numPredecessors;
+		processedSuccessors[id] = numSuccessors;
+
+		for (int i = oldPredecessors; i < numPredecessors; ++i) {
+			ConstraintEdge edge = node.getPredecessor(i);
+			if (isCopyEdge(edge)) {
+				int source = find(getId(edge.getTarget()));
+				if (rank[source] > rank[id]) {
+					++numRankViolations;
+				}
+			}
+		}
+		for (int i = oldSuccessors; i < numSuccessors; ++i) {
+			ConstraintEdge edge = node.getSuccessor(i);
+			if (isCopyEdge(edge)) {
+				int target = find(getId(edge.getTarget()));
+				if (rank[id] > rank[target]) {
+					++numRankViolations;
+				}
+			}
+		}
+
+		Set<ConstraintNode> changedNodes = new HashSet<>();
+		for (int i = 0; i < numPredecessors; ++i) {
+			ConstraintEdge preEdge = node.getPredecessor(i);
+			// old predecessors have already been combined with the old successors
+			int firstSuccessor = (i < oldPredecessors) ? oldSuccessors : 0;
+			for (int j = firstSuccessor; j < numSuccessors; ++j) {
+				graph.processPair(preEdge, node.getSuccessor(j), changedNodes);
+			}
+		}
+		enqueueAll(changedNodes);
+	}
+
+	/**
+	 * Merges the strongly connected components of the copy edges and ranks the remaining nodes in topological order.
+	 */
+	private void collapseCycles() {
+		numRankViolations = 0;
+
+		int numEdges = 0;
+		int[] sources = new int[64];
+		int[] targets = new int[64];
+		for (int id = 0; id < nodes.size(); ++id) {
+			ConstraintNode node = nodes.get(id);
+			int rep = find(id);
+			for (int i = 0; i < node.getNumPredecessors() + node.getNumSuccessors(); ++i) {
+				boolean isPredecessor = i < node.getNumPredecessors();
+				ConstraintEdge edge = isPredecessor ? node.getPredecessor(i)
+						: node.getSuccessor(i - node.getNumPredecessors());
+				if (!isCopyEdge(edge)) {
+					continue;
+				}
+				int other = find(getId(edge.getTarget()));
+				if (other == rep) {
+					continue;
+				}
+
+				if (numEdges == sources.length) {
+					sources = Arrays.copyOf(sources, 2 * numEdges);
+					targets = Arrays.copyOf(targets, 2 * numEdges);
+				}
+				sources[numEdges] = isPredecessor ? other : rep;
+				targets[numEdges] = isPredecessor ? rep : other;
+				++numEdges;
+			}
+		}
+		cycleDetectionThreshold = Math.max(MIN_CYCLE_DETECTION_THRESHOLD, numEdges / 8);
+
+		final int numNodes = nodes.size();
+		int[] offsets = new int[numNodes + 1];
+		for (int i = 0; i < numEdges; ++i) {
+			++offsets[sources[i] + 1];
+		}
+		for (int i = 0; i < numNodes; ++i) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] adjacency = new int[numEdges];
+		int[] cursor = Arrays.copyOf(offsets, numNodes);
+		for (int i = 0; i < numEdges; ++i) {
+			adjacency[cursor[sources[i]]++] = targets[i];
+		}
+
+		// iterative version of Tarjan's algorithm
+		int[] index = new int[numNodes];
+		int[] lowLink = new int[numNodes];
+		boolean[] onStack = new boolean[numNodes];
+		int[] stack = new int[numNodes];
+		int[] callStack = new int[numNodes];
+		int[] edgePosition = new int[numNodes];
+		int[] component = new int[numNodes];
+		int stackSize = 0;
+		int counter = 0;
+		int numComponents = 0;
+		List<int[]> cycles = new ArrayList<>();
+
+		for (int root = 0; root < numNodes; ++root) {
+			if (find(root) != root || index[root] != 0) {
+				continue;
+			}
+
+			int depth = 0;
+			callStack[0] = root;
+			edgePosition[0] = offsets[root];
+			index[root] = lowLink[root] = ++counter;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+
+			while (depth >= 0) {
+				int v = callStack[depth];
+				if (edgePosition[depth] < offsets[v + 1]) {
+					int w = adjacency[edgePosition[depth]++];
+					if (index[w] == 0) {
+						index[w] = lowLink[w] = ++counter;
+						stack[stackSize++] = w;
+						onStack[w] = true;
+						++depth;
+						callStack[depth] = w;
+						edgePosition[depth] = offsets[w];
+					} else if (onStack[w]) {
+						lowLink[v] = Math.min(lowLink[v], index[w]);
+					}
+				} else {
+					if (lowLink[v] == index[v]) {
+						int start = stackSize;
+						do {
+							--start;
+							onStack[stack[start]] = false;
+							component[stack[start]] = numComponents;
+						} while (stack[start] != v);
+
+						if (stackSize - start > 1) {
+							cycles.add(Arrays.copyOfRange(stack, start, stackSize));
+						}
+						stackSize = start;
+						++numComponents;
+					}
+
+					--depth;
+					if (depth >= 0) {
+						int u = callStack[depth];
+						lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+					}
+				}
+			}
+		}
+
+		// components are found in reverse topological order
+		for (int id = 0; id < numNodes; ++id) {
+			if (find(id) == id) {
+				rank[id] = numComponents - 1 - component[id];
+			}
+		}
+		nextRank = Math.max(nextRank, numComponents);
+
+		Set<ConstraintNode> changedNodes = new HashSet<>();
+		for (int[] cycle : cycles) {
+			collapse(cycle, changedNodes);
+		}
+
+		// ranks have changed
+		for (int id : worklist.clear()) {
+			enqueue(nodes.get(id));
+		}
+		enqueueAll(changedNodes);
+	}
+
+	private void collapse(int[] members, Set<ConstraintNode> changedNodes) {
+		int rep = members[0];
+		for (int member : members) {
+			if (getNumEdges(member) > getNumEdges(rep)) {
+				rep = member;
+			}
+		}
+		ConstraintNode repNode = nodes.get(rep);
+
+		for (int member : members) {
+			if (member == rep) {
+				continue;
+			}
+			parent[member] = rep;
+
+			// let all variables that have been merged into the member refer to the representative
+			int next = member;
+			do {
+				graph.redirect(nodes.get(next).getSetExpression(), repNode);
+				next = nextMember[next];
+			} while (next != member);
+			next = nextMember[rep];
+			nextMember[rep] = nextMember[member];
+			nextMember[member] = next;
+		}
+
+		for (int member : members) {
+			if (member == rep) {
+				continue;
+			}
+
+			// the constraints of the member are added with the original variable to retain their orientation
+			ConstraintNode memberNode = nodes.get(member);
+			SetExpression memberExpr = memberNode.getSetExpression();
+			for (int i = 0; i < memberNode.getNumPredecessors(); ++i) {
+				ConstraintEdge edge = memberNode.getPredecessor(i);
+				if (!isInternalCopyEdge(edge, rep)) {
+					changedNodes.addAll(graph.addConstraint(edge.getTarget().getSetExpression(), memberExpr,
+							edge.getInclusionAnnotation(), edge.getContextAnnotation()));
+				}
+			}
+			for (int i = 0; i < memberNode.getNumSuccessors(); ++i) {
+				ConstraintEdge edge = memberNode.getSuccessor(i);
+				if (!isInternalCopyEdge(edge, rep)) {
+					changedNodes.addAll(graph.addConstraint(memberExpr, edge.getTarget().getSetExpression(),
+							edge.getInclusionAnnotation(), edge.getContextAnnotation()));
+				}
+			}
+		}
+		changedNodes.add(repNode);
+	}
+
+	private int getNumEdges(int id) {
+		ConstraintNode node = nodes.get(id);
+		return node.getNumPredecessors() + node.getNumSuccessors();
+	}
+
+	private boolean isInternalCopyEdge(ConstraintEdge edge, int rep) {
+		return isCopyEdge(edge) && find(getId(edge.getTarget())) == rep;
+	}
+
+	/**
+	 * Volatile entities that do not point to any object receive an object of unknown type. Entities are checked one
+	 * after another, an object that has been added is visible to the entities that are checked afterwards.
+	 */
+	private void addUnknownObjects() {
+		LeastSolution solution = computeLeastSolution();
+		for (SetVariable entity : graph.getVolatileEntities()) {
+			int id = find(getId(graph.getNode(entity)));
+			if (solution.isEmpty(id)) {
+				RefTerm object = graph.createUnknownObject();
+				enqueueAll(graph.addConstraint(object, entity, InclusionAnnotation.EMPTY, ContextAnnotation.EMPTY));
+				solution.add(id, new ConstraintEdge(graph.getNode(object), InclusionAnnotation.EMPTY,
+						ContextAnnotation.EMPTY));
+			}
+		}
+	}
+
+	private LeastSolution computeLeastSolution() {
+		if (leastSolution == null) {
+			leastSolution = new LeastSolution();
+		}
+		return leastSolution;
+	}
+
+	/**
+	 * The objects every node points to. Edges to constructed terms are numbered, so that the solution of a node is a
+	 * set of edge ids. Solutions flow along the predecessor edges between variables, only the ids that are new to a
+	 * node are passed on.
+	 */
+	private final class LeastSolution {
+
+		private final List<ConstraintEdge> edges = new ArrayList<>();
+		private final Map<ConstraintEdge, Integer> edgeIds = new HashMap<>();
+
+		private SparseBitSet[] solutions;
+		private SparseBitSet[] deltas;
+		private final RankedWorklist changedNodes = new RankedWorklist();
+
+		private final int[] flowOffsets;
+		private final int[] flowTargets;
+		private final ConstraintEdge[] flowEdges;
+
+		LeastSolution() {
+			solutions = new SparseBitSet[nodes.size()];
+			deltas = new SparseBitSet[nodes.size()];
+
+			int numFlows = 0;
+			int[] sources = new int[64];
+			int[] targets = new int[64];
+			ConstraintEdge[] variableEdges = new ConstraintEdge[64];
+			for (int id = 0; id < nodes.size(); ++id) {
+				if (find(id) != id) {
+					continue;
+				}
+				ConstraintNode node = nodes.get(id);
+				for (int i = 0; i < node.getNumPredecessors(); ++i) {
+					ConstraintEdge edge = node.getPredecessor(i);
+					SetExpression targetExpr = edge.getTarget().getSetExpression();
+					if (targetExpr instanceof ConstructedTerm) {
+						addEdge(id, edge);
+					} else if (targetExpr instanceof SetVariable) {
+						if (numFlows == sources.length) {
+							sources = Arrays.copyOf(sources, 2 * numFlows);
+							targets = Arrays.copyOf(targets, 2 * numFlows);
+							variableEdges = Arrays.copyOf(variableEdges, 2 * numFlows);
+						}
+						sources[numFlows] = find(getId(edge.getTarget()));
+						targets[numFlows] = id;
+						variableEdges[numFlows] = edge;
+						++numFlows;
+					}
+				}
+			}
+
+			int numNodes = nodes.size();
+			flowOffsets = new int[numNodes + 1];
+			for (int i = 0; i < numFlows; ++i) {
+				++flowOffsets[sources[i] + 1];
+			}
+			for (int i = 0; i < numNodes; ++i) {
+				flowOffsets[i + 1] += flowOffsets[i];
+			}
+			flowTargets = new int[numFlows];
+			flowEdges = new ConstraintEdge[numFlows];
+			int[] cursor = Arrays.copyOf(flowOffsets, numNodes);
+			for (int i = 0; i < numFlows; ++i) {
+				int pos = cursor[sources[i]]++;
+				flowTargets[pos] = targets[i];
+				flowEdges[pos] = variableEdges[i];
+			}
+
+			propagate();
+		}
+
+		boolean isEmpty(int id) {
+			return id >= solutions.length || solutions[id] == null || solutions[id].isEmpty();
+		}
+
+		List<ConstraintEdge> getEdges(int id) {
+			if (isEmpty(id)) {
+				return Collections.emptyList();
+			}
+			List<ConstraintEdge> result = new ArrayList<>(solutions[id].cardinality());
+			solutions[id].forEach(edgeId -> result.add(edges.get(edgeId)));
+			return result;
+		}
+
+		void add(int id, ConstraintEdge edge) {
+			addEdge(id, edge);
+			propagate();
+		}
+
+		private void addEdge(int id, ConstraintEdge edge) {
+			Integer edgeId = edgeIds.get(edge);
+			if (edgeId == null) {
+				edgeId = edges.size();
+				edges.add(edge);
+				edgeIds.put(edge, edgeId);
+			}
+			if (getSolution(id).add(edgeId)) {
+				getDelta(id).add(edgeId);
+				changedNodes.add(id, rank[id]);
+			}
+		}
+
+		private SparseBitSet getSolution(int id) {
+			ensureCapacity(id);
+			if (solutions[id] == null) {
+				solutions[id] = new SparseBitSet();
+			}
+			return solutions[id];
+		}
+
+		private SparseBitSet getDelta(int id) {
+			ensureCapacity(id);
+			if (deltas[id] == null) {
+				deltas[id] = new SparseBitSet();
+			}
+			return deltas[id];
+		}
+
+		private void ensureCapacity(int id) {
+			if (id >= solutions.length) {
+				int capacity = Math.max(id + 1, 2 * solutions.length);
+				solutions = Arrays.copyOf(solutions, capacity);
+				deltas = Arrays.copyOf(deltas, capacity);
+			}
+		}
+
+		private void propagate() {
+			while (!changedNodes.isEmpty()) {
+				int source = changedNodes.poll();
+				SparseBitSet delta = deltas[source];
+				deltas[source] = null;
+				if (delta == null || source + 1 >= flowOffsets.length) {
+					continue;
+				}
+
+				for (int i = flowOffsets[source]; i < flowOffsets[source + 1]; ++i) {
+					int target = flowTargets[i];
+					ConstraintEdge flowEdge = flowEdges[i];
+					if (isCopyEdge(flowEdge)) {
+						if (getSolution(target).or(delta, getDelta(target))) {
+							changedNodes.add(target, rank[target]);
+						}
+					} else {
+						delta.forEach(edgeId -> {
+							ConstraintEdge edge = edges.get(edgeId);
+							if (match(edge, flowEdge)) {
+								addEdge(target,
+										new ConstraintEdge(edge.getTarget(),
+												concat(edge.getInclusionAnnotation(), flowEdge.getInclusionAnnotation()),
+												concat(edge.getContextAnnotation(), flowEdge.getContextAnnotation())));
+							}
+						});
+					}
+				}
+			}
+		}
+	}
+}
@@ -63,6 +63,7 @@ public class ConstraintGraph {
 	private final ContextFactory contextFactory;
 
 	private Multimap<SetVariable, ConstraintEdge> leastSolution = HashMultimap.create();
+	private CollapsingSolver collapsingSolver;
 
 	ConstraintGraph(Map<DistinctReference, SetVariable> referenceVariables, DeclarationLambdaStore declLambdaStore,
 			Map<SetExpression, ConstraintNode> constraintNodes, Set<SetVariable> volatileEntities,
@@ -87,7 +88,7 @@ public class ConstraintGraph {
 		return variable;
 	}
 
-	private ConstraintNode getNode(SetExpression setExpr) {
+	ConstraintNode getNode(SetExpression setExpr) {
 		Objects.requireNonNull(setExpr);
 
 		ConstraintNode node = constraintNodes.get(setExpr);
@@ -99,6 +100,42 @@ public class ConstraintGraph {
 		return node;
 	}
 
+	/**
+	 * @return the node of the set expression or null if the graph does not contain one
+	 */
+	ConstraintNode findNode(SetExpression setExpr) {
+		return constraintNodes.get(setExpr);
+	}
+
+	/**
+	 * Makes the set expression refer to the given node, used to merge the nodes of variables that have to be equal.
+	 */
+	void redirect(SetExpression setExpr, ConstraintNode node) {
+		constraintNodes.put(setExpr, node);
+	}
+
+	Collection<ConstraintNode> getNodes() {
+		return constraintNodes.values();
+	}
+
+	Set<SetVariable> getVolatileEntities() {
+		return volatileEntities;
+	}
+
+	Set<ConstraintNode> addConstraint(SetExpression setExpr1, SetExpression setExpr2,
+			InclusionAnnotation inclusionAnnotation, ContextAnnotation contextAnnotation) {
+		return constraintResolver.addConstraint(setExpr1, setExpr2, inclusionAnnotation, contextAnnotation);
+	}
+
+	/**
+	 * @return a new object of unknown type that serves as the target of volatile entities that do not point to any
+	 *         other object
+	 */
+	RefTerm createUnknownObject() {
+		return new RefTerm(new UniqueAllocationSite(Names.getUnknownType()),
+				declLambdaStore.getVariableFactory().createObjectVariable());
+	}
+
 	private LambdaTerm getDeclarationLambda(IMemberName member) {
 		return declLambdaStore.getDeclarationLambda(member);
 	}
@@ -131,6 +168,19 @@ public class ConstraintGraph {
 	}
 
 	public void computeClosure() {
+		computeClosure(ClosureStrategy.WORKLIST);
+	}
+
+	public void computeClosure(ClosureStrategy strategy) {
+		if (strategy == ClosureStrategy.CYCLE_COLLAPSING) {
+			if (collapsingSolver == null) {
+				collapsingSolver = new CollapsingSolver(this);
+			}
+			collapsingSolver.solve();
+			return;
+		}
+		Asserts.assertTrue(collapsingSolver == null, "Cycles of the graph have already been collapsed");
+
 		leastSolution.clear();
 		LinkedHashSet<ConstraintNode> worklist = new LinkedHashSet<>(constraintNodes.values());
 
@@ -139,8 +189,7 @@ public class ConstraintGraph {
 
 			for (SetVariable entity : volatileEntities) {
 				if (computeLeastSolution(entity, new HashSet<>()).isEmpty()) {
-					RefTerm obj = new RefTerm(new UniqueAllocationSite(Names.getUnknownType()),
-							declLambdaStore.getVariableFactory().createObjectVariable());
+					RefTerm obj = createUnknownObject();
 					worklist.addAll(constraintResolver.addConstraint(obj, entity, InclusionAnnotation.EMPTY,
 							ContextAnnotation.EMPTY));
 				}
@@ -165,36 +214,43 @@ public class ConstraintGraph {
 		Collection<ConstraintEdge> successors = new ArrayList<>(node.getSuccessors());
 
 		for (ConstraintEdge preEdge : predecessors) {
-			SetExpression preEdgeTarget = preEdge.getTarget().getSetExpression();
-
 			for (ConstraintEdge succEdge : successors) {
-				SetExpression succEdgeTarget = succEdge.getTarget().getSetExpression();
-
-				if (match(preEdge, succEdge)) {
-					boolean bothConstructedTerms = preEdgeTarget instanceof ConstructedTerm
-							&& succEdgeTarget instanceof ConstructedTerm;
-					if (bothConstructedTerms && succEdgeTarget instanceof LambdaTerm
-							&& succEdge.getInclusionAnnotation() instanceof InvocationAnnotation) {
-						processInvocation(preEdge, succEdge, changedNodes);
-					} else if (bothConstructedTerms && preEdgeTarget.getClass() != succEdgeTarget.getClass()) {
-						// prevent adding a constraint between RefTerm and
-						// LambdaTerm
-						continue;
-					} else {
-						InclusionAnnotation newInclAnnotation = concat(preEdge.getInclusionAnnotation(),
-								succEdge.getInclusionAnnotation());
-						ContextAnnotation newContextAnnotation = concat(preEdge.getContextAnnotation(),
-								succEdge.getContextAnnotation());
-
-						changedNodes.addAll(constraintResolver.addConstraint(preEdgeTarget, succEdgeTarget,
-								newInclAnnotation, newContextAnnotation));
-					}
-				}
+				processPair(preEdge, succEdge, changedNodes);
 			}
 		}
 		return changedNodes;
 	}
 
+	/**
+	 * Derives the constraints that follow from a predecessor and a successor edge of the same node.
+	 */
+	void processPair(ConstraintEdge preEdge, ConstraintEdge succEdge, Set<ConstraintNode> changedNodes) {
+		if (!match(preEdge, succEdge)) {
+			return;
+		}
+
+		SetExpression preEdgeTarget = preEdge.getTarget().getSetExpression();
+		SetExpression succEdgeTarget = succEdge.getTarget().getSetExpression();
+		boolean bothConstructedTerms = preEdgeTarget instanceof ConstructedTerm
+				&& succEdgeTarget instanceof ConstructedTerm;
+		if (bothConstructedTerms && succEdgeTarget instanceof LambdaTerm
+				&& succEdge.getInclusionAnnotation() instanceof InvocationAnnotation) {
+			processInvocation(preEdge, succEdge, changedNodes);
+		} else if (bothConstructedTerms && preEdgeTarget.getClass() != succEdgeTarget.getClass()) {
+			// prevent adding a constraint between RefTerm and
+			// LambdaTerm
+			return;
+		} else {
+			InclusionAnnotation newInclAnnotation = concat(preEdge.getInclusionAnnotation(),
+					succEdge.getInclusionAnnotation());
+			ContextAnnotation newContextAnnotation = concat(preEdge.getContextAnnotation(),
+					succEdge.getContextAnnotation());
+
+			changedNodes.addAll(constraintResolver.addConstraint(preEdgeTarget, succEdgeTarget, newInclAnnotation,
+					newContextAnnotation));
+		}
+	}
+
 	private void processInvocation(ConstraintEdge objectEdge, ConstraintEdge invocationEdge,
 			Set<ConstraintNode> changedNodes) {
 		ConstructedTerm object = (ConstructedTerm) objectEdge.getTarget().getSetExpression();
@@ -237,6 +293,14 @@ public class ConstraintGraph {
 	}
 
 	public Multimap<DistinctReference, ConstraintEdge> computeLeastSolution() {
+		if (collapsingSolver != null) {
+			Multimap<DistinctReference, ConstraintEdge> distRefLS = HashMultimap.create();
+			for (Map.Entry<DistinctReference, SetVariable> entry : referenceVariables.entrySet()) {
+				distRefLS.putAll(entry.getKey(), collapsingSolver.getLeastSolution(entry.getValue()));
+			}
+			return distRefLS;
+		}
+
 		leastSolution.clear();
 		for (SetVariable var : getSetVariables()) {
 			computeLeastSolution(var, new HashSet<>());
@@ -288,12 +352,12 @@ public class ConstraintGraph {
 		return leastSolution.get(v);
 	}
 
-	private boolean match(ConstraintEdge edge1, ConstraintEdge edge2) {
+	static boolean match(ConstraintEdge edge1, ConstraintEdge edge2) {
 		return match(edge1.getInclusionAnnotation(), edge2.getInclusionAnnotation())
 				&& match(edge1.getContextAnnotation(), edge2.getContextAnnotation());
 	}
 
-	private boolean match(InclusionAnnotation a, InclusionAnnotation b) {
+	private static boolean match(InclusionAnnotation a, InclusionAnnotation b) {
 		if (InclusionAnnotation.EMPTY.equals(a) || InclusionAnnotation.EMPTY.equals(b)) {
 			return true;
 		}
@@ -305,7 +369,7 @@ public class ConstraintGraph {
 		return false;
 	}
 
-	private InclusionAnnotation concat(InclusionAnnotation a, InclusionAnnotation b) {
+	static InclusionAnnotation concat(InclusionAnnotation a, InclusionAnnotation b) {
 		if (InclusionAnnotation.EMPTY.equals(a)) {
 			return b;
 		} else if (InclusionAnnotation.EMPTY.equals(b)) {
@@ -315,7 +379,7 @@ public class ConstraintGraph {
 		return InclusionAnnotation.EMPTY;
 	}
 
-	private boolean match(ContextAnnotation s1, ContextAnnotation s2) {
+	private static boolean match(ContextAnnotation s1, ContextAnnotation s2) {
 		if (s1.isEmpty() || s2.isEmpty()) {
 			return true;
 		}
@@ -331,7 +395,7 @@ public class ConstraintGraph {
 		return false;
 	}
 
-	private ContextAnnotation concat(ContextAnnotation s1, ContextAnnotation s2) {
+	static ContextAnnotation concat(ContextAnnotation s1, ContextAnnotation s2) {
 		if (s1.isEmpty()) {
 			return s2;
 		} else if (s2.isEmpty()) {
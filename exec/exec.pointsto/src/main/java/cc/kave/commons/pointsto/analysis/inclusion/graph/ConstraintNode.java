@@ -12,7 +12,9 @@
  */
 package cc.kave.commons.pointsto.analysis.inclusion.graph;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import com.google.common.base.MoreObjects;
@@ -26,18 +28,34 @@ public final class ConstraintNode {
 	private final Set<ConstraintEdge> predecessors;
 	private final Set<ConstraintEdge> successors;
 
+	// edges in insertion order, allows solvers to only process the edges added since the last visit
+	private final List<ConstraintEdge> predecessorList;
+	private final List<ConstraintEdge> successorList;
+
+	private int id = -1;
+
 	public ConstraintNode(SetExpression setExpression) {
 		this.setExpression = setExpression;
 		this.predecessors = new HashSet<>();
 		this.successors = new HashSet<>();
+		this.predecessorList = new ArrayList<>();
+		this.successorList = new ArrayList<>();
 	}
 
 	public boolean addPredecessor(ConstraintEdge edge) {
-		return predecessors.add(edge);
+		if (predecessors.add(edge)) {
+			predecessorList.add(edge);
+			return true;
+		}
+		return false;
 	}
 
 	public boolean addSuccessor(ConstraintEdge edge) {
-		return successors.add(edge);
+		if (successors.add(edge)) {
+			successorList.add(edge);
+			return true;
+		}
+		return false;
 	}
 
 	public SetExpression getSetExpression() {
@@ -52,6 +70,33 @@ public final class ConstraintNode {
 		return successors;
 	}
 
+	int getNumPredecessors() {
+		return predecessorList.size();
+	}
+
+	ConstraintEdge getPredecessor(int index) {
+		return predecessorList.get(index);
+	}
+
+	int getNumSuccessors() {
+		return successorList.size();
+	}
+
+	ConstraintEdge getSuccessor(int index) {
+		return successorList.get(index);
+	}
+
+	/**
+	 * @return the number that a {@link CollapsingSolver} has assigned to this node or -1
+	 */
+	int getId() {
+		return id;
+	}
+
+	void setId(int id) {
+		this.id = id;
+	}
+
 	@Override
 	public String toString() {
 		return MoreObjects.toStringHelper(ConstraintNode.class).add("setExpr", setExpression).toString();
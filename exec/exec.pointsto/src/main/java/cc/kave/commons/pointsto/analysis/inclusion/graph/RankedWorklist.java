@@ -0,0 +1,95 @@
+/**
+ * Copyright 2016 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.analysis.inclusion.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A worklist of node ids that returns the node with the lowest rank first. Nodes that are already contained are not
+ * added a second time.
+ */
+final class RankedWorklist {
+
+	private final BitSet contained = new BitSet();
+	private long[] heap = new long[64];
+	private int size;
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void add(int id, int rank) {
+		if (contained.get(id)) {
+			return;
+		}
+		contained.set(id);
+
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, 2 * size);
+		}
+		// ties are broken by id so that older nodes come first
+		long key = ((long) rank << 32) | id;
+		int pos = size++;
+		while (pos > 0) {
+			int parent = (pos - 1) >>> 1;
+			if (heap[parent] <= key) {
+				break;
+			}
+			heap[pos] = heap[parent];
+			pos = parent;
+		}
+		heap[pos] = key;
+	}
+
+	public int poll() {
+		int id = (int) heap[0];
+		contained.clear(id);
+
+		long key = heap[--size];
+		int pos = 0;
+		int half = size >>> 1;
+		while (pos < half) {
+			int child = 2 * pos + 1;
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				++child;
+			}
+			if (key <= heap[child]) {
+				break;
+			}
+			heap[pos] = heap[child];
+			pos = child;
+		}
+		heap[pos] = key;
+		return id;
+	}
+
+	/**
+	 * Removes all nodes from the worklist.
+	 * 
+	 * @return the ids of the removed nodes
+	 */
+	public int[] clear() {
+		int[] ids = new int[size];
+		for (int i = 0; i < size; ++i) {
+			ids[i] = (int) heap[i];
+		}
+		contained.clear();
+		size = 0;
+		return ids;
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2015 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.analysis.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of non-negative integers that only stores the 64 bit words which contain at least one element. Words are kept
+ * sorted by their index, so that lookups are binary searches and unions combine whole words at once.
+ */
+public class SparseBitSet {
+
+	private static final int INITIAL_CAPACITY = 2;
+
+	private int[] indices;
+	private long[] words;
+	private int size;
+
+	public SparseBitSet() {
+		indices = new int[INITIAL_CAPACITY];
+		words = new long[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * @return true if the set did not contain the element before
+	 */
+	public boolean add(int element) {
+		return addWord(element >>> 6, 1L << element) != 0;
+	}
+
+	public boolean contains(int element) {
+		int pos = Arrays.binarySearch(indices, 0, size, element >>> 6);
+		return pos >= 0 && (words[pos] & (1L << element)) != 0;
+	}
+
+	/**
+	 * Adds all elements of the other set to this set.
+	 * 
+	 * @param added
+	 *            receives the elements that have not been contained in this set before, may be null
+	 * @return true if this set has changed
+	 */
+	public boolean or(SparseBitSet other, SparseBitSet added) {
+		boolean changed = false;
+		for (int i = 0; i < other.size; ++i) {
+			long newBits = addWord(other.indices[i], other.words[i]);
+			if (newBits != 0) {
+				changed = true;
+				if (added != null) {
+					added.addWord(other.indices[i], newBits);
+				}
+			}
+		}
+		return changed;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int cardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < size; ++i) {
+			cardinality += Long.bitCount(words[i]);
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Passes the elements of the set in ascending order to the consumer.
+	 */
+	public void forEach(IntConsumer consumer) {
+		for (int i = 0; i < size; ++i) {
+			int base = indices[i] << 6;
+			long word = words[i];
+			while (word != 0) {
+				consumer.accept(base + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+	}
+
+	/**
+	 * @return the bits of the word that have not been set before
+	 */
+	private long addWord(int index, long bits) {
+		// elements are mostly added in ascending order, check the last word before searching
+		int pos = (size > 0 && indices[size - 1] == index) ? size - 1 : Arrays.binarySearch(indices, 0, size, index);
+		if (pos >= 0) {
+			long newBits = bits & ~words[pos];
+			words[pos] |= newBits;
+			return newBits;
+		}
+
+		pos = -(pos + 1);
+		if (size == indices.length) {
+			indices = Arrays.copyOf(indices, 2 * size);
+			words = Arrays.copyOf(words, 2 * size);
+		}
+		System.arraycopy(indices, pos, indices, pos + 1, size - pos);
+		System.arraycopy(words, pos, words, pos + 1, size - pos);
+		indices[pos] = index;
+		words[pos] = bits;
+		++size;
+		return bits;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; ++i) {
+			hash = 31 * hash + indices[i];
+			hash = 31 * hash + Long.hashCode(words[i]);
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SparseBitSet)) {
+			return false;
+		}
+		SparseBitSet other = (SparseBitSet) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; ++i) {
+			if (indices[i] != other.indices[i] || words[i] != other.words[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach(element -> {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(element);
+		});
+		return sb.append('}').toString();
+	}
+}
@@ -86,8 +86,14 @@ public class PointsToEvaluation {
 			PointsToUsageGenerator generator = new PointsToUsageGenerator(factories, SRC_PATH, null, usageStoreFactory,
 					new TypeStatisticsCollector(new PointsToUsageFilter()), descentStrategy);
 
+			// the analyses are run on a pipeline of threads if more than one thread is requested
+			int numThreads = Integer.getInteger("generation.numthreads", 1);
 			Stopwatch stopwatch = Stopwatch.createStarted();
-			generator.generateUsages();
+			if (numThreads > 1) {
+				generator.generateUsages(Math.max(1, numThreads / 4), numThreads, 1000);
+			} else {
+				generator.generateUsages();
+			}
 			stopwatch.stop();
 			LOGGER.info("Usage generation took {}", stopwatch.toString());
 
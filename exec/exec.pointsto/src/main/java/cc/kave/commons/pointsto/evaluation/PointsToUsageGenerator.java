@@ -14,12 +14,21 @@ package cc.kave.commons.pointsto.evaluation;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -27,9 +36,11 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Sets;
 
 import cc.kave.commons.model.events.completionevents.Context;
+import cc.kave.commons.model.ssts.impl.AbstractSSTNode;
 import cc.kave.commons.pointsto.PointsToAnalysisFactory;
 import cc.kave.commons.pointsto.analysis.PointsToAnalysis;
 import cc.kave.commons.pointsto.analysis.PointsToContext;
@@ -44,6 +55,7 @@ import cc.kave.commons.pointsto.io.ZipArchive;
 import cc.kave.commons.pointsto.statistics.UsageStatisticsCollector;
 import cc.kave.commons.pointsto.stores.UsageStore;
 import cc.kave.commons.utils.json.JsonUtils;
+import cc.recommenders.assertions.Asserts;
 import cc.recommenders.exceptions.AssertionException;
 import cc.recommenders.usages.Usage;
 
@@ -60,6 +72,8 @@ public class PointsToUsageGenerator {
 
 	private Map<PointsToAnalysisFactory, UsageStatisticsCollector> statisticsCollectors = new HashMap<>();
 
+	private List<StageCounter> stageCounters = Collections.emptyList();
+
 	private final DescentStrategy descentStrategy;
 
 	private final Set<String> blacklist = Sets.newHashSet("Microsoft.SPOT.Platform.Tests.XmlBasicTests, SPOTXmlTests" // causes
@@ -90,6 +104,13 @@ public class PointsToUsageGenerator {
 		return Collections.unmodifiableMap(statisticsCollectors);
 	}
 
+	/**
+	 * @return the counters of the stages of the last pipelined run, empty if the usages were generated sequentially
+	 */
+	public List<StageCounter> getStageCounters() {
+		return Collections.unmodifiableList(stageCounters);
+	}
+
 	public void generateUsages() {
 		for (Path zipFile : sources) {
 			try {
@@ -99,7 +120,29 @@ public class PointsToUsageGenerator {
 			}
 		}
 
-		// close stores
+		closeStores();
+	}
+
+	/**
+	 * Generates the usages in three pipelined stages: decoder threads read the contexts of one zip file each, a pool
+	 * of analyzer threads runs the analyses and the calling thread writes the results to the {@link UsageStore}s in
+	 * batches of up to {@code batchSize} usages per analysis. The stages are connected by bounded queues, a slow stage
+	 * therefore throttles the preceding ones. Unlike {@link #generateUsages()}, the usages of the contexts of a zip
+	 * file are not stored in the order of the contexts.
+	 */
+	public void generateUsages(int numDecoders, int numAnalyzers, int batchSize) {
+		Asserts.assertTrue(numDecoders > 0, "at least one decoder thread is required");
+		Asserts.assertTrue(numAnalyzers > 0, "at least one analyzer thread is required");
+		Asserts.assertTrue(batchSize > 0, "batch size has to be positive");
+
+		try {
+			new Pipeline(numDecoders, numAnalyzers, batchSize).run();
+		} finally {
+			closeStores();
+		}
+	}
+
+	private void closeStores() {
 		for (UsageStore store : usageStores.values()) {
 			try {
 				store.close();
@@ -109,6 +152,20 @@ public class PointsToUsageGenerator {
 		}
 	}
 
+	private void flushStores() throws IOException {
+		for (UsageStore store : usageStores.values()) {
+			store.flush();
+		}
+	}
+
+	private boolean isAccepted(Context context) {
+		try {
+			return !blacklist.contains(context.getTypeShape().getTypeHierarchy().getElement().getIdentifier());
+		} catch (RuntimeException ex) {
+			return false;
+		}
+	}
+
 	private void processZipFile(Path inputZipFile) throws IOException {
 		final Map<PointsToAnalysisFactory, ZipArchive> annotatedContextWriters = new HashMap<>(factories.size());
 
@@ -117,13 +174,7 @@ public class PointsToUsageGenerator {
 		initializeWriters(relativeInput, annotatedContextWriters);
 
 		try (StreamingZipReader reader = new StreamingZipReader(inputZipFile.toFile())) {
-			Stream<Context> contextStream = reader.stream(Context.class).filter(ctxt -> {
-				try {
-					return !blacklist.contains(ctxt.getTypeShape().getTypeHierarchy().getElement().getIdentifier());
-				} catch (RuntimeException ex) {
-					return false;
-				}
-			});
+			Stream<Context> contextStream = reader.stream(Context.class).filter(this::isAccepted);
 			contextStream.forEach(new ContextConsumer(relativeInput, annotatedContextWriters));
 		}
 
@@ -132,9 +183,7 @@ public class PointsToUsageGenerator {
 			archive.close();
 		}
 
-		for (UsageStore store : usageStores.values()) {
-			store.flush();
-		}
+		flushStores();
 	}
 
 	private void initializeWriters(final Path relativeInput,
@@ -158,6 +207,45 @@ public class PointsToUsageGenerator {
 		}
 	}
 
+	private List<AnalysisResult> analyze(Context context) {
+		PointsToUsageExtractor extractor = new PointsToUsageExtractor(descentStrategy,
+				CallsitePruning.EMPTY_RECV_CALLSITES, MethodContextReplacement.FIRST_OR_SUPER_OR_ELEMENT);
+		List<AnalysisResult> results = new ArrayList<>(factories.size());
+
+		// all analyses hash declarations, lambdas and catch blocks of the same SST, freezing memoizes their hashes
+		if (context.getSST() instanceof AbstractSSTNode) {
+			((AbstractSSTNode) context.getSST()).freeze();
+		}
+
+		for (PointsToAnalysisFactory factory : factories) {
+			PointsToAnalysis pa = factory.create();
+			PointsToContext ptContext = null;
+
+			// guard against exception in MethodName:getSignature()
+			try {
+				ptContext = pa.compute(context);
+			} catch (UnexpectedSSTNodeException | AssertionException | ClassCastException | NullPointerException
+					| ConcurrentModificationException | StackOverflowError ex) {
+				throw ex;
+			} catch (RuntimeException ex) {
+				LOGGER.error("Failed to compute pointer analysis " + factory.getName(), ex);
+				continue;
+			}
+
+			UsageStatisticsCollector statsCollector = statisticsCollectors.get(factory).create();
+			extractor.setStatisticsCollector(statsCollector);
+			List<Usage> extractedUsages = extractor.extract(ptContext);
+			UsageStatisticsCollector globalCollector = statisticsCollectors.get(factory);
+			synchronized (globalCollector) {
+				globalCollector.merge(statsCollector);
+			}
+
+			results.add(new AnalysisResult(factory, ptContext, extractedUsages));
+		}
+
+		return results;
+	}
+
 	private class ContextConsumer implements Consumer<Context> {
 
 		private Path relativeInput;
@@ -175,44 +263,336 @@ public class PointsToUsageGenerator {
 				return;
 			}
 
-			PointsToUsageExtractor extractor = new PointsToUsageExtractor(descentStrategy,
-					CallsitePruning.EMPTY_RECV_CALLSITES, MethodContextReplacement.FIRST_OR_SUPER_OR_ELEMENT);
-
-			for (PointsToAnalysisFactory factory : factories) {
-				PointsToAnalysis pa = factory.create();
-				PointsToContext ptContext = null;
-
-				// guard against exception in MethodName:getSignature()
+			for (AnalysisResult result : analyze(context)) {
 				try {
-					ptContext = pa.compute(context);
-				} catch (UnexpectedSSTNodeException | AssertionException | ClassCastException | NullPointerException
-						| ConcurrentModificationException | StackOverflowError ex) {
-					throw ex;
-				} catch (RuntimeException ex) {
-					LOGGER.error("Failed to compute pointer analysis " + factory.getName(), ex);
-					continue;
+					writePointsToContext(result.ptContext, result.factory, annotatedContextWriters);
+				} catch (Exception e) {
+					LOGGER.error("Failed to serialize an annotated context from " + relativeInput.toString(), e);
 				}
 
+				UsageStore usageStore = usageStores.get(result.factory);
 				try {
-					writePointsToContext(ptContext, factory, annotatedContextWriters);
+					usageStore.store(result.usages, relativeInput);
 				} catch (Exception e) {
-					LOGGER.error("Failed to serialize an annotated context from " + relativeInput.toString(), e);
+					LOGGER.error("Failed to serialize an extracted usage from " + relativeInput.toString(), e);
+				}
+			}
+		}
+
+	}
+
+	private class Pipeline {
+
+		private static final int QUEUE_CAPACITY_PER_ANALYZER = 4;
+
+		private final int numAnalyzers;
+		private final int batchSize;
+
+		private final ExecutorService decoderPool;
+		private final ExecutorService analyzerPool;
+
+		private final BlockingQueue<DecodedContext> contexts;
+		private final BlockingQueue<Object> results;
+
+		private final AtomicInteger remainingZips;
+		private final AtomicInteger remainingAnalyzers;
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		private final StageCounter decodeCounter = new StageCounter("decode");
+		private final StageCounter analyzeCounter = new StageCounter("analyze");
+		private final StageCounter writeCounter = new StageCounter("write");
+
+		public Pipeline(int numDecoders, int numAnalyzers, int batchSize) {
+			this.numAnalyzers = numAnalyzers;
+			this.batchSize = batchSize;
+			decoderPool = Executors.newFixedThreadPool(numDecoders);
+			analyzerPool = Executors.newFixedThreadPool(numAnalyzers);
+			contexts = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_ANALYZER * numAnalyzers);
+			results = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_ANALYZER * numAnalyzers);
+			remainingZips = new AtomicInteger(sources.size());
+			remainingAnalyzers = new AtomicInteger(numAnalyzers);
+			stageCounters = Arrays.asList(decodeCounter, analyzeCounter, writeCounter);
+		}
+
+		public void run() {
+			try {
+				if (sources.isEmpty()) {
+					endDecoding();
+				}
+				for (Path zipFile : sources) {
+					decoderPool.execute(() -> decode(zipFile));
+				}
+				for (int i = 0; i < numAnalyzers; ++i) {
+					analyzerPool.execute(this::analyzeContexts);
+				}
+				write();
+			} finally {
+				decoderPool.shutdownNow();
+				analyzerPool.shutdownNow();
+			}
+
+			for (StageCounter counter : stageCounters) {
+				LOGGER.info(counter.toString());
+			}
+
+			Throwable ex = failure.get();
+			if (ex != null) {
+				throw Throwables.propagate(ex);
+			}
+		}
+
+		private void fail(Throwable ex) {
+			failure.compareAndSet(null, ex);
+		}
+
+		private <T> void put(BlockingQueue<T> queue, T item, StageCounter counter) {
+			long start = System.nanoTime();
+			try {
+				queue.put(item);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(e);
+			}
+			counter.onWaited(System.nanoTime() - start);
+		}
+
+		/**
+		 * @return the head of the queue or {@code null} if the thread has been interrupted
+		 */
+		private <T> T take(BlockingQueue<T> queue, StageCounter counter) {
+			long start = System.nanoTime();
+			try {
+				return queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(e);
+				return null;
+			} finally {
+				counter.onWaited(System.nanoTime() - start);
+			}
+		}
+
+		private void decode(Path zipFile) {
+			Path relativeInput = srcDir.relativize(zipFile);
+			int numContexts = 0;
+			try (StreamingZipReader reader = new StreamingZipReader(zipFile.toFile())) {
+				Iterator<Context> iterator = reader.stream(Context.class).iterator();
+				while (failure.get() == null) {
+					long start = System.nanoTime();
+					if (!iterator.hasNext()) {
+						break;
+					}
+					Context context = iterator.next();
+					decodeCounter.onProcessed(1, System.nanoTime() - start);
+
+					if (context != null && isAccepted(context)) {
+						put(contexts, new DecodedContext(relativeInput, context), decodeCounter);
+						++numContexts;
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.error("Failed to process zip " + zipFile.toString(), e);
+			} catch (Throwable ex) {
+				fail(ex);
+			} finally {
+				put(results, new DecodedZip(relativeInput, numContexts), decodeCounter);
+				if (remainingZips.decrementAndGet() == 0) {
+					endDecoding();
+				}
+			}
+		}
+
+		private void endDecoding() {
+			for (int i = 0; i < numAnalyzers; ++i) {
+				put(contexts, DecodedContext.END, decodeCounter);
+			}
+		}
+
+		private void analyzeContexts() {
+			try {
+				DecodedContext item;
+				while ((item = take(contexts, analyzeCounter)) != null && item != DecodedContext.END) {
+					if (failure.get() != null) {
+						// keep draining the queue to unblock the decoders
+						continue;
+					}
+
+					long start = System.nanoTime();
+					try {
+						List<AnalysisResult> analysisResults = analyze(item.context);
+						analyzeCounter.onProcessed(1, System.nanoTime() - start);
+						put(results, new AnalyzedContext(item.relativeInput, analysisResults), analyzeCounter);
+					} catch (Throwable ex) {
+						fail(ex);
+					}
 				}
+			} finally {
+				if (remainingAnalyzers.decrementAndGet() == 0) {
+					put(results, AnalyzedContext.END, analyzeCounter);
+				}
+			}
+		}
+
+		private void write() {
+			Map<Path, ZipOutput> outputs = new HashMap<>();
+			try {
+				Object item;
+				while ((item = take(results, writeCounter)) != null && item != AnalyzedContext.END) {
+					if (failure.get() != null) {
+						// keep draining the queue to unblock the analyzers
+						continue;
+					}
+
+					long start = System.nanoTime();
+					try {
+						if (item instanceof AnalyzedContext) {
+							AnalyzedContext analyzedContext = (AnalyzedContext) item;
+							ZipOutput output = getOutput(outputs, analyzedContext.relativeInput);
+							output.add(analyzedContext.results);
+							writeCounter.onProcessed(1, System.nanoTime() - start);
+							completeIfDone(outputs, output);
+						} else {
+							DecodedZip decodedZip = (DecodedZip) item;
+							ZipOutput output = getOutput(outputs, decodedZip.relativeInput);
+							output.numExpected = decodedZip.numContexts;
+							completeIfDone(outputs, output);
+						}
+					} catch (Throwable ex) {
+						fail(ex);
+					}
+				}
+			} finally {
+				for (ZipOutput output : outputs.values()) {
+					output.closeArchives();
+				}
+			}
+		}
+
+		private ZipOutput getOutput(Map<Path, ZipOutput> outputs, Path relativeInput) throws IOException {
+			ZipOutput output = outputs.get(relativeInput);
+			if (output == null) {
+				output = new ZipOutput(relativeInput);
+				outputs.put(relativeInput, output);
+			}
+			return output;
+		}
+
+		private void completeIfDone(Map<Path, ZipOutput> outputs, ZipOutput output) throws IOException {
+			if (output.numReceived == output.numExpected) {
+				outputs.remove(output.relativeInput);
+				output.storeAll();
+				output.closeArchives();
+				flushStores();
+			}
+		}
+
+		private class ZipOutput {
+
+			private final Path relativeInput;
+			private final Map<PointsToAnalysisFactory, ZipArchive> annotatedContextWriters = new HashMap<>();
+			private final Map<PointsToAnalysisFactory, List<Usage>> batches = new HashMap<>();
 
-				UsageStatisticsCollector statsCollector = statisticsCollectors.get(factory).create();
-				extractor.setStatisticsCollector(statsCollector);
-				List<Usage> extractedUsages = extractor.extract(ptContext);
-				statisticsCollectors.get(factory).merge(statsCollector);
+			private int numReceived = 0;
+			private int numExpected = -1;
 
-				UsageStore usageStore = usageStores.get(factory);
+			public ZipOutput(Path relativeInput) throws IOException {
+				this.relativeInput = relativeInput;
+				initializeWriters(relativeInput, annotatedContextWriters);
+			}
+
+			public void add(List<AnalysisResult> analysisResults) {
+				++numReceived;
+				for (AnalysisResult result : analysisResults) {
+					try {
+						writePointsToContext(result.ptContext, result.factory, annotatedContextWriters);
+					} catch (Exception e) {
+						LOGGER.error("Failed to serialize an annotated context from " + relativeInput.toString(), e);
+					}
+
+					List<Usage> batch = batches.computeIfAbsent(result.factory, f -> new ArrayList<>());
+					batch.addAll(result.usages);
+					if (batch.size() >= batchSize) {
+						store(result.factory);
+					}
+				}
+			}
+
+			private void store(PointsToAnalysisFactory factory) {
+				List<Usage> batch = batches.remove(factory);
 				try {
-					usageStore.store(extractedUsages, relativeInput);
+					usageStores.get(factory).store(batch, relativeInput);
 				} catch (Exception e) {
 					LOGGER.error("Failed to serialize an extracted usage from " + relativeInput.toString(), e);
 				}
 			}
+
+			public void storeAll() {
+				for (PointsToAnalysisFactory factory : new ArrayList<>(batches.keySet())) {
+					store(factory);
+				}
+			}
+
+			public void closeArchives() {
+				for (ZipArchive archive : annotatedContextWriters.values()) {
+					try {
+						archive.close();
+					} catch (IOException e) {
+						LOGGER.error("Failed to close the annotated contexts of " + relativeInput.toString(), e);
+					}
+				}
+				annotatedContextWriters.clear();
+			}
 		}
+	}
+
+	private static class DecodedContext {
+
+		static final DecodedContext END = new DecodedContext(null, null);
 
+		final Path relativeInput;
+		final Context context;
+
+		DecodedContext(Path relativeInput, Context context) {
+			this.relativeInput = relativeInput;
+			this.context = context;
+		}
+	}
+
+	private static class DecodedZip {
+
+		final Path relativeInput;
+		final int numContexts;
+
+		DecodedZip(Path relativeInput, int numContexts) {
+			this.relativeInput = relativeInput;
+			this.numContexts = numContexts;
+		}
+	}
+
+	private static class AnalyzedContext {
+
+		static final AnalyzedContext END = new AnalyzedContext(null, null);
+
+		final Path relativeInput;
+		final List<AnalysisResult> results;
+
+		AnalyzedContext(Path relativeInput, List<AnalysisResult> results) {
+			this.relativeInput = relativeInput;
+			this.results = results;
+		}
+	}
+
+	private static class AnalysisResult {
+
+		final PointsToAnalysisFactory factory;
+		final PointsToContext ptContext;
+		final List<Usage> usages;
+
+		AnalysisResult(PointsToAnalysisFactory factory, PointsToContext ptContext, List<Usage> usages) {
+			this.factory = factory;
+			this.ptContext = ptContext;
+			this.usages = usages;
+		}
 	}
 
 }
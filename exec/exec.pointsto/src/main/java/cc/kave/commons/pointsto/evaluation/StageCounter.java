@@ -0,0 +1,73 @@
+/**
+ * Copyright 2015 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.evaluation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput counter of a single stage of the {@link PointsToUsageGenerator} pipeline. Busy time is the time spent on
+ * processing items, wait time is the time spent blocked on the queues that connect the stage to its neighbours. All
+ * times are summed over the threads of a stage.
+ */
+public class StageCounter {
+
+	private final String name;
+
+	private final LongAdder items = new LongAdder();
+	private final LongAdder busyNanos = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+
+	public StageCounter(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void onProcessed(int numItems, long nanos) {
+		items.add(numItems);
+		busyNanos.add(nanos);
+	}
+
+	public void onWaited(long nanos) {
+		waitNanos.add(nanos);
+	}
+
+	public long getItems() {
+		return items.sum();
+	}
+
+	public long getBusyTime(TimeUnit unit) {
+		return unit.convert(busyNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	public long getWaitTime(TimeUnit unit) {
+		return unit.convert(waitNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return items processed per second of busy time
+	 */
+	public double getThroughput() {
+		long busy = busyNanos.sum();
+		return busy == 0 ? 0 : items.sum() * 1e9 / busy;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d items, %.1f items/s, busy %d ms, waiting %d ms", name, getItems(),
+				getThroughput(), getBusyTime(TimeUnit.MILLISECONDS), getWaitTime(TimeUnit.MILLISECONDS));
+	}
+}
@@ -12,11 +12,11 @@
  */
 package cc.kave.commons.pointsto.io;
 
-import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
@@ -24,6 +24,8 @@ import java.util.zip.ZipFile;
 
 import org.slf4j.LoggerFactory;
 
+import com.google.common.io.ByteStreams;
+
 import cc.kave.commons.utils.json.JsonUtils;
 
 public class StreamingZipReader implements Closeable {
@@ -43,17 +45,15 @@ public class StreamingZipReader implements Closeable {
 
 			@Override
 			public T apply(ZipEntry entry) {
-				StringBuilder builder = new StringBuilder();
-				try (BufferedReader reader = new BufferedReader(new InputStreamReader(zip.getInputStream(entry)))) {
-					String line;
-					while ((line = reader.readLine()) != null) {
-						builder.append(line);
-					}
+				String json = "";
+				try (InputStream in = zip.getInputStream(entry)) {
+					// read the whole entry at once instead of rebuilding it line by line
+					json = new String(ByteStreams.toByteArray(in), Charset.defaultCharset());
 				} catch (IOException e) {
 					LoggerFactory.getLogger(StreamingZipReader.class).error("Failed to process zip entry sream", e);
 				}
 
-				return JsonUtils.fromJson(builder.toString(), targetType);
+				return JsonUtils.fromJson(json, targetType);
 			}
 		});
 	}
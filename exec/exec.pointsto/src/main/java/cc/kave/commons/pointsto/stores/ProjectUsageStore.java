@@ -14,7 +14,11 @@ package cc.kave.commons.pointsto.stores;
 
 import static com.google.common.io.Files.getNameWithoutExtension;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
@@ -47,6 +51,7 @@ import cc.kave.commons.utils.json.legacy.GsonUtil;
 import cc.recommenders.names.ICoReTypeName;
 import cc.recommenders.names.CoReNames;
 import cc.recommenders.usages.Usage;
+import cc.recommenders.usages.UsageColumns;
 
 public class ProjectUsageStore implements UsageStore {
 
@@ -196,6 +201,18 @@ public class ProjectUsageStore implements UsageStore {
 		return projectUsageCounts;
 	}
 
+	/**
+	 * Writes a column file next to every usage archive. Subsequent loads read the column files instead of
+	 * deserializing the JSON entries of the archives, storing new usages invalidates the affected column file.
+	 */
+	public void convertToColumns() throws IOException {
+		synchronized (projectDirToStore) {
+			for (ProjectStore store : projectDirToStore.values()) {
+				store.convertToColumns();
+			}
+		}
+	}
+
 	public Map<ProjectIdentifier, List<Usage>> loadUsagesPerProject(ICoReTypeName type) throws IOException {
 		return loadUsagesPerProject(type, x -> true);
 	}
@@ -423,6 +440,7 @@ public class ProjectUsageStore implements UsageStore {
 
 			for (ICoReTypeName type : typeToUsages.keySet()) {
 				Path zipFile = getZipFile(type);
+				Files.deleteIfExists(getColumnsFile(zipFile));
 
 				ZipArchive archive = getArchive(zipFile);
 				for (Usage usage : typeToUsages.get(type)) {
@@ -460,15 +478,51 @@ public class ProjectUsageStore implements UsageStore {
 
 			synchronized (typeToZipFiles) {
 				for (Path zipFile : typeToZipFiles.get(type)) {
-					ZipArchive archive = getArchive(zipFile);
-					usages.addAll(archive.stream(Usage.class, GsonUtil::deserialize).filter(filter)
-							.collect(Collectors.toList()));
+					Path columnsFile = getColumnsFile(zipFile);
+					if (Files.exists(columnsFile)) {
+						for (Usage usage : readColumns(columnsFile)) {
+							if (filter.test(usage)) {
+								usages.add(usage);
+							}
+						}
+					} else {
+						ZipArchive archive = getArchive(zipFile);
+						usages.addAll(archive.stream(Usage.class, GsonUtil::deserialize).filter(filter)
+								.collect(Collectors.toList()));
+					}
 				}
 			}
 
 			return usages;
 		}
 
+		private static Path getColumnsFile(Path zipFile) {
+			String baseName = getNameWithoutExtension(zipFile.getFileName().toString());
+			return zipFile.resolveSibling(baseName + UsageColumns.FILE_EXTENSION);
+		}
+
+		private static UsageColumns readColumns(Path columnsFile) throws IOException {
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(columnsFile))) {
+				return UsageColumns.read(in);
+			}
+		}
+
+		public void convertToColumns() throws IOException {
+			synchronized (typeToZipFiles) {
+				for (Path zipFile : typeToZipFiles.values()) {
+					UsageColumns.Builder builder = new UsageColumns.Builder();
+					try (Stream<Usage> usages = getArchive(zipFile).stream(Usage.class, GsonUtil::deserialize)) {
+						usages.forEachOrdered(usage -> builder.add(usage, getName()));
+					}
+
+					try (OutputStream out = new BufferedOutputStream(
+							Files.newOutputStream(getColumnsFile(zipFile)))) {
+						builder.build().write(out);
+					}
+				}
+			}
+		}
+
 		@Override
 		public void flush() throws IOException {
 			synchronized (openArchives) {
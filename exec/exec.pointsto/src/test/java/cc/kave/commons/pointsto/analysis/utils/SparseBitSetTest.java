@@ -0,0 +1,92 @@
+/**
+ * Copyright 2016 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.analysis.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SparseBitSetTest {
+
+	@Test
+	public void testAdd() {
+		SparseBitSet set = new SparseBitSet();
+		assertTrue(set.isEmpty());
+
+		assertTrue(set.add(3));
+		assertTrue(set.add(1000));
+		assertTrue(set.add(64));
+		assertFalse(set.add(3));
+
+		assertFalse(set.isEmpty());
+		assertEquals(3, set.cardinality());
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(64));
+		assertTrue(set.contains(1000));
+		assertFalse(set.contains(4));
+		assertFalse(set.contains(999));
+	}
+
+	@Test
+	public void testForEachIsOrdered() {
+		SparseBitSet set = new SparseBitSet();
+		for (int element : new int[] { 700, 5, 130, 63, 64, 0 }) {
+			set.add(element);
+		}
+
+		List<Integer> elements = new ArrayList<>();
+		set.forEach(elements::add);
+		assertEquals(Arrays.asList(0, 5, 63, 64, 130, 700), elements);
+	}
+
+	@Test
+	public void testOr() {
+		SparseBitSet a = new SparseBitSet();
+		a.add(1);
+		a.add(200);
+		SparseBitSet b = new SparseBitSet();
+		b.add(1);
+		b.add(2);
+		b.add(500);
+
+		SparseBitSet added = new SparseBitSet();
+		assertTrue(a.or(b, added));
+		assertEquals(4, a.cardinality());
+		assertEquals(2, added.cardinality());
+		assertTrue(added.contains(2));
+		assertTrue(added.contains(500));
+
+		assertFalse(a.or(b, null));
+		assertEquals(4, a.cardinality());
+	}
+
+	@Test
+	public void testEquals() {
+		SparseBitSet a = new SparseBitSet();
+		SparseBitSet b = new SparseBitSet();
+		a.add(9);
+		a.add(90);
+		b.add(90);
+		b.add(9);
+
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertEquals("{9, 90}", a.toString());
+	}
+}
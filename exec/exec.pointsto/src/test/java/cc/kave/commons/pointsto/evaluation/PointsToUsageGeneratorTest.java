@@ -0,0 +1,145 @@
+/**
+ * Copyright 2015 Simon Reuß
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package cc.kave.commons.pointsto.evaluation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+import cc.kave.commons.model.events.completionevents.Context;
+import cc.kave.commons.pointsto.PointsToAnalysisFactory;
+import cc.kave.commons.pointsto.SimplePointsToAnalysisFactory;
+import cc.kave.commons.pointsto.analysis.TypeBasedAnalysis;
+import cc.kave.commons.pointsto.analysis.inclusion.InclusionAnalysis;
+import cc.kave.commons.pointsto.extraction.SimpleDescentStrategy;
+import cc.kave.commons.pointsto.io.ZipArchive;
+import cc.kave.commons.pointsto.statistics.NopUsageStatisticsCollector;
+import cc.kave.commons.pointsto.stores.NopUsageStore;
+import cc.kave.commons.pointsto.tests.TestSSTBuilder;
+import cc.kave.commons.utils.json.JsonUtils;
+import cc.recommenders.usages.Usage;
+
+public class PointsToUsageGeneratorTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private final List<PointsToAnalysisFactory> factories = Arrays.asList(
+			new SimplePointsToAnalysisFactory<>(TypeBasedAnalysis.class),
+			new SimplePointsToAnalysisFactory<>(InclusionAnalysis.class));
+
+	private Path srcDir;
+
+	@Before
+	public void setup() throws IOException {
+		srcDir = tmp.newFolder("contexts").toPath();
+		List<Context> contexts = new TestSSTBuilder().createPaperTest();
+		for (String zip : Arrays.asList("a.zip", "b/c.zip", "d.zip")) {
+			Path zipFile = srcDir.resolve(zip);
+			zipFile.getParent().toFile().mkdirs();
+			try (ZipArchive archive = new ZipArchive(zipFile)) {
+				for (int i = 0; i < 5; ++i) {
+					for (Context context : contexts) {
+						archive.store(context, Context.class, JsonUtils::toJson);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void pipelineStoresSameUsages() throws IOException {
+		Map<PointsToAnalysisFactory, RecordingUsageStore> sequential = new HashMap<>();
+		createGenerator(sequential).generateUsages();
+
+		Map<PointsToAnalysisFactory, RecordingUsageStore> pipelined = new HashMap<>();
+		PointsToUsageGenerator generator = createGenerator(pipelined);
+		generator.generateUsages(2, 3, 4);
+
+		for (PointsToAnalysisFactory factory : factories) {
+			RecordingUsageStore expected = sequential.get(factory);
+			RecordingUsageStore actual = pipelined.get(factory);
+			assertFalse(expected.usages.isEmpty());
+			assertEquals(expected.usages, actual.usages);
+			assertEquals(3, actual.numFlushes);
+			assertEquals(1, actual.numCloses);
+		}
+
+		List<StageCounter> counters = generator.getStageCounters();
+		assertEquals(3, counters.size());
+		assertEquals(3 * 5 * new TestSSTBuilder().createPaperTest().size(), counters.get(1).getItems());
+	}
+
+	@Test
+	public void pipelineWithoutContexts() throws IOException {
+		Map<PointsToAnalysisFactory, RecordingUsageStore> stores = new HashMap<>();
+		new PointsToUsageGenerator(factories, tmp.newFolder("empty").toPath(), null, factory -> {
+			RecordingUsageStore store = new RecordingUsageStore();
+			stores.put(factory, store);
+			return store;
+		}, new NopUsageStatisticsCollector(), new SimpleDescentStrategy()).generateUsages(1, 2, 10);
+
+		for (RecordingUsageStore store : stores.values()) {
+			assertEquals(0, store.usages.size());
+			assertEquals(1, store.numCloses);
+		}
+	}
+
+	private PointsToUsageGenerator createGenerator(Map<PointsToAnalysisFactory, RecordingUsageStore> stores)
+			throws IOException {
+		return new PointsToUsageGenerator(factories, srcDir, null, factory -> {
+			RecordingUsageStore store = new RecordingUsageStore();
+			stores.put(factory, store);
+			return store;
+		}, new NopUsageStatisticsCollector(), new SimpleDescentStrategy());
+	}
+
+	private static class RecordingUsageStore extends NopUsageStore {
+
+		private final Multiset<List<Object>> usages = HashMultiset.create();
+		private int numFlushes = 0;
+		private int numCloses = 0;
+
+		@Override
+		public void store(Collection<Usage> usages, Path relativeInput) throws IOException {
+			for (Usage usage : usages) {
+				this.usages.add(Arrays.asList(relativeInput, usage));
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			++numFlushes;
+		}
+
+		@Override
+		public void close() throws IOException {
+			++numCloses;
+		}
+	}
+}
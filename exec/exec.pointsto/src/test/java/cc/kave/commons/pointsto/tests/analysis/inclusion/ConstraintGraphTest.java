@@ -18,6 +18,7 @@ import static cc.kave.commons.model.ssts.impl.SSTUtil.declareVar;
 import static cc.kave.commons.model.ssts.impl.SSTUtil.variableReference;
 import static cc.kave.commons.pointsto.analysis.utils.SSTBuilder.fieldReference;
 import static cc.kave.commons.pointsto.analysis.utils.SSTBuilder.parameter;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -25,6 +26,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -32,6 +34,9 @@ import java.util.Set;
 
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 import com.google.common.collect.Multimap;
 
@@ -44,6 +49,7 @@ import cc.kave.commons.model.ssts.statements.IVariableDeclaration;
 import cc.kave.commons.pointsto.analysis.inclusion.ConstructedTerm;
 import cc.kave.commons.pointsto.analysis.inclusion.allocations.StmtAllocationSite;
 import cc.kave.commons.pointsto.analysis.inclusion.contexts.EmptyContextFactory;
+import cc.kave.commons.pointsto.analysis.inclusion.graph.ClosureStrategy;
 import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintEdge;
 import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraph;
 import cc.kave.commons.pointsto.analysis.inclusion.graph.ConstraintGraphBuilder;
@@ -55,10 +61,23 @@ import cc.kave.commons.pointsto.analysis.references.DistinctVariableReference;
 import cc.kave.commons.pointsto.analysis.utils.ScopedMap;
 import cc.kave.commons.pointsto.extraction.DeclarationMapper;
 
+@RunWith(Parameterized.class)
 public class ConstraintGraphTest {
 
 	private final static String TEST_TYPE_IDENTIFIER = "Test.ConstraintGraphTest, Test";
 
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[] { ClosureStrategy.WORKLIST },
+				new Object[] { ClosureStrategy.CYCLE_COLLAPSING });
+	}
+
+	private final ClosureStrategy closureStrategy;
+
+	public ConstraintGraphTest(ClosureStrategy closureStrategy) {
+		this.closureStrategy = closureStrategy;
+	}
+
 	@Test
 	public void testFieldExample() {
 		// p = new ?()
@@ -98,7 +117,7 @@ public class ConstraintGraphTest {
 		builder.invoke(ConstructedTerm.BOTTOM, variableReference("r"), Collections.emptyList(), method);
 
 		ConstraintGraph graph = builder.createConstraintGraph();
-		graph.computeClosure();
+		graph.computeClosure(closureStrategy);
 		Multimap<DistinctReference, ConstraintEdge> ls = graph.computeLeastSolution();
 
 		assertThat(ls.get(new DistinctVariableReference(rDecl)),
@@ -179,7 +198,7 @@ public class ConstraintGraphTest {
 				aNMethod);
 
 		ConstraintGraph graph = builder.createConstraintGraph();
-		graph.computeClosure();
+		graph.computeClosure(closureStrategy);
 		Multimap<DistinctReference, ConstraintEdge> ls = graph.computeLeastSolution();
 
 		DistinctReference distRetVarA = new DistinctVariableReference(retVarA);
@@ -195,4 +214,48 @@ public class ConstraintGraphTest {
 		// pts(retVarA) != pts(retVarB)
 		assertNotEquals(ls.get(distRetVarA), ls.get(distRetVarB));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCopyCycle() {
+		// p = new ?()
+		// q = p
+		// r = q
+		// p = r
+		// s = new ?()
+		// r = s
+
+		ScopedMap<String, DistinctReference> scopes = new ScopedMap<>();
+		scopes.enter();
+		DistinctReferenceCreationVisitor distRefCreationVisitor = new DistinctReferenceCreationVisitor();
+		ConstraintGraphBuilder builder = new ConstraintGraphBuilder(ref -> ref.accept(distRefCreationVisitor, scopes),
+				mock(DeclarationMapper.class), new EmptyContextFactory());
+
+		List<IVariableDeclaration> decls = new ArrayList<>();
+		for (String name : Arrays.asList("p", "q", "r", "s")) {
+			IVariableDeclaration decl = declareVar(name);
+			scopes.create(name, new DistinctVariableReference(decl));
+			decls.add(decl);
+		}
+		IVariableDeclaration pDecl = decls.get(0);
+		IVariableDeclaration qDecl = decls.get(1);
+		IVariableDeclaration rDecl = decls.get(2);
+		IVariableDeclaration sDecl = decls.get(3);
+
+		builder.allocate(variableReference("p"), new StmtAllocationSite(pDecl));
+		builder.alias(variableReference("q"), variableReference("p"));
+		builder.alias(variableReference("r"), variableReference("q"));
+		builder.alias(variableReference("p"), variableReference("r"));
+		builder.allocate(variableReference("s"), new StmtAllocationSite(sDecl));
+		builder.alias(variableReference("r"), variableReference("s"));
+
+		ConstraintGraph graph = builder.createConstraintGraph();
+		graph.computeClosure(closureStrategy);
+		Multimap<DistinctReference, ConstraintEdge> ls = graph.computeLeastSolution();
+
+		Collection<ConstraintEdge> pEdges = ls.get(new DistinctVariableReference(pDecl));
+		assertEquals(2, pEdges.size());
+		assertThat(ls.get(new DistinctVariableReference(qDecl)), Matchers.is(pEdges));
+		assertThat(ls.get(new DistinctVariableReference(rDecl)), Matchers.is(pEdges));
+		assertEquals(1, ls.get(new DistinctVariableReference(sDecl)).size());
+	}
+}
@@ -21,12 +21,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import org.hamcrest.Matchers;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -50,11 +55,25 @@ import cc.kave.commons.pointsto.analysis.PointsToAnalysis;
 import cc.kave.commons.pointsto.analysis.PointsToQuery;
 import cc.kave.commons.pointsto.analysis.PointsToQueryBuilder;
 import cc.kave.commons.pointsto.analysis.inclusion.InclusionAnalysis;
+import cc.kave.commons.pointsto.analysis.inclusion.graph.ClosureStrategy;
 import cc.kave.commons.pointsto.tests.TestBuilder;
 import cc.kave.commons.pointsto.tests.TestSSTBuilder;
 
+@RunWith(Parameterized.class)
 public class InclusionAnalysisTest extends TestBuilder {
 
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[] { ClosureStrategy.WORKLIST },
+				new Object[] { ClosureStrategy.CYCLE_COLLAPSING });
+	}
+
+	private final ClosureStrategy closureStrategy;
+
+	public InclusionAnalysisTest(ClosureStrategy closureStrategy) {
+		this.closureStrategy = closureStrategy;
+	}
+
 	private static <T> T getLast(List<T> items) {
 		return items.get(items.size() - 1);
 	}
@@ -67,7 +86,7 @@ public class InclusionAnalysisTest extends TestBuilder {
 	public void testStreamTest() {
 		TestSSTBuilder sstBuilder = new TestSSTBuilder();
 		Context context = sstBuilder.createStreamTest();
-		PointsToAnalysis ptAnalysis = new InclusionAnalysis();
+		PointsToAnalysis ptAnalysis = new InclusionAnalysis(closureStrategy);
 		ptAnalysis.compute(context);
 		PointsToQueryBuilder queryBuilder = new PointsToQueryBuilder(context);
 
@@ -105,7 +124,7 @@ public class InclusionAnalysisTest extends TestBuilder {
 	public void testDelegateTest() {
 		TestSSTBuilder sstBuilder = new TestSSTBuilder();
 		Context context = sstBuilder.createDelegateTest();
-		PointsToAnalysis ptAnalysis = new InclusionAnalysis();
+		PointsToAnalysis ptAnalysis = new InclusionAnalysis(closureStrategy);
 		ptAnalysis.compute(context);
 		PointsToQueryBuilder queryBuilder = new PointsToQueryBuilder(context);
 
@@ -139,7 +158,7 @@ public class InclusionAnalysisTest extends TestBuilder {
 	public void testParameterArrayTest() {
 		TestSSTBuilder sstBuilder = new TestSSTBuilder();
 		Context context = sstBuilder.createParameterArrayTest();
-		PointsToAnalysis ptAnalysis = new InclusionAnalysis();
+		PointsToAnalysis ptAnalysis = new InclusionAnalysis(closureStrategy);
 		ptAnalysis.compute(context);
 		PointsToQueryBuilder queryBuilder = new PointsToQueryBuilder(context);
 
@@ -175,7 +194,7 @@ public class InclusionAnalysisTest extends TestBuilder {
 	public void testRecursionTest() {
 		TestSSTBuilder sstBuilder = new TestSSTBuilder();
 		Context context = sstBuilder.createRecursionTest();
-		PointsToAnalysis ptAnalysis = new InclusionAnalysis();
+		PointsToAnalysis ptAnalysis = new InclusionAnalysis(closureStrategy);
 		ptAnalysis.compute(context);
 		PointsToQueryBuilder queryBuilder = new PointsToQueryBuilder(context);
 
@@ -225,7 +244,7 @@ public class InclusionAnalysisTest extends TestBuilder {
 				assign("b", refExpr(fieldReference(variableReference("p0"), field(type("B"), type("A"), 0)))),
 				declare("c", type("C")), assign("c", refExpr(indexAccessReference(variableReference("p0")))));
 		Context ctxt = context(enclosingType, ImmutableSet.of(enclosingMethod), emptySet(), emptySet());
-		PointsToAnalysis analysis = new InclusionAnalysis();
+		PointsToAnalysis analysis = new InclusionAnalysis(closureStrategy);
 		analysis.compute(ctxt);
 
 		IAssignment bAssignment = (IAssignment) enclosingMethod.getBody().get(1);
@@ -10,13 +10,18 @@
  ******************************************************************************/
 package org.eclipse.recommenders.jayes.factor;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.eclipse.recommenders.jayes.factor.arraywrapper.DoubleArrayWrapper;
+import org.eclipse.recommenders.jayes.factor.arraywrapper.FloatArrayWrapper;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.IArrayWrapper;
 import org.eclipse.recommenders.jayes.factor.opcache.DivisionCache;
 import org.eclipse.recommenders.jayes.factor.opcache.IOperationCache;
 import org.eclipse.recommenders.jayes.factor.opcache.ModuloCache;
+import org.eclipse.recommenders.jayes.util.BufferUtils;
 import org.eclipse.recommenders.jayes.util.MathUtils;
 
 public abstract class AbstractFactor implements Cloneable {
@@ -27,6 +32,13 @@ public abstract class AbstractFactor implements Cloneable {
 
     protected abstract int getRealPosition(int virtualPosition);
 
+    /**
+     * @return true if every virtual position is equal to its real position, which allows to use the array kernels
+     */
+    protected boolean isDirectlyAddressed() {
+        return false;
+    }
+
     public abstract void fill(double d);
 
     protected int[] dimensions = new int[0];
@@ -37,6 +49,13 @@ public abstract class AbstractFactor implements Cloneable {
     private boolean isCutValid = false;
     private boolean isLogScale = false;
 
+    // combinations of value array types that are supported by the array kernels
+    private static final int GENERIC = 0;
+    private static final int DOUBLE_DOUBLE = 1;
+    private static final int FLOAT_FLOAT = 2;
+    private static final int DOUBLE_FLOAT = 3;
+    private static final int FLOAT_DOUBLE = 4;
+
     public AbstractFactor() {
         super();
     }
@@ -156,23 +175,64 @@ public abstract class AbstractFactor implements Cloneable {
 
     public void multiplyPrepared(IArrayWrapper compatibleValues, int[] positions) {
         validateCut();
+        int kernel = selectKernel(values, compatibleValues);
         if (!isLogScale)
-            multiplyPrepared(cut, 0, compatibleValues, positions);
+            multiplyPrepared(cut, 0, compatibleValues, positions, kernel);
         else
-            multiplyPreparedLog(cut, 0, compatibleValues, positions);
+            multiplyPreparedLog(cut, 0, compatibleValues, positions, kernel);
+    }
+
+    private int selectKernel(IArrayWrapper first, IArrayWrapper second) {
+        if (!isDirectlyAddressed()) {
+            return GENERIC;
+        }
+        boolean isFirstDouble = first instanceof DoubleArrayWrapper;
+        boolean isFirstFloat = first instanceof FloatArrayWrapper;
+        boolean isSecondDouble = second instanceof DoubleArrayWrapper;
+        boolean isSecondFloat = second instanceof FloatArrayWrapper;
+        if (isFirstDouble && isSecondDouble)
+            return DOUBLE_DOUBLE;
+        if (isFirstFloat && isSecondFloat)
+            return FLOAT_FLOAT;
+        if (isFirstDouble && isSecondFloat)
+            return DOUBLE_FLOAT;
+        if (isFirstFloat && isSecondDouble)
+            return FLOAT_DOUBLE;
+        return GENERIC;
     }
 
-    private void multiplyPrepared(Cut cut, int offset, IArrayWrapper compatibleValues, int[] positions) {
+    private void multiplyPrepared(Cut cut, int offset, IArrayWrapper compatibleValues, int[] positions, int kernel) {
         if (cut.getSubCut() == null) {
+            int first = cut.getStart() + offset;
             int last = cut.getEnd() + offset;
-            for (int i = cut.getStart() + offset; i < last; i += cut.getStepSize()) {
-                int j = getRealPosition(i);
-                values.mulAssign(j, compatibleValues, positions[j]);
+            int step = cut.getStepSize();
+            switch (kernel) {
+            case DOUBLE_DOUBLE:
+                FactorKernels.multiply(values.toDoubleArray(), first, last, step, compatibleValues.toDoubleArray(),
+                        positions);
+                break;
+            case FLOAT_FLOAT:
+                FactorKernels.multiply(values.toFloatArray(), first, last, step, compatibleValues.toFloatArray(),
+                        positions);
+                break;
+            case DOUBLE_FLOAT:
+                FactorKernels.multiply(values.toDoubleArray(), first, last, step, compatibleValues.toFloatArray(),
+                        positions);
+                break;
+            case FLOAT_DOUBLE:
+                FactorKernels.multiply(values.toFloatArray(), first, last, step, compatibleValues.toDoubleArray(),
+                        positions);
+                break;
+            default:
+                for (int i = first; i < last; i += step) {
+                    int j = getRealPosition(i);
+                    values.mulAssign(j, compatibleValues, positions[j]);
+                }
             }
         } else {
             Cut c = cut.getSubCut();
             for (int i = 0; i < cut.getLength(); i += cut.getSubtreeStepsize()) {
-                multiplyPrepared(c, offset + i, compatibleValues, positions);
+                multiplyPrepared(c, offset + i, compatibleValues, positions, kernel);
             }
         }
     }
@@ -182,31 +242,53 @@ public abstract class AbstractFactor implements Cloneable {
 
         compatibleFactorValues.fill(0);
 
+        int kernel = selectKernel(values, compatibleFactorValues);
         if (!isLogScale)
-            sumPrepared(cut, 0, compatibleFactorValues, preparedOperation);
+            sumPrepared(cut, 0, compatibleFactorValues, preparedOperation, kernel);
         else
-            sumPreparedLog(compatibleFactorValues, preparedOperation);
+            sumPreparedLog(compatibleFactorValues, preparedOperation, kernel);
 
     }
 
-    private void sumPrepared(Cut cut, int offset, IArrayWrapper compatibleFactorValues, int[] positions) {
+    private void sumPrepared(Cut cut, int offset, IArrayWrapper compatibleFactorValues, int[] positions, int kernel) {
         if (cut.getSubCut() == null) {
+            int first = cut.getStart() + offset;
             int last = cut.getEnd() + offset;
-            for (int i = cut.getStart() + offset; i < last; i += cut.getStepSize()) {
-                int j = getRealPosition(i);
-                compatibleFactorValues.addAssign(positions[j], values, j);
+            int step = cut.getStepSize();
+            switch (kernel) {
+            case DOUBLE_DOUBLE:
+                FactorKernels.sum(values.toDoubleArray(), first, last, step, compatibleFactorValues.toDoubleArray(),
+                        positions);
+                break;
+            case FLOAT_FLOAT:
+                FactorKernels.sum(values.toFloatArray(), first, last, step, compatibleFactorValues.toFloatArray(),
+                        positions);
+                break;
+            case DOUBLE_FLOAT:
+                FactorKernels.sum(values.toDoubleArray(), first, last, step, compatibleFactorValues.toFloatArray(),
+                        positions);
+                break;
+            case FLOAT_DOUBLE:
+                FactorKernels.sum(values.toFloatArray(), first, last, step, compatibleFactorValues.toDoubleArray(),
+                        positions);
+                break;
+            default:
+                for (int i = first; i < last; i += step) {
+                    int j = getRealPosition(i);
+                    compatibleFactorValues.addAssign(positions[j], values, j);
+                }
             }
         } else {
             Cut c = cut.getSubCut();
             for (int i = 0; i < cut.getLength(); i += cut.getSubtreeStepsize()) {
-                sumPrepared(c, offset + i, compatibleFactorValues, positions);
+                sumPrepared(c, offset + i, compatibleFactorValues, positions, kernel);
             }
         }
     }
 
-    private void sumPreparedLog(IArrayWrapper compatibleFactorValues, int[] positions) {
+    private void sumPreparedLog(IArrayWrapper compatibleFactorValues, int[] positions, int kernel) {
         double max = findMax(cut, 0, 0);
-        sumPreparedLog(cut, 0, compatibleFactorValues, positions, max);
+        sumPreparedLog(cut, 0, compatibleFactorValues, positions, max, kernel);
         for (int i = 0; i < compatibleFactorValues.length(); i++) {
             compatibleFactorValues.set(i, Math.log(compatibleFactorValues.getDouble(i)) + max);
         }
@@ -233,32 +315,76 @@ public abstract class AbstractFactor implements Cloneable {
         return max;
     }
 
-    private void sumPreparedLog(Cut cut, int offset, IArrayWrapper compatibleFactorValues, int[] positions, double max) {
+    private void sumPreparedLog(Cut cut, int offset, IArrayWrapper compatibleFactorValues, int[] positions, double max,
+            int kernel) {
         if (cut.getSubCut() == null) {
+            int first = cut.getStart() + offset;
             int last = cut.getEnd() + offset;
-            for (int i = cut.getStart() + offset; i < last; i += cut.getStepSize()) {
-                int j = getRealPosition(i);
-                compatibleFactorValues.addAssign(positions[j], Math.exp(values.getDouble(j) - max));
+            int step = cut.getStepSize();
+            switch (kernel) {
+            case DOUBLE_DOUBLE:
+                FactorKernels.sumExp(values.toDoubleArray(), first, last, step,
+                        compatibleFactorValues.toDoubleArray(), positions, max);
+                break;
+            case FLOAT_FLOAT:
+                FactorKernels.sumExp(values.toFloatArray(), first, last, step, compatibleFactorValues.toFloatArray(),
+                        positions, max);
+                break;
+            case DOUBLE_FLOAT:
+                FactorKernels.sumExp(values.toDoubleArray(), first, last, step, compatibleFactorValues.toFloatArray(),
+                        positions, max);
+                break;
+            case FLOAT_DOUBLE:
+                FactorKernels.sumExp(values.toFloatArray(), first, last, step, compatibleFactorValues.toDoubleArray(),
+                        positions, max);
+                break;
+            default:
+                for (int i = first; i < last; i += step) {
+                    int j = getRealPosition(i);
+                    compatibleFactorValues.addAssign(positions[j], Math.exp(values.getDouble(j) - max));
+                }
             }
         } else {
             Cut c = cut.getSubCut();
             for (int i = 0; i < cut.getLength(); i += cut.getSubtreeStepsize()) {
-                sumPreparedLog(c, offset + i, compatibleFactorValues, positions, max);
+                sumPreparedLog(c, offset + i, compatibleFactorValues, positions, max, kernel);
             }
         }
     }
 
-    private void multiplyPreparedLog(Cut cut, int offset, IArrayWrapper compatibleValues, int[] positions) {
+    private void multiplyPreparedLog(Cut cut, int offset, IArrayWrapper compatibleValues, int[] positions,
+            int kernel) {
         if (cut.getSubCut() == null) {
+            int first = cut.getStart() + offset;
             int last = cut.getEnd() + offset;
-            for (int i = cut.getStart() + offset; i < last; i += cut.getStepSize()) {
-                int j = getRealPosition(i);
-                values.addAssign(j, compatibleValues, positions[j]);
+            int step = cut.getStepSize();
+            switch (kernel) {
+            case DOUBLE_DOUBLE:
+                FactorKernels.add(values.toDoubleArray(), first, last, step, compatibleValues.toDoubleArray(),
+                        positions);
+                break;
+            case FLOAT_FLOAT:
+                FactorKernels.add(values.toFloatArray(), first, last, step, compatibleValues.toFloatArray(),
+                        positions);
+                break;
+            case DOUBLE_FLOAT:
+                FactorKernels.add(values.toDoubleArray(), first, last, step, compatibleValues.toFloatArray(),
+                        positions);
+                break;
+            case FLOAT_DOUBLE:
+                FactorKernels.add(values.toFloatArray(), first, last, step, compatibleValues.toDoubleArray(),
+                        positions);
+                break;
+            default:
+                for (int i = first; i < last; i += step) {
+                    int j = getRealPosition(i);
+                    values.addAssign(j, compatibleValues, positions[j]);
+                }
             }
         } else {
             Cut c = cut.getSubCut();
             for (int i = 0; i < cut.getLength(); i += cut.getSubtreeStepsize()) {
-                multiplyPreparedLog(c, offset + i, compatibleValues, positions);
+                multiplyPreparedLog(c, offset + i, compatibleValues, positions, kernel);
             }
         }
     }
@@ -295,6 +421,24 @@ public abstract class AbstractFactor implements Cloneable {
 
     }
 
+    /**
+     * writes the scale, the dimensions and the dimension ids of this factor, but not its values
+     */
+    public void writeStructure(DataOutput out) throws IOException {
+        out.writeBoolean(isLogScale);
+        BufferUtils.writeInts(out, dimensions);
+        BufferUtils.writeInts(out, dimensionIDs);
+    }
+
+    /**
+     * counterpart of {@link #writeStructure(DataOutput)}, the value array has to be in place already
+     */
+    protected void readStructure(ByteBuffer in) {
+        setLogScale(in.get() != 0);
+        setDimensions(BufferUtils.readInts(in));
+        setDimensionIDs(BufferUtils.readInts(in));
+    }
+
     /**
      * 
      * @return approximated memory requirements on top of the value array
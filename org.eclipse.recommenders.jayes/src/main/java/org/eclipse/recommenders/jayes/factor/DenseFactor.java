@@ -23,6 +23,11 @@ public class DenseFactor extends AbstractFactor {
         return virtualPosition;
     }
 
+    @Override
+    protected boolean isDirectlyAddressed() {
+        return true;
+    }
+
     /**
      * prepares multiplication by precomputing the corresponding array positions in the compatible Factor
      * 
@@ -10,6 +10,9 @@
  ******************************************************************************/
 package org.eclipse.recommenders.jayes.factor;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,10 +21,14 @@ import org.eclipse.recommenders.jayes.BayesNet;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.DoubleArrayWrapper;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.FloatArrayWrapper;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.IArrayWrapper;
+import org.eclipse.recommenders.jayes.util.BufferUtils;
 import org.eclipse.recommenders.jayes.util.MathUtils;
 
 public class FactorFactory {
 
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+
     protected BayesNet net;
     private boolean useLogScale = false;
     private IArrayWrapper prototype = new DoubleArrayWrapper(0.0); //TODO is a length of 1 here still necessary?
@@ -104,6 +111,50 @@ public class FactorFactory {
         return useLogScale;
     }
 
+    public boolean isDoublePrecision() {
+        return !(prototype instanceof FloatArrayWrapper);
+    }
+
+    /**
+     * writes the kind and the structure of a factor together with the given values, which are written in the
+     * floating point precision of this factory
+     */
+    public void writeFactor(AbstractFactor f, IArrayWrapper values, DataOutput out) throws IOException {
+        out.writeByte(f instanceof SparseFactor ? SPARSE : DENSE);
+        writeValues(values, out);
+        f.writeStructure(out);
+    }
+
+    /**
+     * reads a factor that was written by {@link #writeFactor(AbstractFactor, IArrayWrapper, DataOutput)} with the same
+     * floating point precision. Sparse factors keep their block structure, so they are not sparsified again.
+     */
+    public AbstractFactor readFactor(ByteBuffer in) {
+        AbstractFactor f = in.get() == SPARSE ? new SparseFactor() : new DenseFactor();
+        // set directly, the dimensions that setValues checks against are not known yet
+        f.values = readValues(in);
+        f.readStructure(in);
+        return f;
+    }
+
+    public void writeValues(IArrayWrapper values, DataOutput out) throws IOException {
+        if (isDoublePrecision()) {
+            BufferUtils.writeDoubles(out, values.toDoubleArray());
+        } else {
+            BufferUtils.writeFloats(out, values.toFloatArray());
+        }
+    }
+
+    public IArrayWrapper readValues(ByteBuffer in) {
+        IArrayWrapper values = prototype.clone();
+        if (isDoublePrecision()) {
+            values.setArray(BufferUtils.readDoubles(in));
+        } else {
+            values.setArray(BufferUtils.readFloats(in));
+        }
+        return values;
+    }
+
     public static FactorFactory defaultFactory() {
         return new FactorFactory();
     }
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2016 Darmstadt University of Technology.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.recommenders.jayes.factor;
+
+/**
+ * Inner loops of the factor operations on plain arrays. Each kernel processes one run of a {@link Cut}, i.e., the
+ * positions first, first + step, ... below last. The kernels assume that virtual and real positions are equal (dense
+ * factors), so that the loops do not contain any calls. Runs with step 1 are the common case and get a separate loop
+ * that the JIT can unroll. Mixed precision variants convert exactly like the corresponding array wrapper operations.
+ */
+final class FactorKernels {
+
+    private FactorKernels() {
+    }
+
+    // values[i] *= factors[positions[i]]
+
+    static void multiply(double[] values, int first, int last, int step, double[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] *= factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] *= factors[positions[i]];
+            }
+        }
+    }
+
+    static void multiply(float[] values, int first, int last, int step, float[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] *= factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] *= factors[positions[i]];
+            }
+        }
+    }
+
+    static void multiply(float[] values, int first, int last, int step, double[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] *= (float) factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] *= (float) factors[positions[i]];
+            }
+        }
+    }
+
+    static void multiply(double[] values, int first, int last, int step, float[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] *= factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] *= factors[positions[i]];
+            }
+        }
+    }
+
+    // values[i] += factors[positions[i]] (multiplication in log scale)
+
+    static void add(double[] values, int first, int last, int step, double[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] += factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] += factors[positions[i]];
+            }
+        }
+    }
+
+    static void add(float[] values, int first, int last, int step, float[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] += factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] += factors[positions[i]];
+            }
+        }
+    }
+
+    static void add(float[] values, int first, int last, int step, double[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] += (float) factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] += (float) factors[positions[i]];
+            }
+        }
+    }
+
+    static void add(double[] values, int first, int last, int step, float[] factors, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                values[i] += factors[positions[i]];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                values[i] += factors[positions[i]];
+            }
+        }
+    }
+
+    // sums[positions[i]] += values[i]
+
+    static void sum(double[] values, int first, int last, int step, double[] sums, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += values[i];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += values[i];
+            }
+        }
+    }
+
+    static void sum(float[] values, int first, int last, int step, float[] sums, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += values[i];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += values[i];
+            }
+        }
+    }
+
+    static void sum(double[] values, int first, int last, int step, float[] sums, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += (float) values[i];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += (float) values[i];
+            }
+        }
+    }
+
+    static void sum(float[] values, int first, int last, int step, double[] sums, int[] positions) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += values[i];
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += values[i];
+            }
+        }
+    }
+
+    // sums[positions[i]] += exp(values[i] - max) (marginalization in log scale)
+
+    static void sumExp(double[] values, int first, int last, int step, double[] sums, int[] positions, double max) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += Math.exp(values[i] - max);
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += Math.exp(values[i] - max);
+            }
+        }
+    }
+
+    static void sumExp(float[] values, int first, int last, int step, float[] sums, int[] positions, double max) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += (float) Math.exp(values[i] - max);
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += (float) Math.exp(values[i] - max);
+            }
+        }
+    }
+
+    static void sumExp(double[] values, int first, int last, int step, float[] sums, int[] positions, double max) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += (float) Math.exp(values[i] - max);
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += (float) Math.exp(values[i] - max);
+            }
+        }
+    }
+
+    static void sumExp(float[] values, int first, int last, int step, double[] sums, int[] positions, double max) {
+        if (step == 1) {
+            for (int i = first; i < last; i++) {
+                sums[positions[i]] += Math.exp(values[i] - max);
+            }
+        } else {
+            for (int i = first; i < last; i += step) {
+                sums[positions[i]] += Math.exp(values[i] - max);
+            }
+        }
+    }
+}
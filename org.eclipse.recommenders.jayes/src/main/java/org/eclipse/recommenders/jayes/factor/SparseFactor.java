@@ -6,6 +6,9 @@
  */
 package org.eclipse.recommenders.jayes.factor;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Comparator;
 
@@ -13,6 +16,7 @@ import org.eclipse.recommenders.internal.jayes.util.AddressCalc;
 import org.eclipse.recommenders.internal.jayes.util.ArrayUtils;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.IArrayWrapper;
 import org.eclipse.recommenders.jayes.factor.opcache.DivisionCache;
+import org.eclipse.recommenders.jayes.util.BufferUtils;
 import org.eclipse.recommenders.jayes.util.MathUtils;
 
 public class SparseFactor extends AbstractFactor {
@@ -372,6 +376,24 @@ public class SparseFactor extends AbstractFactor {
         }
     }
 
+    @Override
+    public void writeStructure(DataOutput out) throws IOException {
+        super.writeStructure(out);
+        out.writeInt(blockSize);
+        BufferUtils.writeInts(out, relativeBlockPointers);
+    }
+
+    /**
+     * restores the block structure that was computed by {@link #sparsify(AbstractFactor...)}, no zero analysis is done
+     */
+    @Override
+    protected void readStructure(ByteBuffer in) {
+        super.readStructure(in);
+        blockSize = in.getInt();
+        relativeBlockPointers = BufferUtils.readInts(in);
+        divCache = new DivisionCache(blockSize);
+    }
+
     @Override
     public int getOverhead() {
         return relativeBlockPointers.length * SIZE_OF_INT;
@@ -379,7 +401,12 @@ public class SparseFactor extends AbstractFactor {
 
     @Override
     public SparseFactor clone() {
-        return (SparseFactor) super.clone();
+        SparseFactor clone = (SparseFactor) super.clone();
+        // the division cache is stateful and must not be shared between clones
+        if (divCache != null) {
+            clone.divCache = new DivisionCache(blockSize);
+        }
+        return clone;
     }
 
     /**
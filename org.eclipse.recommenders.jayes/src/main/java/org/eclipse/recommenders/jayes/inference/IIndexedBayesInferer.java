@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2016 Darmstadt University of Technology.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.recommenders.jayes.inference;
+
+/**
+ * Inferer that can be queried by node id and outcome index, so that callers can avoid resolving outcome names and
+ * allocating evidence maps for every query.
+ */
+public interface IIndexedBayesInferer extends IBayesInferer {
+
+    /**
+     * index based variant of {@link #addEvidence(org.eclipse.recommenders.jayes.BayesNode, String)}
+     */
+    void addEvidence(int nodeId, int outcomeIndex);
+
+    /**
+     * removes all evidence without allocating a new evidence map
+     */
+    void clearEvidence();
+
+    boolean hasEvidence(int nodeId);
+
+    /**
+     * index based variant of {@link #getBeliefs(org.eclipse.recommenders.jayes.BayesNode)}, the returned array is
+     * owned by the inferer and is overwritten by subsequent queries
+     */
+    double[] getBeliefs(int nodeId);
+
+}
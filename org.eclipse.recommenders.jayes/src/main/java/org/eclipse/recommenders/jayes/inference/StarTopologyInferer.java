@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2016 Darmstadt University of Technology.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.recommenders.jayes.inference;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.recommenders.jayes.BayesNet;
+import org.eclipse.recommenders.jayes.BayesNode;
+import org.eclipse.recommenders.jayes.util.NumericalInstabilityException;
+
+/**
+ * Exact inference for networks with a star topology: a single root node is the only parent of all other nodes. Given
+ * the evidence, the children are independent of each other given the root, so the posterior of the root is the
+ * normalized product of its prior and the likelihood vectors of the observed children, and the belief of every other
+ * child is its conditional distribution averaged over that posterior. No junction tree has to be built or propagated.
+ *
+ * The likelihoods are accumulated in log space, so that a large number of observations does not underflow. For a
+ * fixed set of (node, outcome) pairs, {@link #setQueryOutcomes(int[], int[])} prepares a matrix of conditional
+ * probabilities, all of these probabilities are then computed by a single matrix-vector product.
+ *
+ * The tables are shared between all copies created by {@link #copy()}, each copy only owns its evidence and beliefs.
+ */
+public class StarTopologyInferer extends AbstractInferer implements IIndexedBayesInferer {
+
+    private BayesNet net;
+    private int rootId;
+    private int numRootOutcomes;
+
+    private double[] logPrior;
+    // per node, indexed by [outcome * numRootOutcomes + rootOutcome]
+    private double[][] conditionals;
+    private double[][] logConditionals;
+
+    private int[] queryNodeIds;
+    private int[] queryOutcomes;
+    // row-major, one row of conditionals per query
+    private double[] queryMatrix;
+
+    private int[] evidenceOutcomes;
+    private int[] observedNodes;
+    private int numObservedNodes;
+    private boolean isEvidenceMapPrimary;
+
+    private double[] logWeights;
+    private boolean areLogWeightsValid;
+    private double[] posterior;
+    private boolean[] isBeliefValid;
+
+    /**
+     * @return true if the network has exactly one node without parents and all other nodes have this node as their
+     *         only parent
+     */
+    public static boolean isStarTopology(final BayesNet net) {
+        final int rootId = findRoot(net);
+        if (rootId == -1) {
+            return false;
+        }
+        for (final BayesNode node : net.getNodes()) {
+            if (node.getId() == rootId) {
+                continue;
+            }
+            final List<BayesNode> parents = node.getParents();
+            if (parents.size() != 1 || parents.get(0).getId() != rootId) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int findRoot(final BayesNet net) {
+        int rootId = -1;
+        for (final BayesNode node : net.getNodes()) {
+            if (node.getParents().isEmpty()) {
+                if (rootId != -1) {
+                    return -1;
+                }
+                rootId = node.getId();
+            }
+        }
+        return rootId;
+    }
+
+    @Override
+    public void setNetwork(final BayesNet net) {
+        if (!isStarTopology(net)) {
+            throw new IllegalArgumentException("network does not have a star topology");
+        }
+        super.setNetwork(net);
+        this.net = net;
+        rootId = findRoot(net);
+        final BayesNode root = net.getNode(rootId);
+        numRootOutcomes = root.getOutcomeCount();
+
+        logPrior = new double[numRootOutcomes];
+        final double[] prior = root.getProbabilities();
+        for (int i = 0; i < numRootOutcomes; i++) {
+            logPrior[i] = Math.log(prior[i]);
+        }
+
+        final int numNodes = net.getNodes().size();
+        conditionals = new double[numNodes][];
+        logConditionals = new double[numNodes][];
+        for (final BayesNode node : net.getNodes()) {
+            if (node.getId() != rootId) {
+                transposeConditionals(node);
+            }
+        }
+        setQueryOutcomes(new int[0], new int[0]);
+        initializeFields(numNodes);
+    }
+
+    private void transposeConditionals(final BayesNode node) {
+        final int numOutcomes = node.getOutcomeCount();
+        final double[] cpt = node.getProbabilities();
+        final double[] transposed = new double[cpt.length];
+        final double[] logTransposed = new double[cpt.length];
+        for (int rootOutcome = 0; rootOutcome < numRootOutcomes; rootOutcome++) {
+            for (int outcome = 0; outcome < numOutcomes; outcome++) {
+                final double p = cpt[rootOutcome * numOutcomes + outcome];
+                transposed[outcome * numRootOutcomes + rootOutcome] = p;
+                logTransposed[outcome * numRootOutcomes + rootOutcome] = Math.log(p);
+            }
+        }
+        conditionals[node.getId()] = transposed;
+        logConditionals[node.getId()] = logTransposed;
+    }
+
+    private void initializeFields(final int numNodes) {
+        evidenceOutcomes = new int[numNodes];
+        Arrays.fill(evidenceOutcomes, -1);
+        observedNodes = new int[numNodes];
+        logWeights = new double[numRootOutcomes];
+        posterior = new double[numRootOutcomes];
+        isBeliefValid = new boolean[numNodes];
+        areLogWeightsValid = false;
+        beliefsValid = false;
+    }
+
+    /**
+     * prepares the batched query of {@link #getQueryProbabilities(double[])}, the query is shared with copies that
+     * are created afterwards
+     *
+     * @param nodeIds
+     *            queried nodes, must not contain the root
+     * @param outcomes
+     *            queried outcome of the node at the same position
+     */
+    public void setQueryOutcomes(final int[] nodeIds, final int[] outcomes) {
+        if (nodeIds.length != outcomes.length) {
+            throw new IllegalArgumentException("number of nodes and outcomes differs");
+        }
+        final double[] matrix = new double[nodeIds.length * numRootOutcomes];
+        for (int i = 0; i < nodeIds.length; i++) {
+            if (nodeIds[i] == rootId) {
+                throw new IllegalArgumentException("root node cannot be part of a batched query");
+            }
+            System.arraycopy(conditionals[nodeIds[i]], outcomes[i] * numRootOutcomes, matrix, i * numRootOutcomes,
+                    numRootOutcomes);
+        }
+        queryNodeIds = nodeIds.clone();
+        queryOutcomes = outcomes.clone();
+        queryMatrix = matrix;
+    }
+
+    /**
+     * computes the probabilities of all (node, outcome) pairs of {@link #setQueryOutcomes(int[], int[])} in one pass
+     *
+     * @param target
+     *            receives the probability of the i-th pair at position i
+     */
+    public void getQueryProbabilities(final double[] target) {
+        final double[] rootBeliefs = getBeliefs(rootId);
+        final int n = numRootOutcomes;
+        for (int i = 0; i < queryNodeIds.length; i++) {
+            final int observed = evidenceOutcomes[queryNodeIds[i]];
+            if (observed != -1) {
+                target[i] = observed == queryOutcomes[i] ? 1 : 0;
+                continue;
+            }
+            double sum = 0;
+            final int offset = i * n;
+            for (int j = 0; j < n; j++) {
+                sum += queryMatrix[offset + j] * rootBeliefs[j];
+            }
+            target[i] = sum;
+        }
+    }
+
+    @Override
+    public void addEvidence(final BayesNode node, final String outcome) {
+        addEvidence(node.getId(), node.getOutcomeIndex(outcome));
+    }
+
+    @Override
+    public void addEvidence(final int nodeId, final int outcomeIndex) {
+        if (outcomeIndex < 0 || outcomeIndex >= beliefs[nodeId].length) {
+            throw new IllegalArgumentException("outcome index " + outcomeIndex + " out of range for node " + nodeId);
+        }
+        syncEvidenceMap();
+        final int previous = evidenceOutcomes[nodeId];
+        if (previous == outcomeIndex) {
+            return;
+        }
+        if (previous == -1) {
+            observedNodes[numObservedNodes++] = nodeId;
+            if (areLogWeightsValid && nodeId != rootId) {
+                // new evidence only multiplies another likelihood vector into the weights
+                addLogLikelihood(nodeId, outcomeIndex);
+            }
+        } else {
+            areLogWeightsValid = false;
+        }
+        evidenceOutcomes[nodeId] = outcomeIndex;
+        beliefsValid = false;
+    }
+
+    private void addLogLikelihood(final int nodeId, final int outcomeIndex) {
+        final double[] logLikelihood = logConditionals[nodeId];
+        final int offset = outcomeIndex * numRootOutcomes;
+        for (int i = 0; i < numRootOutcomes; i++) {
+            logWeights[i] += logLikelihood[offset + i];
+        }
+    }
+
+    @Override
+    public void clearEvidence() {
+        for (int i = 0; i < numObservedNodes; i++) {
+            evidenceOutcomes[observedNodes[i]] = -1;
+        }
+        numObservedNodes = 0;
+        isEvidenceMapPrimary = false;
+        areLogWeightsValid = false;
+        beliefsValid = false;
+    }
+
+    @Override
+    public boolean hasEvidence(final int nodeId) {
+        syncEvidenceMap();
+        return evidenceOutcomes[nodeId] != -1;
+    }
+
+    @Override
+    public void setEvidence(final Map<BayesNode, String> evidence) {
+        super.setEvidence(evidence);
+        isEvidenceMapPrimary = true;
+        areLogWeightsValid = false;
+        beliefsValid = false;
+    }
+
+    @Override
+    public Map<BayesNode, String> getEvidence() {
+        syncEvidenceMap();
+        final Map<BayesNode, String> result = new HashMap<BayesNode, String>();
+        for (int i = 0; i < numObservedNodes; i++) {
+            final BayesNode node = net.getNode(observedNodes[i]);
+            result.put(node, node.getOutcomeName(evidenceOutcomes[node.getId()]));
+        }
+        return result;
+    }
+
+    private void syncEvidenceMap() {
+        if (!isEvidenceMapPrimary) {
+            return;
+        }
+        isEvidenceMapPrimary = false;
+        final Map<BayesNode, String> map = evidence;
+        clearEvidence();
+        for (final Entry<BayesNode, String> e : map.entrySet()) {
+            final int nodeId = e.getKey().getId();
+            evidenceOutcomes[nodeId] = e.getKey().getOutcomeIndex(e.getValue());
+            observedNodes[numObservedNodes++] = nodeId;
+        }
+    }
+
+    @Override
+    public double[] getBeliefs(final BayesNode node) {
+        return getBeliefs(node.getId());
+    }
+
+    @Override
+    public double[] getBeliefs(final int nodeId) {
+        if (!beliefsValid) {
+            beliefsValid = true;
+            updateBeliefs();
+        }
+        if (!isBeliefValid[nodeId]) {
+            isBeliefValid[nodeId] = true;
+            if (evidenceOutcomes[nodeId] != -1) {
+                Arrays.fill(beliefs[nodeId], 0);
+                beliefs[nodeId][evidenceOutcomes[nodeId]] = 1;
+            } else {
+                marginalize(nodeId);
+            }
+        }
+        return beliefs[nodeId];
+    }
+
+    private void marginalize(final int nodeId) {
+        final double[] belief = beliefs[nodeId];
+        final double[] conditional = conditionals[nodeId];
+        final int n = numRootOutcomes;
+        for (int outcome = 0; outcome < belief.length; outcome++) {
+            double sum = 0;
+            final int offset = outcome * n;
+            for (int j = 0; j < n; j++) {
+                sum += conditional[offset + j] * posterior[j];
+            }
+            belief[outcome] = sum;
+        }
+    }
+
+    @Override
+    protected void updateBeliefs() {
+        syncEvidenceMap();
+        Arrays.fill(isBeliefValid, false);
+        // the root is always needed, so its posterior is computed eagerly
+        isBeliefValid[rootId] = true;
+
+        final int rootEvidence = evidenceOutcomes[rootId];
+        if (rootEvidence != -1) {
+            Arrays.fill(posterior, 0);
+            posterior[rootEvidence] = 1;
+        } else {
+            computePosterior();
+        }
+        System.arraycopy(posterior, 0, beliefs[rootId], 0, numRootOutcomes);
+    }
+
+    private void computePosterior() {
+        if (!areLogWeightsValid) {
+            System.arraycopy(logPrior, 0, logWeights, 0, numRootOutcomes);
+            for (int i = 0; i < numObservedNodes; i++) {
+                final int nodeId = observedNodes[i];
+                if (nodeId != rootId) {
+                    addLogLikelihood(nodeId, evidenceOutcomes[nodeId]);
+                }
+            }
+            areLogWeightsValid = true;
+        }
+
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numRootOutcomes; i++) {
+            max = Math.max(max, logWeights[i]);
+        }
+        if (max == Double.NEGATIVE_INFINITY) {
+            throw new NumericalInstabilityException("evidence has zero probability");
+        }
+        double sum = 0;
+        for (int i = 0; i < numRootOutcomes; i++) {
+            posterior[i] = Math.exp(logWeights[i] - max);
+            sum += posterior[i];
+        }
+        for (int i = 0; i < numRootOutcomes; i++) {
+            posterior[i] /= sum;
+        }
+    }
+
+    /**
+     * creates an inferer for the same network that shares all tables and the prepared query with this instance, but
+     * has its own evidence and beliefs. The copy can be used from a different thread than this instance.
+     */
+    public StarTopologyInferer copy() {
+        final StarTopologyInferer copy = new StarTopologyInferer();
+        copy.factory = factory;
+        copy.net = net;
+        copy.rootId = rootId;
+        copy.numRootOutcomes = numRootOutcomes;
+        copy.logPrior = logPrior;
+        copy.conditionals = conditionals;
+        copy.logConditionals = logConditionals;
+        copy.queryNodeIds = queryNodeIds;
+        copy.queryOutcomes = queryOutcomes;
+        copy.queryMatrix = queryMatrix;
+        copy.beliefs = new double[beliefs.length][];
+        for (int i = 0; i < beliefs.length; i++) {
+            copy.beliefs[i] = new double[beliefs[i].length];
+        }
+        copy.initializeFields(beliefs.length);
+        return copy;
+    }
+
+    public int getRootId() {
+        return rootId;
+    }
+}
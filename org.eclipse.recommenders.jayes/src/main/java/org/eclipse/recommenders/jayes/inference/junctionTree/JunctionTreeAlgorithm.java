@@ -8,17 +8,19 @@ package org.eclipse.recommenders.jayes.inference.junctionTree;
 
 import static org.eclipse.recommenders.jayes.util.Pair.newPair;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import org.eclipse.recommenders.internal.jayes.util.ArrayUtils;
 import org.eclipse.recommenders.jayes.BayesNet;
@@ -27,6 +29,8 @@ import org.eclipse.recommenders.jayes.factor.AbstractFactor;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.DoubleArrayWrapper;
 import org.eclipse.recommenders.jayes.factor.arraywrapper.IArrayWrapper;
 import org.eclipse.recommenders.jayes.inference.AbstractInferer;
+import org.eclipse.recommenders.jayes.inference.IIndexedBayesInferer;
+import org.eclipse.recommenders.jayes.util.BufferUtils;
 import org.eclipse.recommenders.jayes.util.Graph;
 import org.eclipse.recommenders.jayes.util.Graph.Edge;
 import org.eclipse.recommenders.jayes.util.MathUtils;
@@ -36,7 +40,9 @@ import org.eclipse.recommenders.jayes.util.sharing.CanonicalArrayWrapperManager;
 import org.eclipse.recommenders.jayes.util.sharing.CanonicalIntArrayManager;
 import org.eclipse.recommenders.jayes.util.triangulation.MinFillIn;
 
-public class JunctionTreeAlgorithm extends AbstractInferer {
+public class JunctionTreeAlgorithm extends AbstractInferer implements IIndexedBayesInferer {
+
+    private static final int FORMAT_VERSION = 1;
 
     protected Map<Edge, AbstractFactor> sepSets;
     protected Graph junctionTree;
@@ -56,10 +62,32 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
     protected int[][] queryFactorReverseMapping;
 
     // used for computing evidence collection skip
-    protected Set<Integer> clustersHavingEvidence;
+    protected BitSet clustersHavingEvidence;
     protected boolean[] isObserved;
+    // reused during propagation to avoid allocating the skip sets
+    private BitSet visitedClusters;
+    private BitSet skippedClusters;
+
+    // if enabled, evidence that is only added since the last propagation is
+    // incorporated into the calibrated potentials instead of starting over
+    protected boolean isIncrementalPropagation = false;
+    // number of (leading) entries in observedNodes that are already part of
+    // the calibrated potentials, -1 if the potentials have to be reset
+    private int numPropagatedNodes = -1;
 
     protected double[] scratchpad;
+    protected IArrayWrapper scratchpadWrapper;
+    protected DoubleArrayWrapper beliefWrapper = new DoubleArrayWrapper();
+
+    // index-based view of the evidence: observed outcome per node (-1 if
+    // unobserved) and the observed nodes in the order they were added
+    protected int[] evidenceOutcomes;
+    protected int[] observedNodes;
+    protected int numObservedNodes;
+    // true if the evidence map is the primary representation (map based API),
+    // false if evidence was set through the index based API
+    private boolean isEvidenceMapPrimary = true;
+    private BayesNet net;
 
     protected JunctionTreeBuilder junctionTreeBuilder = JunctionTreeBuilder.forHeuristic(new MinFillIn());
 
@@ -69,34 +97,138 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
 
     @Override
     public double[] getBeliefs(final BayesNode node) {
+        return getBeliefs(node.getId());
+    }
+
+    /**
+     * index based variant of {@link #getBeliefs(BayesNode)}, the returned array is owned by the inferer and is
+     * overwritten by subsequent queries
+     */
+    @Override
+    public double[] getBeliefs(final int nodeId) {
         if (!beliefsValid) {
             beliefsValid = true;
             updateBeliefs();
         }
-        final int nodeId = node.getId();
         if (!isBeliefValid[nodeId]) {
             isBeliefValid[nodeId] = true;
-            if (!evidence.containsKey(node)) {
+            if (evidenceOutcomes[nodeId] == -1) {
                 validateBelief(nodeId);
             } else {
                 Arrays.fill(beliefs[nodeId], 0);
-                beliefs[nodeId][node.getOutcomeIndex(evidence.get(node))] = 1;
+                beliefs[nodeId][evidenceOutcomes[nodeId]] = 1;
             }
         }
-        return super.getBeliefs(node);
+        return beliefs[nodeId];
+    }
+
+    @Override
+    public void addEvidence(final BayesNode node, final String outcome) {
+        numPropagatedNodes = -1;
+        switchToEvidenceMap();
+        super.addEvidence(node, outcome);
+        putIndexedEvidence(node.getId(), node.getOutcomeIndex(outcome));
+    }
+
+    /**
+     * index based variant of {@link #addEvidence(BayesNode, String)}, outcome names are not resolved
+     */
+    @Override
+    public void addEvidence(final int nodeId, final int outcomeIndex) {
+        if (outcomeIndex < 0 || outcomeIndex >= beliefs[nodeId].length) {
+            throw new IllegalArgumentException("outcome index " + outcomeIndex + " out of range for node " + nodeId);
+        }
+        if (isEvidenceMapPrimary) {
+            syncIndexedEvidence();
+            isEvidenceMapPrimary = false;
+            numPropagatedNodes = -1;
+        }
+        if (evidenceOutcomes[nodeId] == outcomeIndex) {
+            return;
+        }
+        if (evidenceOutcomes[nodeId] != -1) {
+            // changed evidence cannot be propagated incrementally
+            numPropagatedNodes = -1;
+        }
+        putIndexedEvidence(nodeId, outcomeIndex);
+        beliefsValid = false;
+    }
+
+    /**
+     * removes all evidence without allocating a new evidence map
+     */
+    @Override
+    public void clearEvidence() {
+        for (int i = 0; i < numObservedNodes; i++) {
+            evidenceOutcomes[observedNodes[i]] = -1;
+        }
+        numObservedNodes = 0;
+        isEvidenceMapPrimary = false;
+        numPropagatedNodes = -1;
+        beliefsValid = false;
+    }
+
+    @Override
+    public boolean hasEvidence(final int nodeId) {
+        if (isEvidenceMapPrimary) {
+            syncIndexedEvidence();
+        }
+        return evidenceOutcomes[nodeId] != -1;
+    }
+
+    @Override
+    public void setEvidence(final Map<BayesNode, String> evidence) {
+        super.setEvidence(evidence);
+        isEvidenceMapPrimary = true;
+        numPropagatedNodes = -1;
+    }
+
+    @Override
+    public Map<BayesNode, String> getEvidence() {
+        switchToEvidenceMap();
+        return super.getEvidence();
+    }
+
+    private void switchToEvidenceMap() {
+        if (!isEvidenceMapPrimary) {
+            numPropagatedNodes = -1;
+            evidence = new HashMap<BayesNode, String>();
+            for (int i = 0; i < numObservedNodes; i++) {
+                BayesNode node = net.getNode(observedNodes[i]);
+                evidence.put(node, node.getOutcomeName(evidenceOutcomes[observedNodes[i]]));
+            }
+            isEvidenceMapPrimary = true;
+        }
+    }
+
+    private void syncIndexedEvidence() {
+        for (int i = 0; i < numObservedNodes; i++) {
+            evidenceOutcomes[observedNodes[i]] = -1;
+        }
+        numObservedNodes = 0;
+        for (Entry<BayesNode, String> e : evidence.entrySet()) {
+            putIndexedEvidence(e.getKey().getId(), e.getKey().getOutcomeIndex(e.getValue()));
+        }
+    }
+
+    private void putIndexedEvidence(final int nodeId, final int outcomeIndex) {
+        if (evidenceOutcomes[nodeId] == -1) {
+            observedNodes[numObservedNodes++] = nodeId;
+        }
+        evidenceOutcomes[nodeId] = outcomeIndex;
     }
 
     private void validateBelief(final int nodeId) {
         final AbstractFactor f = queryFactors[nodeId];
-        // TODO change beliefs to ArrayWrappers
-        f.sumPrepared(new DoubleArrayWrapper(beliefs[nodeId]), preparedQueries[nodeId]);
+        beliefWrapper.setArray(beliefs[nodeId]);
+        f.sumPrepared(beliefWrapper, preparedQueries[nodeId]);
         if (f.isLogScale()) {
             MathUtils.exp(beliefs[nodeId]);
         }
         try {
             beliefs[nodeId] = MathUtils.normalize(beliefs[nodeId]);
         } catch (final IllegalArgumentException exception) {
-            throw new NumericalInstabilityException("Numerical instability detected for evidence: " + evidence
+            throw new NumericalInstabilityException("Numerical instability detected for evidence: " + getEvidence()
                     + " and node : " + nodeId
                     + ", consider using logarithmic scale computation (configurable in FactorFactory)", exception);
         }
@@ -110,12 +242,50 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
 
     private void doUpdateBeliefs() {
 
-        incorporateAllEvidence();
+        if (canPropagateIncrementally()) {
+            incorporateNewEvidence();
+        } else {
+            incorporateAllEvidence();
+            replayFactorInitializations();
+        }
         int propagationRoot = findPropagationRoot();
 
-        replayFactorInitializations();
+        numPropagatedNodes = -1;
         collectEvidence(propagationRoot, skipCollection(propagationRoot));
-        distributeEvidence(propagationRoot, skipDistribution(propagationRoot));
+        if (isIncrementalPropagation) {
+            // the next incremental update relies on a completely calibrated tree
+            skippedClusters.clear();
+            distributeEvidence(propagationRoot, skippedClusters);
+            numPropagatedNodes = numObservedNodes;
+        } else {
+            distributeEvidence(propagationRoot, skipDistribution(propagationRoot));
+        }
+    }
+
+    /**
+     * enables or disables incremental propagation. If enabled, a belief update after evidence has only been added
+     * reuses the calibrated potentials of the previous update and only collects evidence from the clusters that
+     * received new evidence. To keep the potentials calibrated, evidence is always distributed to the whole tree.
+     * Removing or changing evidence always resets the potentials.
+     */
+    public void setIncrementalPropagation(final boolean isIncrementalPropagation) {
+        this.isIncrementalPropagation = isIncrementalPropagation;
+        numPropagatedNodes = -1;
+    }
+
+    public boolean isIncrementalPropagation() {
+        return isIncrementalPropagation;
+    }
+
+    private boolean canPropagateIncrementally() {
+        return isIncrementalPropagation && !isEvidenceMapPrimary && numPropagatedNodes != -1;
+    }
+
+    private void incorporateNewEvidence() {
+        clustersHavingEvidence.clear();
+        for (int i = numPropagatedNodes; i < numObservedNodes; i++) {
+            incorporateEvidence(observedNodes[i]);
+        }
     }
 
     private void replayFactorInitializations() {
@@ -125,32 +295,34 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
     }
 
     private void incorporateAllEvidence() {
+        if (isEvidenceMapPrimary) {
+            syncIndexedEvidence();
+        }
         for (Pair<AbstractFactor, IArrayWrapper> init : initializations) {
             init.getFirst().resetSelections();
         }
 
         clustersHavingEvidence.clear();
         Arrays.fill(isObserved, false);
-        for (BayesNode n : evidence.keySet()) {
-            incorporateEvidence(n);
+        for (int i = 0; i < numObservedNodes; i++) {
+            incorporateEvidence(observedNodes[i]);
         }
 
     }
 
-    private void incorporateEvidence(final BayesNode node) {
-        int n = node.getId();
+    private void incorporateEvidence(final int n) {
         isObserved[n] = true;
         // get evidence to all concerned factors (includes home cluster)
-        for (final Integer concernedCluster : concernedClusters[n]) {
-            nodePotentials[concernedCluster].select(n, node.getOutcomeIndex(evidence.get(node)));
-            clustersHavingEvidence.add(concernedCluster);
+        for (final int concernedCluster : concernedClusters[n]) {
+            nodePotentials[concernedCluster].select(n, evidenceOutcomes[n]);
+            clustersHavingEvidence.set(concernedCluster);
         }
     }
 
     private int findPropagationRoot() {
         int propagationRoot = 0;
-        for (BayesNode n : evidence.keySet()) {
-            propagationRoot = concernedClusters[n.getId()][0];
+        if (numObservedNodes > 0) {
+            propagationRoot = concernedClusters[observedNodes[numObservedNodes - 1]][0];
         }
         return propagationRoot;
     }
@@ -163,25 +335,26 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
      *            the node to start the check from
      * @return a set of the nodes not needing a call of collectEvidence
      */
-    private Set<Integer> skipCollection(final int root) {
-        final Set<Integer> skipped = new HashSet<Integer>(nodePotentials.length);
-        recursiveSkipCollection(root, new HashSet<Integer>(nodePotentials.length), skipped);
-        return skipped;
+    private BitSet skipCollection(final int root) {
+        visitedClusters.clear();
+        skippedClusters.clear();
+        recursiveSkipCollection(root, visitedClusters, skippedClusters);
+        return skippedClusters;
     }
 
-    private void recursiveSkipCollection(final int node, final Set<Integer> visited, final Set<Integer> skipped) {
-        visited.add(node);
+    private void recursiveSkipCollection(final int node, final BitSet visited, final BitSet skipped) {
+        visited.set(node);
         boolean areAllDescendantsSkipped = true;
         for (final Edge e : junctionTree.getIncidentEdges(node)) {
-            if (!visited.contains(e.getSecond())) {
+            if (!visited.get(e.getSecond())) {
                 recursiveSkipCollection(e.getSecond(), visited, skipped);
-                if (!skipped.contains(e.getSecond())) {
+                if (!skipped.get(e.getSecond())) {
                     areAllDescendantsSkipped = false;
                 }
             }
         }
-        if (areAllDescendantsSkipped && !clustersHavingEvidence.contains(node)) {
-            skipped.add(node);
+        if (areAllDescendantsSkipped && !clustersHavingEvidence.get(node)) {
+            skipped.set(node);
         }
 
     }
@@ -197,25 +370,26 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
      * @param distNode
      * @return
      */
-    private Set<Integer> skipDistribution(final int distNode) {
-        final Set<Integer> skipped = new HashSet<Integer>(nodePotentials.length);
-        recursiveSkipDistribution(distNode, new HashSet<Integer>(nodePotentials.length), skipped);
-        return skipped;
+    private BitSet skipDistribution(final int distNode) {
+        visitedClusters.clear();
+        skippedClusters.clear();
+        recursiveSkipDistribution(distNode, visitedClusters, skippedClusters);
+        return skippedClusters;
     }
 
-    private void recursiveSkipDistribution(final int node, final Set<Integer> visited, final Set<Integer> skipped) {
-        visited.add(node);
+    private void recursiveSkipDistribution(final int node, final BitSet visited, final BitSet skipped) {
+        visited.set(node);
         boolean areAllDescendantsSkipped = true;
         for (final Edge e : junctionTree.getIncidentEdges(node)) {
-            if (!visited.contains(e.getSecond())) {
+            if (!visited.get(e.getSecond())) {
                 recursiveSkipDistribution(e.getSecond(), visited, skipped);
-                if (!skipped.contains(e.getSecond())) {
+                if (!skipped.get(e.getSecond())) {
                     areAllDescendantsSkipped = false;
                 }
             }
         }
         if (areAllDescendantsSkipped && !isQueryFactorOfUnobservedVariable(node)) {
-            skipped.add(node);
+            skipped.set(node);
         }
     }
 
@@ -228,20 +402,20 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
         return false;
     }
 
-    private void collectEvidence(final int cluster, final Set<Integer> marked) {
-        marked.add(cluster);
+    private void collectEvidence(final int cluster, final BitSet marked) {
+        marked.set(cluster);
         for (final Edge e : junctionTree.getIncidentEdges(cluster)) {
-            if (!marked.contains(e.getSecond())) {
+            if (!marked.get(e.getSecond())) {
                 collectEvidence(e.getSecond(), marked);
                 messagePass(e.getBackEdge());
             }
         }
     }
 
-    private void distributeEvidence(final int cluster, final Set<Integer> marked) {
-        marked.add(cluster);
+    private void distributeEvidence(final int cluster, final BitSet marked) {
+        marked.set(cluster);
         for (final Edge e : junctionTree.getIncidentEdges(cluster)) {
-            if (!marked.contains(e.getSecond())) {
+            if (!marked.get(e.getSecond())) {
                 messagePass(e);
                 distributeEvidence(e.getSecond(), marked);
             }
@@ -273,8 +447,7 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
         if (isOnlySecondLogScale(sepSetEdge)) {
             MathUtils.log(scratchpad);
         }
-        // TODO scratchpad -> ArrayWrapper
-        nodePotentials[sepSetEdge.getSecond()].multiplyPrepared(new DoubleArrayWrapper(scratchpad),
+        nodePotentials[sepSetEdge.getSecond()].multiplyPrepared(scratchpadWrapper,
                 preparedMultiplications.get(sepSetEdge));
 
     }
@@ -303,6 +476,8 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
     @Override
     public void setNetwork(final BayesNet net) {
         super.setNetwork(net);
+        numPropagatedNodes = -1;
+        this.net = net;
         initializeFields(net.getNodes().size());
         JunctionTree jtree = buildJunctionTree(net);
         int[] homeClusters = computeHomeClusters(net, jtree.getClusters());
@@ -319,6 +494,162 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
 
     }
 
+    /**
+     * writes the compiled junction tree, i.e., the tree, the cluster and sepset factors with their initial values and
+     * the prepared operations. The network itself is not written, it has to be restored separately before the junction
+     * tree is read with {@link #setNetwork(BayesNet, ByteBuffer)}.
+     */
+    public void writeJunctionTree(final DataOutput out) throws IOException {
+        final IdentityHashMap<AbstractFactor, IArrayWrapper> initialValues =
+                new IdentityHashMap<AbstractFactor, IArrayWrapper>();
+        for (final Pair<AbstractFactor, IArrayWrapper> init : initializations) {
+            initialValues.put(init.getFirst(), init.getSecond());
+        }
+        // prepared operations are canonical instances, so they are written only once
+        final IdentityHashMap<int[], Integer> preparedOps = new IdentityHashMap<int[], Integer>();
+        final List<int[]> distinctOps = new ArrayList<int[]>();
+        for (final int[] op : preparedMultiplications.values()) {
+            addPreparedOp(op, preparedOps, distinctOps);
+        }
+        for (final int[] op : preparedQueries) {
+            addPreparedOp(op, preparedOps, distinctOps);
+        }
+
+        out.writeInt(FORMAT_VERSION);
+        out.writeBoolean(factory.isDoublePrecision());
+        out.writeInt(beliefs.length);
+        out.writeInt(distinctOps.size());
+        for (final int[] op : distinctOps) {
+            BufferUtils.writeInts(out, op);
+        }
+        out.writeInt(nodePotentials.length);
+        for (final AbstractFactor pot : nodePotentials) {
+            factory.writeFactor(pot, initialValues.get(pot), out);
+        }
+        out.writeInt(sepSets.size());
+        for (int node = 0; node < nodePotentials.length; node++) {
+            for (final Edge e : junctionTree.getIncidentEdges(node)) {
+                if (e.getFirst() < e.getSecond()) {
+                    final AbstractFactor sepSet = sepSets.get(e);
+                    out.writeInt(e.getFirst());
+                    out.writeInt(e.getSecond());
+                    factory.writeFactor(sepSet, initialValues.get(sepSet), out);
+                    out.writeInt(preparedOps.get(preparedMultiplications.get(e)));
+                    out.writeInt(preparedOps.get(preparedMultiplications.get(e.getBackEdge())));
+                }
+            }
+        }
+        for (final int[] op : preparedQueries) {
+            out.writeInt(preparedOps.get(op));
+        }
+    }
+
+    private static void addPreparedOp(final int[] op, final IdentityHashMap<int[], Integer> preparedOps,
+            final List<int[]> distinctOps) {
+        if (!preparedOps.containsKey(op)) {
+            preparedOps.put(op, distinctOps.size());
+            distinctOps.add(op);
+        }
+    }
+
+    /**
+     * alternative to {@link #setNetwork(BayesNet)} that restores a junction tree that was written by
+     * {@link #writeJunctionTree(DataOutput)} for the same network, instead of triangulating the network, multiplying
+     * the CPTs into the clusters and calibrating the tree. The floating point precision of the factory is set to the
+     * precision of the written tree.
+     * 
+     * @throws IllegalArgumentException
+     *             if the format version or the number of nodes do not match
+     */
+    public void setNetwork(final BayesNet net, final ByteBuffer in) {
+        if (in.getInt() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported junction tree format");
+        }
+        factory.setFloatingPointType(in.get() != 0 ? double.class : float.class);
+        super.setNetwork(net);
+        numPropagatedNodes = -1;
+        this.net = net;
+        if (in.getInt() != beliefs.length) {
+            throw new IllegalArgumentException("junction tree does not belong to network " + net.getName());
+        }
+        initializeFields(beliefs.length);
+
+        final int[][] preparedOps = new int[in.getInt()][];
+        for (int i = 0; i < preparedOps.length; i++) {
+            preparedOps[i] = BufferUtils.readInts(in);
+        }
+        nodePotentials = new AbstractFactor[in.getInt()];
+        for (int i = 0; i < nodePotentials.length; i++) {
+            nodePotentials[i] = factory.readFactor(in);
+        }
+        junctionTree = new Graph();
+        junctionTree.initialize(nodePotentials.length);
+        final int numSepSets = in.getInt();
+        for (int i = 0; i < numSepSets; i++) {
+            final Edge e = junctionTree.addEdge(in.getInt(), in.getInt());
+            sepSets.put(e, factory.readFactor(in));
+            preparedMultiplications.put(e, preparedOps[in.getInt()]);
+            preparedMultiplications.put(e.getBackEdge(), preparedOps[in.getInt()]);
+        }
+        determineConcernedClusters();
+        setQueryFactors();
+        for (int i = 0; i < preparedQueries.length; i++) {
+            preparedQueries[i] = preparedOps[in.getInt()];
+        }
+        prepareScratch();
+        // the factors were read with their initial values
+        storePotentialValues();
+    }
+
+    /**
+     * creates an inferer for the same network that shares the junction tree, the prepared operations and the initial
+     * potentials with this instance, but has its own potentials, evidence and beliefs. The copy can be used from a
+     * different thread than this instance, as long as neither of them is used to change the network.
+     */
+    public JunctionTreeAlgorithm copy() {
+        final JunctionTreeAlgorithm copy = new JunctionTreeAlgorithm();
+        copy.factory = factory;
+        copy.junctionTreeBuilder = junctionTreeBuilder;
+        copy.isIncrementalPropagation = isIncrementalPropagation;
+        copy.net = net;
+        copy.junctionTree = junctionTree;
+        copy.concernedClusters = concernedClusters;
+        copy.queryFactorReverseMapping = queryFactorReverseMapping;
+
+        copy.beliefs = new double[beliefs.length][];
+        for (int i = 0; i < beliefs.length; i++) {
+            copy.beliefs[i] = new double[beliefs[i].length];
+        }
+        copy.initializeFields(beliefs.length);
+
+        final IdentityHashMap<AbstractFactor, AbstractFactor> clones =
+                new IdentityHashMap<AbstractFactor, AbstractFactor>();
+        copy.nodePotentials = new AbstractFactor[nodePotentials.length];
+        for (int i = 0; i < nodePotentials.length; i++) {
+            copy.nodePotentials[i] = nodePotentials[i].clone();
+            clones.put(nodePotentials[i], copy.nodePotentials[i]);
+        }
+        for (final Entry<Edge, AbstractFactor> sepSet : sepSets.entrySet()) {
+            final AbstractFactor clone = sepSet.getValue().clone();
+            copy.sepSets.put(sepSet.getKey(), clone);
+            clones.put(sepSet.getValue(), clone);
+        }
+        for (int i = 0; i < queryFactors.length; i++) {
+            copy.queryFactors[i] = clones.get(queryFactors[i]);
+        }
+        // initial values are only read, so they can be shared
+        for (final Pair<AbstractFactor, IArrayWrapper> init : initializations) {
+            copy.initializations.add(newPair(clones.get(init.getFirst()), init.getSecond()));
+        }
+        // prepared operations are read-only as well
+        copy.preparedMultiplications = preparedMultiplications;
+        copy.preparedQueries = preparedQueries;
+
+        copy.scratchpad = new double[scratchpad.length];
+        copy.scratchpadWrapper = new DoubleArrayWrapper(copy.scratchpad);
+        return copy;
+    }
+
     @SuppressWarnings("unchecked")
     private void determineConcernedClusters() {
         concernedClusters = new int[queryFactors.length][];
@@ -348,8 +679,15 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
         sepSets = new HashMap<Edge, AbstractFactor>();
         preparedMultiplications = new IdentityHashMap<Graph.Edge, int[]>();
         initializations = new ArrayList<Pair<AbstractFactor, IArrayWrapper>>();
-        clustersHavingEvidence = new HashSet<Integer>();
+        clustersHavingEvidence = new BitSet();
+        visitedClusters = new BitSet();
+        skippedClusters = new BitSet();
         isObserved = new boolean[numNodes];
+        evidenceOutcomes = new int[numNodes];
+        Arrays.fill(evidenceOutcomes, -1);
+        observedNodes = new int[numNodes];
+        numObservedNodes = 0;
+        isEvidenceMapPrimary = true;
     }
 
     private JunctionTree buildJunctionTree(BayesNet net) {
@@ -469,13 +807,14 @@ public class JunctionTreeAlgorithm extends AbstractInferer {
             maxSize = Math.max(maxSize, sepSet.getValues().length());
         }
         scratchpad = new double[maxSize];
+        scratchpadWrapper = new DoubleArrayWrapper(scratchpad);
 
     }
 
     private void invokeInitialBeliefUpdate() {
 
-        collectEvidence(0, new HashSet<Integer>());
-        distributeEvidence(0, new HashSet<Integer>());
+        collectEvidence(0, new BitSet());
+        distributeEvidence(0, new BitSet());
     }
 
     private void initializePotentialValues() {
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2016 Darmstadt University of Technology.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.recommenders.jayes.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Length-prefixed arrays and strings in the byte order of {@link DataOutput}. Arrays are read with bulk gets from views
+ * of the buffer, so reading from a memory-mapped buffer does not go through the buffer element by element.
+ */
+public final class BufferUtils {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private BufferUtils() {
+
+    }
+
+    public static void writeInts(final DataOutput out, final int[] array) throws IOException {
+        out.writeInt(array.length);
+        for (final int i : array) {
+            out.writeInt(i);
+        }
+    }
+
+    public static int[] readInts(final ByteBuffer in) {
+        final int[] array = new int[in.getInt()];
+        in.asIntBuffer().get(array);
+        in.position(in.position() + array.length * 4);
+        return array;
+    }
+
+    public static void writeDoubles(final DataOutput out, final double[] array) throws IOException {
+        out.writeInt(array.length);
+        for (final double d : array) {
+            out.writeDouble(d);
+        }
+    }
+
+    public static double[] readDoubles(final ByteBuffer in) {
+        final double[] array = new double[in.getInt()];
+        in.asDoubleBuffer().get(array);
+        in.position(in.position() + array.length * 8);
+        return array;
+    }
+
+    public static void writeFloats(final DataOutput out, final float[] array) throws IOException {
+        out.writeInt(array.length);
+        for (final float f : array) {
+            out.writeFloat(f);
+        }
+    }
+
+    public static float[] readFloats(final ByteBuffer in) {
+        final float[] array = new float[in.getInt()];
+        in.asFloatBuffer().get(array);
+        in.position(in.position() + array.length * 4);
+        return array;
+    }
+
+    public static void writeString(final DataOutput out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(final ByteBuffer in) {
+        final byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, UTF8);
+    }
+}
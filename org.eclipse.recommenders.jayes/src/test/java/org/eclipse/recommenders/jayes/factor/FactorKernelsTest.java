@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2016 Darmstadt University of Technology.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.recommenders.jayes.factor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.eclipse.recommenders.jayes.factor.arraywrapper.DoubleArrayWrapper;
+import org.eclipse.recommenders.jayes.factor.arraywrapper.FloatArrayWrapper;
+import org.eclipse.recommenders.jayes.factor.arraywrapper.IArrayWrapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Compares the array kernels of dense factors with the generic loop over the array wrappers, which is used for
+ * factors that are not directly addressed. Both have to produce bit-identical results for every combination of
+ * precisions, in linear and in log scale, with and without selections.
+ */
+@RunWith(Parameterized.class)
+public class FactorKernelsTest {
+
+    // the dimensions are chosen so that the cuts contain runs with step 1 and with larger steps
+    private static final int[] IDS = { 0, 1, 2 };
+    private static final int[] DIMENSIONS = { 3, 4, 5 };
+    private static final int[][] SELECTIONS = { {}, { 1, 2 }, { 2, 3 }, { 0, 1, 2, 4 } };
+
+    private final boolean isFloatFactor;
+    private final boolean isFloatCompatible;
+    private final boolean isLogScale;
+
+    public FactorKernelsTest(String name, boolean isFloatFactor, boolean isFloatCompatible, boolean isLogScale) {
+        this.isFloatFactor = isFloatFactor;
+        this.isFloatCompatible = isFloatCompatible;
+        this.isLogScale = isLogScale;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { //
+                { "double * double", false, false, false }, //
+                { "float * float", true, true, false }, //
+                { "double * float", false, true, false }, //
+                { "float * double", true, false, false }, //
+                { "double * double (log)", false, false, true }, //
+                { "float * float (log)", true, true, true }, //
+                { "double * float (log)", false, true, true }, //
+                { "float * double (log)", true, false, true } });
+    }
+
+    @Test
+    public void multiplicationOfSubset() {
+        for (int[] selection : SELECTIONS) {
+            assertMultiplication(selection, 0, 2);
+        }
+    }
+
+    @Test
+    public void multiplicationOfSingleDimension() {
+        for (int[] selection : SELECTIONS) {
+            assertMultiplication(selection, 1);
+        }
+    }
+
+    @Test
+    public void marginalizationToSubset() {
+        for (int[] selection : SELECTIONS) {
+            assertMarginalization(selection, 0, 2);
+        }
+    }
+
+    @Test
+    public void marginalizationToSingleDimension() {
+        for (int[] selection : SELECTIONS) {
+            assertMarginalization(selection, 2);
+        }
+    }
+
+    private void assertMultiplication(int[] selection, int... compatibleIds) {
+        AbstractFactor kernel = createFactor(new DenseFactor(), selection);
+        AbstractFactor wrapper = createFactor(new WrapperFactor(), selection);
+        AbstractFactor compatible = createCompatible(compatibleIds);
+
+        kernel.multiplyCompatible(compatible);
+        wrapper.multiplyCompatible(compatible);
+
+        assertBitIdentical(wrapper.getValues(), kernel.getValues());
+    }
+
+    private void assertMarginalization(int[] selection, int... compatibleIds) {
+        AbstractFactor kernel = createFactor(new DenseFactor(), selection);
+        AbstractFactor wrapper = createFactor(new WrapperFactor(), selection);
+        AbstractFactor kernelSums = createCompatible(compatibleIds);
+        AbstractFactor wrapperSums = createCompatible(compatibleIds);
+
+        kernel.sumPrepared(kernelSums.getValues(), kernel.prepareMultiplication(kernelSums));
+        wrapper.sumPrepared(wrapperSums.getValues(), wrapper.prepareMultiplication(wrapperSums));
+
+        assertBitIdentical(wrapperSums.getValues(), kernelSums.getValues());
+    }
+
+    private AbstractFactor createFactor(AbstractFactor factor, int[] selection) {
+        factor.setDimensions(DIMENSIONS);
+        factor.setDimensionIDs(IDS);
+        factor.setValues(createValues(isFloatFactor, DIMENSIONS, 42));
+        factor.setLogScale(isLogScale);
+        for (int i = 0; i < selection.length; i += 2) {
+            factor.select(selection[i], selection[i + 1]);
+        }
+        return factor;
+    }
+
+    private AbstractFactor createCompatible(int... ids) {
+        int[] dimensions = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            dimensions[i] = DIMENSIONS[ids[i]];
+        }
+        AbstractFactor factor = new DenseFactor();
+        factor.setDimensions(dimensions);
+        factor.setDimensionIDs(ids);
+        factor.setValues(createValues(isFloatCompatible, dimensions, 7));
+        factor.setLogScale(isLogScale);
+        return factor;
+    }
+
+    private IArrayWrapper createValues(boolean isFloat, int[] dimensions, long seed) {
+        int length = 1;
+        for (int d : dimensions) {
+            length *= d;
+        }
+        Random rnd = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            // probabilities, or their logarithms in log scale
+            double p = 0.01 + rnd.nextDouble();
+            values[i] = isLogScale ? Math.log(p) : p;
+        }
+        return isFloat ? new FloatArrayWrapper(toFloats(values)) : new DoubleArrayWrapper(values);
+    }
+
+    private static float[] toFloats(double[] values) {
+        float[] floats = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            floats[i] = (float) values[i];
+        }
+        return floats;
+    }
+
+    private static void assertBitIdentical(IArrayWrapper expected, IArrayWrapper actual) {
+        assertEquals(expected.length(), actual.length());
+        for (int i = 0; i < expected.length(); i++) {
+            long e = Double.doubleToRawLongBits(expected.getDouble(i));
+            long a = Double.doubleToRawLongBits(actual.getDouble(i));
+            assertEquals("position " + i, e, a);
+        }
+    }
+
+    /**
+     * dense factor that uses the generic loop over the array wrappers, i.e., the behavior before the kernels
+     */
+    private static class WrapperFactor extends DenseFactor {
+        @Override
+        protected boolean isDirectlyAddressed() {
+            return false;
+        }
+    }
+}